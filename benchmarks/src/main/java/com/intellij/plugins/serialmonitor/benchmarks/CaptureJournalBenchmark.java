@@ -0,0 +1,59 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.capture.CaptureDirection;
+import com.intellij.plugins.serialmonitor.capture.CaptureJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The receiving side of "Capture raw data": {@link CaptureJournal#append} of every packet as one record. The journal
+ * is started over every 256 MiB, which keeps the disk use of a run bounded and includes the mapping of new windows.
+ * <p>
+ * One operation appends the whole {@link Payload}, so ops/s is MiB/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaptureJournalBenchmark {
+
+    private static final long JOURNAL_LIMIT = 256 * 1024 * 1024;
+
+    private Path directory;
+    private CaptureJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("serial-monitor-captures");
+        journal = CaptureJournal.create(directory, "benchmark", ForkJoinPool.commonPool());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.deleteIfExists(journal.getPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long append(Payload payload) throws IOException {
+        if (journal.size() >= JOURNAL_LIMIT) {
+            journal.close();
+            Files.deleteIfExists(journal.getPath());
+            journal = CaptureJournal.create(directory, "benchmark", ForkJoinPool.commonPool());
+        }
+        byte[] data = payload.data();
+        long nanoTime = System.nanoTime();
+        for (int i = 0, count = payload.packetCount(); i < count; i++) {
+            journal.append(CaptureDirection.RX, nanoTime, data, payload.packetOffset(i), payload.packetLength(i));
+        }
+        return journal.size();
+    }
+}
@@ -0,0 +1,213 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.OverflowPolicy;
+import com.intellij.plugins.serialmonitor.ui.console.JeditermConsoleView;
+import com.intellij.plugins.serialmonitor.ui.console.TerminalFeed;
+import org.apache.commons.io.input.buffer.CircularByteBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained throughput of the handoff between the serial receiving thread and the terminal emulator thread.
+ * <p>
+ * A background thread produces the packets of the {@link Payload}, the benchmark thread consumes them through
+ * {@code readChars} the same way the emulator does. One operation moves 1 MiB, so ops/s is MiB/s.
+ * <ul>
+ *     <li>{@code monitor} is the former implementation, as it was: a {@link CircularByteBuffer} guarded by one
+ *     monitor with wait/notify, bytes which do not fit are dropped, and an {@link InputStreamReader} read under the
+ *     monitor once it is ready, which fills its buffer with batched reads;</li>
+ *     <li>{@code block} and {@code drop} are the {@link TerminalFeed} of {@link JeditermConsoleView} as it ships,
+ *     with {@link OverflowPolicy#BLOCK} and {@link OverflowPolicy#DROP}, decoding ISO-8859-1.</li>
+ * </ul>
+ * When bytes are dropped, the producer runs ahead and the benchmark measures what the consumer gets through.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConsoleHandoffBenchmark {
+
+    private static final int BUFFER_SIZE = 128 * 1024;
+    private static final int BYTES_PER_OPERATION = 1024 * 1024;
+
+    @Param({"monitor", "block", "drop"})
+    public String handoff;
+
+    private Handoff channel;
+    private Thread producer;
+    private volatile boolean running;
+    private final char[] chars = new char[8192];
+
+    @Setup(Level.Trial)
+    public void setUp(Payload payload) {
+        channel = switch (handoff) {
+            case "monitor" -> new MonitorHandoff();
+            case "block" -> new FeedHandoff(OverflowPolicy.BLOCK);
+            case "drop" -> new FeedHandoff(OverflowPolicy.DROP);
+            default -> throw new IllegalArgumentException("Unknown handoff: " + handoff);
+        };
+        byte[] data = payload.data();
+        running = true;
+        producer = new Thread(() -> {
+            while (running) {
+                for (int i = 0, count = payload.packetCount(); i < count && running; i++) {
+                    channel.write(data, payload.packetOffset(i), payload.packetLength(i));
+                }
+            }
+        }, "Benchmark Producer");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        channel.close();
+        producer.interrupt();
+        producer.join(1000);
+    }
+
+    @Benchmark
+    public int transfer() throws IOException {
+        int remaining = BYTES_PER_OPERATION;
+        while (remaining > 0) {
+            remaining -= channel.readChars(chars, 0, Math.min(chars.length, remaining));
+        }
+        return remaining;
+    }
+
+    private interface Handoff {
+        void write(byte[] data, int offset, int length);
+
+        int readChars(char[] target, int offset, int length) throws IOException;
+
+        default void close() {
+        }
+    }
+
+    /**
+     * The handoff of {@code JeditermConsoleView} before the ring buffer, with only the pause check left out.
+     */
+    private static final class MonitorHandoff implements Handoff {
+        private final CircularByteBuffer bytesBuffer = new CircularByteBuffer(BUFFER_SIZE);
+        private final Object lock = new Object();
+        private final Reader bufferReader;
+
+        private final InputStream bytesStream = new InputStream() {
+            @Override
+            public int read() {
+                synchronized (lock) {
+                    while (!Thread.interrupted() && !bytesBuffer.hasBytes()) {
+                        try {
+                            lock.wait();
+                        }
+                        catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                    return bytesBuffer.hasBytes() ? bytesBuffer.read() & 0xFF : -1;
+                }
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                synchronized (lock) {
+                    while (!Thread.interrupted() && !bytesBuffer.hasBytes()) {
+                        try {
+                            lock.wait();
+                        }
+                        catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                    int toRead = Math.min(length, bytesBuffer.getCurrentNumberOfBytes());
+                    bytesBuffer.read(buffer, offset, toRead);
+                    return toRead;
+                }
+            }
+
+            @Override
+            public int available() {
+                synchronized (lock) {
+                    return bytesBuffer.getCurrentNumberOfBytes();
+                }
+            }
+        };
+
+        private MonitorHandoff() {
+            bufferReader = new InputStreamReader(bytesStream, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) {
+            synchronized (lock) {
+                int count = Math.min(length, bytesBuffer.getSpace());
+                if (count > 0) {
+                    bytesBuffer.add(data, offset, count);
+                    lock.notify();
+                }
+            }
+        }
+
+        @Override
+        public int readChars(char[] buf, int offset, int length) throws IOException {
+            synchronized (lock) {
+                while (true) {
+                    if (bufferReader.ready()) {
+                        return bufferReader.read(buf, offset, length);
+                    }
+                    try {
+                        lock.wait();
+                    }
+                    catch (InterruptedException ignored) {
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class FeedHandoff implements Handoff {
+        private static final byte[] MARKER = "\r\n[bytes dropped]\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        private final TerminalFeed feed = new TerminalFeed(new TerminalFeed.Markers() {
+            @Override
+            public byte[] bytesDropped(long count, long total) {
+                return MARKER;
+            }
+
+            @Override
+            public byte[] bytesSkipped(long count) {
+                return MARKER;
+            }
+        });
+
+        private FeedHandoff(OverflowPolicy policy) {
+            feed.reconnect(StandardCharsets.ISO_8859_1, policy);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) {
+            feed.output(data, offset, length, System.nanoTime());
+        }
+
+        @Override
+        public int readChars(char[] target, int offset, int length) {
+            return feed.readChars(target, offset, length);
+        }
+
+        @Override
+        public void close() {
+            feed.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.ui.console.SerialCharDecoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of received packets into the char buffer of the emulator, the way {@code JeditermConsoleView.readChars}
+ * does it: each packet is appended to the bytes left from the previous one and decoded as far as possible.
+ * <ul>
+ *     <li>{@code jdk} is a plain {@link CharsetDecoder} with replacement;</li>
+ *     <li>{@code serial} is {@link SerialCharDecoder}.</li>
+ * </ul>
+ * {@code charset} may be any name offered by the encoding combo box of the settings, the defaults cover the fast
+ * paths and two table-driven charsets. One operation decodes the whole {@link Payload}, so ops/s is MiB/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecoderBenchmark {
+
+    private static final int DECODE_BUFFER_SIZE = 8192;
+
+    @Param({"US-ASCII", "ISO-8859-1", "UTF-8", "windows-1252", "Shift_JIS"})
+    public String charset;
+
+    @Param({"jdk", "serial"})
+    public String decoder;
+
+    private Payload payload;
+    private Decoder stage;
+    private final ByteBuffer input = ByteBuffer.allocate(DECODE_BUFFER_SIZE);
+    private final CharBuffer output = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+
+    @Setup(Level.Trial)
+    public void setUp(Payload payload) {
+        this.payload = payload;
+        Charset selected = Charset.forName(charset);
+        if ("jdk".equals(decoder)) {
+            CharsetDecoder jdkDecoder = selected.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            stage = (in, out) -> jdkDecoder.decode(in, out, false);
+        }
+        else {
+            SerialCharDecoder serialDecoder = new SerialCharDecoder(selected);
+            stage = serialDecoder::decode;
+        }
+    }
+
+    @Benchmark
+    public int decode() {
+        byte[] data = payload.data();
+        int chars = 0;
+        input.clear().flip();
+        for (int i = 0, count = payload.packetCount(); i < count; i++) {
+            int offset = payload.packetOffset(i);
+            int length = payload.packetLength(i);
+            while (length > 0) {
+                input.compact();
+                int toPut = Math.min(length, input.remaining());
+                input.put(data, offset, toPut);
+                input.flip();
+                offset += toPut;
+                length -= toPut;
+                do {
+                    output.clear();
+                    stage.decode(input, output);
+                    chars += output.position();
+                }
+                while (output.position() > 0 && input.hasRemaining());
+            }
+        }
+        return chars;
+    }
+
+    private interface Decoder {
+        void decode(ByteBuffer input, CharBuffer output);
+    }
+}
@@ -0,0 +1,41 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.ui.console.CustomJeditermEmulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CustomJeditermEmulator#processChar} writing into a {@link HeadlessTerminal} of 120x40 cells, with and
+ * without timestamps.
+ * <p>
+ * The payload is fed as ISO-8859-1 chars, one per byte. One operation processes the whole {@link Payload},
+ * so ops/s is MiB/s. Packet boundaries do not matter here, the emulator sees a continuous stream.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmulatorBenchmark {
+
+    @Param({"false", "true"})
+    public boolean timestamps;
+
+    private char[] chars;
+    private HeadlessTerminal terminal;
+
+    @Setup(Level.Trial)
+    public void setUp(Payload payload) {
+        chars = payload.chars();
+        terminal = new HeadlessTerminal(120, 40);
+    }
+
+    @Benchmark
+    public int process() throws IOException {
+        terminal.process(chars, timestamps);
+        return terminal.getTerminal().getCursorY();
+    }
+}
@@ -0,0 +1,53 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.FrameFormat;
+import com.intellij.plugins.serialmonitor.SerialPortProfile;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoder;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoders;
+import com.intellij.plugins.serialmonitor.framing.FrameRenderer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FrameDecoder#decode} of the payload per framing, alone and with the {@link FrameRenderer} rows of the text
+ * view. The payloads are not encoded for the framing, so the frames are whatever the bytes make of them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrameDecoderBenchmark {
+
+    @Param({"LINE", "SLIP", "COBS", "LENGTH_U16_BE"})
+    public FrameFormat format;
+
+    private FrameDecoder decoder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SerialPortProfile profile = new SerialPortProfile();
+        profile.setFraming(format);
+        decoder = FrameDecoders.create(profile);
+    }
+
+    @Benchmark
+    public void decode(Payload payload, Blackhole blackhole) {
+        process(payload, (buffer, offset, length, nanoTime) -> blackhole.consume(length));
+    }
+
+    @Benchmark
+    public void decodeAndRender(Payload payload, Blackhole blackhole) {
+        process(payload, new FrameRenderer(false, (buffer, offset, length, nanoTime) -> blackhole.consume(length)));
+    }
+
+    private void process(Payload payload, FrameDecoder.Sink sink) {
+        byte[] data = payload.data();
+        for (int i = 0, count = payload.packetCount(); i < count; i++) {
+            decoder.decode(data, payload.packetOffset(i), payload.packetLength(i), 0, sink);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.ui.console.CustomJeditermEmulator;
+import com.jediterm.terminal.ArrayTerminalDataStream;
+import com.jediterm.terminal.TerminalDisplay;
+import com.jediterm.terminal.model.JediTerminal;
+import com.jediterm.terminal.model.StyleState;
+import com.jediterm.terminal.model.TerminalTextBuffer;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+
+/**
+ * A terminal with a real {@link TerminalTextBuffer} and a display proxy doing nothing, so painting is not measured.
+ */
+public final class HeadlessTerminal {
+
+    private final TerminalTextBuffer textBuffer;
+    private final JediTerminal terminal;
+
+    public HeadlessTerminal(int width, int height) {
+        StyleState styleState = new StyleState();
+        textBuffer = new TerminalTextBuffer(width, height, styleState);
+        terminal = new JediTerminal(createDisplay(), textBuffer, styleState);
+    }
+
+    public TerminalTextBuffer getTextBuffer() {
+        return textBuffer;
+    }
+
+    public JediTerminal getTerminal() {
+        return terminal;
+    }
+
+    /**
+     * Runs the chars through a {@link CustomJeditermEmulator} set up the way the console view does for CR/LF profiles.
+     */
+    public void process(char[] chars, boolean timestamped) throws IOException {
+        CustomJeditermEmulator emulator =
+            new CustomJeditermEmulator(new ArrayTerminalDataStream(chars), terminal, System::nanoTime);
+        emulator.setNewLine(SerialProfileService.NewLine.CRLF);
+        emulator.setTimestamped(timestamped);
+        while (emulator.hasNext()) {
+            emulator.next();
+        }
+    }
+
+    private static TerminalDisplay createDisplay() {
+        return (TerminalDisplay) Proxy.newProxyInstance(
+            HeadlessTerminal.class.getClassLoader(),
+            new Class<?>[]{TerminalDisplay.class},
+            (proxy, method, args) -> {
+                Class<?> type = method.getReturnType();
+                // the zero value of primitive return types
+                return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+            });
+    }
+}
@@ -0,0 +1,76 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.ui.console.HexByteStore;
+import com.intellij.plugins.serialmonitor.ui.console.HexConsoleView;
+import com.intellij.plugins.serialmonitor.ui.console.HexFeed;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The receiving side of the hex view: {@link HexConsoleView#output} hands every packet to its {@link HexFeed}, which
+ * appends it to a {@link HexByteStore} and schedules a refresh at most once per frame. The scheduled refresh only
+ * allows the next one, the view itself needs the platform. The store is limited to 4 MiB, so it evicts chunks the
+ * way a long session does.
+ * <p>
+ * One operation appends the whole {@link Payload}, so ops/s is MiB/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HexStoreBenchmark {
+
+    private static final long STORE_LIMIT = 4 * 1024 * 1024;
+
+    private ScheduledExecutorService scheduler;
+    private HexFeed feed;
+    private HexByteStore store;
+    private final byte[] row = new byte[HexConsoleView.LINE_LENGTH];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        feed = new HexFeed(STORE_LIMIT, scheduler, () -> feed.refreshStarted());
+        store = feed.getStore();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public long append(Payload payload) {
+        byte[] data = payload.data();
+        for (int i = 0, count = payload.packetCount(); i < count; i++) {
+            feed.output(data, payload.packetOffset(i), payload.packetLength(i));
+        }
+        return store.getEndPosition();
+    }
+
+    /**
+     * Appending while a screen of rows is read back after every 4 KiB, like repaints of a following view.
+     */
+    @Benchmark
+    public long appendAndPaint(Payload payload) {
+        byte[] data = payload.data();
+        long painted = 0;
+        long nextPaint = store.getEndPosition();
+        for (int i = 0, count = payload.packetCount(); i < count; i++) {
+            feed.output(data, payload.packetOffset(i), payload.packetLength(i));
+            long end = store.getEndPosition();
+            if (end >= nextPaint) {
+                for (int r = 0; r < 40; r++) {
+                    painted += store.read(end - (long) (40 - r) * row.length, row, 0, row.length);
+                }
+                nextPaint = end + 4096;
+            }
+        }
+        return painted;
+    }
+}
@@ -0,0 +1,195 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.capture.CaptureDirection;
+import com.intellij.plugins.serialmonitor.capture.CaptureReplay;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Received data shared by the suites: 1 MiB of bytes split into packets the way a port delivers them.
+ * <p>
+ * {@code packet}:
+ * <ul>
+ *     <li>{@code usb} - 1-8 byte packets, as full-speed USB CDC adapters deliver slow streams;</li>
+ *     <li>{@code burst} - 4 KiB packets of a saturated port.</li>
+ * </ul>
+ * {@code content}:
+ * <ul>
+ *     <li>{@code ascii} - printable text in 80 column lines;</li>
+ *     <li>{@code binary} - uniformly random bytes;</li>
+ *     <li>{@code crlf} - short log lines, a CR/LF every 8 chars on average;</li>
+ *     <li>{@code utf8} - UTF-8 text lines mixing ASCII with 2, 3 and 4 byte sequences;</li>
+ *     <li>{@code capture} - the received data of the capture journal in {@value #CAPTURE_PROPERTY}, repeated up to
+ *     the size, in the recorded packets regardless of {@code packet}. Not run by default.</li>
+ * </ul>
+ * The data is generated from a fixed seed, so runs are comparable.
+ */
+@State(Scope.Benchmark)
+public class Payload {
+
+    public static final int SIZE = 1024 * 1024;
+    /**
+     * Capture journal of {@code content=capture}, to be passed to the forked JVM:
+     * {@code -jvmArgsAppend -Dserial.monitor.benchmark.capture=<file>}.
+     */
+    public static final String CAPTURE_PROPERTY = "serial.monitor.benchmark.capture";
+
+    private static final byte[] LOG_LINE = "T=21.5 H=40% ".getBytes(StandardCharsets.US_ASCII);
+    private static final String[] WORDS = {
+        "value", "Temperatur", "\u0442\u0435\u043c\u043f\u0435\u0440\u0430\u0442\u0443\u0440\u0430",
+        "\u6e29\u5ea6", "\u00b0C", "\u2192", "\ud83d\ude80", "OK"
+    };
+
+    @Param({"usb", "burst"})
+    public String packet;
+
+    @Param({"ascii", "binary", "crlf", "utf8"})
+    public String content;
+
+    private byte[] data;
+    // Offsets of the packets in data, the last element is data.length
+    private int[] packetStarts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if ("capture".equals(content)) {
+            capture();
+            return;
+        }
+        Random random = new Random(42);
+        data = switch (content) {
+            case "ascii" -> ascii(random);
+            case "binary" -> binary(random);
+            case "crlf" -> crlf(random);
+            case "utf8" -> utf8(random);
+            default -> throw new IllegalArgumentException("Unknown content: " + content);
+        };
+        packetStarts = switch (packet) {
+            case "usb" -> split(random, 1, 8);
+            case "burst" -> split(random, 4096, 4096);
+            default -> throw new IllegalArgumentException("Unknown packet: " + packet);
+        };
+    }
+
+    public byte[] data() {
+        return data;
+    }
+
+    public int packetCount() {
+        return packetStarts.length - 1;
+    }
+
+    public int packetOffset(int index) {
+        return packetStarts[index];
+    }
+
+    public int packetLength(int index) {
+        return packetStarts[index + 1] - packetStarts[index];
+    }
+
+    /**
+     * The data as the ISO-8859-1 chars the emulator gets for it, one char per byte.
+     */
+    public char[] chars() {
+        char[] chars = new char[data.length];
+        for (int i = 0; i < data.length; i++) {
+            chars[i] = (char) (data[i] & 0xff);
+        }
+        return chars;
+    }
+
+    private static byte[] ascii(Random random) {
+        byte[] bytes = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            bytes[i] = i % 80 == 78 ? (byte) '\r' : i % 80 == 79 ? (byte) '\n' : (byte) (' ' + random.nextInt(95));
+        }
+        return bytes;
+    }
+
+    private static byte[] binary(Random random) {
+        byte[] bytes = new byte[SIZE];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] crlf(Random random) {
+        byte[] bytes = new byte[SIZE];
+        int position = 0;
+        while (position < SIZE) {
+            int length = Math.min(random.nextInt(LOG_LINE.length), SIZE - position);
+            System.arraycopy(LOG_LINE, 0, bytes, position, length);
+            position += length;
+            if (position < SIZE) {
+                bytes[position++] = '\r';
+            }
+            if (position < SIZE) {
+                bytes[position++] = '\n';
+            }
+        }
+        return bytes;
+    }
+
+    private static byte[] utf8(Random random) {
+        byte[] bytes = new byte[SIZE];
+        int position = 0;
+        int lineLength = 0;
+        while (true) {
+            boolean lineEnd = lineLength > 60;
+            byte[] word = (lineEnd ? "\r\n" : WORDS[random.nextInt(WORDS.length)] + ' ').getBytes(StandardCharsets.UTF_8);
+            if (position + word.length > SIZE) {
+                break;
+            }
+            System.arraycopy(word, 0, bytes, position, word.length);
+            position += word.length;
+            lineLength = lineEnd ? 0 : lineLength + word.length;
+        }
+        // whole sequences only, the rest is padded with spaces
+        Arrays.fill(bytes, position, SIZE, (byte) ' ');
+        return bytes;
+    }
+
+    private void capture() throws IOException {
+        String journal = System.getProperty(CAPTURE_PROPERTY);
+        if (journal == null) {
+            throw new IllegalArgumentException("content=capture needs -D" + CAPTURE_PROPERTY + "=<journal>");
+        }
+        CaptureReplay replay = new CaptureReplay(Path.of(journal), CaptureReplay.AS_FAST_AS_POSSIBLE,
+            EnumSet.of(CaptureDirection.RX));
+        byte[] bytes = new byte[SIZE];
+        List<Integer> starts = new ArrayList<>();
+        int[] position = {0};
+        while (position[0] < SIZE) {
+            int before = position[0];
+            replay.replay((buffer, offset, length, nanoTime) -> {
+                int count = Math.min(length, SIZE - position[0]);
+                starts.add(position[0]);
+                System.arraycopy(buffer, offset, bytes, position[0], count);
+                position[0] += count;
+            }, () -> position[0] == SIZE);
+            if (position[0] == before) {
+                throw new IllegalArgumentException("No received data in " + journal);
+            }
+        }
+        starts.add(SIZE);
+        data = bytes;
+        packetStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] split(Random random, int minLength, int maxLength) {
+        int[] starts = new int[SIZE / minLength + 1];
+        int count = 0;
+        int position = 0;
+        while (position < SIZE) {
+            starts[count++] = position;
+            position = Math.min(SIZE, position + minLength + random.nextInt(maxLength - minLength + 1));
+        }
+        starts[count++] = SIZE;
+        int[] result = new int[count];
+        System.arraycopy(starts, 0, result, 0, count);
+        return result;
+    }
+}
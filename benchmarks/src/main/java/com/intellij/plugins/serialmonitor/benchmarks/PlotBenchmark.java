@@ -0,0 +1,80 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoder;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoders;
+import com.intellij.plugins.serialmonitor.plot.Lttb;
+import com.intellij.plugins.serialmonitor.plot.NumericLineParser;
+import com.intellij.plugins.serialmonitor.plot.SampleBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The plot path: {@code parse} splits 1 MiB of Arduino plotter style lines ({@code a:1.234,b:-56.7,c:8900}) and adds
+ * their samples to a {@link SampleBuffer}, {@code downsample} reduces a column of a full ring of 1M samples to the
+ * 1500 points of a wide plot, as every repaint of the "all samples" plot does.
+ * <p>
+ * The lines are generated instead of taken from {@link Payload}, whose contents are not numeric.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlotBenchmark {
+
+    private static final int DATA_SIZE = 1024 * 1024;
+    private static final int CHUNK_SIZE = 64;
+    private static final int RING_SIZE = 1 << 20;
+    private static final int PLOT_WIDTH = 1500;
+
+    private byte[] lines;
+    private final FrameDecoder decoder = FrameDecoders.lines(SerialProfileService.NewLine.LF);
+    private final NumericLineParser parser = new NumericLineParser(SampleBuffer.MAX_COLUMNS);
+    private final double[] values = new double[SampleBuffer.MAX_COLUMNS];
+    private final SampleBuffer parsed = new SampleBuffer(RING_SIZE);
+    private final SampleBuffer full = new SampleBuffer(RING_SIZE);
+    private final double[] outX = new double[PLOT_WIDTH];
+    private final double[] outY = new double[PLOT_WIDTH];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(DATA_SIZE + 64);
+        while (out.size() < DATA_SIZE) {
+            String line = String.format(Locale.ROOT, "a:%.3f,b:%.1f,c:%d\r\n",
+                random.nextGaussian(), random.nextGaussian() * 100, random.nextInt(10_000));
+            out.writeBytes(line.getBytes(StandardCharsets.US_ASCII));
+        }
+        lines = out.toByteArray();
+        double[] sample = new double[1];
+        for (int i = 0; i < RING_SIZE; i++) {
+            sample[0] = Math.sin(i / 1000.0) + random.nextGaussian() * 0.1;
+            full.add(sample, 1);
+        }
+    }
+
+    @Benchmark
+    public long parse() {
+        for (int offset = 0; offset < lines.length; offset += CHUNK_SIZE) {
+            decoder.decode(lines, offset, Math.min(CHUNK_SIZE, lines.length - offset), 0, (buffer, start, length, nanoTime) -> {
+                int columns = parser.parse(buffer, start, length, values);
+                if (columns > 0) {
+                    parsed.add(values, columns);
+                }
+            });
+        }
+        return parsed.getCount();
+    }
+
+    @Benchmark
+    public int downsample() {
+        return Lttb.downsample(full.getColumn(0), full.getMask(), full.getStart(), full.getCount(), PLOT_WIDTH, outX, outY);
+    }
+}
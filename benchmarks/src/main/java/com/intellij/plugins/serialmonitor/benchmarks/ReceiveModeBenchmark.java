@@ -0,0 +1,71 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.SerialPortProfile;
+import com.intellij.plugins.serialmonitor.service.SerialPort;
+import com.intellij.plugins.serialmonitor.service.SerialPortException;
+import com.intellij.plugins.serialmonitor.simulator.DataGenerator;
+import com.intellij.plugins.serialmonitor.simulator.SimulatedSerialPortProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Receiving from a port in each {@link SerialPort.ReceiveMode}: a simulated device sends random data at the line
+ * speed of {@code baud}, delivered in slices of a millisecond of line time like USB adapters do, about 92 bytes at
+ * 921600 baud and 1200 bytes at 12 Mbaud. {@code EVENT} allocates an array per slice as jSerialComm events do,
+ * {@code READER_THREAD} reuses one buffer.
+ * <p>
+ * One operation receives 1 MiB, so ops/s is MiB/s and is bounded by the baud rate; the interesting result is
+ * {@code gc.alloc.rate.norm} of {@code -prof gc}, which counts the allocations of the delivery thread as well.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReceiveModeBenchmark {
+
+    private static final String PORT_NAME = "benchmark";
+
+    @Param({"EVENT", "READER_THREAD"})
+    public SerialPort.ReceiveMode mode;
+
+    @Param({"921600", "12000000"})
+    public int baud;
+
+    private SerialPort port;
+    private volatile long received;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SerialPortException {
+        SimulatedSerialPortProvider provider = new SimulatedSerialPortProvider();
+        provider.addDevice(PORT_NAME, DataGenerator.random(42));
+        SerialPortProfile profile = new SerialPortProfile();
+        profile.setPortName(PORT_NAME);
+        profile.setBaudRate(baud);
+        port = provider.createPort(PORT_NAME);
+        port.connect(profile, new SerialPort.SerialPortListener() {
+            @Override
+            public void onDataReceived(byte[] buffer, int offset, int length) {
+                // only the delivery thread writes
+                received += length;
+            }
+        }, false, false, mode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SerialPortException {
+        port.disconnect();
+    }
+
+    @Benchmark
+    public long receive() {
+        long target = received + Payload.SIZE;
+        while (received < target) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return received;
+    }
+}
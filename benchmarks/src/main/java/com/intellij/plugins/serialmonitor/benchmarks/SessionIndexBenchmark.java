@@ -0,0 +1,80 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.search.SearchQuery;
+import com.intellij.plugins.serialmonitor.search.SessionIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The session search: {@link SessionIndex#append} with the indexing of the full blocks, done in the calling thread
+ * here, and searches over a history of 64 payloads, 64 MiB. The searched strings do not occur in the payloads, so a
+ * search costs the trigram lookup plus the scan of the blocks which have all trigrams of the query. Blocks of
+ * {@code content=binary} have too many distinct trigrams to be indexed, so their searches scan the whole history.
+ * <p>
+ * One {@code append} operation appends the whole {@link Payload}, so ops/s is MiB/s. The history file of
+ * {@code append} is recreated for every iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionIndexBenchmark {
+
+    private static final int HISTORY_PAYLOADS = 64;
+    private static final SearchQuery LITERAL = new SearchQuery("assertion failed", false, true);
+    private static final SearchQuery REGEX = new SearchQuery("overrun at \\d+ bytes", true, false);
+
+    private SessionIndex history;
+    private SessionIndex appended;
+
+    @Setup(Level.Trial)
+    public void setUpHistory(Payload payload) throws IOException {
+        history = new SessionIndex(Runnable::run, Long.MAX_VALUE);
+        for (int i = 0; i < HISTORY_PAYLOADS; i++) {
+            append(history, payload);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpAppend() throws IOException {
+        appended = new SessionIndex(Runnable::run, Long.MAX_VALUE);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownAppend() throws IOException {
+        appended.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownHistory() throws IOException {
+        history.close();
+    }
+
+    @Benchmark
+    public long append(Payload payload) {
+        append(appended, payload);
+        return appended.size();
+    }
+
+    @Benchmark
+    public int searchLiteral() throws IOException {
+        return history.search(LITERAL, StandardCharsets.UTF_8, 1000, () -> false).getHits().size();
+    }
+
+    @Benchmark
+    public int searchRegex() throws IOException {
+        return history.search(REGEX, StandardCharsets.UTF_8, 1000, () -> false).getHits().size();
+    }
+
+    private static void append(SessionIndex index, Payload payload) {
+        byte[] data = payload.data();
+        for (int i = 0, count = payload.packetCount(); i < count; i++) {
+            index.append(data, payload.packetOffset(i), payload.packetLength(i));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.telemetry.FieldStats;
+import com.intellij.plugins.serialmonitor.telemetry.TelemetryRecorder;
+import com.intellij.plugins.serialmonitor.telemetry.TelemetryStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The telemetry path: {@code record} splits 1 MiB of {@code key=value} lines ({@code temp=21.53 hum=40.1 rpm=1200})
+ * into a {@link TelemetryStore}, {@code aggregate} computes the statistics of a window of half of a store of 1M rows
+ * whose older half is on disk, and {@code export} writes all of its rows as CSV.
+ * <p>
+ * The lines are generated instead of taken from {@link Payload}, whose contents are not numeric. The store of
+ * {@code record} keeps 16 MiB and drops older rows, so that its cost does not grow with the iterations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TelemetryBenchmark {
+
+    private static final int DATA_SIZE = 1024 * 1024;
+    private static final int CHUNK_SIZE = 64;
+    private static final int STORE_ROWS = 1 << 20;
+    // Rows are 1 ms apart
+    private static final long ROW_MICROS = 1000;
+
+    private byte[] lines;
+    private TelemetryStore recorded;
+    private TelemetryRecorder recorder;
+    private TelemetryStore store;
+    private Path directory;
+    private Path exported;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(DATA_SIZE + 64);
+        while (out.size() < DATA_SIZE) {
+            String line = String.format(Locale.ROOT, "temp=%.2f hum=%.1f rpm=%d\r\n",
+                20 + random.nextGaussian(), 40 + random.nextGaussian() * 5, 1000 + random.nextInt(500));
+            out.writeBytes(line.getBytes(StandardCharsets.US_ASCII));
+        }
+        lines = out.toByteArray();
+        directory = Files.createTempDirectory("telemetry-benchmark");
+        recorded = new TelemetryStore(Runnable::run, 16 << 20, 0, directory);
+        recorder = new TelemetryRecorder(recorded, TelemetryRecorder.Naming.KEYS, SerialProfileService.NewLine.CRLF);
+
+        // about 32 bytes a row, half of them in memory, written before the measurement
+        store = new TelemetryStore(Runnable::run, STORE_ROWS * 16L, 1L << 30, directory);
+        int[] fields = {store.field("temp"), store.field("hum"), store.field("rpm")};
+        double[] values = new double[fields.length];
+        for (int i = 0; i < STORE_ROWS; i++) {
+            values[0] = 20 + random.nextGaussian();
+            values[1] = Math.rint(400 + random.nextGaussian() * 50) / 10;
+            values[2] = 1000 + random.nextInt(500);
+            store.append(i * ROW_MICROS, fields, values, values.length);
+        }
+        exported = Files.createTempFile("telemetry-benchmark", ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        recorded.close();
+        store.close();
+        Files.deleteIfExists(directory);
+        Files.deleteIfExists(exported);
+    }
+
+    @Benchmark
+    public long record() {
+        for (int offset = 0; offset < lines.length; offset += CHUNK_SIZE) {
+            recorder.received(lines, offset, Math.min(CHUNK_SIZE, lines.length - offset), System.nanoTime());
+        }
+        return recorded.getRowCount();
+    }
+
+    @Benchmark
+    public double aggregate() throws IOException {
+        List<FieldStats> stats = store.aggregate(STORE_ROWS / 4 * ROW_MICROS + 1, STORE_ROWS * 3 / 4 * ROW_MICROS + 1);
+        return stats.get(0).getAverage();
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        return store.exportCsv(exported, Long.MIN_VALUE, Long.MAX_VALUE, () -> false);
+    }
+}
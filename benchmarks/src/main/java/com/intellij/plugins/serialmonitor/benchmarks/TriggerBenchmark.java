@@ -0,0 +1,63 @@
+package com.intellij.plugins.serialmonitor.benchmarks;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.SerialTrigger;
+import com.intellij.plugins.serialmonitor.trigger.TriggerEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TriggerEngine#process} over the payload with {@code count} highlighted literal triggers, half of them
+ * case-insensitive, and with a regular expression trigger in addition. The literals do not occur in the payloads,
+ * so this measures the scan and the hold back of the bytes which may start a match.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TriggerBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int count;
+
+    private TriggerEngine literals;
+    private TriggerEngine withRegex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<SerialTrigger> triggers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            triggers.add(new SerialTrigger("fault code " + i + "!", true, false, i % 2 == 0, true, false, false, ""));
+        }
+        literals = new TriggerEngine(triggers, StandardCharsets.UTF_8, SerialProfileService.NewLine.LF);
+        triggers.add(new SerialTrigger("overrun at \\d+ bytes", true, true, false, false, false, false, ""));
+        withRegex = new TriggerEngine(triggers, StandardCharsets.UTF_8, SerialProfileService.NewLine.LF);
+    }
+
+    @Benchmark
+    public void literals(Payload payload, Blackhole blackhole) {
+        process(literals, payload, blackhole);
+    }
+
+    @Benchmark
+    public void withRegex(Payload payload, Blackhole blackhole) {
+        process(withRegex, payload, blackhole);
+    }
+
+    private static void process(TriggerEngine engine, Payload payload, Blackhole blackhole) {
+        TriggerEngine.Output output = (buffer, offset, length, nanoTime) -> blackhole.consume(length);
+        TriggerEngine.Listener listener = (trigger, nanoTime) -> blackhole.consume(trigger);
+        byte[] data = payload.data();
+        for (int i = 0, count = payload.packetCount(); i < count; i++) {
+            engine.process(data, payload.packetOffset(i), payload.packetLength(i), 0, output, listener);
+        }
+        engine.flush(output);
+    }
+}
@@ -0,0 +1,79 @@
+package com.intellij.plugins.serialmonitor.ui.actions;
+
+import com.intellij.plugins.serialmonitor.benchmarks.HeadlessTerminal;
+import com.intellij.plugins.serialmonitor.benchmarks.Payload;
+import consulo.application.progress.ProgressIndicator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TerminalHistoryExporter} writing a full terminal history to a temporary file. The history is filled once
+ * by running the payload through the emulator, so the line shapes follow the {@code content} of {@link Payload}.
+ * <p>
+ * It lives in the package of the exporter, which is not public. One operation exports the whole buffer,
+ * the {@code bytes} counter reports the written bytes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistoryExportBenchmark {
+
+    @Param({"ascii", "binary", "crlf"})
+    public String content;
+
+    private TerminalHistoryExporter exporter;
+    private ProgressIndicator indicator;
+    private Path file;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Payload payload = new Payload();
+        payload.packet = "burst";
+        payload.content = content;
+        payload.setUp();
+        HeadlessTerminal terminal = new HeadlessTerminal(120, 40);
+        terminal.process(payload.chars(), true);
+
+        exporter = new TerminalHistoryExporter(terminal.getTextBuffer(), StandardCharsets.UTF_8);
+        indicator = createIndicator();
+        file = Files.createTempFile("serial-history", ".txt");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void export(Counters counters) throws IOException {
+        exporter.export(file, indicator);
+        counters.bytes += Files.size(file);
+    }
+
+    private static ProgressIndicator createIndicator() {
+        return (ProgressIndicator) Proxy.newProxyInstance(
+            HistoryExportBenchmark.class.getClassLoader(),
+            new Class<?>[]{ProgressIndicator.class},
+            (proxy, method, args) -> {
+                Class<?> type = method.getReturnType();
+                // never cancelled, the zero value of primitive return types
+                return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+            });
+    }
+}
@@ -0,0 +1,61 @@
+package com.intellij.plugins.serialmonitor;
+
+import consulo.localize.LocalizeValue;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import jakarta.annotation.Nonnull;
+
+import java.util.function.Supplier;
+
+/**
+ * How the received bytes are split into frames. The text view shows one frame per row, the hex view always shows the
+ * raw bytes.
+ */
+public enum FrameFormat {
+    /**
+     * No framing, the received text goes to the terminal as it is.
+     */
+    NONE(SerialMonitorLocalize::frameFormatNone),
+    /**
+     * Lines ended by the new line of the profile, shown as text.
+     */
+    LINE(SerialMonitorLocalize::frameFormatLine),
+    /**
+     * Frames ended by the delimiter byte of the profile.
+     */
+    DELIMITER(SerialMonitorLocalize::frameFormatDelimiter),
+    /**
+     * RFC 1055 SLIP: frames ended by {@code C0}, with {@code DB} escapes.
+     */
+    SLIP(SerialMonitorLocalize::frameFormatSlip),
+    /**
+     * Consistent Overhead Byte Stuffing, frames ended by {@code 00}.
+     */
+    COBS(SerialMonitorLocalize::frameFormatCobs),
+    /**
+     * A length byte followed by that many bytes.
+     */
+    LENGTH_U8(SerialMonitorLocalize::frameFormatLengthU8),
+    /**
+     * A big endian 16-bit length followed by that many bytes.
+     */
+    LENGTH_U16_BE(SerialMonitorLocalize::frameFormatLengthU16Be),
+    /**
+     * A little endian 16-bit length followed by that many bytes.
+     */
+    LENGTH_U16_LE(SerialMonitorLocalize::frameFormatLengthU16Le),
+    /**
+     * Frames ended by a pause of the line longer than the gap of the profile.
+     */
+    IDLE_GAP(SerialMonitorLocalize::frameFormatIdleGap);
+
+    private final Supplier<LocalizeValue> displayValue;
+
+    FrameFormat(@Nonnull Supplier<LocalizeValue> displayValue) {
+        this.displayValue = displayValue;
+    }
+
+    @Override
+    public @Nonnull String toString() {
+        return displayValue.get().get();
+    }
+}
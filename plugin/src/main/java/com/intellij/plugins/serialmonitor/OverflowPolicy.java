@@ -0,0 +1,36 @@
+package com.intellij.plugins.serialmonitor;
+
+import consulo.localize.LocalizeValue;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import jakarta.annotation.Nonnull;
+
+import java.util.function.Supplier;
+
+/**
+ * What happens to incoming data when the terminal emulator cannot keep up with it.
+ */
+public enum OverflowPolicy {
+    /**
+     * The receiving thread waits until there is room, the port's own buffers and flow control take over.
+     */
+    BLOCK(SerialMonitorLocalize::overflowPolicyBlock),
+    /**
+     * The excess is queued in a temporary file and rendered later.
+     */
+    SPILL_TO_DISK(SerialMonitorLocalize::overflowPolicySpill),
+    /**
+     * The excess is dropped, the console reports the number of dropped bytes.
+     */
+    DROP(SerialMonitorLocalize::overflowPolicyDrop);
+
+    private final Supplier<LocalizeValue> displayValue;
+
+    OverflowPolicy(@Nonnull Supplier<LocalizeValue> displayValue) {
+        this.displayValue = displayValue;
+    }
+
+    @Override
+    public @Nonnull String toString() {
+        return displayValue.get().get();
+    }
+}
@@ -47,12 +47,39 @@ public class SerialPortProfile {
     @Attribute
     private boolean showHardwareControls = false;
 
+    @Attribute("overflow-policy")
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    @Attribute
+    private boolean capture = false;
+
+    @Attribute("timestamp-format")
+    private TimestampFormat timestampFormat = TimestampFormat.MILLIS;
+
+    @Attribute("hardware-flow-control")
+    private boolean hardwareFlowControl = false;
+
+    @Attribute
+    private FrameFormat framing = FrameFormat.NONE;
+
+    @Attribute("frame-delimiter")
+    private int frameDelimiter = 0;
+
+    @Attribute("frame-gap-ms")
+    private int frameGap = 20;
+
+    @Attribute("reader-thread")
+    private boolean readerThread = false;
+
     public SerialPortProfile() {
     }
 
     public SerialPortProfile(@Nonnull String portName, int baudRate, int bits, @Nonnull StopBits stopBits,
                              @Nonnull Parity parity, @Nonnull SerialProfileService.NewLine newLine,
-                             @Nonnull String encoding, boolean localEcho, boolean showHardwareControls) {
+                             @Nonnull String encoding, boolean localEcho, boolean showHardwareControls,
+                             @Nonnull OverflowPolicy overflowPolicy, boolean capture,
+                             @Nonnull TimestampFormat timestampFormat, boolean hardwareFlowControl,
+                             @Nonnull FrameFormat framing, int frameDelimiter, int frameGap, boolean readerThread) {
         this.portName = portName;
         this.baudRate = baudRate;
         this.bits = bits;
@@ -62,6 +89,14 @@ public class SerialPortProfile {
         this.encoding = encoding;
         this.localEcho = localEcho;
         this.showHardwareControls = showHardwareControls;
+        this.overflowPolicy = overflowPolicy;
+        this.capture = capture;
+        this.timestampFormat = timestampFormat;
+        this.hardwareFlowControl = hardwareFlowControl;
+        this.framing = framing;
+        this.frameDelimiter = frameDelimiter;
+        this.frameGap = frameGap;
+        this.readerThread = readerThread;
     }
 
     public String defaultName() {
@@ -73,7 +108,9 @@ public class SerialPortProfile {
     }
 
     public @Nonnull SerialPortProfile copy() {
-        return new SerialPortProfile(portName, baudRate, bits, stopBits, parity, newLine, encoding, localEcho, showHardwareControls);
+        return new SerialPortProfile(portName, baudRate, bits, stopBits, parity, newLine, encoding, localEcho, showHardwareControls,
+                                     overflowPolicy, capture, timestampFormat, hardwareFlowControl, framing, frameDelimiter,
+                                     frameGap, readerThread);
     }
 
     // Getters and Setters
@@ -149,6 +186,80 @@ public class SerialPortProfile {
         this.showHardwareControls = showHardwareControls;
     }
 
+    public @Nonnull OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(@Nonnull OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public boolean getCapture() {
+        return capture;
+    }
+
+    public void setCapture(boolean capture) {
+        this.capture = capture;
+    }
+
+    public @Nonnull TimestampFormat getTimestampFormat() {
+        return timestampFormat;
+    }
+
+    public void setTimestampFormat(@Nonnull TimestampFormat timestampFormat) {
+        this.timestampFormat = timestampFormat;
+    }
+
+    public boolean getHardwareFlowControl() {
+        return hardwareFlowControl;
+    }
+
+    public void setHardwareFlowControl(boolean hardwareFlowControl) {
+        this.hardwareFlowControl = hardwareFlowControl;
+    }
+
+    public @Nonnull FrameFormat getFraming() {
+        return framing;
+    }
+
+    public void setFraming(@Nonnull FrameFormat framing) {
+        this.framing = framing;
+    }
+
+    /**
+     * The byte ending a frame of {@link FrameFormat#DELIMITER}, 0-255.
+     */
+    public int getFrameDelimiter() {
+        return frameDelimiter;
+    }
+
+    public void setFrameDelimiter(int frameDelimiter) {
+        this.frameDelimiter = frameDelimiter;
+    }
+
+    /**
+     * Milliseconds of silence ending a frame of {@link FrameFormat#IDLE_GAP}.
+     */
+    public int getFrameGap() {
+        return frameGap;
+    }
+
+    public void setFrameGap(int frameGap) {
+        this.frameGap = frameGap;
+    }
+
+    /**
+     * Whether the data is read by a dedicated thread into a reused buffer instead of being delivered by the events of
+     * the port library, see {@link com.intellij.plugins.serialmonitor.service.SerialPort.ReceiveMode}.
+     */
+    public boolean getReaderThread() {
+        return readerThread;
+    }
+
+    public void setReaderThread(boolean readerThread) {
+        this.readerThread = readerThread;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -158,15 +269,25 @@ public class SerialPortProfile {
                bits == that.bits &&
                localEcho == that.localEcho &&
                showHardwareControls == that.showHardwareControls &&
+               capture == that.capture &&
+               hardwareFlowControl == that.hardwareFlowControl &&
+               frameDelimiter == that.frameDelimiter &&
+               frameGap == that.frameGap &&
+               readerThread == that.readerThread &&
                Objects.equals(portName, that.portName) &&
                stopBits == that.stopBits &&
                parity == that.parity &&
                newLine == that.newLine &&
-               Objects.equals(encoding, that.encoding);
+               Objects.equals(encoding, that.encoding) &&
+               overflowPolicy == that.overflowPolicy &&
+               timestampFormat == that.timestampFormat &&
+               framing == that.framing;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(portName, baudRate, bits, stopBits, parity, newLine, encoding, localEcho, showHardwareControls);
+        return Objects.hash(portName, baudRate, bits, stopBits, parity, newLine, encoding, localEcho, showHardwareControls,
+                            overflowPolicy, capture, timestampFormat, hardwareFlowControl, framing, frameDelimiter,
+                            frameGap, readerThread);
     }
 }
@@ -14,7 +14,9 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import jakarta.inject.Singleton;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
@@ -57,6 +59,16 @@ public final class SerialProfileService implements PersistentStateComponent<Seri
         return myState.getProfiles();
     }
 
+    public @Nonnull List<SerialTrigger> getTriggers() {
+        return myState.getTriggers();
+    }
+
+    public void setTriggers(@Nonnull List<SerialTrigger> triggers) {
+        SerialProfilesState newState = myState.copy();
+        newState.setTriggers(new ArrayList<>(triggers));
+        myState = newState;
+    }
+
     public @Nonnull SerialPortProfile copyDefaultProfile(@Nullable String portName) {
         SerialPortProfile profile = myState.getDefaultProfile().copy();
         if (portName != null) {
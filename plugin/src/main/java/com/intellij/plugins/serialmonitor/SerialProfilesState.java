@@ -4,7 +4,9 @@ import consulo.util.xml.serializer.annotation.AbstractCollection;
 import consulo.util.xml.serializer.annotation.Tag;
 import jakarta.annotation.Nonnull;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Tag("serial-connections")
@@ -16,6 +18,10 @@ public class SerialProfilesState {
     @AbstractCollection(elementTag = "serial-profile")
     private Map<String, SerialPortProfile> profiles = new HashMap<>();
 
+    // Apply to all ports
+    @AbstractCollection(elementTag = "trigger")
+    private List<SerialTrigger> triggers = new ArrayList<>();
+
     public SerialProfilesState() {
         this.defaultProfile = new SerialPortProfile();
         this.defaultProfile.setBaudRate(115200);
@@ -42,11 +48,25 @@ public class SerialProfilesState {
         this.profiles = profiles;
     }
 
+    public @Nonnull List<SerialTrigger> getTriggers() {
+        return triggers;
+    }
+
+    public void setTriggers(@Nonnull List<SerialTrigger> triggers) {
+        this.triggers = triggers;
+    }
+
     public @Nonnull SerialProfilesState copy() {
         Map<String, SerialPortProfile> profilesCopy = new HashMap<>();
         for (Map.Entry<String, SerialPortProfile> entry : profiles.entrySet()) {
             profilesCopy.put(entry.getKey(), entry.getValue().copy());
         }
-        return new SerialProfilesState(defaultProfile.copy(), profilesCopy);
+        SerialProfilesState copy = new SerialProfilesState(defaultProfile.copy(), profilesCopy);
+        List<SerialTrigger> triggersCopy = new ArrayList<>();
+        for (SerialTrigger trigger : triggers) {
+            triggersCopy.add(trigger.copy());
+        }
+        copy.setTriggers(triggersCopy);
+        return copy;
     }
 }
@@ -0,0 +1,146 @@
+package com.intellij.plugins.serialmonitor;
+
+import consulo.util.xml.serializer.annotation.Attribute;
+import consulo.util.xml.serializer.annotation.Tag;
+import jakarta.annotation.Nonnull;
+
+import java.util.Objects;
+
+/**
+ * A marker in the received data and the reactions to it. Literal patterns are found in the byte stream wherever
+ * they are, regular expressions are matched against each received line.
+ */
+@Tag("trigger")
+public class SerialTrigger {
+
+    @Attribute
+    private String pattern = "";
+
+    @Attribute
+    private boolean enabled = true;
+
+    @Attribute
+    private boolean regex = false;
+
+    @Attribute("match-case")
+    private boolean matchCase = true;
+
+    @Attribute
+    private boolean highlight = true;
+
+    @Attribute
+    private boolean notify = false;
+
+    @Attribute
+    private boolean pause = false;
+
+    // sent with the new line of the profile, nothing if empty
+    @Attribute
+    private String reply = "";
+
+    public SerialTrigger() {
+    }
+
+    public SerialTrigger(@Nonnull String pattern, boolean enabled, boolean regex, boolean matchCase, boolean highlight,
+                         boolean notify, boolean pause, @Nonnull String reply) {
+        this.pattern = pattern;
+        this.enabled = enabled;
+        this.regex = regex;
+        this.matchCase = matchCase;
+        this.highlight = highlight;
+        this.notify = notify;
+        this.pause = pause;
+        this.reply = reply;
+    }
+
+    public @Nonnull SerialTrigger copy() {
+        return new SerialTrigger(pattern, enabled, regex, matchCase, highlight, notify, pause, reply);
+    }
+
+    public @Nonnull String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(@Nonnull String pattern) {
+        this.pattern = pattern;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRegex() {
+        return regex;
+    }
+
+    public void setRegex(boolean regex) {
+        this.regex = regex;
+    }
+
+    public boolean isMatchCase() {
+        return matchCase;
+    }
+
+    public void setMatchCase(boolean matchCase) {
+        this.matchCase = matchCase;
+    }
+
+    /**
+     * Highlighting applies to literal patterns, a line is already shown when a regular expression is matched.
+     */
+    public boolean isHighlight() {
+        return highlight;
+    }
+
+    public void setHighlight(boolean highlight) {
+        this.highlight = highlight;
+    }
+
+    public boolean isNotify() {
+        return notify;
+    }
+
+    public void setNotify(boolean notify) {
+        this.notify = notify;
+    }
+
+    public boolean isPause() {
+        return pause;
+    }
+
+    public void setPause(boolean pause) {
+        this.pause = pause;
+    }
+
+    public @Nonnull String getReply() {
+        return reply;
+    }
+
+    public void setReply(@Nonnull String reply) {
+        this.reply = reply;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SerialTrigger that = (SerialTrigger) o;
+        return enabled == that.enabled &&
+               regex == that.regex &&
+               matchCase == that.matchCase &&
+               highlight == that.highlight &&
+               notify == that.notify &&
+               pause == that.pause &&
+               Objects.equals(pattern, that.pattern) &&
+               Objects.equals(reply, that.reply);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pattern, enabled, regex, matchCase, highlight, notify, pause, reply);
+    }
+}
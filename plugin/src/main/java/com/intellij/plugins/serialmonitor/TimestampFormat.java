@@ -0,0 +1,45 @@
+package com.intellij.plugins.serialmonitor;
+
+import consulo.localize.LocalizeValue;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import jakarta.annotation.Nonnull;
+
+import java.util.function.Supplier;
+
+/**
+ * How line timestamps are printed in the console.
+ */
+public enum TimestampFormat {
+    /**
+     * Local time with milliseconds: {@code [HH:mm:ss.SSS] }.
+     */
+    MILLIS(SerialMonitorLocalize::timestampFormatMillis, "[HH:mm:ss.SSS] ".length()),
+    /**
+     * Local time with microseconds: {@code [HH:mm:ss.SSSSSS] }.
+     */
+    MICROS(SerialMonitorLocalize::timestampFormatMicros, "[HH:mm:ss.SSSSSS] ".length()),
+    /**
+     * Seconds with microseconds since the previous line started: {@code [+   0.000125] }.
+     */
+    DELTA(SerialMonitorLocalize::timestampFormatDelta, "[+ssss.SSSSSS] ".length());
+
+    private final Supplier<LocalizeValue> displayValue;
+    private final int width;
+
+    TimestampFormat(@Nonnull Supplier<LocalizeValue> displayValue, int width) {
+        this.displayValue = displayValue;
+        this.width = width;
+    }
+
+    /**
+     * Number of chars every timestamp takes, including the trailing space.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public @Nonnull String toString() {
+        return displayValue.get().get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.intellij.plugins.serialmonitor.capture;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Where the bytes of a captured record come from.
+ */
+public enum CaptureDirection {
+    /**
+     * Received from the port.
+     */
+    RX((byte) 1),
+    /**
+     * Written to the port.
+     */
+    TX((byte) 2),
+    /**
+     * Sent data echoed to the console locally.
+     */
+    ECHO((byte) 3);
+
+    private final byte code;
+
+    CaptureDirection(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static @Nonnull CaptureDirection fromCode(byte code) {
+        for (CaptureDirection direction : values()) {
+            if (direction.code == code) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException("Unknown capture direction: " + code);
+    }
+}
@@ -0,0 +1,251 @@
+package com.intellij.plugins.serialmonitor.capture;
+
+import consulo.container.boot.ContainerPathManager;
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Append-only journal of the raw bytes of one connection, written through memory-mapped windows of the file.
+ * <p>
+ * File layout, big-endian: a {@value #HEADER_SIZE} byte header (magic, version, wall clock millis and
+ * {@link System#nanoTime()} at creation), then records of {@code int length, byte direction, long nanoTime, bytes}.
+ * The mapped area past the last record is zero-filled, so a zero length ends the journal even if it was not
+ * closed properly.
+ * <p>
+ * The journals of a directory are kept within {@value #DEFAULT_RETAINED_MB} MiB and {@value #DEFAULT_RETAINED_JOURNALS}
+ * files by default: when a journal is created or grows by a window, the oldest journals which are not being written
+ * are deleted on the given executor. A journal being written counts towards the limits, so once it reaches a quarter
+ * of the retained bytes it is closed and the capture goes on in a new file, which leaves the older parts to be
+ * deleted. Thread-safe.
+ */
+public final class CaptureJournal implements Closeable {
+
+    public static final String EXTENSION = ".smcap";
+
+    static final int MAGIC = 0x534D434A;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Long.BYTES;
+
+    private static final Logger LOG = Logger.getInstance(CaptureJournal.class);
+    private static final long WINDOW_SIZE = 16 * 1024 * 1024;
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int DEFAULT_RETAINED_MB = 2048;
+    private static final int DEFAULT_RETAINED_JOURNALS = 100;
+    private static final long RETAINED_BYTES = Long.getLong("serial.monitor.capture.retained.mb", DEFAULT_RETAINED_MB) * 1024 * 1024;
+    private static final int RETAINED_JOURNALS = Integer.getInteger("serial.monitor.capture.retained.count", DEFAULT_RETAINED_JOURNALS);
+    private static final long JOURNAL_BYTES = Math.max(WINDOW_SIZE, RETAINED_BYTES / 4);
+    // Journals being written, in any directory, which are never deleted
+    private static final Set<Path> OPEN_PATHS = ConcurrentHashMap.newKeySet();
+
+    private final Path directory;
+    private final String portName;
+    private final Executor executor;
+    private final long maxJournalBytes;
+    private final AtomicBoolean pruneQueued = new AtomicBoolean();
+    private Path path;
+    private FileChannel channel;
+    private MappedByteBuffer window;
+    private long position;
+    private boolean closed;
+
+    private CaptureJournal(@Nonnull Path directory, @Nonnull String portName, @Nonnull Executor executor,
+                           long maxJournalBytes) throws IOException {
+        this.directory = directory;
+        this.portName = portName;
+        this.executor = executor;
+        this.maxJournalBytes = maxJournalBytes;
+        open();
+    }
+
+    /**
+     * Creates a new journal for the port in the directory, named after the port and the current time.
+     *
+     * @param executor runs the deletion of old journals
+     */
+    public static @Nonnull CaptureJournal create(@Nonnull Path directory, @Nonnull String portName,
+                                                 @Nonnull Executor executor) throws IOException {
+        return create(directory, portName, executor, JOURNAL_BYTES);
+    }
+
+    /**
+     * @param maxJournalBytes size at which the capture goes on in a new file
+     */
+    static @Nonnull CaptureJournal create(@Nonnull Path directory, @Nonnull String portName, @Nonnull Executor executor,
+                                          long maxJournalBytes) throws IOException {
+        Files.createDirectories(directory);
+        CaptureJournal journal = new CaptureJournal(directory, portName, executor, maxJournalBytes);
+        journal.queuePrune();
+        return journal;
+    }
+
+    private void open() throws IOException {
+        String baseName = portName.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + LocalDateTime.now().format(FILE_NAME_FORMAT);
+        Path file = directory.resolve(baseName + EXTENSION);
+        for (int i = 1; Files.exists(file); i++) {
+            file = directory.resolve(baseName + "-" + i + EXTENSION);
+        }
+        FileChannel fileChannel = FileChannel.open(file, CREATE_NEW, READ, WRITE);
+        OPEN_PATHS.add(file);
+        try {
+            window = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, WINDOW_SIZE);
+            window.putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(System.currentTimeMillis())
+                .putLong(System.nanoTime());
+            window.position(HEADER_SIZE);
+        }
+        catch (IOException | RuntimeException e) {
+            window = null;
+            OPEN_PATHS.remove(file);
+            fileChannel.close();
+            throw e;
+        }
+        path = file;
+        channel = fileChannel;
+        position = HEADER_SIZE;
+    }
+
+    /**
+     * Deletes the oldest journals of the directory, except the ones being written, until the rest fit in the limits.
+     * The journals being written count towards the limits.
+     */
+    public static void prune(@Nonnull Path directory, long maxBytes, int maxJournals) {
+        Map<Path, BasicFileAttributes> journals = new HashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(EXTENSION)).forEach(file -> {
+                try {
+                    journals.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+                }
+                catch (IOException ignored) {
+                    // deleted meanwhile
+                }
+            });
+        }
+        catch (IOException e) {
+            LOG.warn("Failed to list capture journals in " + directory, e);
+            return;
+        }
+        List<Path> newestFirst = new ArrayList<>(journals.keySet());
+        newestFirst.sort(Comparator.comparing((Path file) -> journals.get(file).lastModifiedTime()).reversed());
+        long bytes = 0;
+        int count = 0;
+        for (Path file : newestFirst) {
+            boolean open = OPEN_PATHS.contains(file);
+            if (open || count < maxJournals && bytes + journals.get(file).size() <= maxBytes) {
+                bytes += journals.get(file).size();
+                count++;
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file);
+            }
+            catch (IOException e) {
+                LOG.warn("Failed to delete capture journal " + file, e);
+            }
+        }
+    }
+
+    public static @Nonnull Path getDefaultDirectory() {
+        return Path.of(ContainerPathManager.get().getSystemPath(), "serial-monitor", "captures");
+    }
+
+    /**
+     * @return the file being written, or the last one once closed
+     */
+    public synchronized @Nonnull Path getPath() {
+        return path;
+    }
+
+    /**
+     * @param nanoTime {@link System#nanoTime()} when the bytes were received or sent
+     */
+    public synchronized void append(@Nonnull CaptureDirection direction, long nanoTime,
+                                    byte[] data, int offset, int length) throws IOException {
+        if (closed || length == 0) {
+            return;
+        }
+        int recordSize = RECORD_HEADER_SIZE + length;
+        if (position > HEADER_SIZE && position + recordSize > maxJournalBytes) {
+            finish();
+            try {
+                open();
+            }
+            catch (IOException e) {
+                closed = true;
+                throw e;
+            }
+            queuePrune();
+        }
+        if (window.remaining() < recordSize) {
+            window = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(WINDOW_SIZE, recordSize));
+            queuePrune();
+        }
+        window.putInt(length)
+            .put(direction.getCode())
+            .putLong(nanoTime)
+            .put(data, offset, length);
+        position += recordSize;
+    }
+
+    /**
+     * Size of the file being written in bytes, including the header.
+     */
+    public synchronized long size() {
+        return position;
+    }
+
+    private void queuePrune() {
+        if (pruneQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                pruneQueued.set(false);
+                prune(directory, RETAINED_BYTES, RETAINED_JOURNALS);
+            });
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        finish();
+    }
+
+    private void finish() throws IOException {
+        window = null;
+        OPEN_PATHS.remove(path);
+        try {
+            // cut the zero-filled tail of the last window, may fail while the mapping is still alive on some platforms
+            channel.truncate(position);
+        }
+        catch (IOException ignored) {
+        }
+        finally {
+            channel.close();
+        }
+    }
+}
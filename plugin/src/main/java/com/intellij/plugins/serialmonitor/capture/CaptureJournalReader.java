@@ -0,0 +1,109 @@
+package com.intellij.plugins.serialmonitor.capture;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Sequential reader of a {@link CaptureJournal} file. A journal still being written can be read up to its last
+ * complete record. A record which cannot be part of the file fails with an {@link IOException}.
+ */
+public final class CaptureJournalReader implements Closeable {
+
+    private final Path path;
+    private final DataInputStream input;
+    private final long startEpochMillis;
+    private final long startNanoTime;
+    // Offset of the next record in the file
+    private long offset = CaptureJournal.HEADER_SIZE;
+    // Size of the file when last looked at, it grows while the journal is written
+    private long fileSize;
+    private boolean finished;
+
+    public CaptureJournalReader(@Nonnull Path path) throws IOException {
+        this.path = path;
+        input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024));
+        try {
+            if (input.readInt() != CaptureJournal.MAGIC) {
+                throw new IOException("Not a serial capture file: " + path);
+            }
+            int version = input.readInt();
+            if (version != CaptureJournal.VERSION) {
+                throw new IOException("Unsupported serial capture version " + version + ": " + path);
+            }
+            startEpochMillis = input.readLong();
+            startNanoTime = input.readLong();
+            input.skipNBytes(CaptureJournal.HEADER_SIZE - 2 * Integer.BYTES - 2 * Long.BYTES);
+        }
+        catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the next record or {@code null} at the end of the journal
+     */
+    public @Nullable CaptureRecord next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        try {
+            int length = input.readInt();
+            if (length <= 0) {
+                finished = true;
+                return null;
+            }
+            long recordEnd = offset + CaptureJournal.RECORD_HEADER_SIZE + length;
+            if (recordEnd > fileSize) {
+                fileSize = Files.size(path);
+                if (recordEnd > fileSize) {
+                    throw new IOException("Corrupted serial capture file, record at " + offset + " is too long: " + path);
+                }
+            }
+            CaptureDirection direction = direction(input.readByte());
+            long nanoTime = input.readLong();
+            byte[] data = new byte[length];
+            input.readFully(data);
+            offset = recordEnd;
+            return new CaptureRecord(direction, nanoTime, data);
+        }
+        catch (EOFException e) {
+            // the last record was not completely written
+            finished = true;
+            return null;
+        }
+    }
+
+    private @Nonnull CaptureDirection direction(byte code) throws IOException {
+        try {
+            return CaptureDirection.fromCode(code);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException("Corrupted serial capture file, record at " + offset + ": " + path, e);
+        }
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public long getStartNanoTime() {
+        return startNanoTime;
+    }
+
+    /**
+     * Converts a record time to wall clock time.
+     */
+    public long toEpochMillis(long nanoTime) {
+        return startEpochMillis + (nanoTime - startNanoTime) / 1_000_000;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
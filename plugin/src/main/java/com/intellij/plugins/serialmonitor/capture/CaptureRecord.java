@@ -0,0 +1,33 @@
+package com.intellij.plugins.serialmonitor.capture;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * One chunk of bytes read from a {@link CaptureJournal}.
+ */
+public final class CaptureRecord {
+    private final CaptureDirection direction;
+    private final long nanoTime;
+    private final byte[] data;
+
+    public CaptureRecord(@Nonnull CaptureDirection direction, long nanoTime, byte[] data) {
+        this.direction = direction;
+        this.nanoTime = nanoTime;
+        this.data = data;
+    }
+
+    public @Nonnull CaptureDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * {@link System#nanoTime()} of the capturing session, see {@link CaptureJournalReader#toEpochMillis(long)}.
+     */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+}
@@ -0,0 +1,111 @@
+package com.intellij.plugins.serialmonitor.capture;
+
+import com.intellij.plugins.serialmonitor.service.SerialDataListener;
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Feeds the records of a {@link CaptureJournal} to a {@link SerialDataListener}, as a connection delivers the data
+ * it receives: with the recorded timing, at a multiple of its speed or as fast as possible.
+ * <p>
+ * The listener gets the times of the replay clock: the start of the replay plus the recorded offset of the record
+ * from the first one, divided by the speed. As fast as possible, the offsets are not divided, so the listener sees
+ * the recorded timing while the records are delivered without waiting. Chunks are delivered as recorded, so every
+ * run produces the same calls.
+ */
+public final class CaptureReplay {
+
+    public static final double ORIGINAL_SPEED = 1;
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    // Waits are split, so a cancellation is noticed in time
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Path path;
+    private final double speed;
+    private final Set<CaptureDirection> directions;
+
+    /**
+     * Replays the received data, the local echo is not delivered to receive listeners either.
+     */
+    public CaptureReplay(@Nonnull Path path, double speed) {
+        this(path, speed, EnumSet.of(CaptureDirection.RX));
+    }
+
+    /**
+     * @param speed multiple of the recorded speed, or {@link #AS_FAST_AS_POSSIBLE}
+     */
+    public CaptureReplay(@Nonnull Path path, double speed, @Nonnull Set<CaptureDirection> directions) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Wrong replay speed: " + speed);
+        }
+        this.path = path;
+        this.speed = speed;
+        this.directions = EnumSet.copyOf(directions);
+    }
+
+    public @Nonnull Path getPath() {
+        return path;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Delivers the records in the calling thread, until the end of the journal or the cancellation.
+     *
+     * @return number of bytes delivered
+     */
+    public long replay(@Nonnull SerialDataListener listener, @Nonnull BooleanSupplier cancelled) throws IOException {
+        try (CaptureJournalReader reader = new CaptureJournalReader(path)) {
+            long start = System.nanoTime();
+            long firstTime = 0;
+            boolean started = false;
+            long bytes = 0;
+            for (CaptureRecord record = reader.next(); record != null && !cancelled.getAsBoolean(); record = reader.next()) {
+                if (!directions.contains(record.getDirection())) {
+                    continue;
+                }
+                if (!started) {
+                    firstTime = record.getNanoTime();
+                    started = true;
+                }
+                long due = start + toReplayOffset(record.getNanoTime() - firstTime, speed);
+                if (speed != AS_FAST_AS_POSSIBLE && !waitUntil(due, cancelled)) {
+                    break;
+                }
+                byte[] data = record.getData();
+                listener.dataReceived(data, 0, data.length, due);
+                bytes += data.length;
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Converts a recorded offset to the offset on the replay clock.
+     */
+    public static long toReplayOffset(long recordedOffset, double speed) {
+        return speed == AS_FAST_AS_POSSIBLE || speed == ORIGINAL_SPEED ? recordedOffset : (long) (recordedOffset / speed);
+    }
+
+    // returns false when cancelled
+    private static boolean waitUntil(long due, @Nonnull BooleanSupplier cancelled) {
+        while (!cancelled.getAsBoolean()) {
+            long remaining = due - System.nanoTime();
+            if (remaining <= 0) {
+                return true;
+            }
+            LockSupport.parkNanos(Math.min(remaining, MAX_WAIT_NANOS));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the partial frame and the count of the received bytes since the last frame boundary.
+ */
+abstract class AbstractFrameDecoder implements FrameDecoder {
+
+    private static final int INITIAL_FRAME_CAPACITY = 256;
+
+    private byte[] frame = new byte[INITIAL_FRAME_CAPACITY];
+    private int frameLength;
+    private long partialLength;
+
+    @Override
+    public final void decode(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Sink sink) {
+        int boundary = scan(buffer, offset, length, nanoTime, sink);
+        partialLength = boundary < 0 ? partialLength + length : offset + length - boundary;
+    }
+
+    /**
+     * @return index after the last byte which ended a frame, -1 if no frame ended in the chunk
+     */
+    protected abstract int scan(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Sink sink);
+
+    @Override
+    public final long getPartialLength() {
+        return partialLength;
+    }
+
+    /**
+     * For frames ended outside of {@link #scan}.
+     */
+    protected final void endedAtLastByte() {
+        partialLength = 0;
+    }
+
+    @Override
+    public void reset() {
+        frameLength = 0;
+        partialLength = 0;
+    }
+
+    protected final int getFrameLength() {
+        return frameLength;
+    }
+
+    protected final void append(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Sink sink) {
+        while (length > 0) {
+            if (frameLength == MAX_FRAME_LENGTH) {
+                emit(nanoTime, sink);
+            }
+            int count = Math.min(length, MAX_FRAME_LENGTH - frameLength);
+            ensureCapacity(frameLength + count);
+            System.arraycopy(buffer, offset, frame, frameLength, count);
+            frameLength += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    protected final void append(byte value, long nanoTime, @Nonnull Sink sink) {
+        if (frameLength == MAX_FRAME_LENGTH) {
+            emit(nanoTime, sink);
+        }
+        ensureCapacity(frameLength + 1);
+        frame[frameLength++] = value;
+    }
+
+    /**
+     * Removes the last bytes of the partial frame, like a delimiter which has been appended with it.
+     */
+    protected final void truncate(int count) {
+        frameLength = Math.max(0, frameLength - count);
+    }
+
+    protected final void emit(long nanoTime, @Nonnull Sink sink) {
+        sink.frame(frame, 0, frameLength, nanoTime);
+        frameLength = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > frame.length) {
+            frame = Arrays.copyOf(frame, Math.min(MAX_FRAME_LENGTH, Math.max(capacity, frame.length * 2)));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Consistent Overhead Byte Stuffing with {@code 00} after each frame. The blocks are copied with one
+ * {@code arraycopy} each; a frame cut short by a {@code 00} is passed on as far as it was decoded.
+ */
+final class CobsFrameDecoder extends AbstractFrameDecoder {
+
+    // data bytes left in the current block
+    private int remaining;
+    // the current block ends with an implied zero, unless it is the last one of the frame
+    private boolean zeroPending;
+    private boolean started;
+
+    @Override
+    protected int scan(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Sink sink) {
+        int end = offset + length;
+        int boundary = -1;
+        int i = offset;
+        while (i < end) {
+            byte b = buffer[i];
+            if (b == 0) {
+                if (started) {
+                    emit(nanoTime, sink);
+                }
+                remaining = 0;
+                zeroPending = false;
+                started = false;
+                boundary = ++i;
+            }
+            else if (remaining == 0) {
+                if (zeroPending) {
+                    append((byte) 0, nanoTime, sink);
+                }
+                int code = b & 0xFF;
+                remaining = code - 1;
+                zeroPending = code != 0xFF;
+                started = true;
+                i++;
+            }
+            else {
+                int limit = Math.min(end, i + remaining);
+                int runEnd = i;
+                while (runEnd < limit && buffer[runEnd] != 0) {
+                    runEnd++;
+                }
+                append(buffer, i, runEnd - i, nanoTime, sink);
+                remaining -= runEnd - i;
+                i = runEnd;
+            }
+        }
+        return boundary;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        remaining = 0;
+        zeroPending = false;
+        started = false;
+    }
+}
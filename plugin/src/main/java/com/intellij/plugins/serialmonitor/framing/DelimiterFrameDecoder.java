@@ -0,0 +1,62 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Frames ended by a delimiter of one or more bytes, which is not part of the frame. The delimiter must not overlap
+ * itself, like {@code CR LF}; empty frames are passed on, as they are empty lines.
+ */
+final class DelimiterFrameDecoder extends AbstractFrameDecoder {
+
+    private final byte[] delimiter;
+    // bytes of the delimiter matched at the end of the data so far
+    private int matched;
+
+    DelimiterFrameDecoder(@Nonnull byte[] delimiter) {
+        if (delimiter.length == 0) {
+            throw new IllegalArgumentException("Empty delimiter");
+        }
+        this.delimiter = delimiter.clone();
+    }
+
+    @Override
+    protected int scan(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Sink sink) {
+        int end = offset + length;
+        int start = offset;
+        int boundary = -1;
+        for (int i = offset; i < end; i++) {
+            byte b = buffer[i];
+            if (b == delimiter[matched]) {
+                matched++;
+            }
+            else {
+                matched = b == delimiter[0] ? 1 : 0;
+            }
+            if (matched == delimiter.length) {
+                matched = 0;
+                int frameEnd = i + 1 - delimiter.length;
+                if (getFrameLength() == 0 && frameEnd >= start) {
+                    sink.frame(buffer, start, frameEnd - start, nanoTime);
+                }
+                else {
+                    // the frame or the delimiter started in an earlier chunk
+                    append(buffer, start, i + 1 - start, nanoTime, sink);
+                    truncate(delimiter.length);
+                    emit(nanoTime, sink);
+                }
+                start = i + 1;
+                boundary = start;
+            }
+        }
+        if (start < end) {
+            append(buffer, start, end - start, nanoTime, sink);
+        }
+        return boundary;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        matched = 0;
+    }
+}
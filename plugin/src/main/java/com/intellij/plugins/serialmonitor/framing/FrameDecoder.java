@@ -0,0 +1,50 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Splits the received byte stream into frames. A decoder keeps the partial frame across chunks; a frame which lies
+ * within one chunk and needs no unescaping is passed on as a slice of the received buffer, others are assembled in a
+ * buffer the decoder reuses.
+ * <p>
+ * A decoder is used by one thread at a time. The buffer passed to the {@link Sink} is only valid during the call.
+ */
+public interface FrameDecoder {
+
+    /**
+     * Longer frames are passed on in parts of this length.
+     */
+    int MAX_FRAME_LENGTH = 64 * 1024;
+
+    interface Sink {
+        /**
+         * @param nanoTime when the chunk which completed the frame was received
+         */
+        void frame(byte[] buffer, int offset, int length, long nanoTime);
+    }
+
+    void decode(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Sink sink);
+
+    /**
+     * Ends the frame in progress if the line has been silent long enough, for decoders which frame by time.
+     */
+    default void idle(long nanoTime, @Nonnull Sink sink) {
+    }
+
+    /**
+     * @return silence which ends a frame, 0 if the decoder does not frame by time
+     */
+    default long getIdleGapNanos() {
+        return 0;
+    }
+
+    /**
+     * @return number of received bytes since the end of the last frame
+     */
+    long getPartialLength();
+
+    /**
+     * Forgets the frame in progress.
+     */
+    void reset();
+}
@@ -0,0 +1,41 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import com.intellij.plugins.serialmonitor.FrameFormat;
+import com.intellij.plugins.serialmonitor.SerialPortProfile;
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+public final class FrameDecoders {
+
+    private FrameDecoders() {
+    }
+
+    /**
+     * @return decoder for the framing of a profile, {@code null} for {@link FrameFormat#NONE}
+     */
+    public static @Nullable FrameDecoder create(@Nonnull SerialPortProfile profile) {
+        return switch (profile.getFraming()) {
+            case NONE -> null;
+            case LINE -> new DelimiterFrameDecoder(profile.getNewLine().getValue().getBytes(StandardCharsets.US_ASCII));
+            case DELIMITER -> new DelimiterFrameDecoder(new byte[]{(byte) profile.getFrameDelimiter()});
+            case SLIP -> new SlipFrameDecoder();
+            case COBS -> new CobsFrameDecoder();
+            case LENGTH_U8 -> new LengthPrefixedFrameDecoder(1, true);
+            case LENGTH_U16_BE -> new LengthPrefixedFrameDecoder(2, true);
+            case LENGTH_U16_LE -> new LengthPrefixedFrameDecoder(2, false);
+            case IDLE_GAP -> new IdleGapFrameDecoder(TimeUnit.MILLISECONDS.toNanos(Math.max(1, profile.getFrameGap())));
+        };
+    }
+
+    /**
+     * @return decoder of lines ended as the profile sends them: by {@code CR} for {@link SerialProfileService.NewLine#CR},
+     * otherwise by {@code LF}, a {@code CR} before it stays in the line
+     */
+    public static @Nonnull FrameDecoder lines(@Nonnull SerialProfileService.NewLine newLine) {
+        return new DelimiterFrameDecoder(new byte[]{newLine == SerialProfileService.NewLine.CR ? (byte) '\r' : (byte) '\n'});
+    }
+}
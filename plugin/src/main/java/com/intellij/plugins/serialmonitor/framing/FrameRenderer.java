@@ -0,0 +1,71 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import jakarta.annotation.Nonnull;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Turns frames into rows of the text view: text frames as they are, binary frames as their length, the bytes in hex
+ * and the printable ones as ASCII, for example {@code 5: 48 65 6C 6C 6F  Hello}.
+ */
+public final class FrameRenderer implements FrameDecoder.Sink {
+
+    private static final byte[] NEW_LINE = {'\r', '\n'};
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final boolean text;
+    private final FrameDecoder.Sink target;
+    // reused for every row
+    private byte[] row = new byte[256];
+
+    /**
+     * @param text whether the frames are text, like lines
+     */
+    public FrameRenderer(boolean text, @Nonnull FrameDecoder.Sink target) {
+        this.text = text;
+        this.target = target;
+    }
+
+    @Override
+    public void frame(byte[] buffer, int offset, int length, long nanoTime) {
+        if (text) {
+            target.frame(buffer, offset, length, nanoTime);
+            target.frame(NEW_LINE, 0, NEW_LINE.length, nanoTime);
+            return;
+        }
+        // "<length>: " + "XX " per byte + " " + one char per byte + CR LF
+        int capacity = 12 + length * 4 + NEW_LINE.length;
+        if (row.length < capacity) {
+            row = new byte[Math.max(capacity, row.length * 2)];
+        }
+        int p = writeDecimal(length, row, 0);
+        row[p++] = ':';
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int b = buffer[i] & 0xFF;
+            row[p++] = ' ';
+            row[p++] = HEX_DIGITS[b >>> 4];
+            row[p++] = HEX_DIGITS[b & 0xF];
+        }
+        row[p++] = ' ';
+        row[p++] = ' ';
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = buffer[i];
+            row[p++] = b >= 0x20 && b < 0x7F ? b : (byte) '.';
+        }
+        row[p++] = '\r';
+        row[p++] = '\n';
+        target.frame(row, 0, p, nanoTime);
+    }
+
+    private static int writeDecimal(int value, byte[] out, int position) {
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+}
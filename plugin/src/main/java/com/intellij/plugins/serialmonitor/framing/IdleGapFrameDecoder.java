@@ -0,0 +1,42 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Frames ended by a silence of the line. The gap is measured between the arrival times of the chunks, so bytes which
+ * the port delivers in one chunk always end up in one frame.
+ */
+final class IdleGapFrameDecoder extends AbstractFrameDecoder {
+
+    private final long gapNanos;
+    private long lastNanoTime;
+
+    IdleGapFrameDecoder(long gapNanos) {
+        this.gapNanos = gapNanos;
+    }
+
+    @Override
+    protected int scan(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Sink sink) {
+        int boundary = -1;
+        if (getFrameLength() > 0 && nanoTime - lastNanoTime >= gapNanos) {
+            emit(lastNanoTime, sink);
+            boundary = offset;
+        }
+        append(buffer, offset, length, nanoTime, sink);
+        lastNanoTime = nanoTime;
+        return boundary;
+    }
+
+    @Override
+    public void idle(long nanoTime, @Nonnull Sink sink) {
+        if (getFrameLength() > 0 && nanoTime - lastNanoTime >= gapNanos) {
+            emit(lastNanoTime, sink);
+            endedAtLastByte();
+        }
+    }
+
+    @Override
+    public long getIdleGapNanos() {
+        return gapNanos;
+    }
+}
@@ -0,0 +1,74 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Frames preceded by their length, an unsigned integer of one or more bytes which is not part of the frame.
+ */
+final class LengthPrefixedFrameDecoder extends AbstractFrameDecoder {
+
+    private final int headerSize;
+    private final boolean bigEndian;
+    private int headerRead;
+    private int bodyLength;
+    private int remaining;
+
+    LengthPrefixedFrameDecoder(int headerSize, boolean bigEndian) {
+        if (headerSize < 1 || headerSize > 3) {
+            throw new IllegalArgumentException("Unsupported length size " + headerSize);
+        }
+        this.headerSize = headerSize;
+        this.bigEndian = bigEndian;
+    }
+
+    @Override
+    protected int scan(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Sink sink) {
+        int end = offset + length;
+        int boundary = -1;
+        int i = offset;
+        while (i < end) {
+            if (headerRead < headerSize) {
+                int b = buffer[i++] & 0xFF;
+                bodyLength = bigEndian ? bodyLength << 8 | b : bodyLength | b << 8 * headerRead;
+                if (++headerRead == headerSize) {
+                    remaining = bodyLength;
+                    if (remaining == 0) {
+                        sink.frame(buffer, i, 0, nanoTime);
+                        nextFrame();
+                        boundary = i;
+                    }
+                }
+                continue;
+            }
+            int count = Math.min(remaining, end - i);
+            if (count == remaining && getFrameLength() == 0) {
+                sink.frame(buffer, i, count, nanoTime);
+            }
+            else {
+                append(buffer, i, count, nanoTime, sink);
+                if (count == remaining) {
+                    emit(nanoTime, sink);
+                }
+            }
+            i += count;
+            remaining -= count;
+            if (remaining == 0) {
+                nextFrame();
+                boundary = i;
+            }
+        }
+        return boundary;
+    }
+
+    private void nextFrame() {
+        headerRead = 0;
+        bodyLength = 0;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        nextFrame();
+        remaining = 0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * RFC 1055 SLIP. Empty frames, as between the {@code END} bytes many senders put around a frame, are skipped. An
+ * escape of anything but {@code END} and {@code ESC} is taken as the escaped byte itself, like most receivers do.
+ */
+final class SlipFrameDecoder extends AbstractFrameDecoder {
+
+    private static final byte END = (byte) 0xC0;
+    private static final byte ESC = (byte) 0xDB;
+    private static final byte ESC_END = (byte) 0xDC;
+    private static final byte ESC_ESC = (byte) 0xDD;
+
+    private boolean escaped;
+
+    @Override
+    protected int scan(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Sink sink) {
+        int end = offset + length;
+        // start of the bytes not copied yet, which need no unescaping
+        int start = offset;
+        int boundary = -1;
+        for (int i = offset; i < end; i++) {
+            byte b = buffer[i];
+            if (escaped) {
+                escaped = false;
+                append(b == ESC_END ? END : b == ESC_ESC ? ESC : b, nanoTime, sink);
+                start = i + 1;
+            }
+            else if (b == END) {
+                if (getFrameLength() == 0) {
+                    if (i > start) {
+                        sink.frame(buffer, start, i - start, nanoTime);
+                    }
+                }
+                else {
+                    append(buffer, start, i - start, nanoTime, sink);
+                    emit(nanoTime, sink);
+                }
+                start = i + 1;
+                boundary = start;
+            }
+            else if (b == ESC) {
+                append(buffer, start, i - start, nanoTime, sink);
+                escaped = true;
+                start = i + 1;
+            }
+        }
+        if (start < end) {
+            append(buffer, start, end - start, nanoTime, sink);
+        }
+        return boundary;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        escaped = false;
+    }
+}
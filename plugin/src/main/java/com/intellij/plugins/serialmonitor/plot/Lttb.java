@@ -0,0 +1,113 @@
+package com.intellij.plugins.serialmonitor.plot;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013): keeps the first and the last point and from each
+ * bucket in between the point which forms the largest triangle with the point kept before it and the average of the
+ * next bucket. Unlike taking every n-th point it keeps spikes, at two reads per point.
+ * <p>
+ * Works on a ring of {@link SampleBuffer} with the sample number as x, skipping NaN gaps.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * @param from      number of the first sample
+     * @param to        number after the last sample
+     * @param threshold most points to keep, at least 3
+     * @return number of points written to {@code outX} and {@code outY}, which have room for {@code threshold}
+     */
+    public static int downsample(@Nonnull float[] ring, int mask, long from, long to, int threshold,
+                                 @Nonnull double[] outX, @Nonnull double[] outY) {
+        long n = to - from;
+        int written = 0;
+        if (n <= threshold) {
+            for (long x = from; x < to; x++) {
+                float y = ring[(int) x & mask];
+                if (!Float.isNaN(y)) {
+                    outX[written] = x;
+                    outY[written++] = y;
+                }
+            }
+            return written;
+        }
+        // the first and the last valid point are kept as they are
+        long first = from;
+        while (first < to && Float.isNaN(ring[(int) first & mask])) {
+            first++;
+        }
+        long last = to - 1;
+        while (last > first && Float.isNaN(ring[(int) last & mask])) {
+            last--;
+        }
+        if (first >= to) {
+            return 0;
+        }
+        outX[written] = first;
+        outY[written++] = ring[(int) first & mask];
+        if (last == first) {
+            return written;
+        }
+        // offsets from the first point from here on, a window never exceeds the int sized ring
+        int base = (int) first;
+        int lastOffset = (int) (last - first);
+        double bucketSize = (double) (lastOffset - 1) / (threshold - 2);
+        int a = 0;
+        float ay = ring[base & mask];
+        float lastY = ring[(base + lastOffset) & mask];
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int bucketStart = 1 + (int) (bucket * bucketSize);
+            int bucketEnd = Math.min(lastOffset, 1 + (int) ((bucket + 1) * bucketSize));
+            // average of the next bucket, the last point for the last bucket
+            int nextEnd = Math.min(lastOffset, 1 + (int) ((bucket + 2) * bucketSize));
+            long sumX = 0;
+            double sumY = 0;
+            int valid = 0;
+            for (int x = bucketEnd; x < nextEnd; x++) {
+                float y = ring[(base + x) & mask];
+                if (y == y) {
+                    sumX += x;
+                    sumY += y;
+                    valid++;
+                }
+            }
+            double cx;
+            double cy;
+            if (valid > 0) {
+                cx = (double) sumX / valid;
+                cy = sumY / valid;
+            }
+            else {
+                cx = lastOffset;
+                cy = lastY;
+            }
+            // twice the triangle area is (ax - cx) * (y - ay) - (ax - x) * (cy - ay), the factor does not change the
+            // maximum
+            double dx = a - cx;
+            double dy = cy - ay;
+            double maxArea = -1;
+            int chosen = -1;
+            for (int x = bucketStart; x < bucketEnd; x++) {
+                float y = ring[(base + x) & mask];
+                double area = Math.abs(dx * (y - ay) - (a - x) * dy);
+                // false for NaN
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = x;
+                }
+            }
+            if (chosen >= 0) {
+                a = chosen;
+                ay = ring[(base + chosen) & mask];
+                outX[written] = first + a;
+                outY[written++] = ay;
+            }
+        }
+        outX[written] = last;
+        outY[written++] = lastY;
+        return written;
+    }
+}
@@ -0,0 +1,182 @@
+package com.intellij.plugins.serialmonitor.plot;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parses lines of numbers in the style of the Arduino serial plotter: values separated by commas, semicolons, spaces
+ * or tabs, each optionally named, as in {@code temp:21.5,hum:40}, {@code temp: 21.5 hum: 40} or
+ * {@code temp=21.5 hum=40}.
+ * <p>
+ * Parsing allocates nothing; a name is only turned into a string when it differs from the last one of its column. A
+ * token which is not a number is a gap (NaN) in its column. Numbers are parsed with 18 significant digits, enough for
+ * plotting but not correctly rounded in the last bits.
+ */
+public final class NumericLineParser {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_SIGNIFICANT_DIGITS = 18;
+
+    private final byte[][] nameBytes;
+    private final String[] names;
+    private final boolean[] named;
+
+    /**
+     * @param maxColumns values after this many columns are ignored
+     */
+    public NumericLineParser(int maxColumns) {
+        nameBytes = new byte[maxColumns][];
+        names = new String[maxColumns];
+        named = new boolean[maxColumns];
+    }
+
+    /**
+     * @return number of columns of the line, 0 if it has no number
+     */
+    public int parse(byte[] buffer, int offset, int length, @Nonnull double[] values) {
+        int end = offset + length;
+        int limit = Math.min(values.length, names.length);
+        int column = 0;
+        boolean anyNumber = false;
+        Arrays.fill(named, 0, limit, false);
+        int i = offset;
+        while (i < end && column < limit) {
+            while (i < end && isSeparator(buffer[i])) {
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+            int tokenStart = i;
+            int colon = -1;
+            while (i < end && !isSeparator(buffer[i])) {
+                if ((buffer[i] == ':' || buffer[i] == '=') && colon < 0) {
+                    colon = i;
+                }
+                i++;
+            }
+            int numberStart = tokenStart;
+            if (colon >= 0) {
+                updateName(column, buffer, tokenStart, colon - tokenStart);
+                named[column] = true;
+                numberStart = colon + 1;
+                if (numberStart == i) {
+                    // "name: value", the value is the next token
+                    continue;
+                }
+            }
+            double value = parseNumber(buffer, numberStart, i);
+            anyNumber |= !Double.isNaN(value);
+            values[column++] = value;
+        }
+        return anyNumber ? column : 0;
+    }
+
+    /**
+     * @return whether the last parsed line named a column
+     */
+    public boolean isNamed(int column) {
+        return named[column];
+    }
+
+    /**
+     * @return name of a column from the latest line which named it
+     */
+    public @Nullable String getName(int column) {
+        return names[column];
+    }
+
+    private void updateName(int column, byte[] buffer, int offset, int length) {
+        byte[] current = nameBytes[column];
+        if (current != null && Arrays.equals(current, 0, current.length, buffer, offset, offset + length)) {
+            return;
+        }
+        nameBytes[column] = Arrays.copyOfRange(buffer, offset, offset + length);
+        names[column] = new String(buffer, offset, length, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isSeparator(byte b) {
+        // line ends are separators too, as the other one of a CRLF stays in the line
+        return b == ',' || b == ' ' || b == '\t' || b == ';' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * @return the number in the bytes, NaN if they are not one
+     */
+    static double parseNumber(byte[] buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        for (; i < end && isDigit(buffer[i]); i++) {
+            any = true;
+            if (digits < MAX_SIGNIFICANT_DIGITS) {
+                mantissa = mantissa * 10 + buffer[i] - '0';
+                if (mantissa != 0) {
+                    digits++;
+                }
+            }
+            else {
+                exponent++;
+            }
+        }
+        if (i < end && buffer[i] == '.') {
+            for (i++; i < end && isDigit(buffer[i]); i++) {
+                any = true;
+                if (digits < MAX_SIGNIFICANT_DIGITS) {
+                    mantissa = mantissa * 10 + buffer[i] - '0';
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                }
+            }
+        }
+        if (!any) {
+            return Double.NaN;
+        }
+        if (i < end && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+                negativeExponent = buffer[i] == '-';
+                i++;
+            }
+            if (i == end) {
+                return Double.NaN;
+            }
+            int explicit = 0;
+            for (; i < end && isDigit(buffer[i]); i++) {
+                explicit = Math.min(explicit * 10 + buffer[i] - '0', 1000);
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        if (i != end) {
+            return Double.NaN;
+        }
+        double value = mantissa;
+        if (exponent > 0) {
+            value = exponent < POWERS_OF_TEN.length ? value * POWERS_OF_TEN[exponent] : value * Math.pow(10, exponent);
+        }
+        else if (exponent < 0) {
+            value = -exponent < POWERS_OF_TEN.length ? value / POWERS_OF_TEN[-exponent] : value / Math.pow(10, -exponent);
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
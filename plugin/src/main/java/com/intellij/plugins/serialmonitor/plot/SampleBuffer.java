@@ -0,0 +1,104 @@
+package com.intellij.plugins.serialmonitor.plot;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The latest samples of each column in a ring of floats. Samples are numbered from the first one added, the column
+ * values of a sample share its number.
+ * <p>
+ * One thread adds, any thread reads. A reader sees every sample below {@link #getCount()}; the oldest ones of the
+ * window may be overwritten while it reads them, which only affects the leftmost pixels of a plot of the whole ring.
+ */
+public final class SampleBuffer {
+
+    public static final int MAX_COLUMNS = 16;
+
+    private final int capacity;
+    private final int mask;
+    private final float[][] columns = new float[MAX_COLUMNS][];
+    private final AtomicReferenceArray<String> names = new AtomicReferenceArray<>(MAX_COLUMNS);
+    private volatile int columnCount;
+    private volatile long count;
+    private volatile long clearedAt;
+
+    /**
+     * @param capacity samples kept per column, rounded up to a power of two
+     */
+    public SampleBuffer(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = this.capacity - 1;
+    }
+
+    /**
+     * Adds a sample. Columns missing from the values are gaps.
+     */
+    public void add(@Nonnull double[] values, int valueCount) {
+        int columnsBefore = columnCount;
+        int n = Math.min(valueCount, MAX_COLUMNS);
+        for (int c = columnsBefore; c < n; c++) {
+            float[] column = new float[capacity];
+            Arrays.fill(column, Float.NaN);
+            columns[c] = column;
+        }
+        int index = (int) count & mask;
+        for (int c = 0; c < n; c++) {
+            columns[c][index] = (float) values[c];
+        }
+        for (int c = n; c < columnsBefore; c++) {
+            columns[c][index] = Float.NaN;
+        }
+        if (n > columnsBefore) {
+            columnCount = n;
+        }
+        // publishes the values
+        count = count + 1;
+    }
+
+    /**
+     * @return number of samples added so far, one more than the number of the latest sample
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return number of the oldest sample still kept
+     */
+    public long getStart() {
+        return Math.max(clearedAt, count - capacity);
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return ring of a column, the value of sample {@code n} is at {@code n & getMask()}
+     */
+    public @Nonnull float[] getColumn(int column) {
+        return columns[column];
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public void setName(int column, @Nullable String name) {
+        names.set(column, name);
+    }
+
+    public @Nullable String getName(int column) {
+        return names.get(column);
+    }
+
+    /**
+     * Forgets the samples added so far.
+     */
+    public void clear() {
+        clearedAt = count;
+    }
+}
@@ -0,0 +1,69 @@
+package com.intellij.plugins.serialmonitor.search;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * A match in the session history, with the line it was found in.
+ */
+public final class SearchHit {
+
+    private final long position;
+    private final int length;
+    private final long lineNumber;
+    private final String line;
+    private final int matchStart;
+    private final int matchEnd;
+
+    SearchHit(long position, int length, long lineNumber, @Nonnull String line, int matchStart, int matchEnd) {
+        this.position = position;
+        this.length = length;
+        this.lineNumber = lineNumber;
+        this.line = line;
+        this.matchStart = matchStart;
+        this.matchEnd = matchEnd;
+    }
+
+    /**
+     * @return absolute position of the first byte of the match among the received bytes
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return length of the match in bytes
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return zero-based number of the line
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return decoded line, without the line end
+     */
+    public @Nonnull String getLine() {
+        return line;
+    }
+
+    /**
+     * @return index of the match in {@link #getLine()}
+     */
+    public int getMatchStart() {
+        return matchStart;
+    }
+
+    public int getMatchEnd() {
+        return matchEnd;
+    }
+
+    @Override
+    public String toString() {
+        return lineNumber + 1 + ": " + line;
+    }
+}
@@ -0,0 +1,192 @@
+package com.intellij.plugins.serialmonitor.search;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Substring or regular expression searched line by line in the session history.
+ */
+public final class SearchQuery {
+
+    private final String text;
+    private final boolean regex;
+    private final boolean matchCase;
+
+    public SearchQuery(@Nonnull String text, boolean regex, boolean matchCase) {
+        this.text = text;
+        this.regex = regex;
+        this.matchCase = matchCase;
+    }
+
+    public @Nonnull String getText() {
+        return text;
+    }
+
+    public boolean isRegex() {
+        return regex;
+    }
+
+    public boolean isMatchCase() {
+        return matchCase;
+    }
+
+    /**
+     * @throws java.util.regex.PatternSyntaxException for a wrong regular expression
+     */
+    public @Nonnull Pattern toPattern() {
+        int flags = regex ? 0 : Pattern.LITERAL;
+        if (!matchCase) {
+            flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+        }
+        return Pattern.compile(text, flags);
+    }
+
+    /**
+     * Case may be ignored even with {@link #isMatchCase()}, by an inline flag of the expression.
+     */
+    boolean mayIgnoreCase() {
+        return !matchCase || regex && text.contains("(?");
+    }
+
+    /**
+     * @return strings every match contains, empty if nothing is known
+     */
+    @Nonnull List<String> requiredLiterals() {
+        if (!regex) {
+            return List.of(text);
+        }
+        // conservative: a literal is required when it is outside of groups, classes and alternatives, and not optional
+        List<String> literals = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> {
+                    if (i + 1 >= length) {
+                        return List.of();
+                    }
+                    char next = text.charAt(i + 1);
+                    if (next == 'Q') {
+                        int end = text.indexOf("\\E", i + 2);
+                        run.append(text, i + 2, end < 0 ? length : end);
+                        i = end < 0 ? length : end + 2;
+                        continue;
+                    }
+                    if (Character.isLetterOrDigit(next)) {
+                        // classes, anchors, back references and character codes
+                        flush(run, literals);
+                        i = next == 'p' || next == 'P' || next == 'x' || next == 'N' ? skipBraces(i + 2) : i + 2;
+                        continue;
+                    }
+                    run.append(next);
+                    i += 2;
+                    continue;
+                }
+                case '[' -> {
+                    flush(run, literals);
+                    i = skipClass(i);
+                    continue;
+                }
+                case '(' -> {
+                    flush(run, literals);
+                    i = skipGroup(i);
+                    if (i < 0) {
+                        return List.of();
+                    }
+                    continue;
+                }
+                case '|', ')' -> {
+                    return List.of();
+                }
+                case '?', '*', '{' -> {
+                    // the previous char is optional
+                    if (!run.isEmpty()) {
+                        run.setLength(run.length() - 1);
+                    }
+                    flush(run, literals);
+                    if (c == '{') {
+                        int end = text.indexOf('}', i);
+                        i = end < 0 ? length : end + 1;
+                        continue;
+                    }
+                }
+                case '+', '.', '^', '$' -> flush(run, literals);
+                default -> run.append(c);
+            }
+            i++;
+        }
+        flush(run, literals);
+        return literals;
+    }
+
+    private static void flush(@Nonnull StringBuilder run, @Nonnull List<String> literals) {
+        if (!run.isEmpty()) {
+            literals.add(run.toString());
+            run.setLength(0);
+        }
+    }
+
+    private int skipBraces(int i) {
+        if (i < text.length() && text.charAt(i) == '{') {
+            int end = text.indexOf('}', i);
+            return end < 0 ? text.length() : end + 1;
+        }
+        return Math.min(text.length(), i + 1);
+    }
+
+    // returns the index after the class
+    private int skipClass(int i) {
+        int depth = 0;
+        for (int j = i; j < text.length(); j++) {
+            char c = text.charAt(j);
+            if (c == '\\') {
+                j++;
+            }
+            else if (c == '[') {
+                depth++;
+                if (j + 1 < text.length() && text.charAt(j + 1) == '^') {
+                    j++;
+                }
+                // a leading ']' is a member of the class
+                if (j + 1 < text.length() && text.charAt(j + 1) == ']') {
+                    j++;
+                }
+            }
+            else if (c == ']' && --depth == 0) {
+                return j + 1;
+            }
+        }
+        return text.length();
+    }
+
+    // returns the index after the group, or -1 if it is not closed
+    private int skipGroup(int i) {
+        int depth = 0;
+        for (int j = i; j < text.length(); j++) {
+            char c = text.charAt(j);
+            if (c == '\\') {
+                j++;
+            }
+            else if (c == '[') {
+                j = skipClass(j) - 1;
+            }
+            else if (c == '(') {
+                depth++;
+            }
+            else if (c == ')' && --depth == 0) {
+                return j + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,40 @@
+package com.intellij.plugins.serialmonitor.search;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+
+/**
+ * Hits of a search, in the order of their positions.
+ */
+public final class SearchResult {
+
+    private final List<SearchHit> hits;
+    private final boolean complete;
+    private final long searchedBytes;
+
+    SearchResult(@Nonnull List<SearchHit> hits, boolean complete, long searchedBytes) {
+        this.hits = hits;
+        this.complete = complete;
+        this.searchedBytes = searchedBytes;
+    }
+
+    public @Nonnull List<SearchHit> getHits() {
+        return hits;
+    }
+
+    /**
+     * @return {@code false} if the search stopped at the hit limit or was cancelled, or the history moved on past
+     * some of the searched bytes
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return size of the retained history when the search started
+     */
+    public long getSearchedBytes() {
+        return searchedBytes;
+    }
+}
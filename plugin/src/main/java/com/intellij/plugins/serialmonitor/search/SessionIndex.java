@@ -0,0 +1,785 @@
+package com.intellij.plugins.serialmonitor.search;
+
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Searchable history of all bytes received in a session, beyond what the consoles retain.
+ * <p>
+ * The bytes are kept in a temporary file, in blocks of {@value #BLOCK_SIZE} bytes. Each block is indexed in the
+ * background as soon as it is full: the index maps every trigram of the block, with ASCII letters folded to lower
+ * case, to the blocks it occurs in, and records where the line holding the first byte of the block starts, a sparse
+ * line-offset index. A search takes the trigrams of the literal parts of the query and scans only the lines of the
+ * blocks which have all of them, plus the bytes which are not indexed yet. Queries without three literal bytes in a
+ * row scan the whole history.
+ * <p>
+ * The postings are kept in memory, within a limit. Blocks with more than {@value #MAX_BLOCK_TRIGRAMS} distinct
+ * trigrams, like binary data, and the blocks which come while the postings are at their limit are not indexed: they
+ * are candidates of every search.
+ * <p>
+ * The history is kept in segments of {@value #SEGMENT_BLOCKS} blocks. When it grows beyond its limit, the oldest
+ * segment is dropped with its postings and its part of the file is reused. Appending never waits for the indexing: if
+ * the indexing falls behind, for example because the disk stalls, full blocks are dropped and left out of searches,
+ * each counted as one line.
+ * <p>
+ * Lines end after a line feed or after {@value #MAX_LINE_LENGTH} bytes, matches do not span lines.
+ * Appended by the receiving thread, searched by any number of other threads.
+ */
+public final class SessionIndex implements Closeable {
+
+    private static final Logger LOG = Logger.getInstance(SessionIndex.class);
+
+    static final int BLOCK_SIZE = 256 * 1024;
+    static final int MAX_LINE_LENGTH = 4096;
+    static final int SEGMENT_BLOCKS = 64;
+    // Text has a few thousand distinct trigrams in a block, random bytes almost one per byte
+    static final int MAX_BLOCK_TRIGRAMS = 32 * 1024;
+    public static final long DEFAULT_MAX_INDEX_BYTES = 64L * 1024 * 1024;
+    // The indexer is much faster than any port, blocks are dropped only if it is starved
+    private static final int MAX_PENDING_BLOCKS = 64;
+    // Stands for a dropped block among the pending ones
+    private static final byte[] DROPPED = new byte[0];
+    private static final int CANCEL_CHECK_LINES = 1024;
+    private static final int TRIGRAM_MASK = 0xFFFFFF;
+    // Letters which also match non-ASCII ones when the case is ignored, like the Kelvin sign or the dotless i
+    private static final String UNICODE_FOLDED = "iks";
+    private static final byte[] FOLD = new byte[256];
+
+    static {
+        for (int i = 0; i < FOLD.length; i++) {
+            FOLD[i] = (byte) (i >= 'A' && i <= 'Z' ? i + ('a' - 'A') : i);
+        }
+    }
+
+    private final Executor executor;
+    private final Path path;
+    private final FileChannel channel;
+    private final int maxSegments;
+    private final long maxIndexBytes;
+    // Blocks in the file, a block is written over the one this many blocks before it
+    private final long fileBlocks;
+
+    // Blocks which are not in the file yet and the block being filled, guarded by this
+    private final ArrayDeque<byte[]> pending = new ArrayDeque<>();
+    private byte[] tail = new byte[BLOCK_SIZE];
+    private int tailLength;
+    private long writtenBlocks;
+    // Dropped blocks, in ascending order
+    private final List<Long> droppedBlocks = new ArrayList<>();
+    private long droppedBytes;
+    private boolean indexing;
+    private boolean closed;
+    private @Nullable IOException failure;
+
+    // Guarded by segments, which is locked before this
+    private final ArrayDeque<TrigramTable> segments = new ArrayDeque<>();
+    private int firstBlock;
+    private int indexedBlocks;
+    // Start and number of the line holding the first byte of a block, from the first block to one more than indexed,
+    // at the block modulo the file blocks
+    private long[] blockLineStarts = new long[64];
+    private long[] blockLineNumbers = new long[64];
+    // Estimated heap taken by the postings of all segments
+    private long indexBytes;
+    private boolean indexFull;
+
+    // Used by the indexing thread only
+    private final long[] seen = new long[(TRIGRAM_MASK + 1) / Long.SIZE];
+    private final int[] blockTrigrams = new int[BLOCK_SIZE];
+    private int trigram;
+    private long trigramStart;
+    private long indexedPosition;
+    private long lineStart;
+    private long lineNumber;
+
+    /**
+     * @param executor    runs the indexing in the background
+     * @param maxRetained number of bytes to keep searchable, rounded up to whole segments
+     */
+    public SessionIndex(@Nonnull Executor executor, long maxRetained) throws IOException {
+        this(executor, maxRetained, DEFAULT_MAX_INDEX_BYTES);
+    }
+
+    /**
+     * @param executor      runs the indexing in the background
+     * @param maxRetained   number of bytes to keep searchable, rounded up to whole segments
+     * @param maxIndexBytes estimated heap the postings may take, the blocks beyond it are scanned by every search
+     */
+    public SessionIndex(@Nonnull Executor executor, long maxRetained, long maxIndexBytes) throws IOException {
+        this.executor = executor;
+        this.maxIndexBytes = maxIndexBytes;
+        long segmentSize = (long) SEGMENT_BLOCKS * BLOCK_SIZE;
+        maxSegments = (int) Math.min(Integer.MAX_VALUE / SEGMENT_BLOCKS - 2, Math.max(1, (maxRetained - 1) / segmentSize + 1));
+        // the segment being indexed, and one more for the lines starting before the first segment
+        fileBlocks = (long) (maxSegments + 2) * SEGMENT_BLOCKS;
+        path = Files.createTempFile("serial-monitor-session", ".bin");
+        channel = FileChannel.open(path, READ, WRITE, DELETE_ON_CLOSE);
+    }
+
+    /**
+     * @return end of the history, the number of bytes appended
+     */
+    public synchronized long size() {
+        return (writtenBlocks + pending.size()) * BLOCK_SIZE + tailLength;
+    }
+
+    /**
+     * @return start of the searchable history, older bytes were dropped to stay within the limit
+     */
+    public long getStartPosition() {
+        synchronized (segments) {
+            return (long) firstBlock * BLOCK_SIZE;
+        }
+    }
+
+    /**
+     * @return number of bytes dropped because the indexing could not keep up
+     */
+    public synchronized long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    public void append(byte[] data, int offset, int length) {
+        synchronized (this) {
+            while (length > 0 && !closed && failure == null) {
+                int count = Math.min(length, BLOCK_SIZE - tailLength);
+                System.arraycopy(data, offset, tail, tailLength, count);
+                tailLength += count;
+                offset += count;
+                length -= count;
+                if (tailLength == BLOCK_SIZE) {
+                    if (pendingData() >= MAX_PENDING_BLOCKS) {
+                        if (droppedBytes == 0) {
+                            LOG.warn("Session history indexing falls behind, dropping received blocks from the history");
+                        }
+                        droppedBlocks.add(writtenBlocks + pending.size());
+                        droppedBytes += BLOCK_SIZE;
+                        pending.add(DROPPED);
+                    }
+                    else {
+                        pending.add(tail);
+                        tail = new byte[BLOCK_SIZE];
+                    }
+                    tailLength = 0;
+                    if (!indexing) {
+                        indexing = true;
+                        executor.execute(this::indexPending);
+                    }
+                }
+            }
+        }
+    }
+
+    // number of pending blocks holding data, must be called under this
+    private int pendingData() {
+        int blocks = 0;
+        for (byte[] block : pending) {
+            if (block != DROPPED) {
+                blocks++;
+            }
+        }
+        return blocks;
+    }
+
+    private void indexPending() {
+        while (true) {
+            byte[] block;
+            long blockPosition;
+            synchronized (this) {
+                block = pending.peek();
+                if (block == null || closed || failure != null) {
+                    indexing = false;
+                    return;
+                }
+                blockPosition = writtenBlocks % fileBlocks * BLOCK_SIZE;
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(block);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, blockPosition + buffer.position());
+                }
+            }
+            catch (IOException e) {
+                synchronized (this) {
+                    if (!closed) {
+                        LOG.warn("Failed to write the session history", e);
+                        failure = e;
+                    }
+                    indexing = false;
+                    pending.clear();
+                }
+                return;
+            }
+            synchronized (this) {
+                pending.poll();
+                writtenBlocks++;
+            }
+            if (block == DROPPED) {
+                skipBlock();
+            }
+            else {
+                indexBlock(block);
+            }
+        }
+    }
+
+    private void indexBlock(byte[] block) {
+        int count = 0;
+        int t = trigram;
+        long position = indexedPosition;
+        long start = lineStart;
+        long number = lineNumber;
+        for (byte b : block) {
+            // a trigram belongs to the block of its last byte
+            t = (t << 8 | FOLD[b & 0xFF] & 0xFF) & TRIGRAM_MASK;
+            if (position - trigramStart >= 2 && (seen[t >>> 6] & 1L << t) == 0) {
+                seen[t >>> 6] |= 1L << t;
+                blockTrigrams[count++] = t;
+            }
+            position++;
+            if (b == '\n' || position - start == MAX_LINE_LENGTH) {
+                start = position;
+                number++;
+            }
+        }
+        trigram = t;
+        indexedPosition = position;
+        lineStart = start;
+        lineNumber = number;
+        for (int i = 0; i < count; i++) {
+            seen[blockTrigrams[i] >>> 6] = 0;
+        }
+
+        synchronized (segments) {
+            int blockIndex = indexedBlocks;
+            TrigramTable postings = addSegment();
+            boolean indexed = count <= MAX_BLOCK_TRIGRAMS;
+            for (int i = 0; i < count && indexed; i++) {
+                if (indexBytes >= maxIndexBytes) {
+                    if (!indexFull) {
+                        LOG.info("Session history index is full, new blocks are scanned by every search");
+                        indexFull = true;
+                    }
+                    indexed = false;
+                }
+                else {
+                    indexBytes += postings.add(blockTrigrams[i], blockIndex);
+                }
+            }
+            if (!indexed) {
+                // the postings added so far do no harm, the block is a candidate anyway
+                postings.unindexed |= 1L << blockIndex % SEGMENT_BLOCKS;
+            }
+            blockIndexed(start, number);
+        }
+    }
+
+    /**
+     * Indexes a dropped block: the line before it ends at its start, and the block counts as one line.
+     */
+    private void skipBlock() {
+        long position = indexedPosition;
+        if (lineStart < position) {
+            lineNumber++;
+        }
+        position += BLOCK_SIZE;
+        lineStart = position;
+        lineNumber++;
+        indexedPosition = position;
+        trigram = 0;
+        trigramStart = position;
+        synchronized (segments) {
+            addSegment();
+            blockIndexed(lineStart, lineNumber);
+        }
+    }
+
+    // returns the segment of the block being indexed, must be called under the segments lock
+    private @Nonnull TrigramTable addSegment() {
+        if (indexedBlocks % SEGMENT_BLOCKS == 0) {
+            TrigramTable table = new TrigramTable(indexedBlocks);
+            indexBytes += table.bytes;
+            segments.add(table);
+        }
+        return segments.getLast();
+    }
+
+    // must be called under the segments lock
+    private void blockIndexed(long nextLineStart, long nextLineNumber) {
+        int next = indexedBlocks + 1;
+        int slot = (int) (next % fileBlocks);
+        if (slot >= blockLineStarts.length) {
+            int length = (int) Math.min(fileBlocks, (long) blockLineStarts.length * 2);
+            blockLineStarts = Arrays.copyOf(blockLineStarts, length);
+            blockLineNumbers = Arrays.copyOf(blockLineNumbers, length);
+        }
+        blockLineStarts[slot] = nextLineStart;
+        blockLineNumbers[slot] = nextLineNumber;
+        indexedBlocks = next;
+        if (next % SEGMENT_BLOCKS == 0 && segments.size() > maxSegments) {
+            indexBytes -= segments.poll().bytes;
+            if (indexBytes < maxIndexBytes) {
+                indexFull = false;
+            }
+            firstBlock += SEGMENT_BLOCKS;
+            synchronized (this) {
+                droppedBlocks.removeIf(block -> block < firstBlock);
+            }
+        }
+    }
+
+    /**
+     * Finds the lines matching the query, in the retained history appended before the call.
+     *
+     * @param charset   decodes the lines, the query is searched in its encoding
+     * @param cancelled checked while scanning, a cancelled search returns the hits found so far
+     * @throws java.util.regex.PatternSyntaxException for a wrong regular expression
+     */
+    public @Nonnull SearchResult search(@Nonnull SearchQuery query, @Nonnull Charset charset, int maxHits,
+                                        @Nonnull BooleanSupplier cancelled) throws IOException {
+        Pattern pattern = query.toPattern();
+        int first;
+        int blocks;
+        BitSet candidates;
+        long[] lineStarts;
+        long[] lineNumbers;
+        long end;
+        long[] dropped;
+        synchronized (segments) {
+            first = firstBlock;
+            blocks = indexedBlocks;
+            candidates = candidateBlocks(query, charset, blocks);
+            // the entries are reused once their blocks are dropped
+            lineStarts = new long[blocks - first + 1];
+            lineNumbers = new long[blocks - first + 1];
+            for (int block = first; block <= blocks; block++) {
+                int slot = (int) (block % fileBlocks);
+                lineStarts[block - first] = blockLineStarts[slot];
+                lineNumbers[block - first] = blockLineNumbers[slot];
+            }
+            synchronized (this) {
+                if (failure != null) {
+                    throw new IOException("Session history is not available", failure);
+                }
+                end = size();
+                dropped = droppedBlocks.stream().mapToLong(block -> block).toArray();
+            }
+        }
+
+        Scanner scanner = new Scanner(pattern, charset, end, dropped, maxHits, cancelled);
+        if (candidates == null) {
+            scanner.scan(lineStarts[0], lineNumbers[0], end);
+        }
+        else {
+            for (int block = candidates.nextSetBit(first); block >= 0 && !scanner.stopped; block = candidates.nextSetBit(block + 1)) {
+                scanner.scan(lineStarts[block - first], lineNumbers[block - first], (long) (block + 1) * BLOCK_SIZE);
+            }
+            // not indexed yet
+            scanner.scan(lineStarts[blocks - first], lineNumbers[blocks - first], end);
+        }
+        return new SearchResult(scanner.hits, !scanner.stopped && !scanner.overwritten, end - (long) first * BLOCK_SIZE);
+    }
+
+    // returns null if every block is a candidate, must be called under the segments lock
+    private @Nullable BitSet candidateBlocks(@Nonnull SearchQuery query, @Nonnull Charset charset, int blocks) {
+        boolean ignoreCase = query.mayIgnoreCase();
+        Set<Integer> keys = new HashSet<>();
+        for (String literal : query.requiredLiterals()) {
+            byte[] bytes = literal.getBytes(charset);
+            int t = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                t = (t << 8 | FOLD[bytes[i] & 0xFF] & 0xFF) & TRIGRAM_MASK;
+                if (i >= 2 && (!ignoreCase || isCaseStable(bytes, i - 2, i + 1))) {
+                    keys.add(t);
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            return null;
+        }
+        BitSet candidates = null;
+        for (int key : keys) {
+            BitSet blocksWithKey = new BitSet(blocks);
+            for (TrigramTable postings : segments) {
+                Posting posting = postings.find(key);
+                if (posting != null) {
+                    posting.addTo(blocksWithKey);
+                }
+                postings.addUnindexedTo(blocksWithKey);
+            }
+            if (blocksWithKey.isEmpty()) {
+                return blocksWithKey;
+            }
+            if (candidates == null) {
+                candidates = blocksWithKey;
+            }
+            else {
+                candidates.and(blocksWithKey);
+            }
+        }
+        return candidates;
+    }
+
+    // whether the bytes match only their ASCII case variants
+    private static boolean isCaseStable(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] < 0 || UNICODE_FOLDED.indexOf(FOLD[bytes[i]]) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads appended bytes, wherever they are now. Dropped blocks read as zeros.
+     *
+     * @return {@code false} if the bytes were written over meanwhile, because the history moved on
+     */
+    private boolean read(long position, byte[] target, int offset, int length) throws IOException {
+        while (length > 0) {
+            long fileEnd;
+            synchronized (this) {
+                fileEnd = writtenBlocks * BLOCK_SIZE;
+                if (position >= fileEnd) {
+                    int blockIndex = (int) ((position - fileEnd) / BLOCK_SIZE);
+                    int blockOffset = (int) ((position - fileEnd) % BLOCK_SIZE);
+                    byte[] block = blockIndex < pending.size() ? get(pending, blockIndex) : tail;
+                    int count = Math.min(length, BLOCK_SIZE - blockOffset);
+                    if (block == DROPPED) {
+                        Arrays.fill(target, offset, offset + count, (byte) 0);
+                    }
+                    else {
+                        System.arraycopy(block, blockOffset, target, offset, count);
+                    }
+                    position += count;
+                    offset += count;
+                    length -= count;
+                    continue;
+                }
+            }
+            // up to the end of the block, the next one may be elsewhere in the file
+            long blockEnd = (position / BLOCK_SIZE + 1) * BLOCK_SIZE;
+            long filePosition = position / BLOCK_SIZE % fileBlocks * BLOCK_SIZE + position % BLOCK_SIZE;
+            ByteBuffer buffer = ByteBuffer.wrap(target, offset, (int) Math.min(length, Math.min(fileEnd, blockEnd) - position));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, filePosition + buffer.position() - offset) < 0) {
+                    throw new IOException("Unexpected end of the session history");
+                }
+            }
+            synchronized (this) {
+                // the block being written now goes over the one this many blocks before it
+                if (position / BLOCK_SIZE <= writtenBlocks - fileBlocks) {
+                    return false;
+                }
+            }
+            int count = buffer.position() - offset;
+            position += count;
+            offset += count;
+            length -= count;
+        }
+        return true;
+    }
+
+    private static byte[] get(@Nonnull ArrayDeque<byte[]> blocks, int index) {
+        Iterator<byte[]> iterator = blocks.iterator();
+        for (int i = 0; i < index; i++) {
+            iterator.next();
+        }
+        return iterator.next();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            tail = new byte[0];
+        }
+        channel.close();
+    }
+
+    /**
+     * Scans lines from line starts, each line once.
+     */
+    private final class Scanner {
+
+        private final Matcher matcher;
+        private final Charset charset;
+        private final long end;
+        private final long[] dropped;
+        private final int maxHits;
+        private final BooleanSupplier cancelled;
+        private final List<SearchHit> hits = new ArrayList<>();
+        private boolean stopped;
+        private boolean overwritten;
+
+        private final byte[] window = new byte[BLOCK_SIZE + MAX_LINE_LENGTH];
+        private long windowStart;
+        private int windowLength;
+        // the next line not scanned yet
+        private long scannedPosition;
+        private long scannedLineNumber;
+
+        private Scanner(@Nonnull Pattern pattern, @Nonnull Charset charset, long end, @Nonnull long[] dropped,
+                        int maxHits, @Nonnull BooleanSupplier cancelled) {
+            matcher = pattern.matcher("");
+            this.charset = charset;
+            this.end = end;
+            this.dropped = dropped;
+            this.maxHits = maxHits;
+            this.cancelled = cancelled;
+        }
+
+        /**
+         * Scans the lines starting before {@code until}, from a line start. Stops at bytes written over meanwhile.
+         */
+        void scan(long position, long number, long until) throws IOException {
+            if (position < scannedPosition) {
+                position = scannedPosition;
+                number = scannedLineNumber;
+            }
+            until = Math.min(until, end);
+            int lines = 0;
+            while (position < until && !stopped) {
+                if (++lines % CANCEL_CHECK_LINES == 0 && cancelled.getAsBoolean()) {
+                    stopped = true;
+                    break;
+                }
+                int limit = MAX_LINE_LENGTH;
+                if (dropped.length > 0) {
+                    // lines end at a dropped block, which counts as a line, as in the index
+                    long block = position / BLOCK_SIZE;
+                    if (Arrays.binarySearch(dropped, block) >= 0) {
+                        position = (block + 1) * BLOCK_SIZE;
+                        number++;
+                        continue;
+                    }
+                    if (Arrays.binarySearch(dropped, block + 1) >= 0) {
+                        limit = (int) Math.min(limit, (block + 1) * BLOCK_SIZE - position);
+                    }
+                }
+                int offset = fill(position);
+                if (offset < 0) {
+                    overwritten = true;
+                    break;
+                }
+                limit = Math.min(windowLength - offset, limit);
+                int length = 0;
+                while (length < limit && window[offset + length++] != '\n') {
+                }
+                match(position, number, offset, length);
+                position += length;
+                number++;
+            }
+            scannedPosition = position;
+            scannedLineNumber = number;
+        }
+
+        // Makes the window hold the line at the position, returns its offset in the window or -1 if it was written over
+        private int fill(long position) throws IOException {
+            long windowEnd = windowStart + windowLength;
+            if (position < windowStart || position + MAX_LINE_LENGTH > windowEnd && windowEnd < end) {
+                windowStart = position;
+                windowLength = (int) Math.min(window.length, end - position);
+                if (!read(position, window, 0, windowLength)) {
+                    windowLength = 0;
+                    return -1;
+                }
+            }
+            return (int) (position - windowStart);
+        }
+
+        private void match(long position, long number, int offset, int length) {
+            int textLength = length;
+            if (textLength > 0 && window[offset + textLength - 1] == '\n') {
+                textLength--;
+                if (textLength > 0 && window[offset + textLength - 1] == '\r') {
+                    textLength--;
+                }
+            }
+            String line = new String(window, offset, textLength, charset);
+            matcher.reset(line);
+            while (matcher.find()) {
+                int start = matcher.start();
+                int matchEnd = matcher.end();
+                if (start == matchEnd) {
+                    continue;
+                }
+                int byteStart = line.substring(0, start).getBytes(charset).length;
+                int byteLength = line.substring(start, matchEnd).getBytes(charset).length;
+                hits.add(new SearchHit(position + byteStart, byteLength, number, line, start, matchEnd));
+                if (hits.size() >= maxHits) {
+                    stopped = true;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocks of a trigram, as varint deltas.
+     */
+    private static final class Posting {
+
+        // estimated heap of a new posting: the object and its array
+        static final int BYTES = 48;
+
+        private byte[] data = new byte[4];
+        private int size;
+        private int lastBlock = -1;
+
+        /**
+         * @return number of bytes the posting grew by
+         */
+        int add(int block) {
+            int grown = 0;
+            if (size + 5 > data.length) {
+                int length = Math.max(size + 5, data.length + (data.length >> 1));
+                grown = length - data.length;
+                data = Arrays.copyOf(data, length);
+            }
+            int delta = block - lastBlock;
+            lastBlock = block;
+            while (delta >= 0x80) {
+                data[size++] = (byte) (delta | 0x80);
+                delta >>>= 7;
+            }
+            data[size++] = (byte) delta;
+            return grown;
+        }
+
+        /**
+         * Adds the blocks, and the ones before them: a match can start in the previous block.
+         */
+        void addTo(@Nonnull BitSet target) {
+            int block = -1;
+            int i = 0;
+            while (i < size) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[i++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                }
+                while (b < 0);
+                block += delta;
+                target.set(Math.max(0, block - 1), block + 1);
+            }
+        }
+    }
+
+    /**
+     * Open addressing map from trigrams to postings, of the blocks of one segment.
+     */
+    private static final class TrigramTable {
+
+        private final int firstBlock;
+        private int[] keys = new int[1024];
+        private Posting[] values = new Posting[1024];
+        private int count;
+        // estimated heap of the table and its postings
+        long bytes = 8 * 1024;
+        // blocks which are candidates of every search, by their index in the segment
+        long unindexed;
+
+        TrigramTable(int firstBlock) {
+            this.firstBlock = firstBlock;
+        }
+
+        /**
+         * Adds the block to the posting of the trigram.
+         *
+         * @return number of bytes the table grew by
+         */
+        long add(int trigram, int block) {
+            long before = bytes;
+            // get may grow the table first
+            int grown = get(trigram).add(block);
+            bytes += grown;
+            return bytes - before;
+        }
+
+        /**
+         * Adds the blocks which are not indexed, and the ones before them, as {@link Posting#addTo} does.
+         */
+        void addUnindexedTo(@Nonnull BitSet target) {
+            for (long blocks = unindexed; blocks != 0; blocks &= blocks - 1) {
+                int block = firstBlock + Long.numberOfTrailingZeros(blocks);
+                target.set(Math.max(0, block - 1), block + 1);
+            }
+        }
+
+        @Nullable Posting find(int trigram) {
+            int mask = keys.length - 1;
+            for (int i = hash(trigram) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == trigram) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        private @Nonnull Posting get(int trigram) {
+            int mask = keys.length - 1;
+            int i = hash(trigram) & mask;
+            for (; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == trigram) {
+                    return values[i];
+                }
+            }
+            Posting posting = new Posting();
+            keys[i] = trigram;
+            values[i] = posting;
+            bytes += Posting.BYTES;
+            if (++count * 2 > keys.length) {
+                grow();
+            }
+            return posting;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            Posting[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new Posting[oldValues.length * 2];
+            bytes += (long) oldKeys.length * 8;
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = hash(oldKeys[j]) & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        private static int hash(int trigram) {
+            int hash = trigram * 0x9E3779B1;
+            return hash ^ hash >>> 16;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.intellij.plugins.serialmonitor.service;
+
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Linux watcher which rescans the ports only when device nodes appear in or disappear from {@code /dev}
+ * and {@code /dev/serial/by-id}.
+ */
+final class DevDirectoryPortWatcher implements PortHotplugWatcher {
+
+    private static final Logger LOG = Logger.getInstance(DevDirectoryPortWatcher.class);
+
+    private static final Path DEV = Paths.get("/dev");
+    private static final Path SERIAL_BY_ID = DEV.resolve("serial").resolve("by-id");
+    private static final String[] DEVICE_PREFIXES = {"tty", "rfcomm", "serial"};
+
+    // udev creates the device node and its symlinks in several steps, collect them into a single rescan
+    private static final long SETTLE_MS = 200;
+
+    private volatile WatchService myWatchService;
+    private volatile boolean myByIdRegistered;
+
+    @Override
+    public boolean start(@Nonnull BooleanSupplier rescan) {
+        WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            DEV.register(watchService, ENTRY_CREATE, ENTRY_DELETE);
+        }
+        catch (IOException | UnsupportedOperationException e) {
+            LOG.info("Unable to watch " + DEV + ", falling back to polling", e);
+            return false;
+        }
+        myWatchService = watchService;
+        registerById(watchService);
+
+        Thread thread = new Thread(() -> watch(watchService, rescan), "Serial Port Hotplug Watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private void watch(@Nonnull WatchService watchService, @Nonnull BooleanSupplier rescan) {
+        try {
+            while (true) {
+                boolean relevant = processEvents(watchService, watchService.take());
+                WatchKey next;
+                while ((next = watchService.poll(SETTLE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= processEvents(watchService, next);
+                }
+                if (relevant) {
+                    rescan(rescan);
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private static void rescan(@Nonnull BooleanSupplier rescan) {
+        try {
+            rescan.getAsBoolean();
+        }
+        catch (RuntimeException e) {
+            // the thread keeps watching, or hotplug stops until restart
+            LOG.error("Failed to rescan the serial ports", e);
+        }
+    }
+
+    private boolean processEvents(@Nonnull WatchService watchService, @Nonnull WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || !DEV.equals(key.watchable())) {
+                relevant = true;
+            }
+            else if (event.context() instanceof Path path && isDeviceName(path.toString())) {
+                relevant = true;
+            }
+        }
+        if (!key.reset() && SERIAL_BY_ID.equals(key.watchable())) {
+            // the directory is removed together with the last USB serial device
+            myByIdRegistered = false;
+        }
+        if (relevant && !myByIdRegistered) {
+            registerById(watchService);
+        }
+        return relevant;
+    }
+
+    private void registerById(@Nonnull WatchService watchService) {
+        if (!Files.isDirectory(SERIAL_BY_ID)) {
+            return;
+        }
+        try {
+            SERIAL_BY_ID.register(watchService, ENTRY_CREATE, ENTRY_DELETE);
+            myByIdRegistered = true;
+        }
+        catch (IOException e) {
+            LOG.debug("Unable to watch " + SERIAL_BY_ID + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean isDeviceName(@Nonnull String name) {
+        for (String prefix : DEVICE_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void stop() {
+        WatchService watchService = myWatchService;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            }
+            catch (IOException e) {
+                LOG.debug("Failed to close watch service: " + e.getMessage());
+            }
+        }
+    }
+}
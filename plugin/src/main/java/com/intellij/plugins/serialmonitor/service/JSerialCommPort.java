@@ -7,6 +7,7 @@ import com.intellij.plugins.serialmonitor.Parity;
 import com.intellij.plugins.serialmonitor.SerialPortProfile;
 import com.intellij.plugins.serialmonitor.StopBits;
 import consulo.localize.LocalizeValue;
+import consulo.logging.Logger;
 import consulo.platform.Platform;
 import consulo.serialMonitor.localize.SerialMonitorLocalize;
 import jakarta.annotation.Nonnull;
@@ -15,7 +16,14 @@ import static com.fazecast.jSerialComm.SerialPort.*;
 
 public class JSerialCommPort implements SerialPort {
 
+    private static final Logger LOG = Logger.getInstance(JSerialCommPort.class);
+
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int READ_TIMEOUT_MS = 100;
+    private static final int WRITE_TIMEOUT_MS = 500;
+
     private final com.fazecast.jSerialComm.SerialPort serialPort;
+    private volatile Thread readerThread;
 
     private JSerialCommPort(@Nonnull com.fazecast.jSerialComm.SerialPort port) {
         this.serialPort = port;
@@ -45,11 +53,13 @@ public class JSerialCommPort implements SerialPort {
     }
 
     @Override
-    public void connect(@Nonnull SerialPortProfile profile, @Nonnull SerialPortListener listener, boolean rts, boolean dtr) throws SerialPortException {
+    public void connect(@Nonnull SerialPortProfile profile, @Nonnull SerialPortListener listener, boolean rts, boolean dtr,
+                        @Nonnull ReceiveMode receiveMode) throws SerialPortException {
         checkSuccess(setRTSInternal(rts), SerialMonitorLocalize.serialPortRtsInitFailed());
         checkSuccess(setDTRInternal(dtr), SerialMonitorLocalize.serialPortDtrInitFailed());
 
-        if (!addListener(listener)) {
+        boolean useReaderThread = receiveMode == ReceiveMode.READER_THREAD;
+        if (!addListener(listener, !useReaderThread)) {
             throw new SerialPortException(SerialMonitorLocalize.serialPortListenerFailed().get());
         }
 
@@ -59,8 +69,64 @@ public class JSerialCommPort implements SerialPort {
             serialPort.setComPortParameters(profile.getBaudRate(), profile.getBits(), portStopBits, portParity),
             SerialMonitorLocalize.serialPortParametersWrong()
         );
+        // writes wait for flow control, the timeout lets the writer thread notice a disconnect
+        checkSuccess(
+            useReaderThread
+                ? serialPort.setComPortTimeouts(TIMEOUT_READ_SEMI_BLOCKING | TIMEOUT_WRITE_BLOCKING, READ_TIMEOUT_MS, WRITE_TIMEOUT_MS)
+                : serialPort.setComPortTimeouts(TIMEOUT_NONBLOCKING | TIMEOUT_WRITE_BLOCKING, 0, WRITE_TIMEOUT_MS),
+            SerialMonitorLocalize.serialPortParametersWrong()
+        );
+        checkSuccess(
+            serialPort.setFlowControl(profile.getHardwareFlowControl()
+                ? FLOW_CONTROL_RTS_ENABLED | FLOW_CONTROL_CTS_ENABLED
+                : FLOW_CONTROL_DISABLED),
+            SerialMonitorLocalize.serialPortParametersWrong()
+        );
 
         checkSuccess(serialPort.openPort(), SerialMonitorLocalize.serialPortOpenFailed());
+
+        if (useReaderThread) {
+            startReaderThread(listener);
+        }
+    }
+
+    private void startReaderThread(@Nonnull SerialPortListener listener) {
+        Thread thread = new Thread(() -> readLoop(listener), "Serial Port Reader: " + getSystemName());
+        thread.setDaemon(true);
+        readerThread = thread;
+        thread.start();
+    }
+
+    private void readLoop(@Nonnull SerialPortListener listener) {
+        // The single buffer is reused for every read, listeners get slices of it and copy what they keep
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        Thread current = Thread.currentThread();
+        while (readerThread == current) {
+            int read = serialPort.readBytes(buffer, buffer.length);
+            if (read > 0) {
+                listener.onDataReceived(buffer, 0, read);
+            }
+            else if (read < 0) {
+                // the port is closed or gone
+                break;
+            }
+        }
+    }
+
+    private void stopReaderThread() {
+        Thread thread = readerThread;
+        readerThread = null;
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(READ_TIMEOUT_MS * 10);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                LOG.warn("Reader thread of " + getSystemName() + " did not stop in time");
+            }
+        }
     }
 
     private int convertParity(@Nonnull Parity parity) {
@@ -81,12 +147,17 @@ public class JSerialCommPort implements SerialPort {
 
     @Override
     public void disconnect() throws SerialPortException {
-        checkSuccess(serialPort.closePort(), SerialMonitorLocalize.portCloseError(serialPort.getSystemPortName(), ""));
+        try {
+            checkSuccess(serialPort.closePort(), SerialMonitorLocalize.portCloseError(serialPort.getSystemPortName(), ""));
+        }
+        finally {
+            stopReaderThread();
+        }
     }
 
     @Override
-    public int write(byte[] data) {
-        return serialPort.writeBytes(data, data.length);
+    public int write(byte[] data, int offset, int length) {
+        return serialPort.writeBytes(data, length, offset);
     }
 
     @Override
@@ -117,11 +188,13 @@ public class JSerialCommPort implements SerialPort {
         return serialPort.getDSR();
     }
 
-    public boolean addListener(@Nonnull SerialPortListener listener) {
+    public boolean addListener(@Nonnull SerialPortListener listener, boolean receiveData) {
+        int events = LISTENING_EVENT_CTS | LISTENING_EVENT_DSR | LISTENING_EVENT_PORT_DISCONNECTED;
+        int listeningEvents = receiveData ? events | LISTENING_EVENT_DATA_RECEIVED : events;
         return serialPort.addDataListener(new SerialPortDataListener() {
             @Override
             public int getListeningEvents() {
-                return LISTENING_EVENT_DATA_RECEIVED | LISTENING_EVENT_CTS | LISTENING_EVENT_DSR | LISTENING_EVENT_PORT_DISCONNECTED;
+                return listeningEvents;
             }
 
             @Override
@@ -129,7 +202,8 @@ public class JSerialCommPort implements SerialPort {
                 int eventType = event.getEventType();
 
                 if ((eventType & LISTENING_EVENT_DATA_RECEIVED) != 0) {
-                    listener.onDataReceived(event.getReceivedData());
+                    byte[] data = event.getReceivedData();
+                    listener.onDataReceived(data, 0, data.length);
                 }
                 if ((eventType & LISTENING_EVENT_CTS) != 0) {
                     listener.onCTSChanged(serialPort.getCTS());
@@ -1,9 +1,11 @@
 package com.intellij.plugins.serialmonitor.service;
 
 import com.fazecast.jSerialComm.SerialPort;
+import com.intellij.plugins.serialmonitor.simulator.SimulatedSerialPortProvider;
 import consulo.annotation.component.ServiceImpl;
 import consulo.platform.Platform;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import jakarta.inject.Singleton;
 
 import java.util.ArrayList;
@@ -13,6 +15,9 @@ import java.util.List;
 @ServiceImpl
 public final class JSerialCommPortProvider implements SerialPortProvider {
 
+    // Virtual ports listed next to the real ones, see SimulatedSerialPortProvider.PORTS_PROPERTY
+    private final @Nullable SimulatedSerialPortProvider mySimulator = SimulatedSerialPortProvider.fromSystemProperty();
+
     @Override
     public @Nonnull List<String> scanAvailablePorts() {
         SerialPort[] commPorts = SerialPort.getCommPorts();
@@ -20,11 +25,26 @@ public final class JSerialCommPortProvider implements SerialPortProvider {
         for (SerialPort port : commPorts) {
             result.add(Platform.current().os().isWindows() ? port.getSystemPortName() : port.getSystemPortPath());
         }
+        if (mySimulator != null) {
+            result.addAll(mySimulator.scanAvailablePorts());
+        }
         return result;
     }
 
     @Override
     public @Nonnull com.intellij.plugins.serialmonitor.service.SerialPort createPort(@Nonnull String portName) throws SerialPortException {
+        if (mySimulator != null && mySimulator.hasPort(portName)) {
+            return mySimulator.createPort(portName);
+        }
         return JSerialCommPort.create(portName);
     }
+
+    @Override
+    public @Nullable PortHotplugWatcher createHotplugWatcher() {
+        if (mySimulator != null) {
+            // polling notices changes of both the real and the simulated ports
+            return null;
+        }
+        return Platform.current().os().isLinux() ? new DevDirectoryPortWatcher() : null;
+    }
 }
@@ -0,0 +1,62 @@
+package com.intellij.plugins.serialmonitor.service;
+
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Fallback watcher which polls the port list, doubling the delay while nothing changes.
+ */
+final class PollingPortWatcher implements PortHotplugWatcher {
+
+    private static final Logger LOG = Logger.getInstance(PollingPortWatcher.class);
+
+    private static final long MIN_DELAY_MS = 1000;
+    private static final long MAX_DELAY_MS = 8000;
+
+    private final ScheduledExecutorService myScheduler;
+    private volatile Future<?> myScanTask = CompletableFuture.completedFuture(null);
+    private volatile boolean myStopped;
+    // Written by the scan tasks, which may run on different scheduler threads
+    private volatile long myDelay = MIN_DELAY_MS;
+
+    PollingPortWatcher(@Nonnull ScheduledExecutorService scheduler) {
+        myScheduler = scheduler;
+    }
+
+    @Override
+    public boolean start(@Nonnull BooleanSupplier rescan) {
+        myStopped = false;
+        scheduleNext(rescan);
+        return true;
+    }
+
+    private void scheduleNext(@Nonnull BooleanSupplier rescan) {
+        if (myStopped) {
+            return;
+        }
+        myScanTask = myScheduler.schedule(() -> {
+            boolean changed = false;
+            try {
+                changed = rescan.getAsBoolean();
+            }
+            catch (RuntimeException e) {
+                // the next scan is scheduled anyway, or hotplug stops until restart
+                LOG.error("Failed to rescan the serial ports", e);
+            }
+            myDelay = changed ? MIN_DELAY_MS : Math.min(myDelay * 2, MAX_DELAY_MS);
+            scheduleNext(rescan);
+        }, myDelay, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        myStopped = true;
+        myScanTask.cancel(false);
+    }
+}
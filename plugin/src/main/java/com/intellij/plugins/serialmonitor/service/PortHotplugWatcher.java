@@ -0,0 +1,24 @@
+package com.intellij.plugins.serialmonitor.service;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Notifies {@link SerialPortService} that the set of available ports may have changed.
+ * <p>
+ * The {@code rescan} callback rescans the ports and returns {@code true} if the set of ports actually changed.
+ * It may be invoked from any thread.
+ */
+public interface PortHotplugWatcher {
+
+    /**
+     * Starts watching.
+     *
+     * @return {@code false} if watching is not possible in the current environment,
+     * the service falls back to polling then
+     */
+    boolean start(@Nonnull BooleanSupplier rescan);
+
+    void stop();
+}
@@ -0,0 +1,94 @@
+package com.intellij.plugins.serialmonitor.service;
+
+/**
+ * Snapshot of the traffic and health of one connection, published on {@link SerialConnectionMetricsListener#TOPIC}.
+ * Rates are moving averages over the last few seconds.
+ */
+public final class SerialConnectionMetrics {
+
+    private final long rxBytes;
+    private final double rxBytesPerSecond;
+    private final double rxEventsPerSecond;
+    private final long txBytes;
+    private final double txBytesPerSecond;
+    private final long pendingWriteBytes;
+    private final long consoleBufferedBytes;
+    private final long consoleBufferCapacity;
+    private final long droppedBytes;
+    private final long consoleLagNanos;
+
+    SerialConnectionMetrics(long rxBytes, double rxBytesPerSecond, double rxEventsPerSecond,
+                            long txBytes, double txBytesPerSecond, long pendingWriteBytes,
+                            long consoleBufferedBytes, long consoleBufferCapacity, long droppedBytes, long consoleLagNanos) {
+        this.rxBytes = rxBytes;
+        this.rxBytesPerSecond = rxBytesPerSecond;
+        this.rxEventsPerSecond = rxEventsPerSecond;
+        this.txBytes = txBytes;
+        this.txBytesPerSecond = txBytesPerSecond;
+        this.pendingWriteBytes = pendingWriteBytes;
+        this.consoleBufferedBytes = consoleBufferedBytes;
+        this.consoleBufferCapacity = consoleBufferCapacity;
+        this.droppedBytes = droppedBytes;
+        this.consoleLagNanos = consoleLagNanos;
+    }
+
+    /**
+     * Bytes received since the connection was opened.
+     */
+    public long getRxBytes() {
+        return rxBytes;
+    }
+
+    public double getRxBytesPerSecond() {
+        return rxBytesPerSecond;
+    }
+
+    /**
+     * Received chunks per second, each port event or read counts as one.
+     */
+    public double getRxEventsPerSecond() {
+        return rxEventsPerSecond;
+    }
+
+    public double getAverageRxChunkSize() {
+        return rxEventsPerSecond > 0 ? rxBytesPerSecond / rxEventsPerSecond : 0;
+    }
+
+    /**
+     * Bytes written to the port since the connection was opened.
+     */
+    public long getTxBytes() {
+        return txBytes;
+    }
+
+    public double getTxBytesPerSecond() {
+        return txBytesPerSecond;
+    }
+
+    public long getPendingWriteBytes() {
+        return pendingWriteBytes;
+    }
+
+    public long getConsoleBufferedBytes() {
+        return consoleBufferedBytes;
+    }
+
+    public long getConsoleBufferCapacity() {
+        return consoleBufferCapacity;
+    }
+
+    /**
+     * Console buffer occupancy, from 0 to 1.
+     */
+    public double getConsoleBufferUsage() {
+        return consoleBufferCapacity > 0 ? Math.min(1, (double) consoleBufferedBytes / consoleBufferCapacity) : 0;
+    }
+
+    public long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    public long getConsoleLagNanos() {
+        return consoleLagNanos;
+    }
+}
@@ -0,0 +1,17 @@
+package com.intellij.plugins.serialmonitor.service;
+
+import consulo.annotation.component.ComponentScope;
+import consulo.annotation.component.TopicAPI;
+import jakarta.annotation.Nonnull;
+
+/**
+ * Receives the metrics of every open connection once per second, on a background thread.
+ */
+@TopicAPI(ComponentScope.APPLICATION)
+public interface SerialConnectionMetricsListener {
+
+    @Nonnull
+    Class<SerialConnectionMetricsListener> TOPIC = SerialConnectionMetricsListener.class;
+
+    void metricsUpdated(@Nonnull SerialPortService.SerialConnection connection, @Nonnull SerialConnectionMetrics metrics);
+}
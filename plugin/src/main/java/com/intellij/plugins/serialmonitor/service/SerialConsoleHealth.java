@@ -0,0 +1,25 @@
+package com.intellij.plugins.serialmonitor.service;
+
+/**
+ * State of the console a connection delivers its data to, included into {@link SerialConnectionMetrics}.
+ * Called by the metrics publisher, from a background thread.
+ */
+public interface SerialConsoleHealth {
+
+    /**
+     * Number of received bytes waiting to be shown.
+     */
+    long getBufferedBytes();
+
+    long getBufferCapacity();
+
+    /**
+     * Number of received bytes lost by the console since the connection was opened.
+     */
+    long getDroppedBytes();
+
+    /**
+     * How long the received data waits before it is shown, 0 when the console keeps up.
+     */
+    long getLagNanos();
+}
@@ -0,0 +1,14 @@
+package com.intellij.plugins.serialmonitor.service;
+
+/**
+ * Receives the data flowing through a {@link SerialPortService.SerialConnection}.
+ * <p>
+ * The buffer may be reused as soon as the call returns, implementations must copy the bytes they need to keep.
+ */
+@FunctionalInterface
+public interface SerialDataListener {
+    /**
+     * @param nanoTime {@link System#nanoTime()} when the bytes arrived
+     */
+    void dataReceived(byte[] buffer, int offset, int length, long nanoTime);
+}
@@ -3,17 +3,30 @@ package com.intellij.plugins.serialmonitor.service;
 import com.intellij.plugins.serialmonitor.SerialPortProfile;
 import jakarta.annotation.Nonnull;
 
+import java.util.Arrays;
+
 public interface SerialPort {
 
     @Nonnull String getSystemName();
 
     @Nonnull String getDescriptiveName();
 
-    void connect(@Nonnull SerialPortProfile profile, @Nonnull SerialPortListener listener, boolean rts, boolean dtr) throws SerialPortException;
+    void connect(@Nonnull SerialPortProfile profile, @Nonnull SerialPortListener listener, boolean rts, boolean dtr,
+                 @Nonnull ReceiveMode receiveMode) throws SerialPortException;
 
     void disconnect() throws SerialPortException;
 
-    int write(byte[] data) throws SerialPortException;
+    /**
+     * Writes up to {@code length} bytes, waiting while the port is flow-controlled, but not longer than the port's
+     * write timeout.
+     *
+     * @return number of bytes written, or a negative value if the port is not usable
+     */
+    int write(byte[] data, int offset, int length) throws SerialPortException;
+
+    default int write(byte[] data) throws SerialPortException {
+        return write(data, 0, data.length);
+    }
 
     void setRTS(boolean value) throws SerialPortException;
 
@@ -23,8 +36,27 @@ public interface SerialPort {
 
     boolean getDSR() throws SerialPortException;
 
+    enum ReceiveMode {
+        /**
+         * Data is delivered by the port library on its event thread, in a newly allocated array per event.
+         */
+        EVENT,
+        /**
+         * A dedicated thread performs blocking reads into a reused buffer and delivers slices of it.
+         */
+        READER_THREAD
+    }
+
     interface SerialPortListener {
         default void onDataReceived(byte[] data) {}
+
+        /**
+         * Receives a slice of a buffer which may be reused as soon as the call returns.
+         */
+        default void onDataReceived(byte[] buffer, int offset, int length) {
+            onDataReceived(Arrays.copyOfRange(buffer, offset, offset + length));
+        }
+
         default void onCTSChanged(boolean state) {}
         default void onDSRChanged(boolean state) {}
     }
@@ -3,6 +3,7 @@ package com.intellij.plugins.serialmonitor.service;
 import consulo.annotation.component.ComponentScope;
 import consulo.annotation.component.ServiceAPI;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
 import java.util.List;
 
@@ -20,4 +21,12 @@ public interface SerialPortProvider {
      * @throws SerialPortException if the port is not available.
      */
     @Nonnull SerialPort createPort(@Nonnull String portName) throws SerialPortException;
+
+    /**
+     * Creates a watcher which reports changes of the available ports list.
+     * When {@code null} is returned, or the watcher fails to start, the ports are polled instead.
+     */
+    default @Nullable PortHotplugWatcher createHotplugWatcher() {
+        return null;
+    }
 }
@@ -2,6 +2,10 @@ package com.intellij.plugins.serialmonitor.service;
 
 import com.intellij.plugins.serialmonitor.SerialMonitorException;
 import com.intellij.plugins.serialmonitor.SerialPortProfile;
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.capture.CaptureDirection;
+import com.intellij.plugins.serialmonitor.capture.CaptureJournal;
+import com.intellij.plugins.serialmonitor.capture.CaptureReplay;
 import consulo.annotation.component.ComponentScope;
 import consulo.annotation.component.ServiceAPI;
 import consulo.annotation.component.ServiceImpl;
@@ -16,8 +20,13 @@ import jakarta.annotation.Nullable;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 @Singleton
@@ -27,10 +36,14 @@ public final class SerialPortService implements Disposable {
 
     private static final Logger LOG = Logger.getInstance(SerialPortService.class);
 
+    private static final long METRICS_PERIOD_MS = 1000;
+
     private volatile Set<String> portNames = Collections.emptySet();
     private final Map<String, SerialConnection> connections = new ConcurrentHashMap<>();
+    private final List<SerialReceiveListener> receiveListeners = new CopyOnWriteArrayList<>();
 
-    private Future<?> myScanTask = CompletableFuture.completedFuture(null);
+    private final PortHotplugWatcher myHotplugWatcher;
+    private final ScheduledExecutorService myScheduler;
 
     private final Comparator<String> NAME_COMPARATOR = (name1, name2) -> {
         int[] split1 = splitName(name1);
@@ -47,7 +60,15 @@ public final class SerialPortService implements Disposable {
 
     @Inject
     public SerialPortService(ApplicationConcurrency applicationConcurrency) {
-        myScanTask = applicationConcurrency.getScheduledExecutorService().scheduleWithFixedDelay(this::rescanPorts, 1, 1, TimeUnit.SECONDS);
+        ScheduledExecutorService scheduler = applicationConcurrency.getScheduledExecutorService();
+        myScheduler = scheduler;
+        PortHotplugWatcher watcher = Application.get().getInstance(SerialPortProvider.class).createHotplugWatcher();
+        if (watcher == null || !watcher.start(this::rescanPorts)) {
+            watcher = new PollingPortWatcher(scheduler);
+            watcher.start(this::rescanPorts);
+        }
+        myHotplugWatcher = watcher;
+        scheduler.execute(this::rescanPorts);
     }
 
     private int[] splitName(@Nonnull String s) {
@@ -76,7 +97,10 @@ public final class SerialPortService implements Disposable {
         }
     }
 
-    private void rescanPorts() {
+    /**
+     * @return {@code true} if the set of available ports changed
+     */
+    private synchronized boolean rescanPorts() {
         Set<String> portList = scanPorts();
         Set<String> oldPorts = portNames;
 
@@ -90,17 +114,21 @@ public final class SerialPortService implements Disposable {
             }
         }
 
+        List<SerialPortsEvent.StatusChange> statusChanges = new ArrayList<>();
         for (String name : portList) {
             SerialConnection connection = connections.get(name);
             if (connection != null && connection.getStatus() == PortStatus.UNAVAILABLE_DISCONNECTED) {
                 connection.setStatus(PortStatus.DISCONNECTED);
+                statusChanges.add(new SerialPortsEvent.StatusChange(name, PortStatus.UNAVAILABLE_DISCONNECTED, PortStatus.DISCONNECTED));
             }
         }
 
-        if (!oldPorts.equals(portList)) {
+        boolean changed = !oldPorts.equals(portList);
+        if (changed || !statusChanges.isEmpty()) {
             portNames = portList;
-            portMessageTopic().portsStatusChanged();
+            portMessageTopic().portsChanged(SerialPortsEvent.scanned(oldPorts, portList, statusChanges));
         }
+        return changed;
     }
 
     private @Nonnull SerialPortsListener portMessageTopic() {
@@ -121,6 +149,15 @@ public final class SerialPortService implements Disposable {
         return serialConnection;
     }
 
+    /**
+     * Adds a listener to the data received by all connections, in addition to the data listener of each connection.
+     * Local echo is not included.
+     */
+    public void addReceiveListener(@Nonnull SerialReceiveListener listener, @Nonnull Disposable parentDisposable) {
+        receiveListeners.add(listener);
+        Disposer.register(parentDisposable, () -> receiveListeners.remove(listener));
+    }
+
     public @Nonnull PortStatus portStatus(@Nonnull String portName) {
         if (!portNames.contains(portName)) {
             return connections.containsKey(portName) ? PortStatus.UNAVAILABLE_DISCONNECTED : PortStatus.UNAVAILABLE;
@@ -140,18 +177,32 @@ public final class SerialPortService implements Disposable {
 
     @Override
     public void dispose() {
-        myScanTask.cancel(false);
+        myHotplugWatcher.stop();
     }
 
     public class SerialConnection implements Disposable {
         private final String portName;
 
-        private Consumer<byte[]> dataListener;
+        private SerialDataListener dataListener;
         private Consumer<Boolean> dsrListener;
         private Consumer<Boolean> ctsListener;
 
         private volatile SerialPort port;
         private volatile PortStatus status = PortStatus.DISCONNECTED;
+        private volatile SerialWriteQueue writeQueue;
+        private volatile CaptureJournal captureJournal;
+        private volatile Path capturePath;
+        private volatile TrafficMeter rxMeter = new TrafficMeter();
+        private volatile TrafficMeter txMeter = new TrafficMeter();
+        private volatile SerialConsoleHealth consoleHealth;
+        private volatile Charset charset = StandardCharsets.US_ASCII;
+        private volatile SerialProfileService.NewLine newLine = SerialProfileService.NewLine.CRLF;
+        private volatile boolean disposed;
+        // The last write was dropped because the send queue was full
+        private volatile boolean writeQueueFull;
+        private volatile ScheduledFuture<?> metricsTask;
+        // guarded by this
+        private boolean replaying;
         private boolean localEcho = false;
         private boolean rts = true;
         private boolean dtr = true;
@@ -164,10 +215,31 @@ public final class SerialPortService implements Disposable {
             return portName;
         }
 
-        public void setDataListener(@Nullable Consumer<byte[]> dataListener) {
+        /**
+         * @return encoding of the profile the port was last connected with
+         */
+        public @Nonnull Charset getCharset() {
+            return charset;
+        }
+
+        /**
+         * @return line end of the profile the port was last connected with
+         */
+        public @Nonnull SerialProfileService.NewLine getNewLine() {
+            return newLine;
+        }
+
+        public void setDataListener(@Nullable SerialDataListener dataListener) {
             this.dataListener = dataListener;
         }
 
+        /**
+         * @param consoleHealth state of the console to include into the published metrics
+         */
+        public void setConsoleHealth(@Nullable SerialConsoleHealth consoleHealth) {
+            this.consoleHealth = consoleHealth;
+        }
+
         public void setDsrListener(@Nullable Consumer<Boolean> dsrListener) {
             this.dsrListener = dsrListener;
         }
@@ -226,8 +298,12 @@ public final class SerialPortService implements Disposable {
 
         @Override
         public void dispose() {
+            disposed = true;
             closeSilently(true);
-            connections.remove(portName, this);
+            if (connections.remove(portName, this)) {
+                // without a connection the port is shown as ready or unavailable again
+                portMessageTopic().portsChanged(SerialPortsEvent.statusChanged(portName, status, portStatus(portName)));
+            }
             Application.get().executeOnPooledThread(SerialPortService.this::rescanPorts);
         }
 
@@ -239,7 +315,14 @@ public final class SerialPortService implements Disposable {
             status = value;
         }
 
+        private void publishStatus(@Nonnull PortStatus oldStatus) {
+            portMessageTopic().portsChanged(SerialPortsEvent.statusChanged(portName, oldStatus, status));
+        }
+
         public void close(boolean portAvailable) throws SerialMonitorException {
+            PortStatus oldStatus = status;
+            stopMetrics();
+            stopWriteQueue();
             try {
                 if (port != null) {
                     port.disconnect();
@@ -249,7 +332,10 @@ public final class SerialPortService implements Disposable {
             } finally {
                 status = portAvailable ? PortStatus.DISCONNECTED : PortStatus.UNAVAILABLE_DISCONNECTED;
                 port = null;
-                portMessageTopic().portsStatusChanged();
+                closeCapture();
+                if (oldStatus != status) {
+                    publishStatus(oldStatus);
+                }
             }
         }
 
@@ -262,11 +348,11 @@ public final class SerialPortService implements Disposable {
 
         private final SerialPort.SerialPortListener listener = new SerialPort.SerialPortListener() {
             @Override
-            public void onDataReceived(byte[] data) {
-                Consumer<byte[]> listener = dataListener;
-                if (listener != null) {
-                    listener.accept(data);
-                }
+            public void onDataReceived(byte[] buffer, int offset, int length) {
+                long nanoTime = System.nanoTime();
+                rxMeter.count(length);
+                capture(CaptureDirection.RX, nanoTime, buffer, offset, length);
+                deliver(buffer, offset, length, nanoTime);
             }
 
             @Override
@@ -290,21 +376,93 @@ public final class SerialPortService implements Disposable {
             }
         };
 
+        private void deliver(byte[] buffer, int offset, int length, long nanoTime) {
+            SerialDataListener listener = dataListener;
+            if (listener != null) {
+                listener.dataReceived(buffer, offset, length, nanoTime);
+            }
+            for (SerialReceiveListener receiveListener : receiveListeners) {
+                receiveListener.dataReceived(this, buffer, offset, length, nanoTime);
+            }
+        }
+
+        /**
+         * Feeds a capture journal to the listeners of the connection in the calling thread, as if the port received
+         * the data. The replayed data is neither captured nor counted in the metrics. Stops when the connection is
+         * disposed.
+         * <p>
+         * The calling thread takes the place of the receiving thread: the port cannot be connected during a replay,
+         * nor can another replay run.
+         *
+         * @return number of bytes replayed
+         * @throws SerialMonitorException if the port is connected or a replay is running
+         */
+        public long replay(@Nonnull CaptureReplay replay, @Nonnull BooleanSupplier cancelled)
+            throws IOException, SerialMonitorException {
+            synchronized (this) {
+                if (status == PortStatus.CONNECTED || status == PortStatus.CONNECTING) {
+                    throw new SerialMonitorException(SerialMonitorLocalize.portReplayConnectedError(portName).get());
+                }
+                if (replaying) {
+                    throw new SerialMonitorException(SerialMonitorLocalize.portReplayRunningError(portName).get());
+                }
+                replaying = true;
+            }
+            try {
+                // as fast as possible the recorded times run ahead of the clock, the data received after the replay
+                // must not go back in time
+                return replay.replay((buffer, offset, length, nanoTime) ->
+                    deliver(buffer, offset, length, Math.min(nanoTime, System.nanoTime())),
+                    () -> disposed || cancelled.getAsBoolean());
+            }
+            finally {
+                synchronized (this) {
+                    replaying = false;
+                }
+            }
+        }
+
+        public synchronized boolean isReplaying() {
+            return replaying;
+        }
+
         public void connect(@Nonnull SerialPortProfile profile) throws SerialMonitorException {
-            this.status = PortStatus.CONNECTING;
+            PortStatus oldStatus;
+            synchronized (this) {
+                if (replaying) {
+                    throw new SerialMonitorException(SerialMonitorLocalize.portReplayRunningError(portName).get());
+                }
+                oldStatus = status;
+                this.status = PortStatus.CONNECTING;
+            }
             this.localEcho = profile.getLocalEcho();
+            this.charset = Charset.availableCharsets().getOrDefault(profile.getEncoding(), StandardCharsets.US_ASCII);
+            this.newLine = profile.getNewLine();
 
             SerialPort newPort = null;
             try {
                 SerialPortProvider provider = Application.get().getInstance(SerialPortProvider.class);
                 newPort = provider.createPort(portName);
-                portMessageTopic().portsStatusChanged();
+                publishStatus(oldStatus);
+
+                if (profile.getCapture()) {
+                    openCapture();
+                }
+                rxMeter = new TrafficMeter();
+                txMeter = new TrafficMeter();
 
-                newPort.connect(profile, listener, rts, dtr);
+                newPort.connect(profile, listener, rts, dtr,
+                    profile.getReaderThread() ? SerialPort.ReceiveMode.READER_THREAD : SerialPort.ReceiveMode.EVENT);
 
+                writeQueue = new SerialWriteQueue(newPort, (buffer, offset, length, nanoTime) -> {
+                    txMeter.count(length);
+                    capture(CaptureDirection.TX, nanoTime, buffer, offset, length);
+                });
                 port = newPort;
                 status = PortStatus.CONNECTED;
-                portMessageTopic().portsStatusChanged();
+                metricsTask = myScheduler.scheduleWithFixedDelay(this::publishMetrics, METRICS_PERIOD_MS, METRICS_PERIOD_MS,
+                    TimeUnit.MILLISECONDS);
+                publishStatus(PortStatus.CONNECTING);
             } catch (Exception e) {
                 if (newPort != null) {
                     try {
@@ -313,26 +471,154 @@ public final class SerialPortService implements Disposable {
                     }
                 }
 
+                stopWriteQueue();
+                closeCapture();
                 status = PortStatus.UNAVAILABLE_DISCONNECTED;
-                portMessageTopic().portsStatusChanged();
+                publishStatus(PortStatus.CONNECTING);
 
                 throw new SerialMonitorException(SerialMonitorLocalize.portConnectError(portName, e.getMessage()).get());
             }
         }
 
-        public void write(byte[] data) {
-            SerialPort currentPort = port;
-            if (currentPort != null) {
-                try {
-                    currentPort.write(data);
-                } catch (SerialPortException e) {
-                    LOG.warn("Failed to write to port", e);
+        /**
+         * Queues the data for writing and returns immediately, the array must not be modified afterward.
+         * Sent data is captured when it is actually written to the port, local echo only if it was queued.
+         *
+         * @return {@code false} if the data was dropped because the port is not connected or its queue is full
+         */
+        public boolean write(byte[] data) {
+            long nanoTime = System.nanoTime();
+            SerialWriteQueue queue = writeQueue;
+            if (queue == null || !queue.enqueue(data)) {
+                if (queue == null || !queue.isRunning()) {
+                    // typing into a disconnected terminal, nothing worth a warning
+                    writeQueueFull = false;
+                    LOG.debug("Port " + portName + " is not connected, " + data.length + " bytes dropped");
+                }
+                else if (!writeQueueFull) {
+                    // once per burst, until a write is queued again
+                    writeQueueFull = true;
+                    LOG.warn("Write queue of " + portName + " is full, dropping writes until it drains");
                 }
+                return false;
             }
+            writeQueueFull = false;
             if (localEcho) {
-                Consumer<byte[]> listener = dataListener;
+                capture(CaptureDirection.ECHO, nanoTime, data, 0, data.length);
+                SerialDataListener listener = dataListener;
                 if (listener != null) {
-                    listener.accept(data);
+                    listener.dataReceived(data, 0, data.length, nanoTime);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return whether the last {@link #write} was dropped because the send queue was full, rather than because
+         * the port is not connected
+         */
+        public boolean isWriteQueueFull() {
+            return writeQueueFull;
+        }
+
+        /**
+         * @return number of bytes waiting to be written to the port
+         */
+        public long getPendingWriteBytes() {
+            SerialWriteQueue queue = writeQueue;
+            return queue != null ? queue.getPendingBytes() : 0;
+        }
+
+        /**
+         * @return number of bytes written to the port during the current connection
+         */
+        public long getBytesWritten() {
+            SerialWriteQueue queue = writeQueue;
+            return queue != null ? queue.getBytesWritten() : 0;
+        }
+
+        /**
+         * @return bytes per second written to the port during the last second
+         */
+        public long getWriteThroughput() {
+            SerialWriteQueue queue = writeQueue;
+            return queue != null ? queue.getThroughput() : 0;
+        }
+
+        private void publishMetrics() {
+            long now = System.nanoTime();
+            TrafficMeter rx = rxMeter;
+            TrafficMeter tx = txMeter;
+            rx.sample(now);
+            tx.sample(now);
+            SerialConsoleHealth console = consoleHealth;
+            SerialConnectionMetrics metrics = new SerialConnectionMetrics(
+                rx.getBytes(), rx.getByteRate(), rx.getEventRate(),
+                tx.getBytes(), tx.getByteRate(), getPendingWriteBytes(),
+                console != null ? console.getBufferedBytes() : 0,
+                console != null ? console.getBufferCapacity() : 0,
+                console != null ? console.getDroppedBytes() : 0,
+                console != null ? console.getLagNanos() : 0);
+            Application.get().getMessageBus().syncPublisher(SerialConnectionMetricsListener.TOPIC).metricsUpdated(this, metrics);
+        }
+
+        private void stopMetrics() {
+            ScheduledFuture<?> task = metricsTask;
+            metricsTask = null;
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+
+        private void stopWriteQueue() {
+            SerialWriteQueue queue = writeQueue;
+            writeQueue = null;
+            if (queue != null) {
+                queue.stop();
+            }
+        }
+
+        /**
+         * @return the journal of the current connection or the last one, if capturing was enabled
+         */
+        public @Nullable Path getCapturePath() {
+            CaptureJournal journal = captureJournal;
+            // a long capture goes on in new files
+            return journal != null ? journal.getPath() : capturePath;
+        }
+
+        private void openCapture() {
+            closeCapture();
+            try {
+                CaptureJournal journal = CaptureJournal.create(CaptureJournal.getDefaultDirectory(), portName, myScheduler);
+                capturePath = journal.getPath();
+                captureJournal = journal;
+            } catch (IOException e) {
+                LOG.warn("Failed to create capture journal for " + portName, e);
+            }
+        }
+
+        private void capture(@Nonnull CaptureDirection direction, long nanoTime, byte[] data, int offset, int length) {
+            CaptureJournal journal = captureJournal;
+            if (journal != null) {
+                try {
+                    journal.append(direction, nanoTime, data, offset, length);
+                } catch (IOException e) {
+                    LOG.warn("Failed to write capture journal, capturing stopped", e);
+                    closeCapture();
+                }
+            }
+        }
+
+        private void closeCapture() {
+            CaptureJournal journal = captureJournal;
+            captureJournal = null;
+            if (journal != null) {
+                capturePath = journal.getPath();
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    LOG.warn("Failed to close capture journal", e);
                 }
             }
         }
@@ -0,0 +1,124 @@
+package com.intellij.plugins.serialmonitor.service;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.*;
+
+/**
+ * What changed in the available ports, published on {@link SerialPortsListener#SERIAL_PORTS_TOPIC}.
+ */
+public final class SerialPortsEvent {
+
+    private final Set<String> addedPorts;
+    private final Set<String> removedPorts;
+    private final Map<String, StatusChange> statusChanges;
+
+    SerialPortsEvent(@Nonnull Set<String> addedPorts, @Nonnull Set<String> removedPorts,
+                     @Nonnull Collection<StatusChange> statusChanges) {
+        this.addedPorts = Collections.unmodifiableSet(addedPorts);
+        this.removedPorts = Collections.unmodifiableSet(removedPorts);
+        Map<String, StatusChange> changes = new LinkedHashMap<>();
+        for (StatusChange change : statusChanges) {
+            changes.put(change.getPortName(), change);
+        }
+        this.statusChanges = Collections.unmodifiableMap(changes);
+    }
+
+    static @Nonnull SerialPortsEvent statusChanged(@Nonnull String portName, @Nonnull PortStatus oldStatus,
+                                                   @Nonnull PortStatus newStatus) {
+        return new SerialPortsEvent(Collections.emptySet(), Collections.emptySet(),
+            List.of(new StatusChange(portName, oldStatus, newStatus)));
+    }
+
+    /**
+     * @return the ports added and removed between two scans, together with the status changes
+     */
+    static @Nonnull SerialPortsEvent scanned(@Nonnull Set<String> oldPorts, @Nonnull Set<String> newPorts,
+                                             @Nonnull Collection<StatusChange> statusChanges) {
+        Set<String> added = new LinkedHashSet<>(newPorts);
+        added.removeAll(oldPorts);
+        Set<String> removed = new LinkedHashSet<>(oldPorts);
+        removed.removeAll(newPorts);
+        return new SerialPortsEvent(added, removed, statusChanges);
+    }
+
+    /**
+     * Ports which appeared in the system.
+     */
+    public @Nonnull Set<String> getAddedPorts() {
+        return addedPorts;
+    }
+
+    /**
+     * Ports which disappeared from the system.
+     */
+    public @Nonnull Set<String> getRemovedPorts() {
+        return removedPorts;
+    }
+
+    public boolean isPortListChanged() {
+        return !addedPorts.isEmpty() || !removedPorts.isEmpty();
+    }
+
+    public @Nonnull Collection<StatusChange> getStatusChanges() {
+        return statusChanges.values();
+    }
+
+    public @Nullable StatusChange getStatusChange(@Nonnull String portName) {
+        return statusChanges.get(portName);
+    }
+
+    /**
+     * @return names of all ports added, removed or with a changed status
+     */
+    public @Nonnull Set<String> getChangedPorts() {
+        Set<String> result = new LinkedHashSet<>(addedPorts);
+        result.addAll(removedPorts);
+        result.addAll(statusChanges.keySet());
+        return result;
+    }
+
+    public boolean affects(@Nullable String portName) {
+        return portName != null
+            && (addedPorts.contains(portName) || removedPorts.contains(portName) || statusChanges.containsKey(portName));
+    }
+
+    @Override
+    public String toString() {
+        return "SerialPortsEvent{added=" + addedPorts + ", removed=" + removedPorts + ", statusChanges=" + statusChanges.values() + '}';
+    }
+
+    /**
+     * Transition of the connection status of one port.
+     */
+    public static final class StatusChange {
+
+        private final String portName;
+        private final PortStatus oldStatus;
+        private final PortStatus newStatus;
+
+        StatusChange(@Nonnull String portName, @Nonnull PortStatus oldStatus, @Nonnull PortStatus newStatus) {
+            this.portName = portName;
+            this.oldStatus = oldStatus;
+            this.newStatus = newStatus;
+        }
+
+        public @Nonnull String getPortName() {
+            return portName;
+        }
+
+        public @Nonnull PortStatus getOldStatus() {
+            return oldStatus;
+        }
+
+        public @Nonnull PortStatus getNewStatus() {
+            return newStatus;
+        }
+
+        @Override
+        public String toString() {
+            return portName + ": " + oldStatus + " -> " + newStatus;
+        }
+    }
+}
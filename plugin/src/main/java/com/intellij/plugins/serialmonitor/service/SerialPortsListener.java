@@ -10,5 +10,16 @@ public interface SerialPortsListener {
     @Nonnull
     Class<SerialPortsListener> SERIAL_PORTS_TOPIC = SerialPortsListener.class;
 
+    /**
+     * Called when something changed in the available ports or their status, without details.
+     */
     void portsStatusChanged();
+
+    /**
+     * Called for every change, with the ports affected by it. Listeners interested in particular ports override this
+     * to skip unrelated changes, by default it delegates to {@link #portsStatusChanged()}.
+     */
+    default void portsChanged(@Nonnull SerialPortsEvent event) {
+        portsStatusChanged();
+    }
 }
@@ -0,0 +1,19 @@
+package com.intellij.plugins.serialmonitor.service;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Receives the data received by every connection of {@link SerialPortService}, see
+ * {@link SerialPortService#addReceiveListener}.
+ * <p>
+ * Called by the receiving thread of each port. The buffer may be reused as soon as the call returns,
+ * implementations must copy the bytes they need to keep.
+ */
+@FunctionalInterface
+public interface SerialReceiveListener {
+    /**
+     * @param nanoTime {@link System#nanoTime()} when the bytes arrived
+     */
+    void dataReceived(@Nonnull SerialPortService.SerialConnection connection, byte[] buffer, int offset, int length,
+                      long nanoTime);
+}
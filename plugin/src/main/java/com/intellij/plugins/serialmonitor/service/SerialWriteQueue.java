@@ -0,0 +1,199 @@
+package com.intellij.plugins.serialmonitor.service;
+
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound data of one connection. Callers enqueue without waiting, a single writer thread writes the data
+ * to the port in order, merging small writes into larger ones.
+ * <p>
+ * The writer waits inside the port write while the port is flow-controlled, the queue keeps growing up to its limit
+ * meanwhile.
+ */
+final class SerialWriteQueue {
+
+    private static final Logger LOG = Logger.getInstance(SerialWriteQueue.class);
+
+    private static final int MAX_WRITE_SIZE = 16 * 1024;
+    private static final long MAX_PENDING_BYTES = 1024 * 1024;
+    private static final long STOP_TIMEOUT_MS = 1000;
+    private static final long THROUGHPUT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final SerialPort port;
+    private final SerialDataListener writtenListener;
+    private final Thread writerThread;
+    private final byte[] writeBuffer = new byte[MAX_WRITE_SIZE];
+
+    // Guarded by this
+    private final ArrayDeque<byte[]> pending = new ArrayDeque<>();
+    private int headOffset;
+    private volatile long pendingBytes;
+    private volatile boolean running = true;
+
+    // Written by the writer thread only
+    private volatile long bytesWritten;
+    private volatile long throughput;
+    private long windowStart = System.nanoTime();
+    private long windowBytes;
+
+    /**
+     * @param writtenListener notified on the writer thread with every slice written to the port
+     */
+    SerialWriteQueue(@Nonnull SerialPort port, @Nonnull SerialDataListener writtenListener) {
+        this.port = port;
+        this.writtenListener = writtenListener;
+        writerThread = new Thread(this::writeLoop, "Serial Port Writer: " + port.getSystemName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues the data, the array must not be modified afterward.
+     *
+     * @return {@code false} if the queue is stopped or full
+     */
+    synchronized boolean enqueue(byte[] data) {
+        if (!running || pendingBytes + data.length > MAX_PENDING_BYTES) {
+            return false;
+        }
+        if (data.length > 0) {
+            pending.addLast(data);
+            pendingBytes += data.length;
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code false} once the queue is stopped, it takes no more data then
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Number of bytes waiting to be written.
+     */
+    long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Bytes per second written during the last full second.
+     */
+    long getThroughput() {
+        return System.nanoTime() - windowStart > 2 * THROUGHPUT_WINDOW_NANOS ? 0 : throughput;
+    }
+
+    private void writeLoop() {
+        while (true) {
+            int length;
+            synchronized (this) {
+                while (running && pending.isEmpty()) {
+                    try {
+                        wait();
+                    }
+                    catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                length = takePending();
+            }
+            if (!writeFully(length)) {
+                return;
+            }
+        }
+    }
+
+    // Copies queued chunks into the write buffer, must be called under the lock
+    private int takePending() {
+        int length = 0;
+        while (!pending.isEmpty() && length < MAX_WRITE_SIZE) {
+            byte[] head = pending.peekFirst();
+            int count = Math.min(head.length - headOffset, MAX_WRITE_SIZE - length);
+            System.arraycopy(head, headOffset, writeBuffer, length, count);
+            length += count;
+            headOffset += count;
+            if (headOffset == head.length) {
+                pending.removeFirst();
+                headOffset = 0;
+            }
+        }
+        pendingBytes -= length;
+        return length;
+    }
+
+    private boolean writeFully(int length) {
+        int offset = 0;
+        while (offset < length && running) {
+            int written;
+            try {
+                written = port.write(writeBuffer, offset, length - offset);
+            }
+            catch (SerialPortException e) {
+                written = -1;
+            }
+            if (written < 0) {
+                LOG.warn("Failed to write to port " + port.getSystemName() + ", writing stopped");
+                stop(false);
+                return false;
+            }
+            if (written > 0) {
+                writtenListener.dataReceived(writeBuffer, offset, written, System.nanoTime());
+                offset += written;
+                countWritten(written);
+            }
+        }
+        return true;
+    }
+
+    private void countWritten(int count) {
+        bytesWritten += count;
+        windowBytes += count;
+        long now = System.nanoTime();
+        long elapsed = now - windowStart;
+        if (elapsed >= THROUGHPUT_WINDOW_NANOS) {
+            throughput = windowBytes * THROUGHPUT_WINDOW_NANOS / elapsed;
+            windowBytes = 0;
+            windowStart = now;
+        }
+    }
+
+    /**
+     * Stops the writer, the data not written yet is discarded.
+     */
+    void stop() {
+        stop(true);
+    }
+
+    private void stop(boolean join) {
+        synchronized (this) {
+            running = false;
+            pending.clear();
+            headOffset = 0;
+            pendingBytes = 0;
+            notifyAll();
+        }
+        if (join && Thread.currentThread() != writerThread) {
+            try {
+                writerThread.join(STOP_TIMEOUT_MS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writerThread.isAlive()) {
+                LOG.warn("Writer thread of " + port.getSystemName() + " did not stop in time");
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.intellij.plugins.serialmonitor.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the bytes and chunks going in one direction and keeps their moving rates.
+ * <p>
+ * {@link #count} may be called from any thread without locking, {@link #sample} is called by the metrics publisher only.
+ */
+final class TrafficMeter {
+
+    // Time constant of the moving rates
+    private static final double TAU_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+
+    // Used by the publisher only
+    private long sampleTime = System.nanoTime();
+    private long sampleBytes;
+    private long sampleEvents;
+    private volatile double byteRate;
+    private volatile double eventRate;
+
+    void count(int length) {
+        bytes.addAndGet(length);
+        events.incrementAndGet();
+    }
+
+    long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Bytes per second.
+     */
+    double getByteRate() {
+        return byteRate;
+    }
+
+    /**
+     * Chunks per second.
+     */
+    double getEventRate() {
+        return eventRate;
+    }
+
+    void sample(long nanoTime) {
+        long elapsed = nanoTime - sampleTime;
+        if (elapsed <= 0) {
+            return;
+        }
+        long currentBytes = bytes.get();
+        long currentEvents = events.get();
+        double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        // exponentially weighted, so that irregular sampling does not skew the rates
+        double weight = 1 - Math.exp(-elapsed / TAU_NANOS);
+        byteRate += weight * ((currentBytes - sampleBytes) / seconds - byteRate);
+        eventRate += weight * ((currentEvents - sampleEvents) / seconds - eventRate);
+        sampleTime = nanoTime;
+        sampleBytes = currentBytes;
+        sampleEvents = currentEvents;
+    }
+}
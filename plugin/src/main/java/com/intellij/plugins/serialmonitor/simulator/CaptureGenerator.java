@@ -0,0 +1,137 @@
+package com.intellij.plugins.serialmonitor.simulator;
+
+import com.intellij.plugins.serialmonitor.capture.CaptureDirection;
+import com.intellij.plugins.serialmonitor.capture.CaptureJournalReader;
+import com.intellij.plugins.serialmonitor.capture.CaptureRecord;
+import com.intellij.plugins.serialmonitor.capture.CaptureReplay;
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Sends the received data of a {@link com.intellij.plugins.serialmonitor.capture.CaptureJournal} again, each record
+ * when it is due by the timing of {@link CaptureReplay}. The port paces the data by its line settings on top of
+ * that, as fast as possible means as fast as the line goes. The journal is read as the data is sent, and closed when
+ * the port is.
+ */
+final class CaptureGenerator implements DataGenerator {
+
+    private static final Logger LOG = Logger.getInstance(CaptureGenerator.class);
+
+    private final Path path;
+    private final double speed;
+    private final boolean loop;
+
+    private @Nullable CaptureJournalReader reader;
+    private @Nullable CaptureRecord record;
+    private int position;
+    private long start;
+    private long firstTime;
+    private boolean started;
+
+    CaptureGenerator(@Nonnull Path path, double speed, boolean loop) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Wrong replay speed: " + speed);
+        }
+        this.path = path;
+        this.speed = speed;
+        this.loop = loop;
+    }
+
+    @Override
+    public synchronized int generate(byte[] buffer, int offset, int length) {
+        CaptureRecord current = record;
+        if (current == null) {
+            current = nextRecord();
+            if (current == null) {
+                if (!loop || !started || !open()) {
+                    close();
+                    return -1;
+                }
+                current = nextRecord();
+                if (current == null) {
+                    close();
+                    return -1;
+                }
+            }
+            record = current;
+            position = 0;
+        }
+        if (System.nanoTime() - (start + CaptureReplay.toReplayOffset(current.getNanoTime() - firstTime, speed)) < 0) {
+            return 0;
+        }
+        byte[] data = current.getData();
+        int count = Math.min(length, data.length - position);
+        System.arraycopy(data, position, buffer, offset, count);
+        position += count;
+        if (position == data.length) {
+            record = null;
+        }
+        return count;
+    }
+
+    private @Nullable CaptureRecord nextRecord() {
+        CaptureJournalReader current = reader;
+        if (current == null) {
+            return null;
+        }
+        try {
+            for (CaptureRecord next = current.next(); next != null; next = current.next()) {
+                if (next.getDirection() == CaptureDirection.RX) {
+                    if (!started) {
+                        firstTime = next.getNanoTime();
+                        started = true;
+                    }
+                    return next;
+                }
+            }
+        }
+        catch (IOException e) {
+            LOG.warn("Failed to read capture " + path, e);
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void reset() {
+        open();
+    }
+
+    @Override
+    public synchronized void stop() {
+        close();
+        record = null;
+    }
+
+    // Starts from the beginning of the journal, with the first record due now
+    private boolean open() {
+        close();
+        record = null;
+        start = System.nanoTime();
+        firstTime = 0;
+        started = false;
+        try {
+            reader = new CaptureJournalReader(path);
+            return true;
+        }
+        catch (IOException e) {
+            LOG.warn("Failed to open capture " + path, e);
+            return false;
+        }
+    }
+
+    private void close() {
+        CaptureJournalReader current = reader;
+        reader = null;
+        if (current != null) {
+            try {
+                current.close();
+            }
+            catch (IOException ignored) {
+            }
+        }
+    }
+}
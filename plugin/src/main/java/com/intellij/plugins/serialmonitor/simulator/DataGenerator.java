@@ -0,0 +1,107 @@
+package com.intellij.plugins.serialmonitor.simulator;
+
+import com.intellij.plugins.serialmonitor.capture.CaptureReplay;
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Source of the data a simulated device sends. {@link #generate} is called by the delivery thread of the port,
+ * {@link #reset()} and {@link #stop()} by the thread opening and closing it.
+ */
+public interface DataGenerator {
+
+    /**
+     * Produces the next bytes of the stream.
+     *
+     * @return number of bytes produced, up to {@code length}; 0 if nothing is available now, -1 at the end of the stream
+     */
+    int generate(byte[] buffer, int offset, int length);
+
+    /**
+     * Restarts the stream, called when the port is opened.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Releases what the stream holds open, called when the port is closed. {@link #reset()} starts it again.
+     */
+    default void stop() {
+    }
+
+    /**
+     * Uniformly random bytes from a fixed seed.
+     */
+    static @Nonnull DataGenerator random(long seed) {
+        return new DataGenerator() {
+            private Random random = new Random(seed);
+
+            @Override
+            public int generate(byte[] buffer, int offset, int length) {
+                for (int i = offset; i < offset + length; i++) {
+                    buffer[i] = (byte) random.nextInt();
+                }
+                return length;
+            }
+
+            @Override
+            public void reset() {
+                random = new Random(seed);
+            }
+        };
+    }
+
+    /**
+     * Pseudo-random bit sequence of ITU-T O.150, see {@link PrbsGenerator}.
+     *
+     * @param order 7, 9, 11, 15, 20, 23 or 31
+     */
+    static @Nonnull DataGenerator prbs(int order) {
+        return new PrbsGenerator(order);
+    }
+
+    /**
+     * Sends the recorded bytes, from the start again after the end if {@code loop} is set.
+     */
+    static @Nonnull DataGenerator replay(byte[] log, boolean loop) {
+        return new DataGenerator() {
+            private int position;
+
+            @Override
+            public int generate(byte[] buffer, int offset, int length) {
+                if (position == log.length) {
+                    if (!loop || log.length == 0) {
+                        return -1;
+                    }
+                    position = 0;
+                }
+                int count = Math.min(length, log.length - position);
+                System.arraycopy(log, position, buffer, offset, count);
+                position += count;
+                return count;
+            }
+
+            @Override
+            public void reset() {
+                position = 0;
+            }
+        };
+    }
+
+    static @Nonnull DataGenerator replay(@Nonnull Path log, boolean loop) throws IOException {
+        return replay(Files.readAllBytes(log), loop);
+    }
+
+    /**
+     * Sends the received data of a capture journal with its recorded timing, see {@link CaptureGenerator}.
+     *
+     * @param speed multiple of the recorded speed, or {@link CaptureReplay#AS_FAST_AS_POSSIBLE}
+     */
+    static @Nonnull DataGenerator capture(@Nonnull Path journal, double speed, boolean loop) {
+        return new CaptureGenerator(journal, speed, loop);
+    }
+}
@@ -0,0 +1,51 @@
+package com.intellij.plugins.serialmonitor.simulator;
+
+/**
+ * Pseudo-random bit sequence from a Fibonacci LFSR with the polynomials of ITU-T O.150, for bit error tests against
+ * a receiver expecting the same sequence. Bits are packed LSB first, the order they are sent on the line.
+ */
+final class PrbsGenerator implements DataGenerator {
+
+    private final int order;
+    private final int tap;
+    private final int mask;
+    private int state;
+
+    PrbsGenerator(int order) {
+        this.order = order;
+        this.tap = switch (order) {
+            case 7 -> 6;
+            case 9 -> 5;
+            case 11 -> 9;
+            case 15 -> 14;
+            case 20 -> 3;
+            case 23 -> 18;
+            case 31 -> 28;
+            default -> throw new IllegalArgumentException("Unsupported PRBS order: " + order);
+        };
+        this.mask = order == 31 ? Integer.MAX_VALUE : (1 << order) - 1;
+        reset();
+    }
+
+    @Override
+    public int generate(byte[] buffer, int offset, int length) {
+        int s = state;
+        for (int i = offset; i < offset + length; i++) {
+            int value = 0;
+            for (int bit = 0; bit < 8; bit++) {
+                // x^order + x^tap + 1
+                int feedback = ((s >>> (order - 1)) ^ (s >>> (tap - 1))) & 1;
+                s = ((s << 1) | feedback) & mask;
+                value |= feedback << bit;
+            }
+            buffer[i] = (byte) value;
+        }
+        state = s;
+        return length;
+    }
+
+    @Override
+    public void reset() {
+        state = mask;
+    }
+}
@@ -0,0 +1,227 @@
+package com.intellij.plugins.serialmonitor.simulator;
+
+import com.intellij.plugins.serialmonitor.Parity;
+import com.intellij.plugins.serialmonitor.SerialPortProfile;
+import com.intellij.plugins.serialmonitor.service.SerialPort;
+import com.intellij.plugins.serialmonitor.service.SerialPortException;
+import com.intellij.plugins.serialmonitor.ui.console.SpscByteRingBuffer;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Virtual port of {@link SimulatedSerialPortProvider}. The data comes either from a {@link DataGenerator} or from
+ * the writes of the other end of a null-modem pair.
+ * <p>
+ * A delivery thread hands the data to the listener at the speed of the line, computed from the baud rate and the frame
+ * of the profile, in slices of at most one millisecond of line time like USB adapters do. In
+ * {@link ReceiveMode#EVENT} every slice is a newly allocated array, as the events of the port library are; in
+ * {@link ReceiveMode#READER_THREAD} the slices share a reused buffer. Writes to a null-modem end
+ * are buffered by the other end and paced by its line settings; if the other end is not open, they are lost.
+ * RTS and DTR of one end are the CTS and DSR of the other one.
+ */
+final class SimulatedSerialPort implements SerialPort {
+
+    private static final int RECEIVE_BUFFER_SIZE = 64 * 1024;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long WRITE_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final String name;
+    private final @Nullable DataGenerator generator;
+    // The other end of a null-modem pair
+    private volatile @Nullable SimulatedSerialPort peer;
+
+    private final SpscByteRingBuffer received = new SpscByteRingBuffer(RECEIVE_BUFFER_SIZE);
+    private final Object writeLock = new Object();
+    private volatile boolean rts;
+    private volatile boolean dtr;
+    private volatile @Nullable SerialPortListener listener;
+    private volatile @Nullable Thread deliveryThread;
+    private volatile boolean removed;
+
+    SimulatedSerialPort(@Nonnull String name, @Nullable DataGenerator generator) {
+        this.name = name;
+        this.generator = generator;
+    }
+
+    void setPeer(@Nullable SimulatedSerialPort peer) {
+        this.peer = peer;
+    }
+
+    @Override
+    public @Nonnull String getSystemName() {
+        return name;
+    }
+
+    @Override
+    public @Nonnull String getDescriptiveName() {
+        return generator != null ? "Simulated device" : "Simulated null-modem";
+    }
+
+    boolean isOpen() {
+        return listener != null;
+    }
+
+    @Override
+    public synchronized void connect(@Nonnull SerialPortProfile profile, @Nonnull SerialPortListener listener,
+                                     boolean rts, boolean dtr, @Nonnull ReceiveMode receiveMode) throws SerialPortException {
+        if (removed) {
+            throw new SerialPortException("Port " + name + " is not available");
+        }
+        if (this.listener != null) {
+            throw new SerialPortException("Port " + name + " is busy");
+        }
+        if (profile.getBaudRate() <= 0) {
+            throw new SerialPortException("Wrong baud rate: " + profile.getBaudRate());
+        }
+        this.listener = listener;
+        this.rts = rts;
+        this.dtr = dtr;
+        received.clear();
+        if (generator != null) {
+            generator.reset();
+        }
+
+        double nanosPerByte = TimeUnit.SECONDS.toNanos(1) * frameBits(profile) / profile.getBaudRate();
+        boolean reuseBuffer = receiveMode == ReceiveMode.READER_THREAD;
+        Thread thread = new Thread(() -> deliverLoop(listener, nanosPerByte, reuseBuffer), "Simulated Serial Port: " + name);
+        thread.setDaemon(true);
+        deliveryThread = thread;
+        thread.start();
+        notifyPeer();
+    }
+
+    @Override
+    public synchronized void disconnect() {
+        Thread thread = deliveryThread;
+        deliveryThread = null;
+        listener = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            if (thread != Thread.currentThread()) {
+                try {
+                    thread.join(TimeUnit.NANOSECONDS.toMillis(WRITE_TIMEOUT_NANOS));
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        received.clear();
+        if (generator != null) {
+            generator.stop();
+        }
+        rts = false;
+        dtr = false;
+        notifyPeer();
+    }
+
+    /**
+     * Unplugs the port. Like an unplugged adapter, an open connection is closed: it stops receiving, writes fail, and
+     * the other end of a null-modem pair sees its CTS and DSR drop and its writes lost.
+     */
+    void remove() {
+        removed = true;
+        disconnect();
+    }
+
+    /**
+     * Number of bits on the line per byte: the start bit, data bits, parity bit and stop bits.
+     */
+    static double frameBits(@Nonnull SerialPortProfile profile) {
+        double stopBits = switch (profile.getStopBits()) {
+            case BITS_1 -> 1;
+            case BITS_1_5 -> 1.5;
+            case BITS_2 -> 2;
+        };
+        return 1 + profile.getBits() + (profile.getParity() == Parity.NONE ? 0 : 1) + stopBits;
+    }
+
+    private void deliverLoop(@Nonnull SerialPortListener listener, double nanosPerByte, boolean reuseBuffer) {
+        byte[] buffer = new byte[RECEIVE_BUFFER_SIZE];
+        int maxSlice = (int) Math.max(1, Math.min(buffer.length, TICK_NANOS / nanosPerByte));
+        // time up to which the line has been busy
+        double lineTime = System.nanoTime();
+        while (deliveryThread == Thread.currentThread()) {
+            long now = System.nanoTime();
+            int due = (int) Math.min(maxSlice, (now - lineTime) / nanosPerByte);
+            if (due > 0) {
+                int count = read(buffer, due);
+                if (count > 0) {
+                    if (reuseBuffer) {
+                        listener.onDataReceived(buffer, 0, count);
+                    }
+                    else {
+                        listener.onDataReceived(Arrays.copyOf(buffer, count), 0, count);
+                    }
+                    lineTime += count * nanosPerByte;
+                    continue;
+                }
+                if (count < 0) {
+                    return;
+                }
+                // an idle line does not save up time for later
+                lineTime = now;
+            }
+            LockSupport.parkNanos(this, Math.max(TICK_NANOS / 10, (long) (lineTime + nanosPerByte - now)));
+        }
+    }
+
+    private int read(byte[] buffer, int length) {
+        DataGenerator source = generator;
+        return source != null ? source.generate(buffer, 0, length) : received.poll(buffer, 0, length);
+    }
+
+    @Override
+    public int write(byte[] data, int offset, int length) throws SerialPortException {
+        if (removed) {
+            throw new SerialPortException("Port " + name + " is not available");
+        }
+        SimulatedSerialPort target = peer;
+        if (target == null || !target.isOpen()) {
+            // nobody listens on the other end
+            return length;
+        }
+        long deadline = System.nanoTime() + WRITE_TIMEOUT_NANOS;
+        synchronized (writeLock) {
+            return target.received.write(data, offset, length,
+                () -> !target.isOpen() || System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted());
+        }
+    }
+
+    @Override
+    public void setRTS(boolean value) {
+        rts = value;
+        notifyPeer();
+    }
+
+    @Override
+    public void setDTR(boolean value) {
+        dtr = value;
+        notifyPeer();
+    }
+
+    @Override
+    public boolean getCTS() {
+        SimulatedSerialPort other = peer;
+        return other != null && other.rts;
+    }
+
+    @Override
+    public boolean getDSR() {
+        SimulatedSerialPort other = peer;
+        return other != null && other.dtr;
+    }
+
+    private void notifyPeer() {
+        SimulatedSerialPort other = peer;
+        SerialPortListener otherListener = other != null ? other.listener : null;
+        if (otherListener != null) {
+            otherListener.onCTSChanged(rts);
+            otherListener.onDSRChanged(dtr);
+        }
+    }
+}
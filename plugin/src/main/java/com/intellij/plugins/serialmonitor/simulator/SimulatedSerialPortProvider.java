@@ -0,0 +1,187 @@
+package com.intellij.plugins.serialmonitor.simulator;
+
+import com.intellij.plugins.serialmonitor.capture.CaptureReplay;
+import com.intellij.plugins.serialmonitor.service.PortHotplugWatcher;
+import com.intellij.plugins.serialmonitor.service.SerialPort;
+import com.intellij.plugins.serialmonitor.service.SerialPortException;
+import com.intellij.plugins.serialmonitor.service.SerialPortProvider;
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Virtual ports for testing without hardware: devices sending the data of a {@link DataGenerator} and cross-connected
+ * null-modem pairs. Ports can be added and removed at any time, which is reported like a hotplug event.
+ * <p>
+ * It is not registered as a service. Tests use it directly, and {@link #fromSystemProperty()} lets the real provider
+ * add the ports given in {@value #PORTS_PROPERTY}.
+ *
+ * @see SimulatedSerialPort
+ */
+public final class SimulatedSerialPortProvider implements SerialPortProvider {
+
+    private static final Logger LOG = Logger.getInstance(SimulatedSerialPortProvider.class);
+
+    /**
+     * Comma separated port definitions:
+     * {@code A<>B} for a null-modem pair, {@code NAME=random}, {@code NAME=prbs<order>},
+     * {@code NAME=replay:<file>} and {@code NAME=capture[*<speed>|*max]:<journal>} for generators,
+     * e.g. {@code sim0<>sim1,noise=random,log=replay:/tmp/boot.log,board=capture*10:/tmp/board.smcap}.
+     */
+    public static final String PORTS_PROPERTY = "serial.monitor.simulated.ports";
+
+    private final Map<String, SimulatedSerialPort> ports = new ConcurrentHashMap<>();
+    private final List<BooleanSupplier> hotplugListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return a provider with the ports of {@value #PORTS_PROPERTY}, or {@code null} if the property is not set
+     */
+    public static @Nullable SimulatedSerialPortProvider fromSystemProperty() {
+        String spec = System.getProperty(PORTS_PROPERTY);
+        if (spec == null || spec.isBlank()) {
+            return null;
+        }
+        SimulatedSerialPortProvider provider = new SimulatedSerialPortProvider();
+        for (String definition : spec.split(",")) {
+            try {
+                provider.addPorts(definition.trim());
+            }
+            catch (IOException | IllegalArgumentException e) {
+                LOG.warn("Wrong simulated port definition: " + definition, e);
+            }
+        }
+        return provider;
+    }
+
+    private void addPorts(@Nonnull String definition) throws IOException {
+        int pair = definition.indexOf("<>");
+        if (pair > 0) {
+            addNullModemPair(definition.substring(0, pair), definition.substring(pair + 2));
+            return;
+        }
+        int assignment = definition.indexOf('=');
+        if (assignment <= 0) {
+            throw new IllegalArgumentException("Expected A<>B or NAME=generator");
+        }
+        String name = definition.substring(0, assignment);
+        String generator = definition.substring(assignment + 1);
+        if (generator.equals("random")) {
+            addDevice(name, DataGenerator.random(name.hashCode()));
+        }
+        else if (generator.startsWith("prbs")) {
+            addDevice(name, DataGenerator.prbs(Integer.parseInt(generator.substring("prbs".length()))));
+        }
+        else if (generator.startsWith("replay:")) {
+            addDevice(name, DataGenerator.replay(Paths.get(generator.substring("replay:".length())), true));
+        }
+        else if (generator.startsWith("capture")) {
+            int colon = generator.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Expected capture[*speed]:<journal>");
+            }
+            String speed = generator.substring("capture".length(), colon);
+            double factor = speed.isEmpty() ? CaptureReplay.ORIGINAL_SPEED
+                : speed.equals("*max") ? CaptureReplay.AS_FAST_AS_POSSIBLE
+                : Double.parseDouble(speed.substring(speed.indexOf('*') + 1));
+            addDevice(name, DataGenerator.capture(Paths.get(generator.substring(colon + 1)), factor, true));
+        }
+        else {
+            throw new IllegalArgumentException("Unknown generator: " + generator);
+        }
+    }
+
+    /**
+     * Plugs in a device sending the generated data to whoever opens the port. Written data is discarded.
+     */
+    public void addDevice(@Nonnull String name, @Nonnull DataGenerator generator) {
+        add(new SimulatedSerialPort(name, generator));
+        fireChanged();
+    }
+
+    /**
+     * Plugs in two ports connected to each other: the data written to one of them is received by the other one.
+     */
+    public void addNullModemPair(@Nonnull String first, @Nonnull String second) {
+        SimulatedSerialPort firstPort = new SimulatedSerialPort(first, null);
+        SimulatedSerialPort secondPort = new SimulatedSerialPort(second, null);
+        firstPort.setPeer(secondPort);
+        secondPort.setPeer(firstPort);
+        add(firstPort);
+        add(secondPort);
+        fireChanged();
+    }
+
+    private void add(@Nonnull SimulatedSerialPort port) {
+        if (ports.putIfAbsent(port.getSystemName(), port) != null) {
+            throw new IllegalArgumentException("Port " + port.getSystemName() + " already exists");
+        }
+    }
+
+    /**
+     * Unplugs the port. The other end of a null-modem pair stays and behaves like a port with nothing connected.
+     */
+    public void removePort(@Nonnull String name) {
+        SimulatedSerialPort port = ports.remove(name);
+        if (port != null) {
+            port.remove();
+            fireChanged();
+        }
+    }
+
+    private void fireChanged() {
+        for (BooleanSupplier listener : hotplugListeners) {
+            listener.getAsBoolean();
+        }
+    }
+
+    public boolean hasPort(@Nonnull String name) {
+        return ports.containsKey(name);
+    }
+
+    @Override
+    public @Nonnull List<String> scanAvailablePorts() {
+        List<String> names = new ArrayList<>(ports.keySet());
+        names.sort(null);
+        return names;
+    }
+
+    @Override
+    public @Nonnull SerialPort createPort(@Nonnull String portName) throws SerialPortException {
+        SimulatedSerialPort port = ports.get(portName);
+        if (port == null) {
+            throw new SerialPortException("Port " + portName + " is not available");
+        }
+        return port;
+    }
+
+    /**
+     * Reports the ports added and removed through this provider immediately.
+     */
+    @Override
+    public @Nonnull PortHotplugWatcher createHotplugWatcher() {
+        return new PortHotplugWatcher() {
+            private volatile BooleanSupplier myRescan;
+
+            @Override
+            public boolean start(@Nonnull BooleanSupplier rescan) {
+                myRescan = rescan;
+                hotplugListeners.add(rescan);
+                return true;
+            }
+
+            @Override
+            public void stop() {
+                hotplugListeners.remove(myRescan);
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.intellij.plugins.serialmonitor.telemetry;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Count, minimum, maximum and sum of the values of a field in a time window.
+ */
+public final class FieldStats {
+
+    private final String name;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+
+    FieldStats(@Nonnull String name) {
+        this.name = name;
+    }
+
+    void add(double value) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+    }
+
+    void merge(long count, double min, double max, double sum) {
+        this.count += count;
+        this.min = Math.min(this.min, min);
+        this.max = Math.max(this.max, max);
+        this.sum += sum;
+    }
+
+    public @Nonnull String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the minimum, NaN if there are no values
+     */
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getAverage() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+}
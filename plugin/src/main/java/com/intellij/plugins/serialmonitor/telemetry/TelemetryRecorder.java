@@ -0,0 +1,95 @@
+package com.intellij.plugins.serialmonitor.telemetry;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoder;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoders;
+import com.intellij.plugins.serialmonitor.plot.NumericLineParser;
+import jakarta.annotation.Nonnull;
+
+import java.util.Arrays;
+
+/**
+ * Splits received bytes into lines and appends their numbers to a {@link TelemetryStore}, timed by when they were
+ * received. Lines are parsed like those of the plot, see {@link NumericLineParser}.
+ */
+public final class TelemetryRecorder {
+
+    public static final int MAX_COLUMNS = 64;
+
+    public enum Naming {
+        /**
+         * Fields are named by their keys, as in {@code temp=21.5}, values without a key by their position.
+         */
+        KEYS,
+        /**
+         * Fields are named by their position in the line, {@code field1} and so on, keys are ignored.
+         */
+        POSITIONS
+    }
+
+    private final TelemetryStore store;
+    private final FrameDecoder lines;
+    private final NumericLineParser parser = new NumericLineParser(MAX_COLUMNS);
+    private final FrameDecoder.Sink lineSink = this::lineReceived;
+    private final double[] values = new double[MAX_COLUMNS];
+    private final int[] fields = new int[MAX_COLUMNS];
+    // Converts nanoTime to wall clock nanos since the epoch
+    private final long wallClockOffset = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+
+    // Field of the name a column had in the last line, so that the store is only asked when the name changes
+    private final String[] keyNames = new String[MAX_COLUMNS];
+    private final int[] keyFields = new int[MAX_COLUMNS];
+    private final int[] positionFields = new int[MAX_COLUMNS];
+    private Naming naming;
+
+    /**
+     * @param newLine line end the device sends
+     */
+    public TelemetryRecorder(@Nonnull TelemetryStore store, @Nonnull Naming naming,
+                             @Nonnull SerialProfileService.NewLine newLine) {
+        this.store = store;
+        this.lines = FrameDecoders.lines(newLine);
+        this.naming = naming;
+        Arrays.fill(positionFields, -1);
+    }
+
+    public synchronized void setNaming(@Nonnull Naming naming) {
+        this.naming = naming;
+    }
+
+    public synchronized void received(byte[] buffer, int offset, int length, long nanoTime) {
+        lines.decode(buffer, offset, length, nanoTime, lineSink);
+    }
+
+    private void lineReceived(byte[] buffer, int offset, int length, long nanoTime) {
+        int columns = parser.parse(buffer, offset, length, values);
+        int count = 0;
+        for (int c = 0; c < columns; c++) {
+            int field = naming == Naming.KEYS && parser.isNamed(c) ? keyField(c) : positionField(c);
+            if (field >= 0) {
+                fields[count] = field;
+                values[count++] = values[c];
+            }
+        }
+        if (count > 0) {
+            store.append((wallClockOffset + nanoTime) / 1000, fields, values, count);
+        }
+    }
+
+    private int keyField(int column) {
+        String name = parser.getName(column);
+        // the parser keeps the same string while the name does not change
+        if (name != keyNames[column]) {
+            keyNames[column] = name;
+            keyFields[column] = store.field(name);
+        }
+        return keyFields[column];
+    }
+
+    private int positionField(int column) {
+        if (positionFields[column] < 0) {
+            positionFields[column] = store.field("field" + (column + 1));
+        }
+        return positionFields[column];
+    }
+}
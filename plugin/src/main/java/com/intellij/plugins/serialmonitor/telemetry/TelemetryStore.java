@@ -0,0 +1,763 @@
+package com.intellij.plugins.serialmonitor.telemetry;
+
+import consulo.container.boot.ContainerPathManager;
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Columnar time series of the numeric fields received by a connection, for aggregations over time windows and for
+ * CSV export.
+ * <p>
+ * Rows are kept in chunks of {@value #CHUNK_ROWS}: a {@code long[]} of receive times, in microseconds since the epoch,
+ * and a {@code double[]} for each field which has a value in the chunk, NaN in the rows without one. The count,
+ * minimum, maximum and sum of each field are computed once when a chunk is full, so a window query scans only the
+ * chunks at its edges and merges the summaries of those in between.
+ * <p>
+ * Past {@code memoryLimit} bytes the oldest chunks are written to a file in {@code directory} and read back when a
+ * query needs their rows. The file is a ring of {@code diskLimit} bytes, the chunks it overwrites are dropped. It is
+ * deleted on close, files left over by a crash are deleted when the next store creates its file. The chunks are
+ * written in the background and stay in memory until then; appending never waits for the disk: if the writing falls
+ * behind by {@value #MAX_PENDING_CHUNKS} chunks, the chunks which do not fit are dropped.
+ * Appended by the receiving thread, queried by any number of other threads.
+ */
+public final class TelemetryStore implements Closeable {
+
+    private static final Logger LOG = Logger.getInstance(TelemetryStore.class);
+
+    public static final int MAX_FIELDS = 256;
+    static final int CHUNK_ROWS = 4096;
+    private static final int CHUNK_BYTES = CHUNK_ROWS * Long.BYTES;
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_PENDING_CHUNKS = 16;
+    private static final String FILE_PREFIX = "telemetry-";
+    private static final String FILE_SUFFIX = ".bin";
+    // Files of the stores of this process, the others are left over; creating a file locks it
+    private static final Set<Path> OPEN_PATHS = ConcurrentHashMap.newKeySet();
+
+    private final Executor executor;
+    private final long memoryLimit;
+    private final long diskLimit;
+    private final Path directory;
+
+    // Guarded by this
+    private final Map<String, Integer> fieldIndices = new HashMap<>();
+    private final List<String> fieldNames = new ArrayList<>();
+    // Full chunks, oldest first; spilled ones are older than pending ones, which are older than the resident ones
+    private final ArrayDeque<Chunk> spilled = new ArrayDeque<>();
+    private final ArrayDeque<Chunk> pending = new ArrayDeque<>();
+    private final ArrayDeque<Chunk> resident = new ArrayDeque<>();
+    // The chunk being filled; columns are replaced, never changed, when a field is added, queries may hold them
+    private long[] times = new long[CHUNK_ROWS];
+    private double[][] columns = new double[0][];
+    private int rows;
+    private long lastTime = Long.MIN_VALUE;
+    private long rowCount;
+    private long droppedRows;
+    // Of the resident chunks and the chunk being filled
+    private long memoryBytes = CHUNK_BYTES;
+    private long pendingBytes;
+    private long diskBytes;
+    private @Nullable Path path;
+    private @Nullable FileChannel channel;
+    private long writePosition;
+    private boolean spilling;
+    private boolean spillFailed;
+    private boolean spillBehind;
+    private boolean closed;
+    // Changed by clear, a chunk written before is not kept
+    private int generation;
+
+    // Used by the writing thread only
+    private final ByteBuffer spillBuffer = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.nativeOrder());
+
+    /**
+     * @param executor    runs the writing of the older chunks in the background
+     * @param memoryLimit bytes of chunks kept in memory, the chunk being filled included
+     * @param diskLimit   size of the file the older chunks are written to, nothing is written if 0
+     * @param directory   where the file is created once chunks are written
+     */
+    public TelemetryStore(@Nonnull Executor executor, long memoryLimit, long diskLimit, @Nonnull Path directory) {
+        this.executor = executor;
+        this.memoryLimit = memoryLimit;
+        this.diskLimit = diskLimit;
+        this.directory = directory;
+    }
+
+    public static @Nonnull Path getDefaultDirectory() {
+        return Path.of(ContainerPathManager.get().getSystemPath(), "serial-monitor", "telemetry");
+    }
+
+    /**
+     * @return index of a field, added if it is new; -1 if there are {@value #MAX_FIELDS} fields already
+     */
+    public synchronized int field(@Nonnull String name) {
+        Integer index = fieldIndices.get(name);
+        if (index != null) {
+            return index;
+        }
+        if (fieldNames.size() == MAX_FIELDS) {
+            return -1;
+        }
+        fieldIndices.put(name, fieldNames.size());
+        fieldNames.add(name);
+        return fieldNames.size() - 1;
+    }
+
+    public synchronized @Nonnull List<String> getFieldNames() {
+        return List.copyOf(fieldNames);
+    }
+
+    /**
+     * Adds a row. Times are expected in order, an earlier one is taken as the time of the previous row.
+     *
+     * @param time   microseconds since the epoch
+     * @param fields indices of the fields of the values, from {@link #field}
+     */
+    public synchronized void append(long time, @Nonnull int[] fields, @Nonnull double[] values, int count) {
+        if (closed) {
+            return;
+        }
+        lastTime = Math.max(time, lastTime);
+        int row = rows;
+        times[row] = lastTime;
+        for (int i = 0; i < count; i++) {
+            int field = fields[i];
+            double[] column = field < columns.length ? columns[field] : null;
+            if (column == null) {
+                column = addColumn(field);
+            }
+            column[row] = values[i];
+        }
+        rows = row + 1;
+        rowCount++;
+        if (rows == CHUNK_ROWS) {
+            seal();
+        }
+    }
+
+    private @Nonnull double[] addColumn(int field) {
+        double[] column = new double[CHUNK_ROWS];
+        Arrays.fill(column, Double.NaN);
+        columns = Arrays.copyOf(columns, Math.max(columns.length, field + 1));
+        columns[field] = column;
+        memoryBytes += CHUNK_BYTES;
+        return column;
+    }
+
+    private void seal() {
+        int fieldCount = columns.length;
+        long[] counts = new long[fieldCount];
+        double[] mins = new double[fieldCount];
+        double[] maxs = new double[fieldCount];
+        double[] sums = new double[fieldCount];
+        for (int f = 0; f < fieldCount; f++) {
+            double[] column = columns[f];
+            if (column == null) {
+                continue;
+            }
+            long count = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            for (int r = 0; r < rows; r++) {
+                double value = column[r];
+                // false for NaN
+                if (value == value) {
+                    count++;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                    sum += value;
+                }
+            }
+            counts[f] = count;
+            mins[f] = min;
+            maxs[f] = max;
+            sums[f] = sum;
+        }
+        resident.addLast(new Chunk(rows, times[0], times[rows - 1], counts, mins, maxs, sums, times, columns));
+        times = new long[CHUNK_ROWS];
+        columns = new double[0][];
+        rows = 0;
+        memoryBytes += CHUNK_BYTES;
+        while (memoryBytes > memoryLimit && !resident.isEmpty()) {
+            Chunk chunk = resident.removeFirst();
+            memoryBytes -= chunk.getMemoryBytes();
+            if (chunk.getDiskBytes() > diskLimit || spillFailed) {
+                drop(chunk);
+            }
+            else if (pending.size() >= MAX_PENDING_CHUNKS) {
+                if (!spillBehind) {
+                    spillBehind = true;
+                    LOG.warn("Telemetry writing falls behind, older rows are dropped");
+                }
+                drop(chunk);
+            }
+            else {
+                pending.addLast(chunk);
+                pendingBytes += chunk.getMemoryBytes();
+                if (!spilling) {
+                    spilling = true;
+                    executor.execute(this::spillPending);
+                }
+            }
+        }
+    }
+
+    private void spillPending() {
+        while (true) {
+            Chunk chunk;
+            long position;
+            int chunkGeneration;
+            FileChannel channel;
+            synchronized (this) {
+                chunk = pending.peekFirst();
+                if (chunk == null || closed) {
+                    spilling = false;
+                    return;
+                }
+                if (spillFailed) {
+                    removePending(chunk);
+                    drop(chunk);
+                    continue;
+                }
+                long length = chunk.getDiskBytes();
+                if (writePosition + length > diskLimit) {
+                    writePosition = 0;
+                }
+                while (!spilled.isEmpty() && spilled.peekFirst().overlaps(writePosition, length)) {
+                    Chunk evicted = spilled.removeFirst();
+                    evicted.evicted = true;
+                    diskBytes -= evicted.length;
+                    drop(evicted);
+                }
+                position = writePosition;
+                chunkGeneration = generation;
+                channel = this.channel;
+            }
+            long[] columnPositions = new long[chunk.columns.length];
+            try {
+                if (channel == null) {
+                    channel = openFile();
+                    if (channel == null) {
+                        continue;
+                    }
+                }
+                spillBuffer.clear();
+                spillBuffer.asLongBuffer().put(chunk.times, 0, chunk.rows);
+                long end = write(channel, position, chunk.rows * Long.BYTES);
+                for (int f = 0; f < columnPositions.length; f++) {
+                    columnPositions[f] = -1;
+                    if (chunk.columns[f] != null) {
+                        columnPositions[f] = end;
+                        spillBuffer.clear();
+                        spillBuffer.asDoubleBuffer().put(chunk.columns[f], 0, chunk.rows);
+                        end = write(channel, end, chunk.rows * Double.BYTES);
+                    }
+                }
+            }
+            catch (IOException e) {
+                synchronized (this) {
+                    if (!closed) {
+                        LOG.warn("Failed to write telemetry to " + path + ", older rows are dropped", e);
+                        spillFailed = true;
+                        if (chunkGeneration == generation) {
+                            removePending(chunk);
+                            drop(chunk);
+                        }
+                    }
+                }
+                continue;
+            }
+            synchronized (this) {
+                if (chunkGeneration != generation || closed) {
+                    // cleared meanwhile
+                    continue;
+                }
+                removePending(chunk);
+                long length = chunk.getDiskBytes();
+                spilled.addLast(chunk.spilled(position, length, columnPositions));
+                writePosition = position + length;
+                diskBytes += length;
+            }
+        }
+    }
+
+    // must be called under this
+    private void removePending(@Nonnull Chunk chunk) {
+        pending.removeFirst();
+        pendingBytes -= chunk.getMemoryBytes();
+    }
+
+    /**
+     * @return the file, null if the store was closed meanwhile
+     */
+    private @Nullable FileChannel openFile() throws IOException {
+        Files.createDirectories(directory);
+        Path path;
+        synchronized (OPEN_PATHS) {
+            deleteLeftOvers(directory);
+            path = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+            OPEN_PATHS.add(path);
+        }
+        FileChannel channel = FileChannel.open(path, READ, WRITE, DELETE_ON_CLOSE);
+        synchronized (this) {
+            if (!closed) {
+                this.path = path;
+                this.channel = channel;
+                return channel;
+            }
+        }
+        OPEN_PATHS.remove(path);
+        channel.close();
+        return null;
+    }
+
+    private long write(@Nonnull FileChannel channel, long position, int length) throws IOException {
+        spillBuffer.limit(length);
+        while (spillBuffer.hasRemaining()) {
+            channel.write(spillBuffer, position + spillBuffer.position());
+        }
+        return position + length;
+    }
+
+    private static void deleteLeftOvers(@Nonnull Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX) && !OPEN_PATHS.contains(file);
+            }).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                }
+                catch (IOException e) {
+                    LOG.warn("Failed to delete " + file, e);
+                }
+            });
+        }
+        catch (IOException e) {
+            LOG.warn("Failed to list " + directory, e);
+        }
+    }
+
+    private void drop(@Nonnull Chunk chunk) {
+        rowCount -= chunk.rows;
+        droppedRows += chunk.rows;
+    }
+
+    /**
+     * @return rows which can be queried
+     */
+    public synchronized long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return rows dropped because they did not fit on disk
+     */
+    public synchronized long getDroppedRows() {
+        return droppedRows;
+    }
+
+    /**
+     * @return bytes of the chunks in memory, the ones waiting to be written included
+     */
+    public synchronized long getMemoryBytes() {
+        return memoryBytes + pendingBytes;
+    }
+
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    /**
+     * Forgets all rows, the fields are kept.
+     */
+    public synchronized void clear() {
+        for (Chunk chunk : spilled) {
+            chunk.evicted = true;
+        }
+        spilled.clear();
+        pending.clear();
+        pendingBytes = 0;
+        generation++;
+        resident.clear();
+        times = new long[CHUNK_ROWS];
+        columns = new double[0][];
+        rows = 0;
+        rowCount = 0;
+        droppedRows = 0;
+        memoryBytes = CHUNK_BYTES;
+        diskBytes = 0;
+        writePosition = 0;
+        // the next spill tries the file again
+        spillFailed = false;
+    }
+
+    private synchronized @Nonnull Snapshot snapshot() {
+        List<Chunk> chunks = new ArrayList<>(spilled.size() + pending.size() + resident.size() + 1);
+        chunks.addAll(spilled);
+        chunks.addAll(pending);
+        chunks.addAll(resident);
+        if (rows > 0) {
+            chunks.add(new Chunk(rows, times[0], times[rows - 1], null, null, null, null, times, columns));
+        }
+        return new Snapshot(chunks, List.copyOf(fieldNames), channel);
+    }
+
+    /**
+     * @param from first microsecond of the window
+     * @param to   microsecond after the window
+     * @return statistics of each field, in the order of their indices
+     */
+    public @Nonnull List<FieldStats> aggregate(long from, long to) throws IOException {
+        Snapshot snapshot = snapshot();
+        List<FieldStats> stats = new ArrayList<>(snapshot.names.size());
+        for (String name : snapshot.names) {
+            stats.add(new FieldStats(name));
+        }
+        for (Chunk chunk : snapshot.chunks) {
+            if (chunk.lastTime < from || chunk.firstTime >= to) {
+                continue;
+            }
+            if (chunk.counts != null && from <= chunk.firstTime && chunk.lastTime < to) {
+                for (int f = 0; f < chunk.counts.length; f++) {
+                    if (chunk.counts[f] > 0) {
+                        stats.get(f).merge(chunk.counts[f], chunk.mins[f], chunk.maxs[f], chunk.sums[f]);
+                    }
+                }
+                continue;
+            }
+            Chunk loaded = snapshot.load(chunk);
+            if (loaded == null) {
+                continue;
+            }
+            int start = lowerBound(loaded.times, loaded.rows, from);
+            int end = lowerBound(loaded.times, loaded.rows, to);
+            for (int f = 0; f < loaded.columns.length; f++) {
+                double[] column = loaded.columns[f];
+                if (column == null) {
+                    continue;
+                }
+                FieldStats field = stats.get(f);
+                for (int r = start; r < end; r++) {
+                    double value = column[r];
+                    if (value == value) {
+                        field.add(value);
+                    }
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Writes the rows of a window as CSV: the time in microseconds since the epoch, then a column per field, empty
+     * where a row has no value.
+     *
+     * @return number of rows written, the file is incomplete if {@code cancelled} returned {@code true}
+     */
+    public long exportCsv(@Nonnull Path file, long from, long to, @Nonnull BooleanSupplier cancelled)
+        throws IOException {
+        Snapshot snapshot = snapshot();
+        int fieldCount = snapshot.names.size();
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            CsvWriter csv = new CsvWriter(out);
+            csv.write("time_us");
+            for (String name : snapshot.names) {
+                csv.write(',');
+                csv.writeQuoted(name);
+            }
+            csv.write('\n');
+            for (Chunk chunk : snapshot.chunks) {
+                if (cancelled.getAsBoolean()) {
+                    break;
+                }
+                if (chunk.lastTime < from || chunk.firstTime >= to) {
+                    continue;
+                }
+                Chunk loaded = snapshot.load(chunk);
+                if (loaded == null) {
+                    continue;
+                }
+                int start = lowerBound(loaded.times, loaded.rows, from);
+                int end = lowerBound(loaded.times, loaded.rows, to);
+                double[][] columns = loaded.columns;
+                for (int r = start; r < end; r++) {
+                    csv.write(loaded.times[r]);
+                    for (int f = 0; f < fieldCount; f++) {
+                        csv.write(',');
+                        double[] column = f < columns.length ? columns[f] : null;
+                        if (column != null && column[r] == column[r]) {
+                            csv.write(column[r]);
+                        }
+                    }
+                    csv.write('\n');
+                }
+                written += end - start;
+            }
+            csv.flush();
+        }
+        return written;
+    }
+
+    private static int lowerBound(@Nonnull long[] times, int rows, long time) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] < time) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void close() throws IOException {
+        FileChannel channel;
+        Path path;
+        synchronized (this) {
+            closed = true;
+            channel = this.channel;
+            path = this.path;
+        }
+        if (channel != null) {
+            OPEN_PATHS.remove(path);
+            channel.close();
+        }
+    }
+
+    private static final class Chunk {
+
+        final int rows;
+        final long firstTime;
+        final long lastTime;
+        // By field, null for the chunk being filled
+        final @Nullable long[] counts;
+        final @Nullable double[] mins;
+        final @Nullable double[] maxs;
+        final @Nullable double[] sums;
+        // Null once spilled; columns are by field, null where a field has no value in the chunk
+        final @Nullable long[] times;
+        final @Nullable double[][] columns;
+        // Where the times and the columns, -1 for the missing ones, are in the file
+        final long position;
+        final long length;
+        final @Nullable long[] columnPositions;
+        volatile boolean evicted;
+
+        private Chunk(int rows, long firstTime, long lastTime, @Nullable long[] counts, @Nullable double[] mins,
+                      @Nullable double[] maxs, @Nullable double[] sums, @Nullable long[] times,
+                      @Nullable double[][] columns) {
+            this(rows, firstTime, lastTime, counts, mins, maxs, sums, times, columns, -1, 0, null);
+        }
+
+        private Chunk(int rows, long firstTime, long lastTime, @Nullable long[] counts, @Nullable double[] mins,
+                      @Nullable double[] maxs, @Nullable double[] sums, @Nullable long[] times,
+                      @Nullable double[][] columns, long position, long length, @Nullable long[] columnPositions) {
+            this.rows = rows;
+            this.firstTime = firstTime;
+            this.lastTime = lastTime;
+            this.counts = counts;
+            this.mins = mins;
+            this.maxs = maxs;
+            this.sums = sums;
+            this.times = times;
+            this.columns = columns;
+            this.position = position;
+            this.length = length;
+            this.columnPositions = columnPositions;
+        }
+
+        @Nonnull Chunk spilled(long position, long length, @Nonnull long[] columnPositions) {
+            return new Chunk(rows, firstTime, lastTime, counts, mins, maxs, sums, null, null, position, length,
+                columnPositions);
+        }
+
+        long getMemoryBytes() {
+            long bytes = CHUNK_BYTES;
+            for (double[] column : columns) {
+                if (column != null) {
+                    bytes += CHUNK_BYTES;
+                }
+            }
+            return bytes;
+        }
+
+        long getDiskBytes() {
+            long bytes = (long) rows * Long.BYTES;
+            for (double[] column : columns) {
+                if (column != null) {
+                    bytes += (long) rows * Double.BYTES;
+                }
+            }
+            return bytes;
+        }
+
+        boolean overlaps(long position, long length) {
+            return this.position < position + length && position < this.position + this.length;
+        }
+    }
+
+    private static final class Snapshot {
+
+        final List<Chunk> chunks;
+        final List<String> names;
+        final @Nullable FileChannel channel;
+        private @Nullable ByteBuffer buffer;
+
+        private Snapshot(@Nonnull List<Chunk> chunks, @Nonnull List<String> names, @Nullable FileChannel channel) {
+            this.chunks = chunks;
+            this.names = names;
+            this.channel = channel;
+        }
+
+        /**
+         * @return the chunk with its rows in memory, null if it was overwritten in the file
+         */
+        @Nullable Chunk load(@Nonnull Chunk chunk) throws IOException {
+            if (chunk.times != null) {
+                return chunk;
+            }
+            if (channel == null || chunk.evicted) {
+                return null;
+            }
+            long[] times = new long[chunk.rows];
+            read(chunk.position, chunk.rows * Long.BYTES).asLongBuffer().get(times);
+            double[][] columns = new double[chunk.columnPositions.length][];
+            for (int f = 0; f < columns.length; f++) {
+                if (chunk.columnPositions[f] >= 0) {
+                    columns[f] = new double[chunk.rows];
+                    read(chunk.columnPositions[f], chunk.rows * Double.BYTES).asDoubleBuffer().get(columns[f]);
+                }
+            }
+            // the file may have been overwritten while it was read
+            if (chunk.evicted) {
+                return null;
+            }
+            return new Chunk(chunk.rows, chunk.firstTime, chunk.lastTime, null, null, null, null, times, columns);
+        }
+
+        private @Nonnull ByteBuffer read(long position, int length) throws IOException {
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.nativeOrder());
+            }
+            buffer.clear().limit(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+            return buffer.flip();
+        }
+    }
+
+    private static final class CsvWriter {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[CSV_BUFFER_SIZE];
+        private int length;
+
+        private CsvWriter(@Nonnull OutputStream out) {
+            this.out = out;
+        }
+
+        void write(char c) throws IOException {
+            ensure(1);
+            buffer[length++] = (byte) c;
+        }
+
+        void write(@Nonnull String text) throws IOException {
+            for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+                ensure(1);
+                buffer[length++] = b;
+            }
+        }
+
+        void writeQuoted(@Nonnull String text) throws IOException {
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                write(text);
+            }
+            else {
+                write('"' + text.replace("\"", "\"\"") + '"');
+            }
+        }
+
+        void write(long value) throws IOException {
+            if (value == Long.MIN_VALUE) {
+                write(Long.toString(value));
+                return;
+            }
+            ensure(20);
+            if (value < 0) {
+                buffer[length++] = '-';
+                value = -value;
+            }
+            int end = length + digits(value);
+            for (int i = end - 1; i >= length; i--) {
+                buffer[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            length = end;
+        }
+
+        void write(double value) throws IOException {
+            // most telemetry is integral, which is written without going through a string
+            long integral = (long) value;
+            if (integral == value && Math.abs(integral) < 1L << 53) {
+                write(integral);
+            }
+            else {
+                // ASCII only, no need to encode
+                String text = Double.toString(value);
+                ensure(text.length());
+                for (int i = 0; i < text.length(); i++) {
+                    buffer[length++] = (byte) text.charAt(i);
+                }
+            }
+        }
+
+        private static int digits(long value) {
+            int digits = 1;
+            while (value >= 10) {
+                value /= 10;
+                digits++;
+            }
+            return digits;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (length + bytes > buffer.length) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.intellij.plugins.serialmonitor.timeline;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import jakarta.annotation.Nonnull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Merges the data received by several ports into one stream of lines, ordered by the time their first byte was
+ * received.
+ * <p>
+ * Receiving threads {@link Source#offer offer} chunks, {@link #merge} splits them into lines, at the line end of each
+ * source, and does a k-way merge
+ * of the per source lines, which are already in time order. A line is emitted only when no source can produce
+ * an earlier one anymore: it is older than the merge delay, which covers the delivery of a chunk to its source,
+ * and no source has an incomplete line started before it. A line which stays incomplete longer than the line
+ * timeout, or grows over the line limit, is emitted in parts, so a port without line ends holds the others only
+ * for a while.
+ * <p>
+ * Memory is bounded per source: chunks which do not fit into its queue are dropped and reported with
+ * {@link Sink#dropped}, and the merge keeps only the lines of the last delay or timeout.
+ */
+public final class TimelineMerger {
+
+    private final long mergeDelayNanos;
+    private final long lineTimeoutNanos;
+    private final int maxLineLength;
+    private final long sourceLimit;
+    private final Map<String, Source> sources = new ConcurrentHashMap<>();
+    private final AtomicInteger sourceCount = new AtomicInteger();
+    // Used by the merging thread only
+    private final PriorityQueue<Source> heads = new PriorityQueue<>(
+        Comparator.comparingLong(Source::headTime).thenComparingInt(Source::getIndex));
+
+    /**
+     * @param sourceLimit bytes a source queues until the next {@link #merge}, the rest is dropped
+     */
+    public TimelineMerger(long mergeDelayNanos, long lineTimeoutNanos, int maxLineLength, long sourceLimit) {
+        this.mergeDelayNanos = mergeDelayNanos;
+        this.lineTimeoutNanos = lineTimeoutNanos;
+        this.maxLineLength = maxLineLength;
+        this.sourceLimit = sourceLimit;
+    }
+
+    /**
+     * @return the source of a port, created on first use
+     */
+    public @Nonnull Source getSource(@Nonnull String name) {
+        return sources.computeIfAbsent(name, key -> new Source(key, sourceCount.getAndIncrement()));
+    }
+
+    /**
+     * Emits the lines which are due, in time order. Must be called periodically by one thread at a time.
+     *
+     * @param now {@link System#nanoTime()}
+     */
+    public void merge(long now, @Nonnull Sink sink) {
+        long watermark = now - mergeDelayNanos;
+        for (Source source : sources.values()) {
+            source.drain(now);
+            if (source.partialLength > 0) {
+                // lines started later wait until this one is complete
+                watermark = Math.min(watermark, source.partialTime - 1);
+            }
+            if (!source.lines.isEmpty()) {
+                heads.add(source);
+            }
+        }
+        while (!heads.isEmpty() && heads.peek().headTime() <= watermark) {
+            Source source = heads.poll();
+            source.emitHead(sink);
+            if (!source.lines.isEmpty()) {
+                heads.add(source);
+            }
+        }
+        heads.clear();
+    }
+
+    /**
+     * Receives the merged lines.
+     */
+    public interface Sink {
+        /**
+         * @param data     bytes of the line without its last line end byte, a {@code CR} before a {@code LF} stays;
+         *                 valid until the call returns
+         * @param complete {@code false} for a part of a line emitted because of the line timeout or limit
+         */
+        void line(@Nonnull Source source, long nanoTime, byte[] data, int offset, int length, boolean complete);
+
+        /**
+         * @param nanoTime receive time of the first dropped chunk
+         */
+        void dropped(@Nonnull Source source, long nanoTime, long count);
+    }
+
+    /**
+     * Data of one port.
+     */
+    public final class Source {
+
+        private final String name;
+        private final int index;
+        private volatile byte lineEnd = '\n';
+
+        // Chunks queued by the receiving thread, guarded by this
+        private ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+        private long queuedBytes;
+        private long droppedBytes;
+        private long droppedTime;
+
+        // Used by the merging thread only
+        private ArrayDeque<Chunk> drained = new ArrayDeque<>();
+        private final ArrayDeque<Line> lines = new ArrayDeque<>();
+        private final byte[] partial = new byte[maxLineLength];
+        private int partialLength;
+        private long partialTime;
+
+        private Source(@Nonnull String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        public @Nonnull String getName() {
+            return name;
+        }
+
+        /**
+         * @return sequence number of the source, in the order of creation
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Sets how the port ends its lines: by {@code CR} for {@link SerialProfileService.NewLine#CR}, otherwise by
+         * {@code LF}. Applies to the chunks merged from then on.
+         */
+        public void setNewLine(@Nonnull SerialProfileService.NewLine newLine) {
+            lineEnd = newLine == SerialProfileService.NewLine.CR ? (byte) '\r' : (byte) '\n';
+        }
+
+        /**
+         * Called by the receiving thread of the port.
+         *
+         * @param nanoTime {@link System#nanoTime()} when the bytes were received, not decreasing
+         */
+        public void offer(byte[] buffer, int offset, int length, long nanoTime) {
+            if (length == 0) {
+                return;
+            }
+            synchronized (this) {
+                if (queuedBytes + length > sourceLimit) {
+                    if (droppedBytes == 0) {
+                        droppedTime = nanoTime;
+                    }
+                    droppedBytes += length;
+                    return;
+                }
+                queuedBytes += length;
+                chunks.add(new Chunk(nanoTime, Arrays.copyOfRange(buffer, offset, offset + length)));
+            }
+        }
+
+        // Moves the queued chunks into lines
+        private void drain(long now) {
+            long dropped;
+            long dropTime;
+            synchronized (this) {
+                ArrayDeque<Chunk> taken = chunks;
+                chunks = drained;
+                drained = taken;
+                queuedBytes = 0;
+                dropped = droppedBytes;
+                dropTime = droppedTime;
+                droppedBytes = 0;
+            }
+            boolean dropReported = dropped == 0;
+            for (Chunk chunk = drained.poll(); chunk != null; chunk = drained.poll()) {
+                if (!dropReported && dropTime <= chunk.time) {
+                    addDropped(dropTime, dropped);
+                    dropReported = true;
+                }
+                split(chunk.time, chunk.data);
+            }
+            if (!dropReported) {
+                addDropped(dropTime, dropped);
+            }
+            if (partialLength > 0 && now - partialTime >= lineTimeoutNanos) {
+                completeLine(false);
+            }
+        }
+
+        private void addDropped(long time, long count) {
+            if (partialLength > 0) {
+                // the line cannot continue over the gap
+                completeLine(false);
+            }
+            lines.add(new Line(time, null, false, count));
+        }
+
+        private void split(long time, byte[] data) {
+            byte lineEnd = this.lineEnd;
+            int offset = 0;
+            int length = data.length;
+            while (offset < length) {
+                if (partialLength == 0) {
+                    partialTime = time;
+                }
+                int end = offset;
+                while (end < length && data[end] != lineEnd) {
+                    end++;
+                }
+                int count = Math.min(end - offset, maxLineLength - partialLength);
+                System.arraycopy(data, offset, partial, partialLength, count);
+                partialLength += count;
+                offset += count;
+                if (offset < length && data[offset] == lineEnd) {
+                    offset++;
+                    completeLine(true);
+                }
+                else if (partialLength == maxLineLength) {
+                    completeLine(false);
+                }
+            }
+        }
+
+        private void completeLine(boolean complete) {
+            lines.add(new Line(partialTime, Arrays.copyOf(partial, partialLength), complete, 0));
+            partialLength = 0;
+        }
+
+        private long headTime() {
+            return lines.element().time;
+        }
+
+        private void emitHead(@Nonnull Sink sink) {
+            Line line = lines.remove();
+            if (line.data == null) {
+                sink.dropped(this, line.time, line.dropped);
+            }
+            else {
+                sink.line(this, line.time, line.data, 0, line.data.length, line.complete);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class Chunk {
+        private final long time;
+        private final byte[] data;
+
+        private Chunk(long time, byte[] data) {
+            this.time = time;
+            this.data = data;
+        }
+    }
+
+    // A line, or a report of dropped bytes when data is null
+    private static final class Line {
+        private final long time;
+        private final byte[] data;
+        private final boolean complete;
+        private final long dropped;
+
+        private Line(long time, byte[] data, boolean complete, long dropped) {
+            this.time = time;
+            this.data = data;
+            this.complete = complete;
+            this.dropped = dropped;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.intellij.plugins.serialmonitor.trigger;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over bytes, compiled into a complete transition table: one lookup per byte, no failure
+ * links to follow while scanning.
+ */
+final class AhoCorasick {
+
+    static final int ROOT = 0;
+    private static final int[] NO_OUTPUT = new int[0];
+
+    // next[state << 8 | byte]
+    private final int[] next;
+    // indices of the patterns which end in a state
+    private final int[][] outputs;
+    // length of the longest pattern prefix a state stands for
+    private final int[] depths;
+
+    AhoCorasick(@Nonnull List<byte[]> patterns) {
+        int maxStates = 1;
+        for (byte[] pattern : patterns) {
+            maxStates += pattern.length;
+        }
+        int[] table = new int[maxStates << 8];
+        Arrays.fill(table, -1);
+        int[][] stateOutputs = new int[maxStates][];
+        int[] stateDepths = new int[maxStates];
+        int states = 1;
+
+        // trie
+        for (int p = 0; p < patterns.size(); p++) {
+            int state = ROOT;
+            for (byte b : patterns.get(p)) {
+                int index = state << 8 | b & 0xFF;
+                if (table[index] < 0) {
+                    stateDepths[states] = stateDepths[state] + 1;
+                    table[index] = states++;
+                }
+                state = table[index];
+            }
+            stateOutputs[state] = append(stateOutputs[state], p);
+        }
+
+        // failure links, breadth first, folded into the table
+        int[] failures = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < 256; c++) {
+            int child = table[c];
+            if (child < 0) {
+                table[c] = ROOT;
+            }
+            else {
+                failures[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int failure = failures[state];
+            if (stateOutputs[failure] != null) {
+                for (int p : stateOutputs[failure]) {
+                    stateOutputs[state] = append(stateOutputs[state], p);
+                }
+            }
+            for (int c = 0; c < 256; c++) {
+                int index = state << 8 | c;
+                int child = table[index];
+                if (child < 0) {
+                    table[index] = table[failure << 8 | c];
+                }
+                else {
+                    failures[child] = table[failure << 8 | c];
+                    queue.add(child);
+                }
+            }
+        }
+
+        next = Arrays.copyOf(table, states << 8);
+        outputs = new int[states][];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = stateOutputs[s] != null ? stateOutputs[s] : NO_OUTPUT;
+        }
+        depths = Arrays.copyOf(stateDepths, states);
+    }
+
+    private static int[] append(int[] values, int value) {
+        if (values == null) {
+            return new int[]{value};
+        }
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    int next(int state, int b) {
+        return next[state << 8 | b];
+    }
+
+    /**
+     * @return indices of the patterns which end with the last byte
+     */
+    int[] outputs(int state) {
+        return outputs[state];
+    }
+
+    /**
+     * @return number of the last bytes which may be the start of a match
+     */
+    int depth(int state) {
+        return depths[state];
+    }
+}
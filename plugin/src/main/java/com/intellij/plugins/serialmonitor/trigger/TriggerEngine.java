@@ -0,0 +1,382 @@
+package com.intellij.plugins.serialmonitor.trigger;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.SerialTrigger;
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Finds the enabled triggers in the received bytes in a single pass, with the state carried over chunk boundaries.
+ * <p>
+ * All literal patterns are compiled into one {@link AhoCorasick} automaton over bytes with ASCII letters folded to
+ * lower case, matches of case-sensitive patterns are verified against the last received bytes. Only regular
+ * expressions, and literals whose case is ignored for non-ASCII letters, are matched against decoded lines, which end
+ * as the profile sends them.
+ * <p>
+ * The bytes are passed on to an {@link Output}, with the matches of highlighting triggers wrapped in reverse video.
+ * To wrap a match which spans chunks, the bytes which may start a match are held back until the next chunk shows
+ * whether they do, or until {@link #flush}. Not thread-safe.
+ */
+public final class TriggerEngine {
+
+    private static final Logger LOG = Logger.getInstance(TriggerEngine.class);
+
+    static final int MAX_LINE_LENGTH = 4096;
+    private static final String HIGHLIGHT_ON = "\u001b[7m";
+    // turns off the reverse video only, colors of the device are kept
+    private static final String HIGHLIGHT_OFF = "\u001b[27m";
+
+    public interface Output {
+        void output(byte[] buffer, int offset, int length, long nanoTime);
+    }
+
+    public interface Listener {
+        void triggered(@Nonnull SerialTrigger trigger, long nanoTime);
+    }
+
+    private final Charset charset;
+    private final byte[] highlightOn;
+    private final byte[] highlightOff;
+
+    // literal patterns, by automaton output index
+    private final AhoCorasick automaton;
+    private final SerialTrigger[] literals;
+    private final byte[][] literalBytes;
+    private final boolean[] literalMatchCase;
+    private final boolean holdBack;
+    // the last received bytes, for case-sensitive matches
+    private final byte[] recent;
+    private final int recentMask;
+
+    private final SerialTrigger[] lineTriggers;
+    private final Matcher[] lineMatchers;
+    private final byte[] line;
+    private int lineLength;
+    // CR or LF, the other one is dropped at the end or the start of a line as part of a CRLF
+    private final byte lineEnd;
+
+    private int state = AhoCorasick.ROOT;
+    private long position;
+    // bytes before this position are passed on, the rest is in held
+    private long emitted;
+    private byte[] held;
+    private byte[] spareHeld;
+    private long heldSince;
+    // highlighted ranges which are not passed on completely, as start and end positions
+    private long[] highlights = new long[8];
+    private int highlightCount;
+    private byte[] outputBuffer = new byte[1024];
+
+    public TriggerEngine(@Nonnull List<SerialTrigger> triggers, @Nonnull Charset charset,
+                         @Nonnull SerialProfileService.NewLine newLine) {
+        this.charset = charset;
+        lineEnd = newLine == SerialProfileService.NewLine.CR ? (byte) '\r' : (byte) '\n';
+        highlightOn = HIGHLIGHT_ON.getBytes(charset);
+        highlightOff = HIGHLIGHT_OFF.getBytes(charset);
+
+        List<SerialTrigger> literalTriggers = new ArrayList<>();
+        List<byte[]> patterns = new ArrayList<>();
+        List<SerialTrigger> regexTriggers = new ArrayList<>();
+        List<Matcher> matchers = new ArrayList<>();
+        for (SerialTrigger trigger : triggers) {
+            String text = trigger.getPattern();
+            if (!trigger.isEnabled() || text.isEmpty()) {
+                continue;
+            }
+            if (!trigger.isRegex() && (trigger.isMatchCase() || isAscii(text))) {
+                literalTriggers.add(trigger);
+                patterns.add(text.getBytes(charset));
+                continue;
+            }
+            try {
+                int flags = trigger.isRegex() ? 0 : Pattern.LITERAL;
+                if (!trigger.isMatchCase()) {
+                    flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+                }
+                matchers.add(Pattern.compile(text, flags).matcher(""));
+                regexTriggers.add(trigger);
+            }
+            catch (PatternSyntaxException e) {
+                LOG.warn("Invalid trigger pattern " + text, e);
+            }
+        }
+
+        literals = literalTriggers.toArray(new SerialTrigger[0]);
+        literalBytes = patterns.toArray(new byte[0][]);
+        literalMatchCase = new boolean[literals.length];
+        List<byte[]> folded = new ArrayList<>();
+        int maxLength = 1;
+        boolean anyHighlight = false;
+        for (int i = 0; i < literals.length; i++) {
+            literalMatchCase[i] = literals[i].isMatchCase();
+            byte[] bytes = literalBytes[i].clone();
+            for (int j = 0; j < bytes.length; j++) {
+                bytes[j] = fold(bytes[j]);
+            }
+            folded.add(bytes);
+            maxLength = Math.max(maxLength, bytes.length);
+            anyHighlight |= literals[i].isHighlight();
+        }
+        automaton = new AhoCorasick(folded);
+        holdBack = anyHighlight;
+        recent = new byte[Integer.highestOneBit(maxLength * 2 - 1)];
+        recentMask = recent.length - 1;
+        held = new byte[maxLength];
+        spareHeld = new byte[maxLength];
+
+        lineTriggers = regexTriggers.toArray(new SerialTrigger[0]);
+        lineMatchers = matchers.toArray(new Matcher[0]);
+        line = lineMatchers.length > 0 ? new byte[MAX_LINE_LENGTH] : new byte[0];
+    }
+
+    private static boolean isAscii(@Nonnull String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte fold(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    /**
+     * @return {@code true} if no trigger is enabled
+     */
+    public boolean isEmpty() {
+        return literals.length == 0 && lineTriggers.length == 0;
+    }
+
+    /**
+     * Scans a chunk, reports the triggers found and passes the bytes which cannot start a highlighted match on.
+     */
+    public void process(byte[] buffer, int offset, int length, long nanoTime, @Nonnull Output output,
+                        @Nonnull Listener listener) {
+        long chunkStart = position;
+        int s = state;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = buffer[i];
+            recent[(int) position & recentMask] = b;
+            position++;
+            s = automaton.next(s, fold(b) & 0xFF);
+            int[] found = automaton.outputs(s);
+            if (found.length > 0) {
+                literalsFound(found, nanoTime, listener);
+            }
+            if (lineMatchers.length > 0) {
+                lineByte(b, nanoTime, listener);
+            }
+        }
+        state = s;
+        // bytes before a flush are passed on already
+        long boundary = holdBack ? Math.max(emitted, position - automaton.depth(s)) : position;
+        if (emitted == chunkStart && boundary == position && highlightCount == 0) {
+            // nothing held or highlighted, the common case
+            output.output(buffer, offset, length, nanoTime);
+        }
+        else {
+            emit(boundary, buffer, offset, chunkStart, nanoTime, output);
+        }
+        if (boundary < position) {
+            // the held bytes are at the end of the chunk, or start in the previous held bytes
+            if (boundary >= chunkStart) {
+                heldSince = nanoTime;
+            }
+            copy(boundary, position, buffer, offset, chunkStart, spareHeld, 0);
+            byte[] kept = spareHeld;
+            spareHeld = held;
+            held = kept;
+        }
+        emitted = boundary;
+    }
+
+    private void literalsFound(int[] found, long nanoTime, @Nonnull Listener listener) {
+        for (int index : found) {
+            byte[] pattern = literalBytes[index];
+            if (literalMatchCase[index] && !endsWith(pattern)) {
+                continue;
+            }
+            SerialTrigger trigger = literals[index];
+            if (trigger.isHighlight()) {
+                // starts before the emitted bytes only after a flush
+                addHighlight(Math.max(emitted, position - pattern.length), position);
+            }
+            listener.triggered(trigger, nanoTime);
+        }
+    }
+
+    private boolean endsWith(byte[] pattern) {
+        long start = position - pattern.length;
+        for (int i = 0; i < pattern.length; i++) {
+            if (recent[(int) (start + i) & recentMask] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addHighlight(long start, long end) {
+        if (start >= end) {
+            return;
+        }
+        if (highlightCount * 2 == highlights.length) {
+            highlights = Arrays.copyOf(highlights, highlights.length * 2);
+        }
+        highlights[highlightCount * 2] = start;
+        highlights[highlightCount * 2 + 1] = end;
+        highlightCount++;
+    }
+
+    private void lineByte(byte b, long nanoTime, @Nonnull Listener listener) {
+        if (b != lineEnd) {
+            line[lineLength++] = b;
+        }
+        if (b == lineEnd || lineLength == line.length) {
+            int start = 0;
+            int length = lineLength;
+            if (lineEnd == '\n' && length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            else if (lineEnd == '\r' && length > 0 && line[0] == '\n') {
+                start = 1;
+                length--;
+            }
+            String text = new String(line, start, length, charset);
+            for (int i = 0; i < lineMatchers.length; i++) {
+                if (lineMatchers[i].reset(text).find()) {
+                    listener.triggered(lineTriggers[i], nanoTime);
+                }
+            }
+            lineLength = 0;
+        }
+    }
+
+    /**
+     * @return {@code true} if bytes are held back for a possible match
+     */
+    public boolean hasHeldBytes() {
+        return emitted < position;
+    }
+
+    /**
+     * @return receive time of the chunk the held bytes start in
+     */
+    public long getHeldSince() {
+        return heldSince;
+    }
+
+    /**
+     * Passes the held bytes on. A match they start is highlighted only in its part after them.
+     */
+    public void flush(@Nonnull Output output) {
+        if (emitted < position) {
+            emit(position, held, 0, emitted, heldSince, output);
+            emitted = position;
+        }
+    }
+
+    // Passes the bytes from the emitted position to the boundary on, with the highlights
+    private void emit(long boundary, byte[] buffer, int offset, long chunkStart, long nanoTime, @Nonnull Output output) {
+        if (boundary <= emitted) {
+            return;
+        }
+        sortHighlights();
+        int size = 0;
+        long cursor = emitted;
+        int kept = 0;
+        for (int h = 0; h < highlightCount; h++) {
+            long start = Math.max(highlights[h * 2], cursor);
+            long end = highlights[h * 2 + 1];
+            if (start >= boundary) {
+                keepHighlight(kept++, start, end);
+                continue;
+            }
+            if (end <= cursor) {
+                continue;
+            }
+            size = append(size, cursor, start, buffer, offset, chunkStart);
+            size = append(size, highlightOn);
+            // overlapping ranges are merged
+            while (h + 1 < highlightCount && highlights[(h + 1) * 2] <= end) {
+                h++;
+                end = Math.max(end, highlights[h * 2 + 1]);
+            }
+            long until = Math.min(end, boundary);
+            size = append(size, start, until, buffer, offset, chunkStart);
+            size = append(size, highlightOff);
+            cursor = until;
+            if (end > boundary) {
+                keepHighlight(kept++, boundary, end);
+            }
+        }
+        highlightCount = kept;
+        size = append(size, cursor, boundary, buffer, offset, chunkStart);
+        output.output(outputBuffer, 0, size, nanoTime);
+    }
+
+    private void keepHighlight(int index, long start, long end) {
+        highlights[index * 2] = start;
+        highlights[index * 2 + 1] = end;
+    }
+
+    private void sortHighlights() {
+        // few ranges, insertion sort by start
+        for (int i = 1; i < highlightCount; i++) {
+            long start = highlights[i * 2];
+            long end = highlights[i * 2 + 1];
+            int j = i - 1;
+            while (j >= 0 && highlights[j * 2] > start) {
+                highlights[(j + 1) * 2] = highlights[j * 2];
+                highlights[(j + 1) * 2 + 1] = highlights[j * 2 + 1];
+                j--;
+            }
+            highlights[(j + 1) * 2] = start;
+            highlights[(j + 1) * 2 + 1] = end;
+        }
+    }
+
+    private int append(int size, byte[] bytes) {
+        ensureOutput(size + bytes.length);
+        System.arraycopy(bytes, 0, outputBuffer, size, bytes.length);
+        return size + bytes.length;
+    }
+
+    private int append(int size, long from, long to, byte[] buffer, int offset, long chunkStart) {
+        int count = (int) (to - from);
+        if (count <= 0) {
+            return size;
+        }
+        ensureOutput(size + count);
+        copy(from, to, buffer, offset, chunkStart, outputBuffer, size);
+        return size + count;
+    }
+
+    // Copies a range of the stream, which is in the held bytes before the chunk start and in the buffer after it
+    private void copy(long from, long to, byte[] buffer, int offset, long chunkStart, byte[] target, int targetOffset) {
+        if (from < chunkStart) {
+            int count = (int) (Math.min(to, chunkStart) - from);
+            System.arraycopy(held, (int) (from - emitted), target, targetOffset, count);
+            targetOffset += count;
+            from += count;
+        }
+        if (from < to) {
+            System.arraycopy(buffer, offset + (int) (from - chunkStart), target, targetOffset, (int) (to - from));
+        }
+    }
+
+    private void ensureOutput(int size) {
+        if (size > outputBuffer.length) {
+            outputBuffer = Arrays.copyOf(outputBuffer, Math.max(size, outputBuffer.length * 2));
+        }
+    }
+}
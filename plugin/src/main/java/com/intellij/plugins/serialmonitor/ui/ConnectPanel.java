@@ -2,13 +2,22 @@ package com.intellij.plugins.serialmonitor.ui;
 
 import com.intellij.plugins.serialmonitor.SerialPortProfile;
 import com.intellij.plugins.serialmonitor.service.PortStatus;
+import com.intellij.plugins.serialmonitor.service.SerialPortsEvent;
 import com.intellij.plugins.serialmonitor.service.SerialPortsListener;
+import com.intellij.plugins.serialmonitor.ui.console.TimelineConsoleView;
 import consulo.disposer.Disposable;
 import consulo.disposer.Disposer;
 import consulo.project.Project;
+import consulo.serial.monitor.icon.SerialMonitorIconGroup;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.annotation.RequiredUIAccess;
 import consulo.ui.ex.action.ActionManager;
 import consulo.ui.ex.action.ActionPlaces;
 import consulo.ui.ex.action.ActionToolbar;
+import consulo.ui.ex.action.AnActionEvent;
+import consulo.ui.ex.action.AnSeparator;
+import consulo.ui.ex.action.DefaultActionGroup;
+import consulo.ui.ex.action.DumbAwareAction;
 import consulo.ui.ex.awt.*;
 import consulo.ui.ex.content.Content;
 import consulo.ui.ex.content.ContentManager;
@@ -26,6 +35,7 @@ import java.awt.*;
 public class ConnectPanel extends OnePixelSplitter {
 
     public static final Key<SerialMonitor> SERIAL_MONITOR = Key.create(SerialMonitor.class.getName());
+    public static final Key<TimelineConsoleView> TIMELINE = Key.create(TimelineConsoleView.class.getName());
 
     @Nonnull
     private final Project myProject;
@@ -41,8 +51,12 @@ public class ConnectPanel extends OnePixelSplitter {
         this.ports = new ConnectableList(this);
         this.disposable = Disposable.newDisposable();
 
+        DefaultActionGroup toolbarActions = new DefaultActionGroup();
+        toolbarActions.add(ports.getToolbarActions());
+        toolbarActions.add(AnSeparator.getInstance());
+        toolbarActions.add(new OpenTimelineAction());
         this.listToolbar = ActionManager.getInstance()
-            .createActionToolbar(ActionPlaces.TOOLBAR, ports.getToolbarActions(), true);
+            .createActionToolbar(ActionPlaces.TOOLBAR, toolbarActions, true);
         listToolbar.setTargetComponent(ports);
 
         setAndLoadSplitterProportionKey("ConnectPanel.splitterProportionKey");
@@ -165,13 +179,23 @@ public class ConnectPanel extends OnePixelSplitter {
         content.setCloseable(true);
         contentManager.addContent(content);
 
-        SerialPortsListener handler = () -> {
-            SwingUtilities.invokeLater(() -> {
-                if (!toolWindow.isDisposed()) {
-                    PortStatus status = serialMonitor.getStatus();
-                    content.setIcon(status == PortStatus.DISCONNECTED ? Image.empty(Image.DEFAULT_ICON_SIZE) : status.getIcon());
+        SerialPortsListener handler = new SerialPortsListener() {
+            @Override
+            public void portsStatusChanged() {
+                SwingUtilities.invokeLater(() -> {
+                    if (!toolWindow.isDisposed()) {
+                        PortStatus status = serialMonitor.getStatus();
+                        content.setIcon(status == PortStatus.DISCONNECTED ? Image.empty(Image.DEFAULT_ICON_SIZE) : status.getIcon());
+                    }
+                });
+            }
+
+            @Override
+            public void portsChanged(@Nonnull SerialPortsEvent event) {
+                if (event.getStatusChange(profile.getPortName()) != null) {
+                    portsStatusChanged();
                 }
-            });
+            }
         };
 
         myProject.getMessageBus().connect(content).subscribe(SerialPortsListener.SERIAL_PORTS_TOPIC, handler);
@@ -183,6 +207,42 @@ public class ConnectPanel extends OnePixelSplitter {
         toolWindow.activate(null, true);
     }
 
+    /**
+     * Opens the timeline of all connected ports, or selects it if it is open.
+     */
+    public void openTimeline() {
+        ContentManager contentManager = toolWindow.getContentManager();
+        for (Content content : contentManager.getContents()) {
+            if (content.getUserData(TIMELINE) != null) {
+                contentManager.setSelectedContent(content, true);
+                return;
+            }
+        }
+        TimelineConsoleView timeline = new TimelineConsoleView(myProject);
+        SimpleToolWindowPanel panel = new SimpleToolWindowPanel(false, true);
+        panel.setContent(timeline.getComponent());
+        Content content = contentManager.getFactory().createContent(panel, SerialMonitorLocalize.timelineTabTitle().get(), true);
+        content.putUserData(TIMELINE, timeline);
+        content.setDisposer(timeline);
+        content.setCloseable(true);
+        contentManager.addContent(content);
+        contentManager.setSelectedContent(content, true);
+    }
+
+    private class OpenTimelineAction extends DumbAwareAction {
+
+        private OpenTimelineAction() {
+            super(SerialMonitorLocalize.actionOpenTimelineText(), SerialMonitorLocalize.actionOpenTimelineDescription(),
+                SerialMonitorIconGroup.toolwindow());
+        }
+
+        @RequiredUIAccess
+        @Override
+        public void actionPerformed(@Nonnull AnActionEvent e) {
+            openTimeline();
+        }
+    }
+
     @Nonnull
     ToolWindow getToolWindow() {
         return toolWindow;
@@ -4,8 +4,10 @@ import com.intellij.plugins.serialmonitor.SerialPortProfile;
 import com.intellij.plugins.serialmonitor.SerialProfileService;
 import com.intellij.plugins.serialmonitor.service.PortStatus;
 import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import com.intellij.plugins.serialmonitor.service.SerialPortsEvent;
 import com.intellij.plugins.serialmonitor.service.SerialPortsListener;
 import consulo.application.Application;
+import consulo.application.concurrent.ApplicationConcurrency;
 import consulo.localize.LocalizeValue;
 import consulo.platform.base.icon.PlatformIconGroup;
 import consulo.serial.monitor.icon.SerialMonitorIconGroup;
@@ -26,12 +28,24 @@ import jakarta.annotation.Nullable;
 import javax.swing.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ConnectableList extends JBList<Object> {
 
+    // Status changes arriving within this window are applied together
+    private static final long UPDATE_DELAY_MS = 100;
+
     private final ConnectPanel parentPanel;
+    private final DefaultListModel<Object> model = new DefaultListModel<>();
+    private final AtomicBoolean updateScheduled = new AtomicBoolean();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    // Ports whose rows are refreshed by the next update, unless the whole list is rebuilt
+    private final Set<String> changedPorts = ConcurrentHashMap.newKeySet();
+    // Selection requested for an entity which is not in the list yet, applied by the next update
+    private @Nullable String pendingSelectionKey;
     private final ActionGroup toolbarActions;
     private final AnAction[] defaultActions;
 
@@ -41,6 +55,7 @@ public class ConnectableList extends JBList<Object> {
 
     public ConnectableList(@Nonnull ConnectPanel parentPanel) {
         this.parentPanel = parentPanel;
+        setModel(model);
 
         this.removeProfile = new DumbAwareAction(SerialMonitorLocalize.actionRemoveProfileText(), LocalizeValue.empty(), PlatformIconGroup.generalRemove()) {
             {
@@ -200,50 +215,166 @@ public class ConnectableList extends JBList<Object> {
 
         // Subscribe to port status changes and update model
         Application.get().getMessageBus().connect()
-                .subscribe(SerialPortsListener.SERIAL_PORTS_TOPIC, this::updateModel);
+                .subscribe(SerialPortsListener.SERIAL_PORTS_TOPIC, new SerialPortsListener() {
+                    @Override
+                    public void portsStatusChanged() {
+                        updateModel();
+                    }
+
+                    @Override
+                    public void portsChanged(@Nonnull SerialPortsEvent event) {
+                        if (event.isPortListChanged()) {
+                            updateModel();
+                        }
+                        else {
+                            changedPorts.addAll(event.getChangedPorts());
+                            scheduleUpdate();
+                        }
+                    }
+                });
 
         // Initial model update
-        updateModel();
+        rebuildModel();
     }
 
+    /**
+     * Schedules a rebuild of the list, may be called from any thread.
+     */
     public void updateModel() {
-        SwingUtilities.invokeLater(() -> {
-            Object savedSelection = getSelectedValue();
-            String savedKey = savedSelection instanceof Connectable c ? c.getSelectionKey() : null;
+        rebuildRequested.set(true);
+        scheduleUpdate();
+    }
 
-            DefaultListModel<Object> newModel = new DefaultListModel<>();
-            String profilesSeparator = SerialMonitorLocalize.connectionProfiles().get();
-            newModel.addElement(profilesSeparator);
+    private void scheduleUpdate() {
+        if (updateScheduled.compareAndSet(false, true)) {
+            Application.get().getInstance(ApplicationConcurrency.class).getScheduledExecutorService().schedule(
+                () -> SwingUtilities.invokeLater(this::applyModelUpdate), UPDATE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
 
-            SerialProfileService profileService = SerialProfileService.getInstance();
-            SerialPortService portService = SerialPortService.getInstance();
+    private void applyModelUpdate() {
+        updateScheduled.set(false);
+        if (rebuildRequested.getAndSet(false)) {
+            rebuildModel();
+        }
+        else {
+            refreshPorts();
+        }
+        String key = pendingSelectionKey;
+        pendingSelectionKey = null;
+        if (key != null) {
+            select(key);
+        }
+    }
 
-            for (Map.Entry<String, SerialPortProfile> entry : profileService.getProfiles().entrySet()) {
-                String profileName = entry.getKey();
-                SerialPortProfile profile = entry.getValue();
+    private void rebuildModel() {
+        changedPorts.clear();
+        List<Object> items = new ArrayList<>();
+        items.add(SerialMonitorLocalize.connectionProfiles().get());
 
-                SerialMonitor monitor = parentPanel.getOpenedMonitor(profile.getPortName());
-                PortStatus status = monitor != null ? monitor.getStatus() : portService.portStatus(profile.getPortName());
-                boolean isUsed = monitor != null && monitor.getPortProfile() == profile;
-                newModel.addElement(new ConnectableProfile(profileName, status, isUsed));
-            }
+        SerialProfileService profileService = SerialProfileService.getInstance();
+        SerialPortService portService = SerialPortService.getInstance();
 
-            String portsSeparator = SerialMonitorLocalize.availablePorts().get();
-            newModel.addElement(portsSeparator);
+        for (Map.Entry<String, SerialPortProfile> entry : profileService.getProfiles().entrySet()) {
+            String profileName = entry.getKey();
+            items.add(createProfileItem(profileName, entry.getValue()));
+        }
 
-            for (String portName : portService.getPortsNames()) {
-                PortStatus status = portService.portStatus(portName);
-                boolean isUsed = parentPanel.getOpenedMonitor(portName) != null;
-                newModel.addElement(new ConnectablePort(portName, status, isUsed));
-            }
+        items.add(SerialMonitorLocalize.availablePorts().get());
+
+        for (String portName : portService.getPortsNames()) {
+            items.add(createPortItem(portName));
+        }
 
-            setModel(newModel);
+        Object selected = getSelectedValue();
+        String selectedKey = selected instanceof Connectable c ? c.getSelectionKey() : null;
+        applyDiff(items);
+        if (selectedKey != null && !(getSelectedValue() instanceof Connectable c && selectedKey.equals(c.getSelectionKey()))) {
+            // the entity moved to another row
             clearSelection();
-            if (savedKey != null) {
-                select(savedKey);
+            select(selectedKey);
+        }
+    }
+
+    /**
+     * Updates the status of the rows of {@link #changedPorts}, the set of rows stays the same.
+     */
+    private void refreshPorts() {
+        Set<String> ports = new HashSet<>(changedPorts);
+        changedPorts.removeAll(ports);
+        Map<String, SerialPortProfile> profiles = SerialProfileService.getInstance().getProfiles();
+        for (int row = 0; row < model.size(); row++) {
+            Object item = model.get(row);
+            Object newItem = null;
+            if (item instanceof ConnectableProfile p) {
+                SerialPortProfile profile = profiles.get(p.getEntityName());
+                if (profile != null && ports.contains(profile.getPortName())) {
+                    newItem = createProfileItem(p.getEntityName(), profile);
+                }
             }
-            invalidate();
-        });
+            else if (item instanceof ConnectablePort p && ports.contains(p.getEntityName())) {
+                newItem = createPortItem(p.getEntityName());
+            }
+            if (newItem != null && !sameState(item, newItem)) {
+                model.set(row, newItem);
+            }
+        }
+    }
+
+    private @Nonnull ConnectableProfile createProfileItem(@Nonnull String profileName, @Nonnull SerialPortProfile profile) {
+        SerialMonitor monitor = parentPanel.getOpenedMonitor(profile.getPortName());
+        PortStatus status = monitor != null ? monitor.getStatus() : SerialPortService.getInstance().portStatus(profile.getPortName());
+        boolean isUsed = monitor != null && monitor.getPortProfile() == profile;
+        return new ConnectableProfile(profileName, status, isUsed);
+    }
+
+    private @Nonnull ConnectablePort createPortItem(@Nonnull String portName) {
+        PortStatus status = SerialPortService.getInstance().portStatus(portName);
+        boolean isUsed = parentPanel.getOpenedMonitor(portName) != null;
+        return new ConnectablePort(portName, status, isUsed);
+    }
+
+    /**
+     * Turns the model into {@code items} with row inserts, removals and changes, so that only the changed rows
+     * are repainted and the selection stays on its entity.
+     */
+    private void applyDiff(@Nonnull List<Object> items) {
+        Set<Object> keys = new HashSet<>();
+        for (Object item : items) {
+            keys.add(itemKey(item));
+        }
+        int row = 0;
+        for (Object item : items) {
+            Object key = itemKey(item);
+            // drop the rows of entities which are gone
+            while (row < model.size() && !keys.contains(itemKey(model.get(row)))) {
+                model.remove(row);
+            }
+            if (row < model.size() && key.equals(itemKey(model.get(row)))) {
+                if (!sameState(model.get(row), item)) {
+                    model.set(row, item);
+                }
+            }
+            else {
+                // a new or moved entity, the row it moved from is removed below
+                model.add(row, item);
+            }
+            row++;
+        }
+        if (row < model.size()) {
+            model.removeRange(row, model.size() - 1);
+        }
+    }
+
+    private static @Nonnull Object itemKey(@Nonnull Object item) {
+        return item instanceof Connectable c ? c.getSelectionKey() : item;
+    }
+
+    private static boolean sameState(@Nonnull Object oldItem, @Nonnull Object newItem) {
+        if (oldItem instanceof Connectable oldConnectable && newItem instanceof Connectable newConnectable) {
+            return oldConnectable.getStatus() == newConnectable.getStatus() && oldConnectable.isUsed() == newConnectable.isUsed();
+        }
+        return oldItem.equals(newItem);
     }
 
     private void select(@Nonnull String selectionKey) {
@@ -251,9 +382,12 @@ public class ConnectableList extends JBList<Object> {
             Object element = getModel().getElementAt(i);
             if (element instanceof Connectable c && selectionKey.equals(c.getSelectionKey())) {
                 setSelectedIndex(i);
-                break;
+                return;
             }
         }
+        if (updateScheduled.get()) {
+            pendingSelectionKey = selectionKey;
+        }
     }
 
     public void selectProfile(@Nonnull String profileName) {
@@ -431,6 +565,9 @@ public class ConnectableList extends JBList<Object> {
 
     public class ConnectablePort extends Connectable {
 
+        private @Nullable String description;
+        private boolean descriptionComputed;
+
         public ConnectablePort(@Nonnull String portName, @Nonnull PortStatus status, boolean isUsed) {
             super(portName, status, isUsed);
         }
@@ -457,7 +594,12 @@ public class ConnectableList extends JBList<Object> {
 
         @Override
         public @Nullable String getDescription() {
-            return SerialPortService.getInstance().portDescriptiveName(getEntityName());
+            // the row is repainted often and kept while the port status does not change
+            if (!descriptionComputed) {
+                description = SerialPortService.getInstance().portDescriptiveName(getEntityName());
+                descriptionComputed = true;
+            }
+            return description;
         }
 
         @Override
@@ -0,0 +1,83 @@
+package com.intellij.plugins.serialmonitor.ui;
+
+import com.intellij.plugins.serialmonitor.service.PortStatus;
+import com.intellij.plugins.serialmonitor.service.SerialConnectionMetrics;
+import com.intellij.plugins.serialmonitor.service.SerialConnectionMetricsListener;
+import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import consulo.application.Application;
+import consulo.disposer.Disposable;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.ex.JBColor;
+import consulo.ui.ex.awt.JBLabel;
+import consulo.ui.ex.awt.JBUI;
+import jakarta.annotation.Nonnull;
+
+import javax.swing.*;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One line under the console with the live metrics of the connection of a tab.
+ */
+final class ConnectionStatusStrip implements SerialConnectionMetricsListener {
+
+    // Above this buffer usage the console is about to drop or block
+    private static final double BUFFER_WARNING_USAGE = 0.8;
+
+    private final SerialPortService.SerialConnection myConnection;
+    private final JBLabel myLabel = new JBLabel();
+
+    ConnectionStatusStrip(@Nonnull SerialPortService.SerialConnection connection, @Nonnull Disposable parent) {
+        myConnection = connection;
+        myLabel.setFont(JBUI.Fonts.smallFont());
+        myLabel.setBorder(JBUI.Borders.empty(2, 10));
+        reset();
+        Application.get().getMessageBus().connect(parent).subscribe(SerialConnectionMetricsListener.TOPIC, this);
+    }
+
+    @Nonnull JComponent getComponent() {
+        return myLabel;
+    }
+
+    /**
+     * Clears the metrics of a closed connection, must be called on the EDT.
+     */
+    void reset() {
+        myLabel.setText(SerialMonitorLocalize.statusStripDisconnected().get());
+        myLabel.setForeground(null);
+    }
+
+    @Override
+    public void metricsUpdated(@Nonnull SerialPortService.SerialConnection connection, @Nonnull SerialConnectionMetrics metrics) {
+        if (connection != myConnection) {
+            return;
+        }
+        String text = SerialMonitorLocalize.statusStripText(
+            formatSize(metrics.getRxBytesPerSecond()),
+            Math.round(metrics.getRxEventsPerSecond()),
+            Math.round(metrics.getAverageRxChunkSize()),
+            formatSize(metrics.getTxBytesPerSecond()),
+            formatSize(metrics.getPendingWriteBytes()),
+            Math.round(metrics.getConsoleBufferUsage() * 100),
+            metrics.getDroppedBytes(),
+            TimeUnit.NANOSECONDS.toMillis(metrics.getConsoleLagNanos())
+        ).get();
+        boolean unhealthy = metrics.getDroppedBytes() > 0 || metrics.getConsoleBufferUsage() > BUFFER_WARNING_USAGE;
+        Application.get().invokeLater(() -> {
+            if (connection.getStatus() == PortStatus.CONNECTED) {
+                myLabel.setText(text);
+                myLabel.setForeground(unhealthy ? JBColor.RED : null);
+            }
+        });
+    }
+
+    private static @Nonnull String formatSize(double bytes) {
+        if (bytes < 1000) {
+            return Math.round(bytes) + " B";
+        }
+        if (bytes < 1000 * 1000) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1000);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1000 * 1000));
+    }
+}
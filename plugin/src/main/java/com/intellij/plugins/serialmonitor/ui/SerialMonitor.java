@@ -5,6 +5,7 @@ import com.intellij.plugins.serialmonitor.SerialMonitorToolWindowFactory;
 import com.intellij.plugins.serialmonitor.SerialPortProfile;
 import com.intellij.plugins.serialmonitor.service.PortStatus;
 import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import com.intellij.plugins.serialmonitor.service.SerialPortsEvent;
 import com.intellij.plugins.serialmonitor.service.SerialPortsListener;
 import com.intellij.plugins.serialmonitor.ui.actions.EditSettingsAction;
 import com.intellij.plugins.serialmonitor.ui.console.JeditermSerialMonitorDuplexConsoleView;
@@ -58,12 +59,13 @@ public class SerialMonitor implements Disposable, SerialPortsListener {
     private final JComponent ctsComponent;
     private final JComponent dsrComponent;
     private final JeditermSerialMonitorDuplexConsoleView duplexConsoleView;
+    private final ConnectionStatusStrip myStatusStrip;
 
     public SerialMonitor(@Nonnull Project project, @Nonnull String name, @Nonnull SerialPortProfile portProfile) {
         this.project = project;
         this.portProfile = portProfile;
 
-        myPanel = new JBLoadingPanel(new GridLayoutManager(2, 2, JBUI.emptyInsets(), 0, 0), this, 300);
+        myPanel = new JBLoadingPanel(new GridLayoutManager(3, 2, JBUI.emptyInsets(), 0, 0), this, 300);
         myTopPanel = new JBPanel<>(new GridLayoutManager(1, 4, JBUI.insets(5, 10), 5, 0));
 
         myPanel.setLoadingText(SerialMonitorLocalize.connecting());
@@ -152,6 +154,7 @@ public class SerialMonitor implements Disposable, SerialPortsListener {
         connection.setDsrListener(this::onDSRChanged);
         connection.setCtsListener(this::onCTSChanged);
         Application.get().getMessageBus().connect(this).subscribe(SerialPortsListener.SERIAL_PORTS_TOPIC, this);
+        myStatusStrip = new ConnectionStatusStrip(connection, this);
 
         myTopPanel.add(myCommand,
                 new GridConstraints(0, 0, 1, 1, ANCHOR_WEST, FILL_HORIZONTAL, SIZE_POLICY_RESIZEABLE, SIZEPOLICY_FIXED, null, null, null));
@@ -165,12 +168,14 @@ public class SerialMonitor implements Disposable, SerialPortsListener {
         myTopPanel.setBorder(new CustomLineBorder(1, 0, 1, 1));
 
         myPanel.add(toolbar.getComponent(),
-                new GridConstraints(0, 0, 2, 1, ANCHOR_WEST, FILL_VERTICAL, SIZEPOLICY_FIXED, SIZE_POLICY_RESIZEABLE, null, null, null));
+                new GridConstraints(0, 0, 3, 1, ANCHOR_WEST, FILL_VERTICAL, SIZEPOLICY_FIXED, SIZE_POLICY_RESIZEABLE, null, null, null));
 
         myPanel.add(myTopPanel,
                 new GridConstraints(0, 1, 1, 1, ANCHOR_NORTH, FILL_HORIZONTAL, SIZE_POLICY_RESIZEABLE, SIZEPOLICY_FIXED, null, null, null));
         myPanel.add(consoleComponent,
                 new GridConstraints(1, 1, 1, 1, ANCHOR_CENTER, FILL_BOTH, SIZE_POLICY_RESIZEABLE, SIZE_POLICY_RESIZEABLE, null, null, null));
+        myPanel.add(myStatusStrip.getComponent(),
+                new GridConstraints(2, 1, 1, 1, ANCHOR_WEST, FILL_HORIZONTAL, SIZE_POLICY_RESIZEABLE, SIZEPOLICY_FIXED, null, null, null));
 
         duplexConsoleView.addSwitchListener(this::hideSendControls, this);
         hideSendControls(duplexConsoleView.isPrimaryConsoleEnabled());
@@ -185,11 +190,22 @@ public class SerialMonitor implements Disposable, SerialPortsListener {
     public void portsStatusChanged() {
         SwingUtilities.invokeLater(() -> {
             mySend.setEnabled(duplexConsoleView.getStatus() == PortStatus.CONNECTED);
+            if (duplexConsoleView.getStatus() != PortStatus.CONNECTED) {
+                myStatusStrip.reset();
+            }
             onCTSChanged(duplexConsoleView.getConnection().getCts());
             onDSRChanged(duplexConsoleView.getConnection().getDsr());
         });
     }
 
+    @Override
+    public void portsChanged(@Nonnull SerialPortsEvent event) {
+        // the modem lines are queried natively, skip changes of other ports
+        if (event.getStatusChange(duplexConsoleView.getConnection().getPortName()) != null) {
+            portsStatusChanged();
+        }
+    }
+
     public void notifyProfileChanged() {
         duplexConsoleView.reconnect();
         updateHardwareVisibility();
@@ -203,13 +219,11 @@ public class SerialMonitor implements Disposable, SerialPortsListener {
 
         if (!s.isEmpty()) {
             byte[] bytes = s.getBytes(duplexConsoleView.getCharset());
-            Application.get().executeOnPooledThread(() -> {
-                try {
-                    duplexConsoleView.getConnection().write(bytes);
-                } catch (Exception sme) {
-                    errorNotification(sme.getMessage(), project);
-                }
-            });
+            // only queued, sends keep their order
+            if (!duplexConsoleView.getConnection().write(bytes)) {
+                errorNotification(SerialMonitorLocalize.notificationSendDropped(bytes.length,
+                    duplexConsoleView.getConnection().getPortName()).get(), project);
+            }
         }
     }
 
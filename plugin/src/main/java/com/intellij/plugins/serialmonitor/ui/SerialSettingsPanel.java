@@ -1,9 +1,12 @@
 package com.intellij.plugins.serialmonitor.ui;
 
+import com.intellij.plugins.serialmonitor.FrameFormat;
+import com.intellij.plugins.serialmonitor.OverflowPolicy;
 import com.intellij.plugins.serialmonitor.Parity;
 import com.intellij.plugins.serialmonitor.SerialPortProfile;
 import com.intellij.plugins.serialmonitor.SerialProfileService;
 import com.intellij.plugins.serialmonitor.StopBits;
+import com.intellij.plugins.serialmonitor.TimestampFormat;
 import com.intellij.plugins.serialmonitor.service.PortStatus;
 import com.intellij.plugins.serialmonitor.service.SerialPortService;
 import consulo.application.ApplicationPropertiesComponent;
@@ -319,7 +322,7 @@ public final class SerialSettingsPanel {
         row1.add(bitsCombo);
         panel.add(row1);
 
-        // Stop bits and parity row
+        // Stop bits, parity and flow control row
         JPanel row2 = new JPanel(new FlowLayout(FlowLayout.LEFT));
         row2.add(new JLabel(SerialMonitorLocalize.labelStopBits().get()));
         JComboBox<StopBits> stopBitsCombo = new JComboBox<>(StopBits.values());
@@ -346,6 +349,17 @@ public final class SerialSettingsPanel {
             }
         });
         row2.add(parityCombo);
+
+        row2.add(new JLabel(SerialMonitorLocalize.labelRtsCtsFlowControl().get()));
+        JBCheckBox flowControlCheck = new JBCheckBox("", profile.getHardwareFlowControl());
+        flowControlCheck.setEnabled(!readOnly);
+        flowControlCheck.addActionListener(e -> {
+            if (flowControlCheck.isSelected() != profile.getHardwareFlowControl()) {
+                profile.setHardwareFlowControl(flowControlCheck.isSelected());
+                save.accept(profile);
+            }
+        });
+        row2.add(flowControlCheck);
         panel.add(row2);
 
         // New line and encoding row
@@ -407,7 +421,137 @@ public final class SerialSettingsPanel {
             }
         });
         row4.add(hwControlCheck);
+
+        row4.add(new JLabel(SerialMonitorLocalize.labelTimestampFormat().get()));
+        JComboBox<TimestampFormat> timestampCombo = new JComboBox<>(TimestampFormat.values());
+        timestampCombo.setSelectedItem(profile.getTimestampFormat());
+        timestampCombo.setEnabled(!readOnly);
+        timestampCombo.addActionListener(e -> {
+            TimestampFormat format = (TimestampFormat) timestampCombo.getSelectedItem();
+            if (format != null && format != profile.getTimestampFormat()) {
+                profile.setTimestampFormat(format);
+                save.accept(profile);
+            }
+        });
+        row4.add(timestampCombo);
         panel.add(row4);
+
+        // Overflow, capture and receive row
+        JPanel row5 = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        row5.add(new JLabel(SerialMonitorLocalize.labelOverflowPolicy().get()));
+        JComboBox<OverflowPolicy> overflowCombo = new JComboBox<>(OverflowPolicy.values());
+        overflowCombo.setSelectedItem(profile.getOverflowPolicy());
+        overflowCombo.setEnabled(!readOnly);
+        overflowCombo.addActionListener(e -> {
+            OverflowPolicy policy = (OverflowPolicy) overflowCombo.getSelectedItem();
+            if (policy != null && policy != profile.getOverflowPolicy()) {
+                profile.setOverflowPolicy(policy);
+                save.accept(profile);
+            }
+        });
+        row5.add(overflowCombo);
+
+        row5.add(new JLabel(SerialMonitorLocalize.labelCapture().get()));
+        JBCheckBox captureCheck = new JBCheckBox("", profile.getCapture());
+        captureCheck.setEnabled(!readOnly);
+        captureCheck.setToolTipText(SerialMonitorLocalize.labelCaptureTooltip().get());
+        captureCheck.addActionListener(e -> {
+            if (captureCheck.isSelected() != profile.getCapture()) {
+                profile.setCapture(captureCheck.isSelected());
+                save.accept(profile);
+            }
+        });
+        row5.add(captureCheck);
+
+        row5.add(new JLabel(SerialMonitorLocalize.labelReaderThread().get()));
+        JBCheckBox readerThreadCheck = new JBCheckBox("", profile.getReaderThread());
+        readerThreadCheck.setEnabled(!readOnly);
+        readerThreadCheck.setToolTipText(SerialMonitorLocalize.labelReaderThreadTooltip().get());
+        readerThreadCheck.addActionListener(e -> {
+            if (readerThreadCheck.isSelected() != profile.getReaderThread()) {
+                profile.setReaderThread(readerThreadCheck.isSelected());
+                save.accept(profile);
+            }
+        });
+        row5.add(readerThreadCheck);
+        panel.add(row5);
+
+        // Framing row
+        JPanel row6 = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        row6.add(new JLabel(SerialMonitorLocalize.labelFraming().get()));
+        JComboBox<FrameFormat> framingCombo = new JComboBox<>(FrameFormat.values());
+        framingCombo.setSelectedItem(profile.getFraming());
+        framingCombo.setEnabled(!readOnly);
+        row6.add(framingCombo);
+
+        row6.add(new JLabel(SerialMonitorLocalize.labelFrameDelimiter().get()));
+        JComboBox<String> delimiterCombo = new JComboBox<>(new String[]{"00", "0A", "0D", "03", "7E"});
+        delimiterCombo.setEditable(true);
+        delimiterCombo.setSelectedItem(formatDelimiter(profile.getFrameDelimiter()));
+        delimiterCombo.addActionListener(e -> {
+            Object item = delimiterCombo.getSelectedItem();
+            if (item != null) {
+                int delimiter = parseOrInvalid(item.toString().trim(), 16);
+                if (delimiter < 0 || delimiter > 0xFF) {
+                    // rejected, show what is saved
+                    delimiterCombo.setSelectedItem(formatDelimiter(profile.getFrameDelimiter()));
+                }
+                else if (delimiter != profile.getFrameDelimiter()) {
+                    profile.setFrameDelimiter(delimiter);
+                    save.accept(profile);
+                }
+            }
+        });
+        row6.add(delimiterCombo);
+
+        row6.add(new JLabel(SerialMonitorLocalize.labelFrameGap().get()));
+        JComboBox<Integer> gapCombo = new JComboBox<>(new Integer[]{5, 10, 20, 50, 100, 500});
+        gapCombo.setEditable(true);
+        gapCombo.setSelectedItem(profile.getFrameGap());
+        gapCombo.addActionListener(e -> {
+            Object item = gapCombo.getSelectedItem();
+            if (item != null) {
+                int gap = item instanceof Integer ? (Integer) item : parseOrInvalid(item.toString().trim(), 10);
+                if (gap <= 0) {
+                    // rejected, show what is saved
+                    gapCombo.setSelectedItem(profile.getFrameGap());
+                }
+                else if (gap != profile.getFrameGap()) {
+                    profile.setFrameGap(gap);
+                    save.accept(profile);
+                }
+            }
+        });
+        row6.add(gapCombo);
+
+        Runnable updateFramingParameters = () -> {
+            delimiterCombo.setEnabled(!readOnly && profile.getFraming() == FrameFormat.DELIMITER);
+            gapCombo.setEnabled(!readOnly && profile.getFraming() == FrameFormat.IDLE_GAP);
+        };
+        updateFramingParameters.run();
+        framingCombo.addActionListener(e -> {
+            FrameFormat framing = (FrameFormat) framingCombo.getSelectedItem();
+            if (framing != null && framing != profile.getFraming()) {
+                profile.setFraming(framing);
+                updateFramingParameters.run();
+                save.accept(profile);
+            }
+        });
+        panel.add(row6);
+    }
+
+    private static @Nonnull String formatDelimiter(int delimiter) {
+        return String.format(Locale.ROOT, "%02X", delimiter);
+    }
+
+    // -1 for text which is not a number
+    private static int parseOrInvalid(@Nonnull String text, int radix) {
+        try {
+            return Integer.parseInt(text, radix);
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
     }
 
     private static boolean showReconnectDialog(@Nonnull SerialPortProfile profile,
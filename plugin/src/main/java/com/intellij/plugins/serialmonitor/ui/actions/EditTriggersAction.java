@@ -0,0 +1,207 @@
+package com.intellij.plugins.serialmonitor.ui.actions;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.SerialTrigger;
+import com.intellij.plugins.serialmonitor.ui.console.JeditermSerialMonitorDuplexConsoleView;
+import consulo.localize.LocalizeValue;
+import consulo.platform.base.icon.PlatformIconGroup;
+import consulo.project.Project;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.ex.action.AnActionEvent;
+import consulo.ui.ex.action.DumbAwareAction;
+import consulo.ui.ex.awt.*;
+import consulo.ui.ex.awt.table.JBTable;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Edits the triggers of all consoles. The console the dialog is opened from picks the changes up at once, the others
+ * when they connect.
+ */
+public class EditTriggersAction extends DumbAwareAction {
+
+    private final @Nonnull JeditermSerialMonitorDuplexConsoleView myConsoleView;
+
+    public EditTriggersAction(@Nonnull JeditermSerialMonitorDuplexConsoleView consoleView) {
+        super(SerialMonitorLocalize.actionEditTriggersText(), SerialMonitorLocalize.actionEditTriggersDescription(),
+            PlatformIconGroup.generalSettings());
+        myConsoleView = consoleView;
+    }
+
+    @Override
+    public void actionPerformed(@Nonnull AnActionEvent e) {
+        List<SerialTrigger> triggers = new ArrayList<>();
+        for (SerialTrigger trigger : SerialProfileService.getInstance().getTriggers()) {
+            triggers.add(trigger.copy());
+        }
+        TriggersDialog dialog = new TriggersDialog(e.getData(Project.KEY), triggers);
+        if (dialog.showAndGet()) {
+            triggers.removeIf(trigger -> trigger.getPattern().isEmpty());
+            SerialProfileService.getInstance().setTriggers(triggers);
+            myConsoleView.reloadTriggers();
+        }
+    }
+
+    private enum Column {
+        ENABLED(SerialMonitorLocalize.columnTriggerEnabled(), Boolean.class),
+        PATTERN(SerialMonitorLocalize.columnTriggerPattern(), String.class),
+        REGEX(SerialMonitorLocalize.columnTriggerRegex(), Boolean.class),
+        MATCH_CASE(SerialMonitorLocalize.columnTriggerMatchCase(), Boolean.class),
+        HIGHLIGHT(SerialMonitorLocalize.columnTriggerHighlight(), Boolean.class),
+        NOTIFY(SerialMonitorLocalize.columnTriggerNotify(), Boolean.class),
+        PAUSE(SerialMonitorLocalize.columnTriggerPause(), Boolean.class),
+        REPLY(SerialMonitorLocalize.columnTriggerReply(), String.class);
+
+        private final LocalizeValue name;
+        private final Class<?> type;
+
+        Column(@Nonnull LocalizeValue name, @Nonnull Class<?> type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    private static class TriggersModel extends AbstractTableModel {
+
+        private final List<SerialTrigger> triggers;
+
+        private TriggersModel(@Nonnull List<SerialTrigger> triggers) {
+            this.triggers = triggers;
+        }
+
+        @Override
+        public int getRowCount() {
+            return triggers.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return Column.values().length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return Column.values()[column].name.get();
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return Column.values()[column].type;
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return true;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            SerialTrigger trigger = triggers.get(row);
+            return switch (Column.values()[column]) {
+                case ENABLED -> trigger.isEnabled();
+                case PATTERN -> trigger.getPattern();
+                case REGEX -> trigger.isRegex();
+                case MATCH_CASE -> trigger.isMatchCase();
+                case HIGHLIGHT -> trigger.isHighlight();
+                case NOTIFY -> trigger.isNotify();
+                case PAUSE -> trigger.isPause();
+                case REPLY -> trigger.getReply();
+            };
+        }
+
+        @Override
+        public void setValueAt(Object value, int row, int column) {
+            SerialTrigger trigger = triggers.get(row);
+            switch (Column.values()[column]) {
+                case ENABLED -> trigger.setEnabled((Boolean) value);
+                case PATTERN -> trigger.setPattern((String) value);
+                case REGEX -> trigger.setRegex((Boolean) value);
+                case MATCH_CASE -> trigger.setMatchCase((Boolean) value);
+                case HIGHLIGHT -> trigger.setHighlight((Boolean) value);
+                case NOTIFY -> trigger.setNotify((Boolean) value);
+                case PAUSE -> trigger.setPause((Boolean) value);
+                case REPLY -> trigger.setReply((String) value);
+            }
+            fireTableRowsUpdated(row, row);
+        }
+
+        private void add() {
+            triggers.add(new SerialTrigger());
+            fireTableRowsInserted(triggers.size() - 1, triggers.size() - 1);
+        }
+
+        private void remove(int row) {
+            triggers.remove(row);
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    private static class TriggersDialog extends DialogWrapper {
+
+        private final TriggersModel model;
+        private final JBTable table;
+
+        private TriggersDialog(@Nullable Project project, @Nonnull List<SerialTrigger> triggers) {
+            super(project);
+            model = new TriggersModel(triggers);
+            table = new JBTable(model);
+            setTitle(SerialMonitorLocalize.dialogTriggersTitle());
+            init();
+        }
+
+        @Override
+        protected @Nullable JComponent createCenterPanel() {
+            JPanel panel = ToolbarDecorator.createDecorator(table)
+                .setAddAction(button -> {
+                    model.add();
+                    int row = model.getRowCount() - 1;
+                    table.getSelectionModel().setSelectionInterval(row, row);
+                    table.editCellAt(row, Column.PATTERN.ordinal());
+                })
+                .setRemoveAction(button -> {
+                    int row = table.getSelectedRow();
+                    if (row >= 0) {
+                        if (table.isEditing()) {
+                            table.getCellEditor().cancelCellEditing();
+                        }
+                        model.remove(row);
+                    }
+                })
+                .disableUpDownActions()
+                .createPanel();
+            panel.setPreferredSize(JBUI.size(800, 300));
+            return panel;
+        }
+
+        @Override
+        protected @Nullable ValidationInfo doValidate() {
+            for (SerialTrigger trigger : model.triggers) {
+                if (trigger.isRegex()) {
+                    try {
+                        Pattern.compile(trigger.getPattern());
+                    }
+                    catch (PatternSyntaxException e) {
+                        return new ValidationInfo(
+                            SerialMonitorLocalize.searchStatusInvalidRegex(e.getDescription()).get(), table);
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        protected void doOKAction() {
+            if (table.isEditing()) {
+                table.getCellEditor().stopCellEditing();
+            }
+            super.doOKAction();
+        }
+    }
+}
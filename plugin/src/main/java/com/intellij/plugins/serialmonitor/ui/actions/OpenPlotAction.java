@@ -0,0 +1,65 @@
+package com.intellij.plugins.serialmonitor.ui.actions;
+
+import com.intellij.plugins.serialmonitor.SerialMonitorToolWindowFactory;
+import com.intellij.plugins.serialmonitor.SerialPortProfile;
+import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import com.intellij.plugins.serialmonitor.ui.console.PlotView;
+import consulo.platform.base.icon.PlatformIconGroup;
+import consulo.project.Project;
+import consulo.project.ui.wm.ToolWindowManager;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.annotation.RequiredUIAccess;
+import consulo.ui.ex.action.AnActionEvent;
+import consulo.ui.ex.action.DumbAwareAction;
+import consulo.ui.ex.content.Content;
+import consulo.ui.ex.content.ContentManager;
+import consulo.ui.ex.toolWindow.ToolWindow;
+import consulo.util.dataholder.Key;
+import jakarta.annotation.Nonnull;
+
+/**
+ * Opens the plot of the numeric lines of a connection in a tab of the tool window, or selects it if it is open.
+ */
+public class OpenPlotAction extends DumbAwareAction {
+
+    private static final Key<PlotView> PLOT = Key.create(PlotView.class.getName());
+
+    private final @Nonnull SerialPortService.SerialConnection myConnection;
+    private final @Nonnull SerialPortProfile myProfile;
+
+    public OpenPlotAction(@Nonnull SerialPortService.SerialConnection connection, @Nonnull SerialPortProfile profile) {
+        super(SerialMonitorLocalize.actionOpenPlotText(), SerialMonitorLocalize.actionOpenPlotDescription(),
+            PlatformIconGroup.actionsPreview());
+        myConnection = connection;
+        myProfile = profile;
+    }
+
+    @RequiredUIAccess
+    @Override
+    public void actionPerformed(@Nonnull AnActionEvent e) {
+        Project project = e.getData(Project.KEY);
+        if (project == null) {
+            return;
+        }
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(SerialMonitorToolWindowFactory.ID);
+        if (toolWindow == null) {
+            return;
+        }
+        ContentManager contentManager = toolWindow.getContentManager();
+        for (Content content : contentManager.getContents()) {
+            PlotView plot = content.getUserData(PLOT);
+            if (plot != null && plot.getConnection() == myConnection) {
+                contentManager.setSelectedContent(content, true);
+                return;
+            }
+        }
+        PlotView plot = new PlotView(myConnection, myProfile.getNewLine());
+        Content content = contentManager.getFactory().createContent(plot.getComponent(),
+            SerialMonitorLocalize.plotTabTitle(myConnection.getPortName()).get(), true);
+        content.putUserData(PLOT, plot);
+        content.setDisposer(plot);
+        content.setCloseable(true);
+        contentManager.addContent(content);
+        contentManager.setSelectedContent(content, true);
+    }
+}
@@ -0,0 +1,66 @@
+package com.intellij.plugins.serialmonitor.ui.actions;
+
+import com.intellij.plugins.serialmonitor.SerialMonitorToolWindowFactory;
+import com.intellij.plugins.serialmonitor.SerialPortProfile;
+import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import com.intellij.plugins.serialmonitor.ui.console.TelemetryView;
+import consulo.platform.base.icon.PlatformIconGroup;
+import consulo.project.Project;
+import consulo.project.ui.wm.ToolWindowManager;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.annotation.RequiredUIAccess;
+import consulo.ui.ex.action.AnActionEvent;
+import consulo.ui.ex.action.DumbAwareAction;
+import consulo.ui.ex.content.Content;
+import consulo.ui.ex.content.ContentManager;
+import consulo.ui.ex.toolWindow.ToolWindow;
+import consulo.util.dataholder.Key;
+import jakarta.annotation.Nonnull;
+
+/**
+ * Opens the telemetry of a connection in a tab of the tool window, or selects it if it is open. Recording starts
+ * when the tab is opened and stops when it is closed.
+ */
+public class OpenTelemetryAction extends DumbAwareAction {
+
+    private static final Key<TelemetryView> TELEMETRY = Key.create(TelemetryView.class.getName());
+
+    private final @Nonnull SerialPortService.SerialConnection myConnection;
+    private final @Nonnull SerialPortProfile myProfile;
+
+    public OpenTelemetryAction(@Nonnull SerialPortService.SerialConnection connection, @Nonnull SerialPortProfile profile) {
+        super(SerialMonitorLocalize.actionOpenTelemetryText(), SerialMonitorLocalize.actionOpenTelemetryDescription(),
+            PlatformIconGroup.actionsShow());
+        myConnection = connection;
+        myProfile = profile;
+    }
+
+    @RequiredUIAccess
+    @Override
+    public void actionPerformed(@Nonnull AnActionEvent e) {
+        Project project = e.getData(Project.KEY);
+        if (project == null) {
+            return;
+        }
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(SerialMonitorToolWindowFactory.ID);
+        if (toolWindow == null) {
+            return;
+        }
+        ContentManager contentManager = toolWindow.getContentManager();
+        for (Content content : contentManager.getContents()) {
+            TelemetryView telemetry = content.getUserData(TELEMETRY);
+            if (telemetry != null && telemetry.getConnection() == myConnection) {
+                contentManager.setSelectedContent(content, true);
+                return;
+            }
+        }
+        TelemetryView telemetry = new TelemetryView(myConnection, myProfile.getNewLine());
+        Content content = contentManager.getFactory().createContent(telemetry.getComponent(),
+            SerialMonitorLocalize.telemetryTabTitle(myConnection.getPortName()).get(), true);
+        content.putUserData(TELEMETRY, telemetry);
+        content.setDisposer(telemetry);
+        content.setCloseable(true);
+        contentManager.addContent(content);
+        contentManager.setSelectedContent(content, true);
+    }
+}
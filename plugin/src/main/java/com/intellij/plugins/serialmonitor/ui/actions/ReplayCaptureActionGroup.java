@@ -0,0 +1,111 @@
+package com.intellij.plugins.serialmonitor.ui.actions;
+
+import com.intellij.plugins.serialmonitor.SerialMonitorException;
+import com.intellij.plugins.serialmonitor.capture.CaptureReplay;
+import com.intellij.plugins.serialmonitor.service.PortStatus;
+import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import com.intellij.plugins.serialmonitor.ui.SerialMonitor;
+import consulo.application.AllIcons;
+import consulo.application.dumb.DumbAware;
+import consulo.application.progress.ProgressIndicator;
+import consulo.application.progress.Task;
+import consulo.fileChooser.FileChooserDescriptor;
+import consulo.fileChooser.FileChooserFactory;
+import consulo.localize.LocalizeValue;
+import consulo.logging.Logger;
+import consulo.project.Project;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.ex.action.ActionGroup;
+import consulo.ui.ex.action.AnAction;
+import consulo.ui.ex.action.AnActionEvent;
+import consulo.ui.ex.action.DumbAwareAction;
+import consulo.virtualFileSystem.VirtualFile;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Replays a capture journal into the console through the listeners of its connection, at a chosen speed. Only while
+ * the port is disconnected, the replay stands in for the receiving thread.
+ */
+public class ReplayCaptureActionGroup extends ActionGroup implements DumbAware {
+
+    private static final Logger LOG = Logger.getInstance(ReplayCaptureActionGroup.class);
+
+    private final SerialPortService.SerialConnection connection;
+    private final AnAction[] children;
+
+    public ReplayCaptureActionGroup(@Nonnull SerialPortService.SerialConnection connection) {
+        super(SerialMonitorLocalize.actionReplayCaptureText(), SerialMonitorLocalize.actionReplayCaptureDescription(),
+            AllIcons.Actions.Execute);
+        setPopup(true);
+        this.connection = connection;
+        children = new AnAction[]{
+            new ReplayAction(SerialMonitorLocalize.actionReplayOriginalSpeedText(), CaptureReplay.ORIGINAL_SPEED),
+            new ReplayAction(SerialMonitorLocalize.actionReplaySpeedText(10), 10),
+            new ReplayAction(SerialMonitorLocalize.actionReplaySpeedText(100), 100),
+            new ReplayAction(SerialMonitorLocalize.actionReplayAsFastAsPossibleText(), CaptureReplay.AS_FAST_AS_POSSIBLE)
+        };
+    }
+
+    @Override
+    public @Nonnull AnAction[] getChildren(@Nullable AnActionEvent e) {
+        return children;
+    }
+
+    @Override
+    public void update(@Nonnull AnActionEvent e) {
+        PortStatus status = connection.getStatus();
+        e.getPresentation().setEnabled(status != PortStatus.CONNECTED && status != PortStatus.CONNECTING &&
+            !connection.isReplaying());
+    }
+
+    private class ReplayAction extends DumbAwareAction {
+
+        private final double speed;
+
+        private ReplayAction(@Nonnull LocalizeValue text, double speed) {
+            super(text);
+            this.speed = speed;
+        }
+
+        @Override
+        public void actionPerformed(@Nonnull AnActionEvent e) {
+            Project project = e.getData(Project.KEY);
+            FileChooserDescriptor descriptor = new FileChooserDescriptor(true, false, false, false, false, false);
+            VirtualFile[] files = FileChooserFactory.getInstance().createFileChooser(descriptor, project, null).choose(project);
+            if (files.length == 0) return;
+            Path file = Path.of(files[0].getPath());
+            CaptureReplay replay = new CaptureReplay(file, speed);
+
+            new Task.Backgroundable(project, SerialMonitorLocalize.progressReplayingCapture(file.getFileName().toString()), true) {
+                @Override
+                public void run(@Nonnull ProgressIndicator indicator) {
+                    try {
+                        connection.replay(replay, indicator::isCanceled);
+                    }
+                    catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    catch (SerialMonitorException ex) {
+                        throw new IllegalStateException(ex.getMessage(), ex);
+                    }
+                }
+
+                @Override
+                public void onThrowable(@Nonnull Throwable error) {
+                    Throwable cause = error instanceof UncheckedIOException ? error.getCause() : error;
+                    LOG.warn("Failed to replay " + file, cause);
+                    if (project != null) {
+                        SerialMonitor.errorNotification(
+                            SerialMonitorLocalize.notificationReplayFailed(file.toString(), String.valueOf(cause.getMessage())).get(),
+                            project);
+                    }
+                }
+            }.queue();
+        }
+    }
+}
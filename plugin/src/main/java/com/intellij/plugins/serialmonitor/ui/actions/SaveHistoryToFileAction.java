@@ -1,34 +1,36 @@
 package com.intellij.plugins.serialmonitor.ui.actions;
 
 import com.intellij.plugins.serialmonitor.SerialPortProfile;
-import com.jediterm.terminal.model.LinesStorage;
-import com.jediterm.terminal.model.TerminalLine;
+import com.intellij.plugins.serialmonitor.ui.SerialMonitor;
 import com.jediterm.terminal.model.TerminalTextBuffer;
-import consulo.application.AllIcons;
-import consulo.application.Application;
+import consulo.application.progress.ProgressIndicator;
+import consulo.application.progress.Task;
 import consulo.fileChooser.FileChooserFactory;
 import consulo.fileChooser.FileSaverDescriptor;
+import consulo.logging.Logger;
 import consulo.platform.base.icon.PlatformIconGroup;
 import consulo.project.Project;
 import consulo.serialMonitor.localize.SerialMonitorLocalize;
 import consulo.ui.ex.action.AnActionEvent;
 import consulo.ui.ex.action.DumbAwareAction;
-import consulo.util.collection.ContainerUtil;
 import consulo.virtualFileSystem.VirtualFileWrapper;
 import jakarta.annotation.Nonnull;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * @author Jan Papesch
  */
 public class SaveHistoryToFileAction extends DumbAwareAction {
 
+    private static final Logger LOG = Logger.getInstance(SaveHistoryToFileAction.class);
+
     private final TerminalTextBuffer terminalTextBuffer;
     public SaveHistoryToFileAction(@Nonnull TerminalTextBuffer terminalTextBuffer, @Nonnull SerialPortProfile serialPortProfile) {
         super(SerialMonitorLocalize.actionSaveText(),
@@ -57,37 +59,43 @@ public class SaveHistoryToFileAction extends DumbAwareAction {
                 .save(null, defaultLogFilename());
 
         if (wrapper == null) return;
-        File file = wrapper.getFile();
+        Path file = wrapper.getFile().toPath();
+        Project project = e.getData(Project.KEY);
+        TerminalHistoryExporter exporter = new TerminalHistoryExporter(terminalTextBuffer,
+            Charset.availableCharsets().getOrDefault(serialPortProfile.getEncoding(), StandardCharsets.US_ASCII));
 
-        Application.get().executeOnPooledThread(() -> {
-            List<TerminalLine> lines;
-            try {
-                terminalTextBuffer.lock();
-                LinesStorage historyLines = terminalTextBuffer.getHistoryLinesStorage();
-                LinesStorage screenLines = terminalTextBuffer.getScreenLinesStorage();
-                lines = new ArrayList<>(historyLines.size() + screenLines.size());
-                for (TerminalLine historyLine : terminalTextBuffer.getHistoryLinesStorage()) {
-                    lines.add(historyLine);
+        new Task.Backgroundable(project, SerialMonitorLocalize.progressSavingHistory(), true) {
+            @Override
+            public void run(@Nonnull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                try {
+                    exporter.export(file, indicator);
                 }
-                for (TerminalLine screenLine : screenLines) {
-                    lines.add(screenLine);
+                catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
                 }
-            } finally {
-                terminalTextBuffer.unlock();
             }
 
-            StringBuilder text = new StringBuilder();
-            String lineSeparator = System.lineSeparator();
-            for (TerminalLine line : lines) {
-                text.append(line.getText());
-                text.append(lineSeparator);
+            @Override
+            public void onCancel() {
+                try {
+                    Files.deleteIfExists(file);
+                }
+                catch (IOException ex) {
+                    LOG.info("Failed to delete partially saved history " + file, ex);
+                }
             }
 
-            try (FileWriter writer = new FileWriter(file)) {
-                writer.write(text.toString());
-            } catch (IOException ex) {
-                // Log error silently
+            @Override
+            public void onThrowable(@Nonnull Throwable error) {
+                Throwable cause = error instanceof UncheckedIOException ? error.getCause() : error;
+                LOG.warn("Failed to save history to " + file, cause);
+                if (project != null) {
+                    SerialMonitor.errorNotification(
+                        SerialMonitorLocalize.notificationSaveHistoryFailed(file.toString(), String.valueOf(cause.getMessage())).get(),
+                        project);
+                }
             }
-        });
+        }.queue();
     }
 }
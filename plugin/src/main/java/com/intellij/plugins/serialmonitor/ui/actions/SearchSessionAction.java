@@ -0,0 +1,192 @@
+package com.intellij.plugins.serialmonitor.ui.actions;
+
+import com.intellij.plugins.serialmonitor.search.SearchHit;
+import com.intellij.plugins.serialmonitor.search.SearchQuery;
+import com.intellij.plugins.serialmonitor.search.SearchResult;
+import com.intellij.plugins.serialmonitor.search.SessionIndex;
+import com.intellij.plugins.serialmonitor.ui.console.JeditermSerialMonitorDuplexConsoleView;
+import consulo.application.Application;
+import consulo.logging.Logger;
+import consulo.platform.base.icon.PlatformIconGroup;
+import consulo.project.Project;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.ex.SimpleTextAttributes;
+import consulo.ui.ex.action.AnActionEvent;
+import consulo.ui.ex.action.DumbAwareAction;
+import consulo.ui.ex.awt.*;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Searches everything received in the session, with hits that jump to the received bytes in the console.
+ */
+public class SearchSessionAction extends DumbAwareAction {
+
+    private static final Logger LOG = Logger.getInstance(SearchSessionAction.class);
+    private static final int MAX_HITS = 10_000;
+
+    private final @Nonnull JeditermSerialMonitorDuplexConsoleView myConsoleView;
+
+    public SearchSessionAction(@Nonnull JeditermSerialMonitorDuplexConsoleView consoleView) {
+        super(SerialMonitorLocalize.actionSearchSessionText(), SerialMonitorLocalize.actionSearchSessionDescription(),
+            PlatformIconGroup.actionsFind());
+        myConsoleView = consoleView;
+    }
+
+    @Override
+    public void update(@Nonnull AnActionEvent e) {
+        e.getPresentation().setEnabled(myConsoleView.getSessionIndex() != null);
+    }
+
+    @Override
+    public void actionPerformed(@Nonnull AnActionEvent e) {
+        SessionIndex index = myConsoleView.getSessionIndex();
+        if (index != null) {
+            new SearchDialog(e.getData(Project.KEY), index).show();
+        }
+    }
+
+    private class SearchDialog extends DialogWrapper {
+
+        private final SessionIndex index;
+        private final JTextField queryField = new JTextField(40);
+        private final JBCheckBox regexBox = new JBCheckBox(SerialMonitorLocalize.labelSearchRegex().get());
+        private final JBCheckBox matchCaseBox = new JBCheckBox(SerialMonitorLocalize.labelSearchMatchCase().get());
+        private final DefaultListModel<SearchHit> hitsModel = new DefaultListModel<>();
+        private final JBList<SearchHit> hitsList = new JBList<>(hitsModel);
+        private final JBLabel statusLabel = new JBLabel(" ");
+        // a newer search cancels the running one
+        private final AtomicInteger generation = new AtomicInteger();
+
+        private SearchDialog(@Nullable Project project, @Nonnull SessionIndex index) {
+            super(project, false, IdeModalityType.MODELESS);
+            this.index = index;
+            setTitle(SerialMonitorLocalize.dialogSearchSessionTitle(myConsoleView.getConnection().getPortName()));
+            init();
+        }
+
+        @Override
+        protected @Nullable JComponent createCenterPanel() {
+            JPanel queryRow = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            queryRow.add(queryField);
+            queryRow.add(regexBox);
+            queryRow.add(matchCaseBox);
+            queryField.addActionListener(e -> search());
+            regexBox.addActionListener(e -> search());
+            matchCaseBox.addActionListener(e -> search());
+
+            hitsList.setCellRenderer(new HitRenderer());
+            hitsList.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        showSelectedHit();
+                    }
+                }
+            });
+            hitsList.addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                        showSelectedHit();
+                        e.consume();
+                    }
+                }
+            });
+
+            JPanel panel = new JPanel(new BorderLayout());
+            panel.setBorder(JBUI.Borders.empty(10));
+            panel.add(queryRow, BorderLayout.NORTH);
+            JBScrollPane scrollPane = new JBScrollPane(hitsList);
+            scrollPane.setPreferredSize(JBUI.size(700, 400));
+            panel.add(scrollPane, BorderLayout.CENTER);
+            panel.add(statusLabel, BorderLayout.SOUTH);
+            return panel;
+        }
+
+        @Override
+        public @Nullable JComponent getPreferredFocusedComponent() {
+            return queryField;
+        }
+
+        @Override
+        protected @Nonnull Action[] createActions() {
+            return new Action[]{getCancelAction()};
+        }
+
+        private void search() {
+            String text = queryField.getText();
+            int searchGeneration = generation.incrementAndGet();
+            hitsModel.clear();
+            if (text.isEmpty()) {
+                statusLabel.setText(" ");
+                return;
+            }
+            SearchQuery query = new SearchQuery(text, regexBox.isSelected(), matchCaseBox.isSelected());
+            statusLabel.setText(SerialMonitorLocalize.searchStatusSearching().get());
+            Application.get().executeOnPooledThread(() -> {
+                long start = System.nanoTime();
+                String status;
+                SearchResult result = null;
+                try {
+                    result = index.search(query, myConsoleView.getCharset(), MAX_HITS,
+                        () -> generation.get() != searchGeneration || isDisposed());
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    String megabytes = String.format(Locale.ROOT, "%.1f", result.getSearchedBytes() / (1000.0 * 1000));
+                    status = result.isComplete() ?
+                        SerialMonitorLocalize.searchStatusHits(result.getHits().size(), megabytes, millis).get() :
+                        SerialMonitorLocalize.searchStatusFirstHits(result.getHits().size(), megabytes, millis).get();
+                }
+                catch (PatternSyntaxException e) {
+                    status = SerialMonitorLocalize.searchStatusInvalidRegex(e.getDescription()).get();
+                }
+                catch (IOException e) {
+                    LOG.warn("Failed to search the session history", e);
+                    status = SerialMonitorLocalize.searchStatusFailed(String.valueOf(e.getMessage())).get();
+                }
+                SearchResult finalResult = result;
+                String finalStatus = status;
+                Application.get().invokeLater(() -> {
+                    if (generation.get() != searchGeneration || isDisposed()) {
+                        return;
+                    }
+                    if (finalResult != null) {
+                        hitsModel.addAll(finalResult.getHits());
+                    }
+                    statusLabel.setText(finalStatus);
+                });
+            });
+        }
+
+        private void showSelectedHit() {
+            SearchHit hit = hitsList.getSelectedValue();
+            if (hit != null && !myConsoleView.showInConsole(hit)) {
+                statusLabel.setText(SerialMonitorLocalize.searchStatusNotRetained(hit.getLineNumber() + 1).get());
+            }
+        }
+    }
+
+    private static class HitRenderer extends ColoredListCellRenderer<SearchHit> {
+        @Override
+        protected void customizeCellRenderer(@Nonnull JList<? extends SearchHit> list, SearchHit hit, int index,
+                                             boolean selected, boolean hasFocus) {
+            String line = hit.getLine();
+            append(hit.getLineNumber() + 1 + "  ", SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            append(line.substring(0, hit.getMatchStart()), SimpleTextAttributes.REGULAR_ATTRIBUTES);
+            append(line.substring(hit.getMatchStart(), hit.getMatchEnd()), SimpleTextAttributes.REGULAR_BOLD_ATTRIBUTES);
+            append(line.substring(hit.getMatchEnd()), SimpleTextAttributes.REGULAR_ATTRIBUTES);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.intellij.plugins.serialmonitor.ui.actions;
+
+import com.jediterm.terminal.model.LinesStorage;
+import com.jediterm.terminal.model.TerminalTextBuffer;
+import consulo.application.progress.ProgressIndicator;
+import jakarta.annotation.Nonnull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Writes the history and screen lines of a terminal buffer to a file.
+ * <p>
+ * Lines are copied in small batches, so the buffer lock is held only briefly and the emulator keeps running.
+ * The number of lines is fixed when the export starts; if the history overflows its limit during the export,
+ * the file may miss or repeat the lines which moved.
+ */
+final class TerminalHistoryExporter {
+
+    private static final int BATCH_LINES = 1000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final TerminalTextBuffer myTextBuffer;
+    private final Charset myCharset;
+
+    TerminalHistoryExporter(@Nonnull TerminalTextBuffer textBuffer, @Nonnull Charset charset) {
+        myTextBuffer = textBuffer;
+        myCharset = charset;
+    }
+
+    void export(@Nonnull Path file, @Nonnull ProgressIndicator indicator) throws IOException {
+        String lineSeparator = System.lineSeparator();
+        List<String> batch = new ArrayList<>(BATCH_LINES);
+        try (FileChannel channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, myCharset), WRITE_BUFFER_SIZE)) {
+            int total = -1;
+            int exported = 0;
+            do {
+                indicator.checkCanceled();
+                batch.clear();
+                myTextBuffer.lock();
+                try {
+                    LinesStorage historyLines = myTextBuffer.getHistoryLinesStorage();
+                    LinesStorage screenLines = myTextBuffer.getScreenLinesStorage();
+                    int historySize = historyLines.size();
+                    if (total < 0) {
+                        total = historySize + screenLines.size();
+                    }
+                    int end = Math.min(Math.min(total, historySize + screenLines.size()), exported + BATCH_LINES);
+                    for (int i = exported; i < end; i++) {
+                        batch.add(i < historySize ? historyLines.get(i).getText() : screenLines.get(i - historySize).getText());
+                    }
+                }
+                finally {
+                    myTextBuffer.unlock();
+                }
+
+                for (String line : batch) {
+                    writer.write(line);
+                    writer.write(lineSeparator);
+                }
+                exported += batch.size();
+                indicator.setFraction(total == 0 ? 1 : (double) exported / total);
+            }
+            while (!batch.isEmpty() && exported < total);
+        }
+    }
+}
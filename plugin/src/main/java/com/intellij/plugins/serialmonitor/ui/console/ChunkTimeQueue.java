@@ -0,0 +1,65 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer/single-consumer queue of receive times, each attached to the stream position of the first byte
+ * of a received chunk. Bounded: when it is full, chunks are not marked and share the time of the previous mark.
+ */
+final class ChunkTimeQueue {
+
+    private final long[] positions;
+    private final long[] times;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    ChunkTimeQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        positions = new long[capacity];
+        times = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Producer side, must be called before the bytes at {@code position} are published.
+     */
+    boolean offer(long position, long nanoTime) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() == positions.length) {
+            return false;
+        }
+        int index = (int) currentTail & mask;
+        positions[index] = position;
+        times[index] = nanoTime;
+        tail.set(currentTail + 1);
+        return true;
+    }
+
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * Consumer side, the queue must not be empty.
+     */
+    long peekPosition() {
+        return positions[(int) head.get() & mask];
+    }
+
+    /**
+     * Consumer side, the queue must not be empty.
+     */
+    long peekTime() {
+        return times[(int) head.get() & mask];
+    }
+
+    /**
+     * Consumer side, the queue must not be empty.
+     */
+    void remove() {
+        head.set(head.get() + 1);
+    }
+}
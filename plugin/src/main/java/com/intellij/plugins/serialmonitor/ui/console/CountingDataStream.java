@@ -0,0 +1,58 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import com.jediterm.terminal.TerminalDataStream;
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+
+/**
+ * Counts the chars the emulator takes from a data stream, so a char can be matched with the chars returned by
+ * {@link TerminalFeed#readChars}. Chars pushed back count again when they are taken again.
+ */
+final class CountingDataStream implements TerminalDataStream {
+
+    private final TerminalDataStream delegate;
+    private long position;
+
+    CountingDataStream(@Nonnull TerminalDataStream delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return number of chars taken, the index of the next one
+     */
+    long getPosition() {
+        return position;
+    }
+
+    @Override
+    public char getChar() throws IOException {
+        char c = delegate.getChar();
+        position++;
+        return c;
+    }
+
+    @Override
+    public void pushChar(char c) throws IOException {
+        delegate.pushChar(c);
+        position--;
+    }
+
+    @Override
+    public String readNonControlCharacters(int maxChars) throws IOException {
+        String chars = delegate.readNonControlCharacters(maxChars);
+        position += chars.length();
+        return chars;
+    }
+
+    @Override
+    public void pushBackBuffer(char[] bytes, int length) throws IOException {
+        delegate.pushBackBuffer(bytes, length);
+        position -= length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+}
@@ -1,26 +1,30 @@
 package com.intellij.plugins.serialmonitor.ui.console;
 
 import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.TimestampFormat;
 import com.jediterm.terminal.Terminal;
 import com.jediterm.terminal.TerminalDataStream;
 import com.jediterm.terminal.emulator.JediEmulator;
 import jakarta.annotation.Nonnull;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.function.LongSupplier;
 
 public class CustomJeditermEmulator extends JediEmulator {
 
-    public static final String TIMESTAMP_FORMAT = "[HH:mm:ss.SSS] ";
-
     private SerialProfileService.NewLine newLine = SerialProfileService.NewLine.CRLF;
     private boolean isTimestamped = false;
     private boolean lastCharCR = false;
-    private final SimpleDateFormat myFormatter = new SimpleDateFormat(TIMESTAMP_FORMAT);
-
-    public CustomJeditermEmulator(@Nonnull TerminalDataStream dataStream, @Nonnull Terminal terminal) {
+    private volatile TimestampFormatter myFormatter = new TimestampFormatter(TimestampFormat.MILLIS);
+    // Set by other threads, the formatter is only touched by the emulator thread
+    private volatile boolean myResetTimestamps;
+    // Receive time of the chars being processed
+    private final LongSupplier myReceiveTime;
+
+    public CustomJeditermEmulator(@Nonnull TerminalDataStream dataStream, @Nonnull Terminal terminal,
+                                  @Nonnull LongSupplier receiveTime) {
         super(dataStream, terminal);
+        myReceiveTime = receiveTime;
     }
 
     public @Nonnull SerialProfileService.NewLine getNewLine() {
@@ -39,8 +43,26 @@ public class CustomJeditermEmulator extends JediEmulator {
         isTimestamped = timestamped;
     }
 
+    public void setTimestampFormat(@Nonnull TimestampFormat format) {
+        if (myFormatter.getFormat() != format) {
+            myFormatter = new TimestampFormatter(format);
+        }
+    }
+
+    /**
+     * The next delta timestamp is counted from that line instead of the last one before the reset.
+     */
+    public void resetTimestamps() {
+        myResetTimestamps = true;
+    }
+
     private @Nonnull String getTimestamp() {
-        return myFormatter.format(new Date());
+        TimestampFormatter formatter = myFormatter;
+        if (myResetTimestamps) {
+            myResetTimestamps = false;
+            formatter.reset();
+        }
+        return formatter.format(myReceiveTime.getAsLong());
     }
 
     private boolean isOnLineStart(@Nonnull Terminal terminal) {
@@ -65,7 +87,7 @@ public class CustomJeditermEmulator extends JediEmulator {
                     terminal.newLine();
                 } else if (isTimestamped) {
                     // Move the cursor after the timestamp (and leave the timestamp unchanged)
-                    terminal.cursorForward(TIMESTAMP_FORMAT.length());
+                    terminal.cursorForward(myFormatter.getFormat().getWidth());
                 }
                 break;
             case '\n':
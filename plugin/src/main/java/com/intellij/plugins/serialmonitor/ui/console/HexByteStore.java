@@ -0,0 +1,93 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only byte store made of fixed size chunks. When it grows over its limit, the oldest chunks are evicted,
+ * so positions are absolute and the first retained position grows over time.
+ * <p>
+ * Appended by the receiving thread, read by the UI.
+ */
+public final class HexByteStore {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private final int maxChunks;
+    private final List<byte[]> chunks = new ArrayList<>();
+    // Absolute position of the first byte of chunks[0]
+    private long startPosition;
+    private long endPosition;
+    private long clearPosition;
+
+    public HexByteStore(long maxSize) {
+        maxChunks = (int) Math.max(2, maxSize / CHUNK_SIZE);
+    }
+
+    public synchronized long getStartPosition() {
+        return startPosition;
+    }
+
+    public synchronized long getEndPosition() {
+        return endPosition;
+    }
+
+    /**
+     * @return end position at the last {@link #clear()}, bytes before it are gone because of the clear, not eviction
+     */
+    public synchronized long getClearPosition() {
+        return clearPosition;
+    }
+
+    public synchronized void append(byte[] data, int offset, int length) {
+        while (length > 0) {
+            int chunkOffset = (int) ((endPosition - startPosition) % CHUNK_SIZE);
+            if (chunkOffset == 0 && endPosition - startPosition == (long) chunks.size() * CHUNK_SIZE) {
+                if (chunks.size() == maxChunks) {
+                    // reuse the evicted chunk
+                    chunks.add(chunks.remove(0));
+                    startPosition += CHUNK_SIZE;
+                }
+                else {
+                    chunks.add(new byte[CHUNK_SIZE]);
+                }
+            }
+            int toCopy = Math.min(length, CHUNK_SIZE - chunkOffset);
+            System.arraycopy(data, offset, chunks.get(chunks.size() - 1), chunkOffset, toCopy);
+            endPosition += toCopy;
+            offset += toCopy;
+            length -= toCopy;
+        }
+    }
+
+    /**
+     * Copies bytes starting at an absolute position.
+     *
+     * @return number of bytes copied, less than {@code length} at the end of the store and 0 for evicted positions
+     */
+    public synchronized int read(long position, byte[] target, int offset, int length) {
+        if (position < startPosition) {
+            return 0;
+        }
+        int read = 0;
+        while (read < length && position < endPosition) {
+            long relative = position - startPosition;
+            byte[] chunk = chunks.get((int) (relative / CHUNK_SIZE));
+            int chunkOffset = (int) (relative % CHUNK_SIZE);
+            int toCopy = (int) Math.min(Math.min(length - read, CHUNK_SIZE - chunkOffset), endPosition - position);
+            System.arraycopy(chunk, chunkOffset, target, offset + read, toCopy);
+            read += toCopy;
+            position += toCopy;
+        }
+        return read;
+    }
+
+    /**
+     * Positions keep growing, so positions held by readers are seen as evicted.
+     */
+    public synchronized void clear() {
+        chunks.clear();
+        startPosition = endPosition;
+        clearPosition = endPosition;
+    }
+}
@@ -1,76 +1,258 @@
 package com.intellij.plugins.serialmonitor.ui.console;
 
-import consulo.disposer.Disposable;
-import consulo.execution.ui.console.*;
-import consulo.project.Project;
+import consulo.application.AllIcons;
+import consulo.application.Application;
+import consulo.application.concurrent.ApplicationConcurrency;
+import consulo.execution.ui.console.ConsoleView;
+import consulo.execution.ui.console.ConsoleViewContentType;
+import consulo.execution.ui.console.Filter;
+import consulo.execution.ui.console.HyperlinkInfo;
+import consulo.platform.base.localize.ActionLocalize;
+import consulo.process.ProcessHandler;
+import consulo.process.event.ProcessEvent;
+import consulo.ui.ex.action.AnAction;
+import consulo.ui.ex.action.AnActionEvent;
+import consulo.ui.ex.action.ToggleAction;
+import consulo.ui.ex.awt.JBScrollPane;
+import consulo.util.dataholder.Key;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiPredicate;
 
 /**
+ * Hex dump of the received data. Raw bytes are kept in a {@link HexByteStore}, only the visible rows are formatted.
+ *
  * @author Dmitry_Cherkas
  */
-public class HexConsoleView implements Disposable {
+public class HexConsoleView implements ConsoleView {
 
     public static final int LINE_LENGTH = 32;
     public static final int SEQUENCE_LENGTH = 8;
-    private final char[] hexChar = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+    private static final long STORE_LIMIT = Long.getLong("serial.monitor.hex.store.limit.mb", 256) * 1024 * 1024;
 
-    private final StringBuffer lineBuffer = new StringBuffer();
+    private final HexFeed myFeed;
+    private final HexByteStore myStore;
+    private final HexDumpComponent myDumpComponent;
+    private final JBScrollPane myScrollPane;
 
-    private ConsoleView myConsoleView;
+    public HexConsoleView() {
+        ScheduledExecutorService scheduler =
+            Application.get().getInstance(ApplicationConcurrency.class).getScheduledExecutorService();
+        myFeed = new HexFeed(STORE_LIMIT, scheduler, () -> Application.get().invokeLater(this::refresh));
+        myStore = myFeed.getStore();
+        myDumpComponent = new HexDumpComponent(myStore);
+        myScrollPane = new JBScrollPane(myDumpComponent);
+    }
 
-    public HexConsoleView(Project project, boolean viewer) {
-        TextConsoleBuilder builder = TextConsoleBuilderFactory.getInstance().createBuilder(project);
-        builder.setViewer(viewer);
-        myConsoleView = builder.getConsole();
-        if (myConsoleView instanceof ObservableConsoleView observableConsoleView) {
-            observableConsoleView.addChangeListener(new ObservableConsoleView.ChangeListener() {
-                @Override
-                public void textCleared() {
-                    lineBuffer.setLength(0);
-                }
-            }, this);
+    public void output(byte[] data, int offset, int length) {
+        myFeed.output(data, offset, length);
+    }
+
+    private void refresh() {
+        myFeed.refreshStarted();
+        if (myFeed.isDisposed()) {
+            return;
+        }
+        boolean following = isScrolledToEnd();
+        long shiftedRows = myDumpComponent.sync();
+        myScrollPane.validate();
+        JScrollBar scrollBar = myScrollPane.getVerticalScrollBar();
+        if (following) {
+            scrollBar.setValue(scrollBar.getMaximum());
+        }
+        else if (shiftedRows > 0) {
+            // keep the same bytes in view when the oldest ones are evicted
+            long shift = shiftedRows * myDumpComponent.getRowHeight();
+            scrollBar.setValue((int) Math.max(0, scrollBar.getValue() - shift));
         }
     }
 
-    public ConsoleView getConsoleView() {
-        return myConsoleView;
+    private boolean isScrolledToEnd() {
+        JScrollBar scrollBar = myScrollPane.getVerticalScrollBar();
+        return scrollBar.getValue() + scrollBar.getVisibleAmount() >= scrollBar.getMaximum();
     }
 
-    public void output(byte[] dataChunk) {
-        StringBuilder buffer = new StringBuilder();
-        for (byte b : dataChunk) {
-            char c = (char) (b & 0xff);
-            buffer.append(hexChar[c >> 4])
-                .append(hexChar[c & 0xf])
-                .append(' ');
-            lineBuffer.append(c);
+    private void scrollToEnd() {
+        JScrollBar scrollBar = myScrollPane.getVerticalScrollBar();
+        scrollBar.setValue(scrollBar.getMaximum());
+    }
 
-            if (lineBuffer.length() == LINE_LENGTH) {
-                wrapLine(buffer);
-            }
-            else if (lineBuffer.length() % SEQUENCE_LENGTH == 0) {
-                buffer.append(' ');
-            }
-        }
-        myConsoleView.print(buffer.toString(), ConsoleViewContentType.NORMAL_OUTPUT);
+    /**
+     * The view is not refreshed while another view of the duplex console is shown.
+     */
+    public void setShowing(boolean value) {
+        myFeed.setShowing(value);
     }
 
-    private void wrapLine(StringBuilder buffer) {
-        buffer.append(" |  ");
-        for (int i = 0; i < LINE_LENGTH; i++) {
-            char c = lineBuffer.charAt(i);
-            if (c >= 0x20 && c <= 0x7f) {
-                buffer.append(c);
-            }
-            else {
-                // replace non-printable chars with dots
-                buffer.append('.');
-            }
+    /**
+     * @return whether the byte at an absolute position of the received data is still in the store
+     */
+    public boolean isRetained(long position) {
+        return position >= myStore.getStartPosition() && position < myStore.getEndPosition();
+    }
+
+    /**
+     * Highlights received bytes and scrolls to them, if they are still retained.
+     *
+     * @param position absolute position among the received bytes
+     */
+    public boolean showPosition(long position, int length) {
+        if (!isRetained(position)) {
+            return false;
         }
-        buffer.append('\n');
-        lineBuffer.setLength(0);
+        refresh();
+        myDumpComponent.setHighlight(position, position + length);
+        Rectangle row = myDumpComponent.getRowBounds(position);
+        // center the row, like a jump to a search hit in an editor
+        int extra = Math.max(0, (myScrollPane.getViewport().getHeight() - row.height) / 2);
+        myDumpComponent.scrollRectToVisible(new Rectangle(row.x, Math.max(0, row.y - extra), 1, row.height + 2 * extra));
+        return true;
+    }
+
+    /**
+     * Raw history of the received bytes.
+     */
+    @Nonnull HexByteStore getStore() {
+        return myStore;
     }
 
     @Override
     public void dispose() {
+        myFeed.dispose();
+    }
+
+    @Override
+    public @Nonnull JComponent getComponent() {
+        return myScrollPane;
+    }
+
+    @Override
+    public @Nonnull JComponent getPreferredFocusableComponent() {
+        return myDumpComponent;
+    }
+
+    @Override
+    public void print(@Nonnull String text, @Nonnull ConsoleViewContentType contentType) {
+        throw new UnsupportedOperationException("Not supported");
+    }
+
+    @Override
+    public void clear() {
+        myStore.clear();
+        Application.get().invokeLater(this::refresh);
+    }
+
+    @Override
+    public void scrollTo(int offset) {
+        myDumpComponent.scrollRectToVisible(new Rectangle(0, offset / LINE_LENGTH * myDumpComponent.getRowHeight(),
+            1, myDumpComponent.getRowHeight()));
+    }
+
+    @Override
+    public void attachToProcess(@Nonnull ProcessHandler processHandler) {
+        throw new IllegalArgumentException("Should not be called");
+    }
+
+    @Override
+    public void setOutputPaused(boolean value) {
+        myFeed.setPaused(value);
+    }
+
+    /**
+     * Resumes with the view scrolled to the latest data.
+     */
+    public void skipPausedOutput() {
+        myFeed.setPaused(false);
+        Application.get().invokeLater(() -> {
+            refresh();
+            scrollToEnd();
+        });
+    }
+
+    @Override
+    public boolean isOutputPaused() {
+        return myFeed.isPaused();
+    }
+
+    @Override
+    public boolean hasDeferredOutput() {
+        return false;
+    }
+
+    @Override
+    public void performWhenNoDeferredOutput(@Nonnull Runnable runnable) {
+        runnable.run();
+    }
+
+    @Override
+    public void setHelpId(@Nonnull String helpId) {
+    }
+
+    @Override
+    public void addMessageFilter(@Nonnull Filter filter) {
+        throw new UnsupportedOperationException("Operation not supported");
+    }
+
+    @Override
+    public void setProcessTextFilter(@Nullable BiPredicate<ProcessEvent, Key> biPredicate) {
+    }
+
+    @Nullable
+    @Override
+    public BiPredicate<ProcessEvent, Key> getProcessTextFilter() {
+        return null;
+    }
+
+    @Override
+    public void printHyperlink(@Nonnull String hyperlinkText, @Nullable HyperlinkInfo info) {
+        print(hyperlinkText, ConsoleViewContentType.NORMAL_OUTPUT);
+    }
+
+    @Override
+    public int getContentSize() {
+        return (int) Math.min(Integer.MAX_VALUE, myStore.getEndPosition() - myStore.getStartPosition());
+    }
+
+    @Override
+    public boolean canPause() {
+        return true;
+    }
+
+    @Override
+    public AnAction[] createConsoleActions() {
+        return AnAction.EMPTY_ARRAY;
+    }
+
+    @Override
+    public void allowHeavyFilters() {
+    }
+
+    public @Nonnull ToggleAction getScrollToTheEndToolbarAction() {
+        return new ToggleAction(
+            ActionLocalize.actionEditorconsolescrolltotheendText(),
+            ActionLocalize.actionEditorconsolescrolltotheendText(),
+            AllIcons.RunConfigurations.Scroll_down) {
+            @Override
+            public boolean isSelected(@Nonnull AnActionEvent e) {
+                return isScrolledToEnd();
+            }
+
+            @Override
+            public void update(@Nonnull AnActionEvent e) {
+                super.update(e);
+                e.getPresentation().setEnabledAndVisible(myScrollPane.isShowing());
+            }
+
+            @Override
+            public void setSelected(@Nonnull AnActionEvent e, boolean state) {
+                if (state) {
+                    scrollToEnd();
+                }
+            }
+        };
     }
 }
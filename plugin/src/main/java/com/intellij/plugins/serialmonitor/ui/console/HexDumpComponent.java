@@ -0,0 +1,188 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import consulo.colorScheme.EditorColorsManager;
+import consulo.colorScheme.EditorColorsScheme;
+import consulo.colorScheme.EditorFontType;
+import consulo.ui.ex.JBColor;
+import consulo.ui.ex.awt.JBUI;
+import consulo.ui.ex.awtUnsafe.TargetAWT;
+import jakarta.annotation.Nonnull;
+
+import javax.swing.*;
+import java.awt.*;
+
+import static com.intellij.plugins.serialmonitor.ui.console.HexConsoleView.LINE_LENGTH;
+import static com.intellij.plugins.serialmonitor.ui.console.HexConsoleView.SEQUENCE_LENGTH;
+
+/**
+ * Paints the rows of a {@link HexByteStore} which are in the clip, formatting them on the fly.
+ */
+final class HexDumpComponent extends JComponent implements Scrollable {
+
+    private static final char[] HEX_CHARS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+    // "xx " per byte, a space between sequences and " |  "
+    private static final int ASCII_COLUMN = LINE_LENGTH * 3 + (LINE_LENGTH / SEQUENCE_LENGTH - 1) + 4;
+    // a whole row, whatever the number of bytes in it
+    private static final int COLUMNS = ASCII_COLUMN + LINE_LENGTH;
+    private static final int INSET = JBUI.scale(4);
+    private static final Color HIGHLIGHT_COLOR = new JBColor(new Color(0xFFE566), new Color(0x32593D));
+
+    private final HexByteStore myStore;
+    private final byte[] myRowBytes = new byte[LINE_LENGTH];
+    private final char[] myRowChars = new char[COLUMNS];
+    // Store positions at the last sync, rows are counted from the start position
+    private long myStartPosition;
+    private long myEndPosition;
+    // Absolute positions of the highlighted bytes
+    private long myHighlightStart;
+    private long myHighlightEnd;
+
+    HexDumpComponent(@Nonnull HexByteStore store) {
+        myStore = store;
+        EditorColorsScheme scheme = EditorColorsManager.getInstance().getGlobalScheme();
+        setFont(scheme.getFont(EditorFontType.PLAIN));
+        setBackground(TargetAWT.to(scheme.getDefaultBackground()));
+        setForeground(TargetAWT.to(scheme.getDefaultForeground()));
+        setOpaque(true);
+    }
+
+    /**
+     * Picks up the current store size.
+     *
+     * @return number of rows the first row moved by, because of eviction
+     */
+    long sync() {
+        long start = myStore.getStartPosition();
+        long end = myStore.getEndPosition();
+        long shiftedRows = start >= myStartPosition ? (start - myStartPosition) / LINE_LENGTH : 0;
+        if (start != myStartPosition || end != myEndPosition) {
+            myStartPosition = start;
+            myEndPosition = end;
+            revalidate();
+            repaint();
+        }
+        return shiftedRows;
+    }
+
+    void setHighlight(long start, long end) {
+        myHighlightStart = start;
+        myHighlightEnd = end;
+        repaint();
+    }
+
+    /**
+     * @return bounds of the row holding the byte at an absolute position, as of the last sync
+     */
+    @Nonnull Rectangle getRowBounds(long position) {
+        int rowHeight = getRowHeight();
+        long row = Math.max(0, position - myStartPosition) / LINE_LENGTH;
+        return new Rectangle(0, (int) Math.min(Integer.MAX_VALUE, INSET + row * rowHeight), getWidth(), rowHeight);
+    }
+
+    long getRowCount() {
+        return (myEndPosition - myStartPosition + LINE_LENGTH - 1) / LINE_LENGTH;
+    }
+
+    int getRowHeight() {
+        return getFontMetrics(getFont()).getHeight();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        FontMetrics metrics = getFontMetrics(getFont());
+        long height = getRowCount() * metrics.getHeight() + 2L * INSET;
+        return new Dimension(metrics.charWidth('0') * COLUMNS + 2 * INSET, (int) Math.min(height, Integer.MAX_VALUE));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g.setFont(getFont());
+        g.setColor(getForeground());
+
+        FontMetrics metrics = g.getFontMetrics();
+        int rowHeight = metrics.getHeight();
+        long firstRow = Math.max(0, (clip.y - INSET) / rowHeight);
+        long lastRow = Math.min(getRowCount() - 1, (clip.y + clip.height - INSET) / rowHeight);
+        for (long row = firstRow; row <= lastRow; row++) {
+            long rowPosition = myStartPosition + row * LINE_LENGTH;
+            int count = myStore.read(rowPosition, myRowBytes, 0, LINE_LENGTH);
+            int length = formatRow(count);
+            if (myHighlightStart < rowPosition + count && myHighlightEnd > rowPosition) {
+                paintHighlight(g, metrics, (int) (INSET + row * rowHeight), rowPosition, count);
+            }
+            g.drawChars(myRowChars, 0, length, INSET, (int) (INSET + row * rowHeight) + metrics.getAscent());
+        }
+    }
+
+    private void paintHighlight(Graphics g, FontMetrics metrics, int y, long rowPosition, int count) {
+        int charWidth = metrics.charWidth('0');
+        g.setColor(HIGHLIGHT_COLOR);
+        for (int i = 0; i < count; i++) {
+            long position = rowPosition + i;
+            if (position >= myHighlightStart && position < myHighlightEnd) {
+                int hexColumn = i * 3 + i / SEQUENCE_LENGTH;
+                g.fillRect(INSET + hexColumn * charWidth, y, 2 * charWidth, metrics.getHeight());
+                g.fillRect(INSET + (ASCII_COLUMN + i) * charWidth, y, charWidth, metrics.getHeight());
+            }
+        }
+        g.setColor(getForeground());
+    }
+
+    private int formatRow(int count) {
+        char[] chars = myRowChars;
+        int position = 0;
+        for (int i = 0; i < LINE_LENGTH; i++) {
+            if (i < count) {
+                int b = myRowBytes[i] & 0xff;
+                chars[position++] = HEX_CHARS[b >> 4];
+                chars[position++] = HEX_CHARS[b & 0xf];
+            }
+            else {
+                chars[position++] = ' ';
+                chars[position++] = ' ';
+            }
+            chars[position++] = ' ';
+            if ((i + 1) % SEQUENCE_LENGTH == 0 && i + 1 < LINE_LENGTH) {
+                chars[position++] = ' ';
+            }
+        }
+        chars[position++] = ' ';
+        chars[position++] = '|';
+        chars[position++] = ' ';
+        chars[position++] = ' ';
+        for (int i = 0; i < count; i++) {
+            int c = myRowBytes[i] & 0xff;
+            // replace non-printable chars with dots
+            chars[position++] = c >= 0x20 && c <= 0x7f ? (char) c : '.';
+        }
+        return position;
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? getRowHeight() : getFontMetrics(getFont()).charWidth('0');
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return getParent() instanceof JViewport viewport && viewport.getWidth() > getPreferredSize().width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return getParent() instanceof JViewport viewport && viewport.getHeight() > getPreferredSize().height;
+    }
+}
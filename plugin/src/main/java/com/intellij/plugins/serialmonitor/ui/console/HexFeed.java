@@ -0,0 +1,91 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Receiving side of a {@link HexConsoleView}: appends the received bytes to a {@link HexByteStore} and, while the view
+ * is shown and not paused, schedules its refresh at most once per frame.
+ * <p>
+ * Needs no UI, the view passes the refresh to run.
+ */
+public final class HexFeed {
+
+    // The view is updated at most once per frame
+    private static final long REFRESH_DELAY_MS = 25;
+
+    private final HexByteStore store;
+    private final ScheduledExecutorService scheduler;
+    private final Runnable refresh;
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private volatile boolean paused;
+    private volatile boolean showing = true;
+    private volatile boolean disposed;
+
+    /**
+     * @param refresh run on the scheduler, calls {@link #refreshStarted()} when the refresh actually starts
+     */
+    public HexFeed(long storeLimit, @Nonnull ScheduledExecutorService scheduler, @Nonnull Runnable refresh) {
+        this.store = new HexByteStore(storeLimit);
+        this.scheduler = scheduler;
+        this.refresh = refresh;
+    }
+
+    public void output(byte[] data, int offset, int length) {
+        if (disposed || length == 0) {
+            return;
+        }
+        // the store keeps receiving while paused or hidden, only the view is frozen
+        store.append(data, offset, length);
+        if (!paused && showing) {
+            scheduleRefresh();
+        }
+    }
+
+    public void scheduleRefresh() {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(refresh, REFRESH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Called by the refresh, the data received from then on schedules the next one.
+     */
+    public void refreshStarted() {
+        refreshScheduled.set(false);
+    }
+
+    public void setPaused(boolean value) {
+        paused = value;
+        if (!value && showing) {
+            scheduleRefresh();
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setShowing(boolean value) {
+        showing = value;
+        if (value && !paused) {
+            scheduleRefresh();
+        }
+    }
+
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    public void dispose() {
+        disposed = true;
+        store.clear();
+    }
+
+    public @Nonnull HexByteStore getStore() {
+        return store;
+    }
+}
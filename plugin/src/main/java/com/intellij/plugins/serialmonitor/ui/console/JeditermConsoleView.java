@@ -1,6 +1,9 @@
 package com.intellij.plugins.serialmonitor.ui.console;
 
+import com.intellij.plugins.serialmonitor.OverflowPolicy;
 import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.TimestampFormat;
+import com.intellij.plugins.serialmonitor.service.SerialConsoleHealth;
 import com.intellij.plugins.serialmonitor.service.SerialPortService;
 import com.jediterm.terminal.model.TerminalTextBuffer;
 import consulo.application.AllIcons;
@@ -24,86 +27,52 @@ import consulo.ui.ex.awtUnsafe.TargetAWT;
 import consulo.util.dataholder.Key;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
-import org.apache.commons.io.input.buffer.CircularByteBuffer;
 
 import javax.swing.*;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.nio.charset.Charset;
 import java.util.function.BiPredicate;
 
-public class JeditermConsoleView implements ConsoleView {
-
-    private static final int BUFFER_SIZE = 100000;
+public class JeditermConsoleView implements ConsoleView, SerialConsoleHealth {
 
     private final JediTerminalConsole widget;
     private final SerialTtyConnector serialConnector;
     private CustomJeditermEmulator emulator;
-    private final CircularByteBuffer bytesBuffer = new CircularByteBuffer(BUFFER_SIZE);
-    private final Object lock = new Object();
-    private volatile Reader bufferReader;
-    private volatile boolean paused = false;
-
-    private final InputStream bytesStream = new InputStream() {
+    private final TerminalFeed feed = new TerminalFeed(new TerminalFeed.Markers() {
         @Override
-        public int read() {
-            synchronized (lock) {
-                while (!Thread.interrupted() && !bytesBuffer.hasBytes()) {
-                    try {
-                        lock.wait();
-                    }
-                    catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-                return bytesBuffer.hasBytes() ? bytesBuffer.read() & 0xFF : -1;
-            }
+        public @Nonnull byte[] bytesDropped(long count, long total) {
+            return marker(SerialMonitorLocalize.consoleBytesDropped(count, total).get());
         }
 
         @Override
-        public int read(byte[] buffer, int offset, int length) {
-            synchronized (lock) {
-                while (!Thread.interrupted() && !bytesBuffer.hasBytes()) {
-                    try {
-                        lock.wait();
-                    }
-                    catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-                int toRead = Math.min(length, bytesBuffer.getCurrentNumberOfBytes());
-                bytesBuffer.read(buffer, offset, toRead);
-                return toRead;
-            }
+        public @Nonnull byte[] bytesSkipped(long count) {
+            return marker(SerialMonitorLocalize.consoleBytesSkipped(count).get());
         }
-
-        @Override
-        public int available() {
-            synchronized (lock) {
-                return bytesBuffer.getCurrentNumberOfBytes();
-            }
-        }
-    };
+    });
 
     public JeditermConsoleView(@Nonnull Project project, @Nonnull SerialPortService.SerialConnection connection) {
-        this.serialConnector = new SerialTtyConnector(this, connection);
+        this.serialConnector = new SerialTtyConnector(project, this, connection);
 
         widget = project.getInstance(TerminalConsoleFactory.class).createCustom(this, (terminalDataStream, terminal) -> {
-            emulator = new CustomJeditermEmulator(terminalDataStream, terminal);
+            CountingDataStream dataStream = new CountingDataStream(terminalDataStream);
+            // the timestamp is taken for the char just read, the first one of a line
+            emulator = new CustomJeditermEmulator(dataStream, terminal,
+                () -> feed.getReceiveTime(dataStream.getPosition() - 1));
             return emulator;
         }, serialConnector);
 
         Disposer.register(this, connection);
     }
 
+    private @Nonnull byte[] marker(@Nonnull String text) {
+        return ("\r\n" + text + "\r\n").getBytes(serialConnector.getCharset());
+    }
+
     @Override
     public void dispose() {
+        feed.close();
     }
 
+
     @Override
     public @Nonnull JComponent getComponent() {
         return (JComponent) TargetAWT.to(widget.getUIComponent());
@@ -124,6 +93,9 @@ public class JeditermConsoleView implements ConsoleView {
         widget.getTerminalTextBuffer().clearScreenAndHistoryBuffers();
         widget.getTerminal().clearScreen();
         widget.getTerminal().cursorPosition(0, 1);
+        if (emulator != null) {
+            emulator.resetTimestamps();
+        }
     }
 
     @Override
@@ -138,14 +110,22 @@ public class JeditermConsoleView implements ConsoleView {
 
     @Override
     public void setOutputPaused(boolean value) {
-        paused = value;
+        feed.setPaused(value);
+    }
+
+    /**
+     * Discards the data received while paused and resumes at the data received next.
+     */
+    public void skipPausedOutput() {
+        feed.skipPaused();
     }
 
     @Override
     public boolean isOutputPaused() {
-        return paused;
+        return feed.isPaused();
     }
 
+
     @Override
     public boolean hasDeferredOutput() {
         return false;
@@ -204,45 +184,62 @@ public class JeditermConsoleView implements ConsoleView {
         return emulator != null && emulator.isTimestamped();
     }
 
-    public void output(byte[] dataChunk) {
-        if (!paused) {
-            synchronized (lock) {
-                int length = Math.min(dataChunk.length, bytesBuffer.getSpace());
-                if (length > 0) {
-                    bytesBuffer.add(dataChunk, 0, length);
-                    lock.notify();
-                }
-            }
-        }
+    /**
+     * Total number of bytes lost since the last reconnect, because they did not fit into the buffer.
+     */
+    @Override
+    public long getDroppedBytes() {
+        return feed.getDroppedBytes();
+    }
+
+    @Override
+    public long getBufferedBytes() {
+        return feed.getBufferedBytes();
+    }
+
+    @Override
+    public long getBufferCapacity() {
+        return feed.getBufferCapacity();
+    }
+
+    @Override
+    public long getLagNanos() {
+        return feed.getLagNanos();
     }
 
-    public void reconnect(@Nonnull Charset charset, @Nonnull SerialProfileService.NewLine newLine, boolean localEcho) {
+    /**
+     * @param nanoTime {@link System#nanoTime()} when the bytes were received
+     */
+    public void output(byte[] buffer, int offset, int length, long nanoTime) {
+        feed.output(buffer, offset, length, nanoTime);
+    }
+
+    /**
+     * Queues data received while the view was hidden. Like the data received while paused, it is never dropped
+     * and is shown in larger batches.
+     */
+    public void outputBacklog(byte[] buffer, int offset, int length, long nanoTime) {
+        feed.outputBacklog(buffer, offset, length, nanoTime);
+    }
+
+    public void reconnect(@Nonnull Charset charset, @Nonnull SerialProfileService.NewLine newLine, boolean localEcho,
+                          @Nonnull OverflowPolicy overflowPolicy, @Nonnull TimestampFormat timestampFormat) {
         if (emulator != null) {
             emulator.setNewLine(newLine);
+            emulator.setTimestampFormat(timestampFormat);
+            emulator.resetTimestamps();
         }
         widget.getTerminal().setAutoNewLine(newLine == SerialProfileService.NewLine.CRLF);
         serialConnector.setCharset(charset);
         serialConnector.setLocalEcho(localEcho);
-        synchronized (lock) {
-            bytesBuffer.clear();
-            bufferReader = new InputStreamReader(bytesStream, charset);
-        }
+        feed.reconnect(charset, overflowPolicy);
     }
 
-    public int readChars(char[] buf, int offset, int length) throws IOException {
-        synchronized (lock) {
-            while (true) {
-                Reader currentReader = bufferReader;
-                if (currentReader != null && currentReader.ready()) {
-                    return currentReader.read(buf, offset, length);
-                }
-                try {
-                    lock.wait();
-                }
-                catch (InterruptedException ignored) {
-                }
-            }
-        }
+    /**
+     * Called by the emulator thread, see {@link TerminalFeed#readChars}.
+     */
+    public int readChars(char[] buf, int offset, int length) {
+        return feed.readChars(buf, offset, length);
     }
 
     public @Nonnull TerminalTextBuffer getTerminalTextBuffer() {
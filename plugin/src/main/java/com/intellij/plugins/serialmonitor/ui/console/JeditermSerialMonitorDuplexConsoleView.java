@@ -1,56 +1,113 @@
 package com.intellij.plugins.serialmonitor.ui.console;
 
+import com.intellij.plugins.serialmonitor.FrameFormat;
 import com.intellij.plugins.serialmonitor.SerialMonitorException;
 import com.intellij.plugins.serialmonitor.SerialPortProfile;
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.SerialTrigger;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoder;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoders;
+import com.intellij.plugins.serialmonitor.framing.FrameRenderer;
 import com.intellij.plugins.serialmonitor.service.PortStatus;
+import com.intellij.plugins.serialmonitor.search.SearchHit;
+import com.intellij.plugins.serialmonitor.search.SessionIndex;
 import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import com.intellij.plugins.serialmonitor.trigger.TriggerEngine;
 import com.intellij.plugins.serialmonitor.ui.SerialMonitor;
 import com.intellij.plugins.serialmonitor.ui.actions.ConnectDisconnectAction;
+import com.intellij.plugins.serialmonitor.ui.actions.EditTriggersAction;
+import com.intellij.plugins.serialmonitor.ui.actions.OpenPlotAction;
+import com.intellij.plugins.serialmonitor.ui.actions.OpenTelemetryAction;
+import com.intellij.plugins.serialmonitor.ui.actions.ReplayCaptureActionGroup;
 import com.intellij.plugins.serialmonitor.ui.actions.SaveHistoryToFileAction;
+import com.intellij.plugins.serialmonitor.ui.actions.SearchSessionAction;
 import consulo.application.AllIcons;
 import consulo.application.Application;
 import consulo.application.ApplicationPropertiesComponent;
+import consulo.application.concurrent.ApplicationConcurrency;
 import consulo.application.dumb.DumbAware;
 import consulo.codeEditor.Editor;
 import consulo.disposer.Disposable;
 import consulo.disposer.Disposer;
-import consulo.execution.action.ScrollToTheEndToolbarAction;
 import consulo.execution.localize.ExecutionLocalize;
 import consulo.execution.ui.console.ConsoleView;
 import consulo.execution.ui.console.DuplexConsoleView;
 import consulo.language.editor.CommonDataKeys;
 import consulo.localize.LocalizeValue;
+import consulo.logging.Logger;
+import consulo.platform.base.icon.PlatformIconGroup;
 import consulo.project.Project;
 import consulo.serial.monitor.icon.SerialMonitorIconGroup;
 import consulo.serialMonitor.localize.SerialMonitorLocalize;
-import consulo.ui.UIAction;
 import consulo.ui.ex.action.*;
 import consulo.ui.ex.awt.JBLoadingPanel;
-import consulo.util.concurrent.coroutine.Coroutine;
-import consulo.util.concurrent.coroutine.step.CallSubroutine;
-import consulo.util.concurrent.coroutine.step.Condition;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
  * @author Dmitry_Cherkas, Ilia Motornyi
  */
-public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<JeditermConsoleView, ConsoleView>
+public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<JeditermConsoleView, HexConsoleView>
     implements Disposable {
 
+    private static final Logger LOG = Logger.getInstance(JeditermSerialMonitorDuplexConsoleView.class);
     private static final String STATE_STORAGE_KEY = "SerialMonitorDuplexConsoleViewState";
+    // How much of the raw history the text view catches up with when it is shown again
+    private static final long CATCH_UP_WINDOW = Long.getLong("serial.monitor.catch.up.window.kb", 1024) * 1024;
+    private static final int CATCH_UP_READ_SIZE = 64 * 1024;
+    // How much of the received history a search covers
+    private static final long SEARCH_HISTORY_LIMIT = Long.getLong("serial.monitor.search.history.mb", 1024) * 1024 * 1024;
+    // Heap of the session search postings, the blocks beyond it are searched without the index
+    private static final long SEARCH_INDEX_LIMIT = Long.getLong("serial.monitor.search.index.mb", 64) * 1024 * 1024;
+    // How long bytes which may start a highlighted trigger wait for the rest of it
+    private static final long TRIGGER_HOLD_MS = 50;
+    private static final long TRIGGER_NOTIFY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    // a reply the device echoes back must not trigger itself endlessly
+    private static final long TRIGGER_REPLY_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final TriggerEngine.Output NO_OUTPUT = (buffer, offset, length, nanoTime) -> {
+    };
 
     private final @Nonnull SerialPortService.SerialConnection myConnection;
     private final @Nonnull SerialPortProfile myPortProfile;
     private final @Nonnull ToggleAction mySwitchConsoleAction;
     private final @Nonnull JBLoadingPanel myLoadingPanel;
-    @Nonnull
-    private final HexConsoleView myHexConsoleView;
     private final Project myProject;
     private Charset myCharset = StandardCharsets.US_ASCII;
+    // Whole received history, positions match the ones of the hex store
+    private final @Nullable SessionIndex mySessionIndex;
+
+    // Only the shown view is fed live, the hex store keeps the raw history for the text view to catch up from.
+    // The lock orders the live data after the catch up, it is never taken by the UI thread.
+    private final Object myFeedLock = new Object();
+    private volatile boolean myTextShown = true;
+    // guarded by myFeedLock
+    private boolean myTextFed = true;
+    private boolean myTextCatchingUp;
+    private long myTextPosition;
+    private long myTextHiddenSince;
+    private @Nullable TriggerEngine myTriggers;
+    private final Map<SerialTrigger, Long> myLastNotified = new IdentityHashMap<>();
+    private final Map<SerialTrigger, Long> myLastReplied = new IdentityHashMap<>();
+    private final TriggerEngine.Output myTextOutput = this::outputText;
+    private final AtomicBoolean myTriggerFlushScheduled = new AtomicBoolean();
+    // Replies of the triggers fired by the data being processed, guarded by myFeedLock
+    private final ArrayDeque<byte[]> myReplies = new ArrayDeque<>();
+    // Guarded by myFeedLock, null without framing
+    private @Nullable FrameDecoder myFrameDecoder;
+    private @Nullable FrameRenderer myFrameRenderer;
+    // Binary frames are shown as rendered rows, the triggers match the received bytes instead and highlight nothing
+    private boolean myBinaryFraming;
+    private final AtomicBoolean myFrameIdleScheduled = new AtomicBoolean();
 
     public SerialPortService.SerialConnection getConnection() {
         return myConnection;
@@ -66,7 +123,7 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
             Application.get().getService(SerialPortService.class)
                 .newConnection(portProfile.getPortName());
         JeditermConsoleView textConsoleView = new JeditermConsoleView(project, connection);
-        HexConsoleView hexConsoleView = new HexConsoleView(project, true);
+        HexConsoleView hexConsoleView = new HexConsoleView();
         Disposer.register(textConsoleView, hexConsoleView);
 
         // Set primary console as default
@@ -83,6 +140,7 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
                 project
             );
         connection.setDataListener(consoleView::append);
+        connection.setConsoleHealth(textConsoleView);
         return consoleView;
     }
 
@@ -93,13 +151,138 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
         @Nonnull SerialPortProfile portProfile,
         @Nonnull JBLoadingPanel loadingPanel,
         Project project) {
-        super(textConsoleView, hexConsoleView.getConsoleView(), STATE_STORAGE_KEY);
-        myHexConsoleView = hexConsoleView;
+        super(textConsoleView, hexConsoleView, STATE_STORAGE_KEY);
         myProject = project;
         mySwitchConsoleAction = new SwitchConsoleViewAction();
         myLoadingPanel = loadingPanel;
         myPortProfile = portProfile;
         myConnection = connection;
+        mySessionIndex = createSessionIndex();
+        addSwitchListener(this::viewSwitched, this);
+        viewSwitched(isPrimaryConsoleEnabled());
+        reloadTriggers();
+    }
+
+    private static @Nullable SessionIndex createSessionIndex() {
+        try {
+            return new SessionIndex(command -> Application.get().executeOnPooledThread(command), SEARCH_HISTORY_LIMIT,
+                SEARCH_INDEX_LIMIT);
+        }
+        catch (IOException e) {
+            LOG.warn("Session search is not available", e);
+            return null;
+        }
+    }
+
+    private void viewSwitched(boolean primaryEnabled) {
+        myTextShown = primaryEnabled;
+        getSecondaryConsoleView().setShowing(!primaryEnabled);
+        Application.get().executeOnPooledThread(this::syncTextFeed);
+    }
+
+    // Brings the feeding of the text view in line with the latest switch, whichever order the switches run in
+    private void syncTextFeed() {
+        HexByteStore store = getSecondaryConsoleView().getStore();
+        synchronized (myFeedLock) {
+            boolean shown = myTextShown;
+            if (shown == myTextFed || myTextCatchingUp) {
+                return;
+            }
+            if (shown) {
+                myTextCatchingUp = true;
+            }
+            else {
+                if (myTriggers != null) {
+                    myTriggers.flush(triggerOutput());
+                }
+                // the catch up decodes the frame in progress again from its start
+                long partial = myFrameDecoder != null ? myFrameDecoder.getPartialLength() : 0;
+                myTextPosition = Math.max(0, store.getEndPosition() - partial);
+                myTextHiddenSince = System.nanoTime();
+                myTextFed = false;
+                return;
+            }
+        }
+        catchUpTextView(store);
+    }
+
+    /**
+     * Feeds the text view the bytes received while it was hidden. They are copied from the store under myFeedLock and
+     * fed outside of it, only the last piece is fed under the lock, which then switches the view to the live data.
+     */
+    private void catchUpTextView(@Nonnull HexByteStore store) {
+        JeditermConsoleView textView = getPrimaryConsoleView();
+        // the backlog gets the time the view was hidden, like spilled data gets the time of the chunk before it
+        FrameDecoder.Sink backlog = (data, offset, length, nanoTime) -> textView.outputBacklog(data, offset, length, nanoTime);
+        FrameDecoder frames;
+        long position;
+        long hiddenSince;
+        synchronized (myFeedLock) {
+            frames = myFrameDecoder != null ? FrameDecoders.create(myPortProfile) : null;
+            position = myTextPosition;
+            hiddenSince = myTextHiddenSince;
+        }
+        FrameDecoder.Sink renderer = frames != null ? new FrameRenderer(isTextFraming(), backlog) : null;
+        FrameDecoder.Sink feed = frames != null ?
+            (data, offset, length, nanoTime) -> frames.decode(data, offset, length, nanoTime, renderer) : backlog;
+        byte[] buffer = new byte[CATCH_UP_READ_SIZE];
+        while (true) {
+            long skipped = 0;
+            int read = 0;
+            synchronized (myFeedLock) {
+                if (!myTextShown) {
+                    // hidden again, the next catch up goes on from here
+                    myTextPosition = position - (frames != null ? frames.getPartialLength() : 0);
+                    myTextCatchingUp = false;
+                    return;
+                }
+                long end = store.getEndPosition();
+                position = Math.max(position, store.getClearPosition());
+                long retained = Math.max(store.getStartPosition(), end - CATCH_UP_WINDOW);
+                if (position < retained) {
+                    skipped = retained - position;
+                    position = retained;
+                }
+                else if (end - position <= buffer.length) {
+                    // what arrived meanwhile, no more comes in before the view is fed live
+                    while (position < end) {
+                        int count = store.read(position, buffer, 0, (int) (end - position));
+                        if (count == 0) {
+                            // evicted meanwhile, go on with the oldest retained byte
+                            position = store.getStartPosition();
+                            continue;
+                        }
+                        feed.frame(buffer, 0, count, hiddenSince);
+                        position += count;
+                    }
+                    if (myTriggers != null) {
+                        // the held bytes are in the store, the catch up has shown them
+                        myTriggers.flush(NO_OUTPUT);
+                    }
+                    myTextFed = true;
+                    myTextCatchingUp = false;
+                    return;
+                }
+                else {
+                    read = store.read(position, buffer, 0, buffer.length);
+                    if (read == 0) {
+                        position = store.getStartPosition();
+                    }
+                }
+            }
+            if (skipped > 0) {
+                if (frames != null) {
+                    frames.reset();
+                }
+                byte[] marker = ("\r\n" + SerialMonitorLocalize.consoleBytesNotRetained(skipped).get() + "\r\n")
+                    .getBytes(getCharset());
+                textView.outputBacklog(marker, 0, marker.length, hiddenSince);
+            }
+            if (read > 0) {
+                feed.frame(buffer, 0, read, hiddenSince);
+                position += read;
+            }
+        }
     }
 
     @Override
@@ -112,6 +295,12 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
         return getPrimaryConsoleView().isOutputPaused();
     }
 
+    @Override
+    public void setOutputPaused(boolean value) {
+        getPrimaryConsoleView().setOutputPaused(value);
+        getSecondaryConsoleView().setOutputPaused(value);
+    }
+
     @Override
     public boolean canPause() {
         return true;
@@ -127,13 +316,38 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
             new ConnectDisconnectAction(this),
             mySwitchConsoleAction,
             getPrimaryConsoleView().getScrollToTheEndToolbarAction(),
-            new MyScrollToTheEndToolbarAction(getSecondaryConsoleView().getEditor()),
+            getSecondaryConsoleView().getScrollToTheEndToolbarAction(),
             getPrimaryConsoleView().getPrintTimestampsToggleAction(),
             new SerialPauseAction(),
+            new SkipPausedOutputAction(),
+            new SearchSessionAction(this),
+            new EditTriggersAction(this),
+            new OpenPlotAction(myConnection, myPortProfile),
+            new OpenTelemetryAction(myConnection, myPortProfile),
             new SaveHistoryToFileAction(getPrimaryConsoleView().getTerminalTextBuffer(), myPortProfile),
+            new ReplayCaptureActionGroup(myConnection),
             new ClearAllAction()};
     }
 
+    public @Nullable SessionIndex getSessionIndex() {
+        return mySessionIndex;
+    }
+
+    /**
+     * Shows a hit in the hex view, which keeps the positions of the received bytes.
+     *
+     * @return {@code false} if the hit is no longer retained by the console
+     */
+    public boolean showInConsole(@Nonnull SearchHit hit) {
+        if (!getSecondaryConsoleView().isRetained(hit.getPosition())) {
+            return false;
+        }
+        if (isPrimaryConsoleEnabled()) {
+            enableConsole(false);
+        }
+        return getSecondaryConsoleView().showPosition(hit.getPosition(), hit.getLength());
+    }
+
     public @Nonnull PortStatus getStatus() {
         return myConnection.getStatus();
     }
@@ -157,9 +371,12 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
             if (doConnect) {
                 myConnection.closeSilently(true);
                 myCharset = Charset.availableCharsets().getOrDefault(myPortProfile.getEncoding(), StandardCharsets.US_ASCII);
+                compileTriggers();
+                createFrameDecoder();
                 if (myConnection.getStatus() == PortStatus.DISCONNECTED || myConnection.getStatus() == PortStatus.READY) {
                     // try to connect only when settings are known to be valid
-                    getPrimaryConsoleView().reconnect(getCharset(), myPortProfile.getNewLine(), myPortProfile.getLocalEcho());
+                    getPrimaryConsoleView().reconnect(getCharset(), myPortProfile.getNewLine(), myPortProfile.getLocalEcho(),
+                        myPortProfile.getOverflowPolicy(), myPortProfile.getTimestampFormat());
                     myConnection.connect(myPortProfile);
                 }
                 else {
@@ -250,9 +467,174 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
         }
     }
 
-    public void append(byte[] dataChunk) {
-        getPrimaryConsoleView().output(dataChunk);
-        myHexConsoleView.output(dataChunk);
+    /**
+     * Picks up the triggers of {@link SerialProfileService}.
+     */
+    public void reloadTriggers() {
+        Application.get().executeOnPooledThread(this::compileTriggers);
+    }
+
+    private void compileTriggers() {
+        TriggerEngine triggers = new TriggerEngine(SerialProfileService.getInstance().getTriggers(), getCharset(),
+            myPortProfile.getNewLine());
+        synchronized (myFeedLock) {
+            if (myTriggers != null) {
+                myTriggers.flush(triggerOutput());
+            }
+            myTriggers = triggers.isEmpty() ? null : triggers;
+            myLastNotified.clear();
+            myLastReplied.clear();
+        }
+    }
+
+    private void createFrameDecoder() {
+        FrameDecoder frames = FrameDecoders.create(myPortProfile);
+        synchronized (myFeedLock) {
+            if (myTriggers != null) {
+                myTriggers.flush(triggerOutput());
+            }
+            myFrameDecoder = frames;
+            myBinaryFraming = frames != null && !isTextFraming();
+            myFrameRenderer = frames == null ? null :
+                myBinaryFraming ? new FrameRenderer(false, this::outputText) : new FrameRenderer(true, this::receivedText);
+        }
+    }
+
+    // Where the triggers pass the bytes they held on, must be called under myFeedLock
+    private @Nonnull TriggerEngine.Output triggerOutput() {
+        return myBinaryFraming ? NO_OUTPUT : myTextOutput;
+    }
+
+    private boolean isTextFraming() {
+        return myPortProfile.getFraming() == FrameFormat.LINE;
+    }
+
+    private void scheduleFrameIdle(long delayNanos) {
+        if (myFrameIdleScheduled.compareAndSet(false, true)) {
+            Application.get().getInstance(ApplicationConcurrency.class).getScheduledExecutorService()
+                .schedule(this::frameIdle, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Ends the frame in progress of a decoder which frames by the silence of the line
+    private void frameIdle() {
+        myFrameIdleScheduled.set(false);
+        synchronized (myFeedLock) {
+            FrameDecoder frames = myFrameDecoder;
+            if (frames == null || myFrameRenderer == null) {
+                return;
+            }
+            frames.idle(System.nanoTime(), myFrameRenderer);
+            if (frames.getPartialLength() > 0) {
+                scheduleFrameIdle(frames.getIdleGapNanos());
+            }
+            sendReplies();
+        }
+    }
+
+    // Called under myFeedLock with the text as received or the lines of text framing
+    private void receivedText(byte[] buffer, int offset, int length, long nanoTime) {
+        TriggerEngine triggers = myTriggers;
+        if (triggers != null) {
+            triggers.process(buffer, offset, length, nanoTime, myTextOutput, this::triggered);
+            if (triggers.hasHeldBytes()) {
+                scheduleTriggerFlush();
+            }
+        }
+        else {
+            outputText(buffer, offset, length, nanoTime);
+        }
+    }
+
+    // Called under myFeedLock
+    private void outputText(byte[] buffer, int offset, int length, long nanoTime) {
+        if (myTextFed) {
+            getPrimaryConsoleView().output(buffer, offset, length, nanoTime);
+        }
+    }
+
+    // Called by the receiving thread under myFeedLock
+    private void triggered(@Nonnull SerialTrigger trigger, long nanoTime) {
+        if (trigger.isNotify() && isDue(myLastNotified, trigger, nanoTime, TRIGGER_NOTIFY_INTERVAL_NANOS)) {
+            SerialMonitor.errorNotification(
+                SerialMonitorLocalize.notificationTriggerFired(trigger.getPattern(), myConnection.getPortName()).get(),
+                myProject);
+        }
+        if (trigger.isPause() && !isOutputPaused()) {
+            Application.get().invokeLater(() -> setOutputPaused(true));
+        }
+        if (!trigger.getReply().isEmpty() && isDue(myLastReplied, trigger, nanoTime, TRIGGER_REPLY_INTERVAL_NANOS)) {
+            myReplies.add((trigger.getReply() + myPortProfile.getNewLine().getValue()).getBytes(getCharset()));
+        }
+    }
+
+    // Called under myFeedLock once the received data is processed: the local echo of a reply comes back into append
+    private void sendReplies() {
+        byte[] reply;
+        while ((reply = myReplies.poll()) != null) {
+            // only queued, so the replies keep their order among themselves and with the sends
+            myConnection.write(reply);
+        }
+    }
+
+    private static boolean isDue(@Nonnull Map<SerialTrigger, Long> last, @Nonnull SerialTrigger trigger, long nanoTime,
+                                 long interval) {
+        Long previous = last.get(trigger);
+        if (previous != null && nanoTime - previous < interval) {
+            return false;
+        }
+        last.put(trigger, nanoTime);
+        return true;
+    }
+
+    private void scheduleTriggerFlush() {
+        if (myTriggerFlushScheduled.compareAndSet(false, true)) {
+            Application.get().getInstance(ApplicationConcurrency.class).getScheduledExecutorService()
+                .schedule(this::flushTriggers, TRIGGER_HOLD_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Passes on the bytes held for a match which did not come
+    private void flushTriggers() {
+        myTriggerFlushScheduled.set(false);
+        synchronized (myFeedLock) {
+            TriggerEngine triggers = myTriggers;
+            if (triggers == null || !triggers.hasHeldBytes()) {
+                return;
+            }
+            if (System.nanoTime() - triggers.getHeldSince() >= TimeUnit.MILLISECONDS.toNanos(TRIGGER_HOLD_MS)) {
+                triggers.flush(triggerOutput());
+            }
+            else {
+                scheduleTriggerFlush();
+            }
+        }
+    }
+
+    public void append(byte[] buffer, int offset, int length, long nanoTime) {
+        synchronized (myFeedLock) {
+            FrameDecoder frames = myFrameDecoder;
+            if (frames != null && myFrameRenderer != null) {
+                TriggerEngine triggers = myTriggers;
+                if (myBinaryFraming && triggers != null) {
+                    // before framing, the rendered rows are not what the device sent
+                    triggers.process(buffer, offset, length, nanoTime, NO_OUTPUT, this::triggered);
+                }
+                frames.decode(buffer, offset, length, nanoTime, myFrameRenderer);
+                if (frames.getIdleGapNanos() > 0 && frames.getPartialLength() > 0) {
+                    scheduleFrameIdle(frames.getIdleGapNanos());
+                }
+            }
+            else {
+                receivedText(buffer, offset, length, nanoTime);
+            }
+            // always kept, the hex view only repaints while shown
+            getSecondaryConsoleView().output(buffer, offset, length);
+            if (mySessionIndex != null) {
+                mySessionIndex.append(buffer, offset, length);
+            }
+            sendReplies();
+        }
     }
 
     private class SerialPauseAction extends ToggleAction {
@@ -273,33 +655,36 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
         }
     }
 
-    private static class MyScrollToTheEndToolbarAction extends ScrollToTheEndToolbarAction {
-        private final Editor myEditor;
+    private class SkipPausedOutputAction extends DumbAwareAction {
 
-        private MyScrollToTheEndToolbarAction(Editor editor) {
-            super(editor);
-            myEditor = editor;
+        private SkipPausedOutputAction() {
+            super(SerialMonitorLocalize.actionSkipPausedOutputText(), SerialMonitorLocalize.actionSkipPausedOutputDescription(),
+                PlatformIconGroup.actionsResume());
         }
 
         @Override
-        @SuppressWarnings("unchecked")
-        public Coroutine<?, ?> updateAsync(AnActionEvent e) {
-            Coroutine superUpdate = super.updateAsync(e);
-            return UIAction.<Void, Boolean>apply(i -> {
-                    boolean showing = myEditor.getComponent().isShowing();
-                    if (!showing) {
-                        e.getPresentation().setVisible(false);
-                    }
-                    return showing;
-                })
-                .toCoroutine()
-                .then(Condition.doIf((b, continuation) -> Boolean.TRUE.equals(b), CallSubroutine.call(superUpdate)));
+        public void update(@Nonnull AnActionEvent e) {
+            e.getPresentation().setEnabled(isOutputPaused());
+        }
+
+        @Override
+        public void actionPerformed(@Nonnull AnActionEvent e) {
+            getPrimaryConsoleView().skipPausedOutput();
+            getSecondaryConsoleView().skipPausedOutput();
         }
     }
 
     @Override
     public void dispose() {
         super.dispose();
+        if (mySessionIndex != null) {
+            try {
+                mySessionIndex.close();
+            }
+            catch (IOException e) {
+                LOG.warn("Failed to delete the session history", e);
+            }
+        }
         Application application = Application.get();
         application.executeOnPooledThread(() -> {
             myConnection.closeSilently(true);
@@ -0,0 +1,161 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import com.intellij.plugins.serialmonitor.plot.Lttb;
+import com.intellij.plugins.serialmonitor.plot.SampleBuffer;
+import consulo.colorScheme.EditorColorsManager;
+import consulo.colorScheme.EditorColorsScheme;
+import consulo.colorScheme.EditorFontType;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.ex.JBColor;
+import consulo.ui.ex.awt.JBUI;
+import consulo.ui.ex.awtUnsafe.TargetAWT;
+import jakarta.annotation.Nonnull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Locale;
+
+/**
+ * Paints the latest samples of a {@link SampleBuffer}, each column downsampled with {@link Lttb} to about one point
+ * per pixel of the width, so the cost of a frame does not depend on the number of samples shown beyond one pass.
+ */
+final class PlotComponent extends JComponent {
+
+    private static final Color[] COLUMN_COLORS = {
+        new JBColor(new Color(0x1F77B4), new Color(0x5FA8E0)),
+        new JBColor(new Color(0xD62728), new Color(0xF0706E)),
+        new JBColor(new Color(0x2CA02C), new Color(0x6CCB6C)),
+        new JBColor(new Color(0xFF7F0E), new Color(0xFFA95C)),
+        new JBColor(new Color(0x9467BD), new Color(0xB99BDA)),
+        new JBColor(new Color(0x8C564B), new Color(0xC09187)),
+        new JBColor(new Color(0xE377C2), new Color(0xF0A6D9)),
+        new JBColor(new Color(0x17BECF), new Color(0x5FD8E4))
+    };
+    private static final Color GRID_COLOR = new JBColor(new Color(0xE6E6E6), new Color(0x3C3F41));
+    private static final int INSET = JBUI.scale(6);
+    private static final int GRID_LINES = 4;
+
+    private final SampleBuffer mySamples;
+    // samples shown, 0 for all kept
+    private int myWindow;
+    // reused between frames, one row per column
+    private double[][] myX = new double[0][];
+    private double[][] myY = new double[0][];
+    private final int[] myCounts = new int[SampleBuffer.MAX_COLUMNS];
+    private int[] myPolylineX = new int[0];
+    private int[] myPolylineY = new int[0];
+
+    PlotComponent(@Nonnull SampleBuffer samples) {
+        mySamples = samples;
+        EditorColorsScheme scheme = EditorColorsManager.getInstance().getGlobalScheme();
+        setFont(scheme.getFont(EditorFontType.PLAIN));
+        setBackground(TargetAWT.to(scheme.getDefaultBackground()));
+        setForeground(TargetAWT.to(scheme.getDefaultForeground()));
+        setOpaque(true);
+    }
+
+    void setWindow(int window) {
+        myWindow = window;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        FontMetrics metrics = g.getFontMetrics();
+
+        long to = mySamples.getCount();
+        long from = mySamples.getStart();
+        if (myWindow > 0) {
+            from = Math.max(from, to - myWindow);
+        }
+        int columns = mySamples.getColumnCount();
+        int axisWidth = metrics.stringWidth("-0.000E+00") + INSET;
+        int left = INSET + axisWidth;
+        int top = INSET + metrics.getHeight();
+        int width = getWidth() - left - INSET;
+        int height = getHeight() - top - INSET;
+        if (to - from < 2 || columns == 0 || width < 3 || height < 2) {
+            g.setColor(getForeground());
+            g.drawString(SerialMonitorLocalize.plotNoData().get(), INSET, INSET + metrics.getAscent());
+            return;
+        }
+
+        ensureCapacity(columns, width);
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < columns; c++) {
+            int count = Lttb.downsample(mySamples.getColumn(c), mySamples.getMask(), from, to, width, myX[c], myY[c]);
+            myCounts[c] = count;
+            double[] y = myY[c];
+            for (int i = 0; i < count; i++) {
+                min = Math.min(min, y[i]);
+                max = Math.max(max, y[i]);
+            }
+        }
+        if (min > max) {
+            min = 0;
+            max = 1;
+        }
+        else if (min == max || Double.isInfinite(max - min)) {
+            min -= 1;
+            max += 1;
+        }
+
+        // grid with the values at its lines
+        for (int i = 0; i <= GRID_LINES; i++) {
+            int y = top + (int) ((long) height * i / GRID_LINES);
+            g.setColor(GRID_COLOR);
+            g.drawLine(left, y, left + width, y);
+            g.setColor(getForeground());
+            String label = formatValue(max - (max - min) * i / GRID_LINES);
+            g.drawString(label, left - INSET - metrics.stringWidth(label), y + metrics.getAscent() / 2);
+        }
+
+        double xScale = (double) (width - 1) / Math.max(1, to - 1 - from);
+        double yScale = (height - 1) / (max - min);
+        int legendX = left;
+        for (int c = 0; c < columns; c++) {
+            Color color = COLUMN_COLORS[c % COLUMN_COLORS.length];
+            int count = myCounts[c];
+            double[] xs = myX[c];
+            double[] ys = myY[c];
+            for (int i = 0; i < count; i++) {
+                myPolylineX[i] = left + (int) Math.round((xs[i] - from) * xScale);
+                myPolylineY[i] = top + (int) Math.round((max - ys[i]) * yScale);
+            }
+            g.setColor(color);
+            g.drawPolyline(myPolylineX, myPolylineY, count);
+
+            String name = mySamples.getName(c);
+            String legend = name != null ? name : String.valueOf(c + 1);
+            g.drawString(legend, legendX, INSET + metrics.getAscent());
+            legendX += metrics.stringWidth(legend) + 2 * INSET;
+        }
+        g.setColor(getForeground());
+        String range = SerialMonitorLocalize.plotSampleRange(from, to - 1).get();
+        g.drawString(range, getWidth() - INSET - metrics.stringWidth(range), INSET + metrics.getAscent());
+    }
+
+    private void ensureCapacity(int columns, int width) {
+        if (myX.length < columns || (columns > 0 && myX[0].length < width)) {
+            int rows = Math.max(columns, myX.length);
+            int length = Math.max(width, myX.length > 0 ? myX[0].length : 0);
+            myX = new double[rows][length];
+            myY = new double[rows][length];
+            myPolylineX = new int[length];
+            myPolylineY = new int[length];
+        }
+    }
+
+    private static @Nonnull String formatValue(double value) {
+        double magnitude = Math.abs(value);
+        if (magnitude != 0 && (magnitude >= 1e6 || magnitude < 1e-3)) {
+            return String.format(Locale.ROOT, "%.3E", value);
+        }
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
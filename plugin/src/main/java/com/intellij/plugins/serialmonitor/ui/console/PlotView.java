@@ -0,0 +1,185 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoder;
+import com.intellij.plugins.serialmonitor.framing.FrameDecoders;
+import com.intellij.plugins.serialmonitor.plot.NumericLineParser;
+import com.intellij.plugins.serialmonitor.plot.SampleBuffer;
+import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import consulo.application.AllIcons;
+import consulo.application.Application;
+import consulo.application.concurrent.ApplicationConcurrency;
+import consulo.disposer.Disposable;
+import consulo.execution.localize.ExecutionLocalize;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.ex.action.*;
+import consulo.ui.ex.awt.ColoredListCellRenderer;
+import consulo.ui.ex.awt.JBUI;
+import consulo.ui.ex.awt.SimpleToolWindowPanel;
+import jakarta.annotation.Nonnull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live plot of the numeric lines received by a connection, see {@link NumericLineParser}. Samples are kept in a
+ * {@link SampleBuffer} while the plot is paused, only the painting stops.
+ */
+public class PlotView implements Disposable {
+
+    // The plot is repainted at most this often
+    private static final long REFRESH_DELAY_MS = 33;
+    private static final int CAPACITY = Integer.getInteger("serial.monitor.plot.capacity", 1 << 20);
+    private static final int[] WINDOWS = {1_000, 10_000, 100_000, 1_000_000, 0};
+
+    private final SerialPortService.SerialConnection myConnection;
+    private final SampleBuffer mySamples = new SampleBuffer(CAPACITY);
+    // Used by the receiving thread under the lock of myLines
+    private final FrameDecoder myLines;
+    private final NumericLineParser myParser = new NumericLineParser(SampleBuffer.MAX_COLUMNS);
+    private final double[] myValues = new double[SampleBuffer.MAX_COLUMNS];
+    private final FrameDecoder.Sink myLineSink = this::lineReceived;
+
+    private final PlotComponent myPlot;
+    private final SimpleToolWindowPanel myPanel = new SimpleToolWindowPanel(false, true);
+    private final AtomicBoolean myRefreshScheduled = new AtomicBoolean();
+    private volatile boolean myPaused;
+    private volatile boolean myDisposed;
+
+    public PlotView(@Nonnull SerialPortService.SerialConnection connection, @Nonnull SerialProfileService.NewLine newLine) {
+        myConnection = connection;
+        myLines = FrameDecoders.lines(newLine);
+        myPlot = new PlotComponent(mySamples);
+        myPlot.setWindow(WINDOWS[1]);
+
+        JComboBox<Integer> windowCombo = new JComboBox<>();
+        for (int window : WINDOWS) {
+            windowCombo.addItem(window);
+        }
+        windowCombo.setSelectedItem(WINDOWS[1]);
+        windowCombo.setRenderer(new ColoredListCellRenderer<>() {
+            @Override
+            protected void customizeCellRenderer(@Nonnull JList<? extends Integer> list, Integer window, int index,
+                                                 boolean selected, boolean hasFocus) {
+                append(window == null || window == 0 ?
+                    SerialMonitorLocalize.plotWindowAll().get() :
+                    SerialMonitorLocalize.plotWindowSamples(window).get());
+            }
+        });
+        windowCombo.addActionListener(e -> {
+            Integer window = (Integer) windowCombo.getSelectedItem();
+            if (window != null) {
+                myPlot.setWindow(window);
+            }
+        });
+        JPanel windowRow = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        windowRow.add(new JLabel(SerialMonitorLocalize.labelPlotWindow().get()));
+        windowRow.add(windowCombo);
+
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(windowRow, BorderLayout.NORTH);
+        content.add(myPlot, BorderLayout.CENTER);
+        content.setBorder(JBUI.Borders.empty());
+        myPanel.setContent(content);
+
+        DefaultActionGroup actions = new DefaultActionGroup(new PauseAction(), new ClearAction());
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar(ActionPlaces.TOOLBAR, actions, false);
+        toolbar.setTargetComponent(myPlot);
+        myPanel.setToolbar(toolbar.getComponent());
+
+        SerialPortService.getInstance().addReceiveListener((source, buffer, offset, length, nanoTime) -> {
+            if (source == myConnection) {
+                received(buffer, offset, length, nanoTime);
+            }
+        }, this);
+    }
+
+    private void received(byte[] buffer, int offset, int length, long nanoTime) {
+        long before = mySamples.getCount();
+        synchronized (myLines) {
+            myLines.decode(buffer, offset, length, nanoTime, myLineSink);
+        }
+        if (mySamples.getCount() != before && !myPaused) {
+            scheduleRefresh();
+        }
+    }
+
+    private void lineReceived(byte[] buffer, int offset, int length, long nanoTime) {
+        int columns = myParser.parse(buffer, offset, length, myValues);
+        if (columns == 0) {
+            return;
+        }
+        for (int c = 0; c < columns; c++) {
+            String name = myParser.getName(c);
+            // the parser keeps the same string while the name does not change
+            if (name != mySamples.getName(c)) {
+                mySamples.setName(c, name);
+            }
+        }
+        mySamples.add(myValues, columns);
+    }
+
+    private void scheduleRefresh() {
+        if (myRefreshScheduled.compareAndSet(false, true)) {
+            Application.get().getInstance(ApplicationConcurrency.class).getScheduledExecutorService()
+                .schedule(() -> Application.get().invokeLater(this::refresh), REFRESH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refresh() {
+        myRefreshScheduled.set(false);
+        if (!myDisposed) {
+            myPlot.repaint();
+        }
+    }
+
+    public @Nonnull JComponent getComponent() {
+        return myPanel;
+    }
+
+    public @Nonnull SerialPortService.SerialConnection getConnection() {
+        return myConnection;
+    }
+
+    @Override
+    public void dispose() {
+        myDisposed = true;
+    }
+
+    private class PauseAction extends ToggleAction {
+
+        private PauseAction() {
+            super(SerialMonitorLocalize.actionPauseText(), SerialMonitorLocalize.actionPlotPauseDescription(),
+                AllIcons.Actions.Pause);
+        }
+
+        @Override
+        public boolean isSelected(@Nonnull AnActionEvent e) {
+            return myPaused;
+        }
+
+        @Override
+        public void setSelected(@Nonnull AnActionEvent e, boolean state) {
+            myPaused = state;
+            if (!state) {
+                scheduleRefresh();
+            }
+        }
+    }
+
+    private class ClearAction extends DumbAwareAction {
+
+        private ClearAction() {
+            super(ExecutionLocalize.clearAllFromConsoleActionName(), SerialMonitorLocalize.actionPlotClearDescription(),
+                AllIcons.Actions.GC);
+        }
+
+        @Override
+        public void actionPerformed(@Nonnull AnActionEvent e) {
+            mySamples.clear();
+            myPlot.repaint();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import jakarta.annotation.Nonnull;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes a stream of received bytes into chars, chunk by chunk, without allocating.
+ * <p>
+ * Bytes of a sequence which is not complete yet are left in the input, so the caller keeps them for the next chunk.
+ * Malformed input is replaced with U+FFFD. Clean US-ASCII and UTF-8 input is decoded by the JDK decoder, which uses
+ * vectorized intrinsics for it, but the JDK decoder handles every malformed sequence in a separate round trip.
+ * Line noise, a wrong baud rate or binary data produce long stretches of malformed input, so these stretches
+ * are decoded here instead, with the same replacements. Not thread-safe.
+ */
+public final class SerialCharDecoder {
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private enum Mode {ASCII, UTF8, OTHER}
+
+    private final Charset charset;
+    private final Mode mode;
+    private final CharsetDecoder decoder;
+
+    public SerialCharDecoder(@Nonnull Charset charset) {
+        this.charset = charset;
+        if (charset.equals(StandardCharsets.US_ASCII)) {
+            mode = Mode.ASCII;
+        }
+        else if (charset.equals(StandardCharsets.UTF_8)) {
+            mode = Mode.UTF8;
+        }
+        else {
+            mode = Mode.OTHER;
+        }
+        // with REPORT the JDK decoder stops at malformed input and it is replaced here
+        CodingErrorAction malformedAction = mode == Mode.OTHER ? CodingErrorAction.REPLACE : CodingErrorAction.REPORT;
+        decoder = charset.newDecoder()
+            .onMalformedInput(malformedAction)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    public @Nonnull Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Decodes as many bytes of {@code input} as fit into {@code output}. Both buffers must be backed by arrays.
+     */
+    public void decode(@Nonnull ByteBuffer input, @Nonnull CharBuffer output) {
+        while (true) {
+            CoderResult result = decoder.decode(input, output, false);
+            if (!result.isMalformed()) {
+                return;
+            }
+            int position = input.position();
+            if (mode == Mode.ASCII) {
+                replaceNonAscii(input, output);
+            }
+            else {
+                decodeUtf8(input, output);
+            }
+            if (input.position() == position) {
+                // no room for the replacement
+                return;
+            }
+        }
+    }
+
+    private static void replaceNonAscii(@Nonnull ByteBuffer input, @Nonnull CharBuffer output) {
+        byte[] source = input.array();
+        char[] target = output.array();
+        int sp = input.arrayOffset() + input.position();
+        int dp = output.arrayOffset() + output.position();
+        int count = Math.min(input.remaining(), output.remaining());
+        int i = 0;
+        while (i < count && source[sp + i] < 0) {
+            target[dp + i] = REPLACEMENT;
+            i++;
+        }
+        input.position(input.position() + i);
+        output.position(output.position() + i);
+    }
+
+    /**
+     * Decodes UTF-8 up to the next ASCII byte, which the JDK decoder takes over again.
+     */
+    private static void decodeUtf8(@Nonnull ByteBuffer input, @Nonnull CharBuffer output) {
+        byte[] source = input.array();
+        char[] target = output.array();
+        int sourceOffset = input.arrayOffset();
+        int targetOffset = output.arrayOffset();
+        int sp = sourceOffset + input.position();
+        int sl = sourceOffset + input.limit();
+        int dp = targetOffset + output.position();
+        int dl = targetOffset + output.limit();
+        while (sp < sl && dp < dl) {
+            int b1 = source[sp];
+            if (b1 >= 0) {
+                break;
+            }
+            int available = sl - sp;
+            // number of bytes replaced with one U+FFFD, the same as the JDK decoder replaces
+            int malformed;
+            if ((b1 >> 5) == -2 && (b1 & 0x1e) != 0) {
+                if (available < 2) {
+                    break;
+                }
+                int b2 = source[sp + 1];
+                if (isContinuation(b2)) {
+                    target[dp++] = (char) (((b1 & 0x1f) << 6) | (b2 & 0x3f));
+                    sp += 2;
+                    continue;
+                }
+                malformed = 1;
+            }
+            else if ((b1 >> 4) == -2) {
+                if (available < 2) {
+                    break;
+                }
+                int b2 = source[sp + 1];
+                if ((b1 == (byte) 0xe0 && (b2 & 0xe0) == 0x80) || !isContinuation(b2)) {
+                    malformed = 1;
+                }
+                else if (available < 3) {
+                    break;
+                }
+                else if (!isContinuation(source[sp + 2])) {
+                    malformed = 2;
+                }
+                else {
+                    char c = (char) (((b1 & 0x0f) << 12) | ((b2 & 0x3f) << 6) | (source[sp + 2] & 0x3f));
+                    if (Character.isSurrogate(c)) {
+                        malformed = 3;
+                    }
+                    else {
+                        target[dp++] = c;
+                        sp += 3;
+                        continue;
+                    }
+                }
+            }
+            else if ((b1 >> 3) == -2) {
+                int lead = b1 & 0xff;
+                if (lead > 0xf4) {
+                    malformed = 1;
+                }
+                else if (available < 2) {
+                    break;
+                }
+                else {
+                    int b2 = source[sp + 1] & 0xff;
+                    if ((lead == 0xf0 && (b2 < 0x90 || b2 > 0xbf))
+                        || (lead == 0xf4 && (b2 & 0xf0) != 0x80)
+                        || !isContinuation(b2)) {
+                        malformed = 1;
+                    }
+                    else if (available < 3) {
+                        break;
+                    }
+                    else if (!isContinuation(source[sp + 2])) {
+                        malformed = 2;
+                    }
+                    else if (available < 4) {
+                        break;
+                    }
+                    else if (!isContinuation(source[sp + 3])) {
+                        malformed = 3;
+                    }
+                    else if (dl - dp < 2) {
+                        // no room for the surrogate pair
+                        break;
+                    }
+                    else {
+                        int codePoint = ((lead & 0x07) << 18) | ((b2 & 0x3f) << 12)
+                                        | ((source[sp + 2] & 0x3f) << 6) | (source[sp + 3] & 0x3f);
+                        target[dp++] = Character.highSurrogate(codePoint);
+                        target[dp++] = Character.lowSurrogate(codePoint);
+                        sp += 4;
+                        continue;
+                    }
+                }
+            }
+            else {
+                malformed = 1;
+            }
+            target[dp++] = REPLACEMENT;
+            sp += malformed;
+        }
+        input.position(sp - sourceOffset);
+        output.position(dp - targetOffset);
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xc0) == 0x80;
+    }
+}
@@ -1,9 +1,12 @@
 package com.intellij.plugins.serialmonitor.ui.console;
 
 import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import com.intellij.plugins.serialmonitor.ui.SerialMonitor;
 import com.jediterm.core.util.TermSize;
 import com.jediterm.terminal.Questioner;
 import com.jediterm.terminal.TtyConnector;
+import consulo.project.Project;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
 import jakarta.annotation.Nonnull;
 
 import java.awt.*;
@@ -13,12 +16,17 @@ import java.nio.charset.StandardCharsets;
 
 public class SerialTtyConnector implements TtyConnector {
 
+    private final Project project;
     private final JeditermConsoleView consoleView;
     private final SerialPortService.SerialConnection connection;
     private Charset charset = StandardCharsets.US_ASCII;
     private boolean localEcho = false;
+    // A full send queue has been reported since the last write which was queued
+    private boolean dropReported;
 
-    public SerialTtyConnector(@Nonnull JeditermConsoleView consoleView, @Nonnull SerialPortService.SerialConnection connection) {
+    public SerialTtyConnector(@Nonnull Project project, @Nonnull JeditermConsoleView consoleView,
+                              @Nonnull SerialPortService.SerialConnection connection) {
+        this.project = project;
         this.consoleView = consoleView;
         this.connection = connection;
     }
@@ -46,7 +54,15 @@ public class SerialTtyConnector implements TtyConnector {
 
     @Override
     public void write(byte[] bytes) {
-        connection.write(bytes);
+        if (connection.write(bytes)) {
+            dropReported = false;
+        }
+        else if (connection.isWriteQueueFull() && !dropReported) {
+            // once per burst, the keys typed until the queue drains are dropped too
+            dropReported = true;
+            SerialMonitor.errorNotification(SerialMonitorLocalize.notificationSendQueueFull(connection.getPortName()).get(),
+                project);
+        }
     }
 
     @Override
@@ -0,0 +1,178 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * FIFO byte queue which keeps up to {@code memoryLimit} bytes in memory and spills the rest into a temporary file,
+ * up to {@code sizeLimit} bytes in all. Bytes beyond the limit are not taken.
+ * <p>
+ * Once anything is spilled, new bytes go to the file as well until it is drained, so the order is always preserved.
+ * Not thread-safe.
+ */
+public final class SpillableByteQueue implements Closeable {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final long memoryLimit;
+    private final long sizeLimit;
+    private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+    private byte[] spareChunk;
+    private int headPosition;
+    private int tailPosition = CHUNK_SIZE;
+    private long memorySize;
+
+    private Path spillPath;
+    private FileChannel spillChannel;
+    private long spillReadPosition;
+    private long spillWritePosition;
+
+    public SpillableByteQueue(long memoryLimit, long sizeLimit) {
+        this.memoryLimit = memoryLimit;
+        this.sizeLimit = sizeLimit;
+    }
+
+    public long size() {
+        return memorySize + spillWritePosition - spillReadPosition;
+    }
+
+    /**
+     * @return number of bytes the queue takes before it reaches its size limit
+     */
+    public long space() {
+        return sizeLimit - size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return number of bytes written, less than {@code length} if the rest is beyond the size limit
+     */
+    public int write(byte[] buffer, int offset, int length) throws IOException {
+        int toWrite = (int) Math.min(length, Math.max(0, space()));
+        int remaining = toWrite;
+        if (spillWritePosition == spillReadPosition) {
+            int toMemory = (int) Math.min(remaining, Math.max(0, memoryLimit - memorySize));
+            writeToMemory(buffer, offset, toMemory);
+            offset += toMemory;
+            remaining -= toMemory;
+        }
+        ByteBuffer spilled = ByteBuffer.wrap(buffer, offset, remaining);
+        while (spilled.hasRemaining()) {
+            spillWritePosition += spillChannel().write(spilled, spillWritePosition);
+        }
+        return toWrite;
+    }
+
+    private void writeToMemory(byte[] buffer, int offset, int length) {
+        while (length > 0) {
+            if (tailPosition == CHUNK_SIZE) {
+                byte[] chunk = spareChunk != null ? spareChunk : new byte[CHUNK_SIZE];
+                spareChunk = null;
+                chunks.addLast(chunk);
+                tailPosition = 0;
+            }
+            int toCopy = Math.min(length, CHUNK_SIZE - tailPosition);
+            System.arraycopy(buffer, offset, chunks.getLast(), tailPosition, toCopy);
+            tailPosition += toCopy;
+            memorySize += toCopy;
+            offset += toCopy;
+            length -= toCopy;
+        }
+    }
+
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = readFromMemory(buffer, offset, length);
+        if (read < length && spillReadPosition < spillWritePosition) {
+            int toRead = (int) Math.min(length - read, spillWritePosition - spillReadPosition);
+            int fromFile = spillChannel.read(ByteBuffer.wrap(buffer, offset + read, toRead), spillReadPosition);
+            if (fromFile > 0) {
+                spillReadPosition += fromFile;
+                read += fromFile;
+            }
+            if (spillReadPosition == spillWritePosition) {
+                spillChannel.truncate(0);
+                spillReadPosition = 0;
+                spillWritePosition = 0;
+            }
+        }
+        return read;
+    }
+
+    private int readFromMemory(byte[] buffer, int offset, int length) {
+        int read = 0;
+        while (read < length && memorySize > 0) {
+            byte[] chunk = chunks.getFirst();
+            int available = chunks.size() == 1 ? tailPosition - headPosition : CHUNK_SIZE - headPosition;
+            int toCopy = Math.min(length - read, available);
+            System.arraycopy(chunk, headPosition, buffer, offset + read, toCopy);
+            headPosition += toCopy;
+            memorySize -= toCopy;
+            read += toCopy;
+            if (headPosition == CHUNK_SIZE || memorySize == 0) {
+                releaseFirstChunk();
+            }
+        }
+        return read;
+    }
+
+    private void releaseFirstChunk() {
+        spareChunk = chunks.removeFirst();
+        headPosition = 0;
+        if (chunks.isEmpty()) {
+            tailPosition = CHUNK_SIZE;
+        }
+    }
+
+    /**
+     * Discards all queued bytes.
+     */
+    public void clear() throws IOException {
+        while (!chunks.isEmpty()) {
+            releaseFirstChunk();
+        }
+        memorySize = 0;
+        if (spillChannel != null) {
+            spillChannel.truncate(0);
+        }
+        spillReadPosition = 0;
+        spillWritePosition = 0;
+    }
+
+    private @Nonnull FileChannel spillChannel() throws IOException {
+        if (spillChannel == null) {
+            spillPath = Files.createTempFile("serial-monitor-spill", ".bin");
+            spillChannel = FileChannel.open(spillPath, READ, WRITE, DELETE_ON_CLOSE);
+        }
+        return spillChannel;
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunks.clear();
+        spareChunk = null;
+        memorySize = 0;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            }
+            finally {
+                Files.deleteIfExists(spillPath);
+                spillChannel = null;
+            }
+        }
+        spillReadPosition = 0;
+        spillWritePosition = 0;
+    }
+}
@@ -0,0 +1,195 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lock-free byte ring buffer for exactly one producer thread and one consumer thread at a time.
+ * <p>
+ * Both sides move data in batches and publish their position once per batch. A side which has to wait parks,
+ * and the other side unparks it after moving its position. Callers with several producer threads must serialize
+ * them themselves.
+ */
+public final class SpscByteRingBuffer {
+
+    private static final long BLOCKED_PRODUCER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final byte[] buffer;
+    private final int mask;
+
+    // Position of the next byte to read, written by the consumer only
+    private final AtomicLong head = new AtomicLong();
+    // Position of the next byte to write, written by the producer only
+    private final AtomicLong tail = new AtomicLong();
+    // Bytes before this position are discarded by the consumer on its next access
+    private volatile long discardPosition;
+
+    private volatile Thread waitingConsumer;
+    private volatile Thread waitingProducer;
+
+    public SpscByteRingBuffer(int minCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(minCapacity, 2) - 1) << 1;
+        buffer = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Number of readable bytes; exact for the consumer, a snapshot for other threads.
+     */
+    public int size() {
+        return (int) (tail.get() - Math.max(head.get(), discardPosition));
+    }
+
+    /**
+     * Free space; exact for the producer, a snapshot for other threads.
+     */
+    public int space() {
+        return buffer.length - (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Producer side: stream position of the next byte to be written.
+     */
+    public long writePosition() {
+        return tail.get();
+    }
+
+    /**
+     * Consumer side: stream position of the next byte to be read.
+     */
+    public long readPosition() {
+        return consumerHead();
+    }
+
+    /**
+     * Producer side: writes as many bytes as fit without waiting.
+     *
+     * @return number of bytes written
+     */
+    public int offer(byte[] source, int offset, int length) {
+        long currentTail = tail.get();
+        int toWrite = Math.min(length, buffer.length - (int) (currentTail - head.get()));
+        if (toWrite <= 0) {
+            return 0;
+        }
+        int index = (int) currentTail & mask;
+        int firstPart = Math.min(toWrite, buffer.length - index);
+        System.arraycopy(source, offset, buffer, index, firstPart);
+        if (firstPart < toWrite) {
+            System.arraycopy(source, offset + firstPart, buffer, 0, toWrite - firstPart);
+        }
+        tail.set(currentTail + toWrite);
+        unpark(waitingConsumer);
+        return toWrite;
+    }
+
+    /**
+     * Producer side: writes all bytes, parking while the buffer is full.
+     *
+     * @param cancelled checked while waiting, stops writing when it returns {@code true}
+     * @return number of bytes written, less than {@code length} only if cancelled
+     */
+    public int write(byte[] source, int offset, int length, @Nonnull BooleanSupplier cancelled) {
+        int written = 0;
+        while (written < length) {
+            int count = offer(source, offset + written, length - written);
+            if (count > 0) {
+                written += count;
+                continue;
+            }
+            waitingProducer = Thread.currentThread();
+            try {
+                if (space() == 0) {
+                    if (cancelled.getAsBoolean()) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, BLOCKED_PRODUCER_PARK_NANOS);
+                }
+            }
+            finally {
+                waitingProducer = null;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Consumer side: reads up to {@code length} available bytes without waiting.
+     *
+     * @return number of bytes read
+     */
+    public int poll(byte[] target, int offset, int length) {
+        long currentHead = consumerHead();
+        int toRead = Math.min(length, (int) (tail.get() - currentHead));
+        if (toRead <= 0) {
+            return 0;
+        }
+        int index = (int) currentHead & mask;
+        int firstPart = Math.min(toRead, buffer.length - index);
+        System.arraycopy(buffer, index, target, offset, firstPart);
+        if (firstPart < toRead) {
+            System.arraycopy(buffer, 0, target, offset + firstPart, toRead - firstPart);
+        }
+        head.set(currentHead + toRead);
+        unpark(waitingProducer);
+        return toRead;
+    }
+
+    /**
+     * Consumer side: parks until there may be bytes to read. Returns early on {@link #wakeConsumer()},
+     * interrupts and spuriously, so callers check their condition in a loop.
+     *
+     * @param wakeUp checked after the consumer is registered for wake ups, it does not park if this returns {@code true}
+     */
+    public void awaitData(@Nonnull BooleanSupplier wakeUp) {
+        waitingConsumer = Thread.currentThread();
+        try {
+            if (tail.get() == consumerHead() && !wakeUp.getAsBoolean()) {
+                LockSupport.park(this);
+            }
+        }
+        finally {
+            waitingConsumer = null;
+        }
+    }
+
+    /**
+     * Wakes the consumer parked in {@link #awaitData}, for example when there is input for it elsewhere.
+     */
+    public void wakeConsumer() {
+        unpark(waitingConsumer);
+    }
+
+    /**
+     * Discards everything written so far. May be called from any thread, the consumer applies it on its next access.
+     */
+    public void clear() {
+        discardPosition = tail.get();
+        unpark(waitingConsumer);
+    }
+
+    private long consumerHead() {
+        long currentHead = head.get();
+        long discard = discardPosition;
+        if (discard > currentHead) {
+            head.set(discard);
+            unpark(waitingProducer);
+            return discard;
+        }
+        return currentHead;
+    }
+
+    private static void unpark(Thread thread) {
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import com.intellij.plugins.serialmonitor.telemetry.FieldStats;
+import com.intellij.plugins.serialmonitor.telemetry.TelemetryRecorder;
+import com.intellij.plugins.serialmonitor.telemetry.TelemetryStore;
+import com.intellij.plugins.serialmonitor.ui.SerialMonitor;
+import consulo.application.AllIcons;
+import consulo.application.Application;
+import consulo.application.concurrent.ApplicationConcurrency;
+import consulo.application.progress.ProgressIndicator;
+import consulo.application.progress.Task;
+import consulo.disposer.Disposable;
+import consulo.execution.localize.ExecutionLocalize;
+import consulo.fileChooser.FileChooserFactory;
+import consulo.fileChooser.FileSaverDescriptor;
+import consulo.localize.LocalizeValue;
+import consulo.logging.Logger;
+import consulo.platform.base.icon.PlatformIconGroup;
+import consulo.project.Project;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.ex.action.*;
+import consulo.ui.ex.awt.ColoredListCellRenderer;
+import consulo.ui.ex.awt.JBUI;
+import consulo.ui.ex.awt.SimpleToolWindowPanel;
+import consulo.ui.ex.awt.table.JBTable;
+import consulo.virtualFileSystem.VirtualFileWrapper;
+import jakarta.annotation.Nonnull;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the numeric lines received by a connection into a {@link TelemetryStore} from the moment it is opened and
+ * shows the count, minimum, maximum and average of each field over a time window.
+ */
+public class TelemetryView implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(TelemetryView.class);
+
+    private static final long REFRESH_PERIOD_MS = 1000;
+    private static final long MEMORY_LIMIT = Long.getLong("serial.monitor.telemetry.memory.mb", 64) << 20;
+    private static final long DISK_LIMIT = Long.getLong("serial.monitor.telemetry.disk.mb", 1024) << 20;
+    // Seconds, 0 for all rows
+    private static final int[] WINDOWS = {10, 60, 600, 3600, 0};
+
+    private final SerialPortService.SerialConnection myConnection;
+    private final TelemetryStore myStore = new TelemetryStore(command -> Application.get().executeOnPooledThread(command),
+        MEMORY_LIMIT, DISK_LIMIT, TelemetryStore.getDefaultDirectory());
+    private final TelemetryRecorder myRecorder;
+
+    private final StatsModel myModel = new StatsModel();
+    private final JBTable myTable = new JBTable(myModel);
+    private final JLabel myStatus = new JLabel();
+    private final SimpleToolWindowPanel myPanel = new SimpleToolWindowPanel(false, true);
+    private final AtomicBoolean myRefreshing = new AtomicBoolean();
+    private final ScheduledFuture<?> myRefreshFuture;
+    private volatile int myWindow = WINDOWS[1];
+    private volatile boolean myDisposed;
+
+    public TelemetryView(@Nonnull SerialPortService.SerialConnection connection, @Nonnull SerialProfileService.NewLine newLine) {
+        myConnection = connection;
+        myRecorder = new TelemetryRecorder(myStore, TelemetryRecorder.Naming.KEYS, newLine);
+
+        JComboBox<TelemetryRecorder.Naming> namingCombo = new JComboBox<>(TelemetryRecorder.Naming.values());
+        namingCombo.setRenderer(new ColoredListCellRenderer<>() {
+            @Override
+            protected void customizeCellRenderer(@Nonnull JList<? extends TelemetryRecorder.Naming> list,
+                                                 TelemetryRecorder.Naming naming, int index, boolean selected,
+                                                 boolean hasFocus) {
+                if (naming != null) {
+                    append(naming == TelemetryRecorder.Naming.KEYS ?
+                        SerialMonitorLocalize.telemetryNamingKeys().get() :
+                        SerialMonitorLocalize.telemetryNamingPositions().get());
+                }
+            }
+        });
+        namingCombo.addActionListener(e -> {
+            TelemetryRecorder.Naming naming = (TelemetryRecorder.Naming) namingCombo.getSelectedItem();
+            if (naming != null) {
+                myRecorder.setNaming(naming);
+            }
+        });
+
+        JComboBox<Integer> windowCombo = new JComboBox<>();
+        for (int window : WINDOWS) {
+            windowCombo.addItem(window);
+        }
+        windowCombo.setSelectedItem(myWindow);
+        windowCombo.setRenderer(new ColoredListCellRenderer<>() {
+            @Override
+            protected void customizeCellRenderer(@Nonnull JList<? extends Integer> list, Integer window, int index,
+                                                 boolean selected, boolean hasFocus) {
+                append(windowText(window == null ? 0 : window).get());
+            }
+        });
+        windowCombo.addActionListener(e -> {
+            Integer window = (Integer) windowCombo.getSelectedItem();
+            if (window != null) {
+                myWindow = window;
+                refresh();
+            }
+        });
+
+        JPanel settingsRow = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        settingsRow.add(new JLabel(SerialMonitorLocalize.labelTelemetryFields().get()));
+        settingsRow.add(namingCombo);
+        settingsRow.add(new JLabel(SerialMonitorLocalize.labelTelemetryWindow().get()));
+        settingsRow.add(windowCombo);
+
+        myStatus.setBorder(JBUI.Borders.empty(2, 5));
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(settingsRow, BorderLayout.NORTH);
+        content.add(new JScrollPane(myTable), BorderLayout.CENTER);
+        content.add(myStatus, BorderLayout.SOUTH);
+        myPanel.setContent(content);
+
+        DefaultActionGroup actions = new DefaultActionGroup(new ExportAction(), new ClearAction());
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar(ActionPlaces.TOOLBAR, actions, false);
+        toolbar.setTargetComponent(myTable);
+        myPanel.setToolbar(toolbar.getComponent());
+
+        SerialPortService.getInstance().addReceiveListener((source, buffer, offset, length, nanoTime) -> {
+            if (source == myConnection) {
+                myRecorder.received(buffer, offset, length, nanoTime);
+            }
+        }, this);
+        myRefreshFuture = Application.get().getInstance(ApplicationConcurrency.class).getScheduledExecutorService()
+            .scheduleWithFixedDelay(this::refresh, 0, REFRESH_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static @Nonnull LocalizeValue windowText(int window) {
+        if (window == 0) {
+            return SerialMonitorLocalize.telemetryWindowAll();
+        }
+        return window < 120 ?
+            SerialMonitorLocalize.telemetryWindowSeconds(window) :
+            SerialMonitorLocalize.telemetryWindowMinutes(window / 60);
+    }
+
+    private long windowStart() {
+        int window = myWindow;
+        return window == 0 ? Long.MIN_VALUE : System.currentTimeMillis() * 1000 - window * 1_000_000L;
+    }
+
+    /**
+     * Aggregates the window in a pooled thread, skipped while the previous aggregation runs.
+     */
+    private void refresh() {
+        if (myDisposed || !myRefreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Application.get().executeOnPooledThread(() -> {
+            try {
+                List<FieldStats> stats = myStore.aggregate(windowStart(), Long.MAX_VALUE);
+                LocalizeValue status = SerialMonitorLocalize.telemetryStatus(myStore.getRowCount(),
+                    toMegabytes(myStore.getMemoryBytes()), toMegabytes(myStore.getDiskBytes()),
+                    myStore.getDroppedRows());
+                Application.get().invokeLater(() -> {
+                    if (!myDisposed) {
+                        myModel.setStats(stats);
+                        myStatus.setText(status.get());
+                    }
+                });
+            }
+            catch (IOException e) {
+                if (!myDisposed) {
+                    LOG.warn("Failed to aggregate telemetry", e);
+                }
+            }
+            finally {
+                myRefreshing.set(false);
+            }
+        });
+    }
+
+    private static long toMegabytes(long bytes) {
+        return (bytes + (1 << 20) - 1) >> 20;
+    }
+
+    public @Nonnull JComponent getComponent() {
+        return myPanel;
+    }
+
+    public @Nonnull SerialPortService.SerialConnection getConnection() {
+        return myConnection;
+    }
+
+    @Override
+    public void dispose() {
+        myDisposed = true;
+        myRefreshFuture.cancel(false);
+        try {
+            myStore.close();
+        }
+        catch (IOException e) {
+            LOG.info("Failed to delete the telemetry file", e);
+        }
+    }
+
+    private enum Column {
+        FIELD(SerialMonitorLocalize.columnTelemetryField()),
+        COUNT(SerialMonitorLocalize.columnTelemetryCount()),
+        MIN(SerialMonitorLocalize.columnTelemetryMin()),
+        MAX(SerialMonitorLocalize.columnTelemetryMax()),
+        AVERAGE(SerialMonitorLocalize.columnTelemetryAverage());
+
+        private final LocalizeValue name;
+
+        Column(@Nonnull LocalizeValue name) {
+            this.name = name;
+        }
+    }
+
+    private static class StatsModel extends AbstractTableModel {
+
+        private List<FieldStats> stats = List.of();
+
+        private void setStats(@Nonnull List<FieldStats> stats) {
+            boolean sameRows = stats.size() == this.stats.size();
+            this.stats = stats;
+            if (sameRows && !stats.isEmpty()) {
+                // keeps the selection
+                fireTableRowsUpdated(0, stats.size() - 1);
+            }
+            else {
+                fireTableDataChanged();
+            }
+        }
+
+        @Override
+        public int getRowCount() {
+            return stats.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return Column.values().length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return Column.values()[column].name.get();
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return Column.values()[column] == Column.FIELD ? String.class : Number.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            FieldStats field = stats.get(row);
+            return switch (Column.values()[column]) {
+                case FIELD -> field.getName();
+                case COUNT -> field.getCount();
+                case MIN -> field.getCount() > 0 ? field.getMin() : null;
+                case MAX -> field.getCount() > 0 ? field.getMax() : null;
+                case AVERAGE -> field.getCount() > 0 ? field.getAverage() : null;
+            };
+        }
+    }
+
+    private class ExportAction extends DumbAwareAction {
+
+        private ExportAction() {
+            super(SerialMonitorLocalize.actionTelemetryExportText(),
+                SerialMonitorLocalize.actionTelemetryExportDescription(), PlatformIconGroup.actionsMenu_saveall());
+        }
+
+        @Override
+        public void actionPerformed(@Nonnull AnActionEvent e) {
+            Project project = e.getData(Project.KEY);
+            FileSaverDescriptor descriptor = new FileSaverDescriptor(
+                SerialMonitorLocalize.dialogTelemetryExportTitle().get(),
+                SerialMonitorLocalize.dialogTelemetryExportDesc().get(),
+                "csv");
+            String portName = myConnection.getPortName().replaceAll("[^A-Za-z0-9._-]", "_");
+            VirtualFileWrapper wrapper = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save(null, portName + "-telemetry.csv");
+            if (wrapper == null) {
+                return;
+            }
+            Path file = wrapper.getFile().toPath();
+            long from = windowStart();
+
+            new Task.Backgroundable(project, SerialMonitorLocalize.progressExportingTelemetry(), true) {
+                @Override
+                public void run(@Nonnull ProgressIndicator indicator) {
+                    try {
+                        myStore.exportCsv(file, from, Long.MAX_VALUE, indicator::isCanceled);
+                    }
+                    catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+
+                @Override
+                public void onCancel() {
+                    try {
+                        Files.deleteIfExists(file);
+                    }
+                    catch (IOException ex) {
+                        LOG.info("Failed to delete partially exported telemetry " + file, ex);
+                    }
+                }
+
+                @Override
+                public void onThrowable(@Nonnull Throwable error) {
+                    Throwable cause = error instanceof UncheckedIOException ? error.getCause() : error;
+                    LOG.warn("Failed to export telemetry to " + file, cause);
+                    if (project != null) {
+                        SerialMonitor.errorNotification(
+                            SerialMonitorLocalize.notificationTelemetryExportFailed(file.toString(),
+                                String.valueOf(cause.getMessage())).get(),
+                            project);
+                    }
+                }
+            }.queue();
+        }
+    }
+
+    private class ClearAction extends DumbAwareAction {
+
+        private ClearAction() {
+            super(ExecutionLocalize.clearAllFromConsoleActionName(),
+                SerialMonitorLocalize.actionTelemetryClearDescription(), AllIcons.Actions.GC);
+        }
+
+        @Override
+        public void actionPerformed(@Nonnull AnActionEvent e) {
+            myStore.clear();
+            refresh();
+        }
+    }
+}
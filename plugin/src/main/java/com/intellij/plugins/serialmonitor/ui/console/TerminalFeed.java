@@ -0,0 +1,521 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import com.intellij.plugins.serialmonitor.OverflowPolicy;
+import consulo.logging.Logger;
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Hands the received bytes of a {@link JeditermConsoleView} from the receiving thread to the emulator thread, which
+ * reads them decoded by {@link #readChars}, each char with the receive time of its chunk. Data which does not fit into
+ * the buffer is handled by the {@link OverflowPolicy}; data received while paused is kept and shown on resume.
+ * <p>
+ * Needs no UI, the console view only adds the terminal.
+ */
+public final class TerminalFeed {
+
+    private static final Logger LOG = Logger.getInstance(TerminalFeed.class);
+
+    private static final int BUFFER_SIZE = 128 * 1024;
+    private static final int OVERFLOW_MEMORY_LIMIT = 1024 * 1024;
+    // Memory and disk the overflow queue may take, the received bytes beyond it are dropped
+    private static final long OVERFLOW_SIZE_LIMIT = Long.getLong("serial.monitor.spill.limit.mb", 1024) * 1024 * 1024;
+    private static final int OVERFLOW_TIMES_MEMORY_LIMIT = 256 * 1024;
+    // Queue position and receive time of a chunk in the overflow queue
+    private static final int TIME_RECORD_SIZE = 2 * Long.BYTES;
+    private static final long NO_TIME_RECORD = Long.MAX_VALUE;
+    private static final int DECODE_BUFFER_SIZE = 8192;
+    private static final int CHUNK_TIMES_CAPACITY = 4096;
+    private static final int CHAR_MARKS_CAPACITY = 64;
+    private static final int WAKE_UP_BATCH = 64;
+
+    /**
+     * Texts the feed inserts into the console, encoded in the charset of the connection.
+     */
+    public interface Markers {
+        @Nonnull byte[] bytesDropped(long count, long total);
+
+        @Nonnull byte[] bytesSkipped(long count);
+    }
+
+    private final Markers markers;
+    // Written by the receiving thread, read by the emulator thread
+    private final SpscByteRingBuffer bytesBuffer = new SpscByteRingBuffer(BUFFER_SIZE);
+    // Serializes the producers of bytesBuffer: the receiving thread, local echo and the overflow queue refill
+    private final Object producerLock = new Object();
+    // While paused the received data is buffered, the emulator thread waits for the resume
+    private volatile boolean paused = false;
+    private volatile Thread pausedConsumer;
+
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    // Data which did not fit into the buffer with OverflowPolicy.SPILL_TO_DISK, guarded by producerLock
+    private final SpillableByteQueue overflowQueue = new SpillableByteQueue(OVERFLOW_MEMORY_LIMIT, OVERFLOW_SIZE_LIMIT);
+    // Receive times of the chunks in overflowQueue, turned into chunk marks again when they are drained; a chunk
+    // without a record shares the time of the one before. Guarded by producerLock, like the rest of the overflow state
+    private final SpillableByteQueue overflowTimes =
+        new SpillableByteQueue(OVERFLOW_TIMES_MEMORY_LIMIT, OVERFLOW_SIZE_LIMIT);
+    private final ByteBuffer timeRecord = ByteBuffer.allocate(TIME_RECORD_SIZE);
+    // Bytes written to and read from overflowQueue since it was cleared
+    private long overflowWritten;
+    private long overflowRead;
+    // The record read from overflowTimes and not applied yet
+    private long nextTimePosition = NO_TIME_RECORD;
+    private long nextTime;
+    private volatile boolean overflowPending;
+    private final BooleanSupplier overflowPendingSupplier = () -> overflowPending;
+    private final byte[] transferBuffer = new byte[8192];
+    // Incremented on reconnect to release a producer blocked by OverflowPolicy.BLOCK
+    private volatile int generation;
+    // Generation the current blocked write belongs to, guarded by producerLock
+    private int producerGeneration;
+    private final BooleanSupplier producerCancelled =
+        () -> generation != producerGeneration || paused || Thread.currentThread().isInterrupted();
+    // Dropped bytes not yet reported in the console, guarded by producerLock
+    private long unreportedDroppedBytes;
+    private final AtomicLong droppedBytes = new AtomicLong();
+
+    // Receive times of the chunks in bytesBuffer
+    private final ChunkTimeQueue chunkTimes = new ChunkTimeQueue(CHUNK_TIMES_CAPACITY);
+    // Replaced on reconnect, the emulator thread picks up the new one
+    private volatile SerialCharDecoder decoder;
+
+    // Used by the emulator thread only
+    private SerialCharDecoder activeDecoder;
+    private final ByteBuffer decodeInput = ByteBuffer.allocate(DECODE_BUFFER_SIZE).flip();
+    // Stream position after the bytes in decodeInput
+    private long decodeEnd;
+    private CharBuffer decodeOutput = CharBuffer.allocate(0);
+    // Number of chars returned by readChars
+    private long charsRead;
+    // Indices of the chars returned by the last readChars which start a chunk, with the receive times of the chunks
+    private long[] charMarks = new long[CHAR_MARKS_CAPACITY];
+    private long[] charMarkTimes = new long[CHAR_MARKS_CAPACITY];
+    private int charMarkCount;
+    private int nextCharMark;
+    private long receiveTime = System.nanoTime();
+    // How long the chunk being decoded waited in the buffer
+    private volatile long lagNanos;
+
+    public TerminalFeed(@Nonnull Markers markers) {
+        this.markers = markers;
+    }
+
+    /**
+     * Starts a new session: the buffered data is discarded and the bytes received from now on are decoded with the
+     * charset. A producer blocked by {@link OverflowPolicy#BLOCK} is released.
+     */
+    public void reconnect(@Nonnull Charset charset, @Nonnull OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        generation++;
+        synchronized (producerLock) {
+            bytesBuffer.clear();
+            clearOverflowQueue();
+            unreportedDroppedBytes = 0;
+            droppedBytes.set(0);
+            decoder = new SerialCharDecoder(charset);
+        }
+    }
+
+    public void close() {
+        generation++;
+        synchronized (producerLock) {
+            try {
+                overflowQueue.close();
+                overflowTimes.close();
+            }
+            catch (IOException e) {
+                LOG.warn("Failed to release the overflow queue", e);
+            }
+            overflowPending = false;
+        }
+    }
+
+    public void setPaused(boolean value) {
+        if (paused == value) {
+            return;
+        }
+        paused = value;
+        if (!value) {
+            LockSupport.unpark(pausedConsumer);
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Discards the data received while paused and resumes at the data received next.
+     */
+    public void skipPaused() {
+        if (!paused) {
+            return;
+        }
+        synchronized (producerLock) {
+            long skipped = bytesBuffer.size() + overflowQueue.size();
+            bytesBuffer.clear();
+            clearOverflowQueue();
+            if (skipped > 0) {
+                byte[] marker = markers.bytesSkipped(skipped);
+                try {
+                    // the space of the skipped bytes is released by the emulator thread, the marker waits here
+                    queueOverflow(marker, 0, marker.length, System.nanoTime());
+                    overflowPending = true;
+                }
+                catch (IOException e) {
+                    LOG.warn("Failed to queue the skipped bytes marker", e);
+                }
+            }
+        }
+        setPaused(false);
+    }
+
+    /**
+     * Total number of bytes lost since the last reconnect, because they did not fit into the buffer.
+     */
+    public long getDroppedBytes() {
+        return droppedBytes.get();
+    }
+
+    public long getBufferedBytes() {
+        return bytesBuffer.size();
+    }
+
+    public long getBufferCapacity() {
+        return bytesBuffer.capacity();
+    }
+
+    public long getLagNanos() {
+        return bytesBuffer.size() > 0 ? lagNanos : 0;
+    }
+
+    /**
+     * @param nanoTime {@link System#nanoTime()} when the bytes were received
+     */
+    public void output(byte[] buffer, int offset, int length, long nanoTime) {
+        synchronized (producerLock) {
+            if (unreportedDroppedBytes > 0 && overflowQueue.isEmpty()) {
+                addDroppedBytesMarker();
+            }
+            if (paused || overflowPending) {
+                // while paused, and until the data queued meanwhile is shown, nothing is dropped or blocked
+                addSpilling(buffer, offset, length, nanoTime);
+                return;
+            }
+            switch (overflowPolicy) {
+                case BLOCK -> addBlocking(buffer, offset, length, nanoTime);
+                case SPILL_TO_DISK -> addSpilling(buffer, offset, length, nanoTime);
+                case DROP -> addDropping(buffer, offset, length, nanoTime);
+            }
+        }
+    }
+
+    /**
+     * Queues data received while the view was hidden. Like the data received while paused, it is never dropped.
+     */
+    public void outputBacklog(byte[] buffer, int offset, int length, long nanoTime) {
+        synchronized (producerLock) {
+            addSpilling(buffer, offset, length, nanoTime);
+        }
+    }
+
+    // Must be called under producerLock
+    private void addBlocking(byte[] buffer, int offset, int length, long nanoTime) {
+        producerGeneration = generation;
+        markChunk(nanoTime);
+        int written = bytesBuffer.write(buffer, offset, length, producerCancelled);
+        if (written < length && generation == producerGeneration) {
+            if (paused) {
+                // the emulator thread stopped reading, keep the rest until it resumes
+                addSpilling(buffer, offset + written, length - written, nanoTime);
+            }
+            else {
+                // interrupted, otherwise the rest belongs to the previous session
+                countDropped(length - written);
+            }
+        }
+    }
+
+    // Must be called under producerLock
+    private void addSpilling(byte[] buffer, int offset, int length, long nanoTime) {
+        drainOverflowQueue();
+        int added = 0;
+        if (overflowQueue.isEmpty() && bytesBuffer.space() > 0) {
+            markChunk(nanoTime);
+            added = bytesBuffer.offer(buffer, offset, length);
+        }
+        if (added < length) {
+            try {
+                if (unreportedDroppedBytes > 0) {
+                    queueDroppedBytesMarker(nanoTime);
+                }
+                int queued = queueOverflow(buffer, offset + added, length - added, nanoTime);
+                // beyond the size limit of the queue
+                countDropped(length - added - queued);
+                overflowPending = true;
+                bytesBuffer.wakeConsumer();
+            }
+            catch (IOException e) {
+                LOG.warn("Failed to spill serial data to disk", e);
+                countDropped(length - added);
+            }
+        }
+    }
+
+    // Must be called under producerLock
+    private void addDropping(byte[] buffer, int offset, int length, long nanoTime) {
+        int added = 0;
+        if (bytesBuffer.space() > 0) {
+            markChunk(nanoTime);
+            added = bytesBuffer.offer(buffer, offset, length);
+        }
+        countDropped(length - added);
+    }
+
+    // Must be called under producerLock, before the bytes are written
+    private boolean markChunk(long nanoTime) {
+        return chunkTimes.offer(bytesBuffer.writePosition(), nanoTime);
+    }
+
+    // Must be called under producerLock, returns the number of bytes queued
+    private int queueOverflow(byte[] buffer, int offset, int length, long nanoTime) throws IOException {
+        if (overflowTimes.space() >= TIME_RECORD_SIZE) {
+            timeRecord.clear();
+            timeRecord.putLong(overflowWritten).putLong(nanoTime);
+            overflowTimes.write(timeRecord.array(), 0, TIME_RECORD_SIZE);
+        }
+        int queued = overflowQueue.write(buffer, offset, length);
+        overflowWritten += queued;
+        return queued;
+    }
+
+    // Must be called under producerLock, the queue may be full still
+    private void queueDroppedBytesMarker(long nanoTime) throws IOException {
+        byte[] marker = markers.bytesDropped(unreportedDroppedBytes, droppedBytes.get());
+        if (marker.length <= overflowQueue.space()) {
+            queueOverflow(marker, 0, marker.length, nanoTime);
+            unreportedDroppedBytes = 0;
+        }
+    }
+
+    // Called by the consumer, the lock is taken only while there is spilled data
+    private void refillFromOverflowQueue() {
+        if (overflowPending) {
+            synchronized (producerLock) {
+                drainOverflowQueue();
+            }
+        }
+    }
+
+    // Must be called under producerLock
+    private void drainOverflowQueue() {
+        try {
+            while (!overflowQueue.isEmpty() && bytesBuffer.space() > 0) {
+                if (nextTimePosition == NO_TIME_RECORD) {
+                    readTimeRecord();
+                }
+                if (nextTimePosition <= overflowRead) {
+                    if (!markChunk(nextTime)) {
+                        // continues when the emulator thread took the marks of the buffered bytes
+                        break;
+                    }
+                    nextTimePosition = NO_TIME_RECORD;
+                    continue;
+                }
+                // up to the next chunk, which is marked first
+                int toRead = (int) Math.min(Math.min(transferBuffer.length, bytesBuffer.space()),
+                    nextTimePosition - overflowRead);
+                int read = overflowQueue.read(transferBuffer, 0, toRead);
+                bytesBuffer.offer(transferBuffer, 0, read);
+                overflowRead += read;
+            }
+        }
+        catch (IOException e) {
+            LOG.warn("Failed to read spilled serial data", e);
+            countDropped(overflowQueue.size());
+            clearOverflowQueue();
+        }
+        overflowPending = !overflowQueue.isEmpty();
+    }
+
+    // Must be called under producerLock
+    private void readTimeRecord() throws IOException {
+        if (overflowTimes.size() < TIME_RECORD_SIZE) {
+            return;
+        }
+        int read = 0;
+        while (read < TIME_RECORD_SIZE) {
+            read += overflowTimes.read(timeRecord.array(), read, TIME_RECORD_SIZE - read);
+        }
+        timeRecord.clear();
+        nextTimePosition = timeRecord.getLong();
+        nextTime = timeRecord.getLong();
+    }
+
+    // Must be called under producerLock
+    private void clearOverflowQueue() {
+        overflowWritten = 0;
+        overflowRead = 0;
+        nextTimePosition = NO_TIME_RECORD;
+        try {
+            overflowQueue.clear();
+            overflowTimes.clear();
+        }
+        catch (IOException e) {
+            LOG.warn("Failed to clear the overflow queue", e);
+        }
+        overflowPending = false;
+    }
+
+    // Must be called under producerLock
+    private void countDropped(long count) {
+        if (count > 0) {
+            unreportedDroppedBytes += count;
+            droppedBytes.addAndGet(count);
+        }
+    }
+
+    // Must be called under producerLock
+    private void addDroppedBytesMarker() {
+        byte[] marker = markers.bytesDropped(unreportedDroppedBytes, droppedBytes.get());
+        if (marker.length <= bytesBuffer.space()) {
+            bytesBuffer.offer(marker, 0, marker.length);
+            unreportedDroppedBytes = 0;
+        }
+    }
+
+    /**
+     * Called by the emulator thread. The chars returned by one call may come from several received chunks, see
+     * {@link #getReceiveTime(long)}. The chars returned before must be processed by then.
+     */
+    public int readChars(char[] buf, int offset, int length) {
+        if (decodeOutput.array() != buf) {
+            decodeOutput = CharBuffer.wrap(buf);
+        }
+        CharBuffer output = decodeOutput;
+        output.clear().limit(offset + length).position(offset);
+        if (charMarkCount > 0) {
+            receiveTime = charMarkTimes[charMarkCount - 1];
+            charMarkCount = 0;
+            nextCharMark = 0;
+        }
+        // index of the char at position 0 of the output
+        long charBase = charsRead - offset;
+        while (true) {
+            if (paused) {
+                awaitResume();
+            }
+            SerialCharDecoder currentDecoder = decoder;
+            if (currentDecoder != null) {
+                if (currentDecoder != activeDecoder) {
+                    activeDecoder = currentDecoder;
+                    decodeInput.clear().flip();
+                }
+                // bytes left from the previous call keep their receive time
+                decode(currentDecoder, output, charBase);
+                if (output.position() == offset && fillDecodeInput()) {
+                    decode(currentDecoder, output, charBase);
+                }
+                if (output.position() > offset) {
+                    charsRead += output.position() - offset;
+                    return output.position() - offset;
+                }
+            }
+            bytesBuffer.awaitData(overflowPendingSupplier);
+            // interrupts are ignored, the emulator keeps reading until the console is disposed
+            Thread.interrupted();
+            if (bytesBuffer.size() < WAKE_UP_BATCH) {
+                // woken for a small packet, likely the first of many: let the receiving thread add more first,
+                // rather than taking turns per packet on a busy core
+                Thread.yield();
+            }
+        }
+    }
+
+    private void awaitResume() {
+        pausedConsumer = Thread.currentThread();
+        try {
+            while (paused) {
+                LockSupport.park(this);
+                // interrupts are ignored like in readChars
+                Thread.interrupted();
+            }
+        }
+        finally {
+            pausedConsumer = null;
+        }
+    }
+
+    // Reads the received bytes which fit into decodeInput, of any number of chunks
+    private boolean fillDecodeInput() {
+        refillFromOverflowQueue();
+        decodeInput.compact();
+        int read = bytesBuffer.poll(decodeInput.array(), decodeInput.position(), decodeInput.remaining());
+        decodeEnd = bytesBuffer.readPosition();
+        decodeInput.position(decodeInput.position() + read);
+        decodeInput.flip();
+        return read > 0;
+    }
+
+    // Decodes the chunks in decodeInput one after another, marking the first char of each with its receive time
+    private void decode(@Nonnull SerialCharDecoder currentDecoder, @Nonnull CharBuffer output, long charBase) {
+        int limit = decodeInput.limit();
+        long position = decodeEnd - (limit - decodeInput.position());
+        while (true) {
+            if (!chunkTimes.isEmpty() && chunkTimes.peekPosition() <= position) {
+                long time;
+                do {
+                    time = chunkTimes.peekTime();
+                    chunkTimes.remove();
+                }
+                while (!chunkTimes.isEmpty() && chunkTimes.peekPosition() <= position);
+                markChars(charBase + output.position(), time);
+                lagNanos = System.nanoTime() - time;
+            }
+            // the marks of all bytes in decodeInput are visible
+            long chunkEnd = chunkTimes.isEmpty() ? decodeEnd : Math.min(chunkTimes.peekPosition(), decodeEnd);
+            decodeInput.limit(limit - (int) (decodeEnd - chunkEnd));
+            currentDecoder.decode(decodeInput, output);
+            decodeInput.limit(limit);
+            if (chunkEnd == decodeEnd || !output.hasRemaining()) {
+                return;
+            }
+            // bytes of a char which is not complete yet are decoded with the next chunk
+            position = chunkEnd;
+        }
+    }
+
+    private void markChars(long charIndex, long nanoTime) {
+        if (charMarkCount > 0 && charMarks[charMarkCount - 1] == charIndex) {
+            // the chunk before produced no chars yet
+            charMarkTimes[charMarkCount - 1] = nanoTime;
+            return;
+        }
+        if (charMarkCount == charMarks.length) {
+            charMarks = Arrays.copyOf(charMarks, charMarkCount * 2);
+            charMarkTimes = Arrays.copyOf(charMarkTimes, charMarkCount * 2);
+        }
+        charMarks[charMarkCount] = charIndex;
+        charMarkTimes[charMarkCount] = nanoTime;
+        charMarkCount++;
+    }
+
+    /**
+     * {@link System#nanoTime()} when the char was received, by its index among all chars returned by
+     * {@link #readChars}. Called by the emulator thread, with the chars in the order they are processed.
+     */
+    public long getReceiveTime(long charIndex) {
+        while (nextCharMark < charMarkCount && charMarks[nextCharMark] <= charIndex) {
+            receiveTime = charMarkTimes[nextCharMark++];
+        }
+        return receiveTime;
+    }
+}
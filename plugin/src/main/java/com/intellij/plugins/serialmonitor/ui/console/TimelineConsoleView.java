@@ -0,0 +1,216 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import com.intellij.plugins.serialmonitor.TimestampFormat;
+import com.intellij.plugins.serialmonitor.service.SerialPortService;
+import com.intellij.plugins.serialmonitor.timeline.TimelineMerger;
+import com.jediterm.core.util.TermSize;
+import com.jediterm.terminal.TtyConnector;
+import com.jediterm.terminal.emulator.JediEmulator;
+import consulo.application.Application;
+import consulo.application.concurrent.ApplicationConcurrency;
+import consulo.disposer.Disposable;
+import consulo.execution.ui.terminal.JediTerminalConsole;
+import consulo.execution.ui.terminal.TerminalConsoleFactory;
+import consulo.project.Project;
+import consulo.serialMonitor.localize.SerialMonitorLocalize;
+import consulo.ui.ex.awtUnsafe.TargetAWT;
+import jakarta.annotation.Nonnull;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lines received by all connected ports, merged in the order of their receive time. Each line is prefixed with
+ * its timestamp and port name, in a color of the port.
+ * <p>
+ * Memory is bounded: a port which sends faster than the merge runs loses chunks, and lines are dropped when the
+ * terminal does not keep up. Both are reported in the timeline.
+ */
+public class TimelineConsoleView implements Disposable {
+
+    private static final long MERGE_PERIOD_MS = 20;
+    private static final long MERGE_DELAY_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(Long.getLong("serial.monitor.timeline.delay.ms", 50));
+    private static final long LINE_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int MAX_LINE_LENGTH = 4096;
+    private static final long SOURCE_LIMIT = 4 * 1024 * 1024;
+    private static final int PENDING_CHARS_LIMIT = 1024 * 1024;
+    // ANSI foreground colors of the ports, in the order they appear
+    private static final int[] PORT_COLORS = {36, 33, 35, 32, 34, 31, 96, 93, 95, 92, 94, 91};
+    private static final String RESET = "\u001b[0m";
+
+    private final JediTerminalConsole widget;
+    private final TimelineTtyConnector connector = new TimelineTtyConnector();
+    private final TimelineMerger merger =
+        new TimelineMerger(MERGE_DELAY_NANOS, LINE_TIMEOUT_NANOS, MAX_LINE_LENGTH, SOURCE_LIMIT);
+    private final Map<String, Charset> charsets = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> mergeTask;
+
+    // Used by the merging thread only
+    private final TimelineMerger.Sink sink = new TimelineMerger.Sink() {
+        @Override
+        public void line(@Nonnull TimelineMerger.Source source, long nanoTime, byte[] data, int offset, int length,
+                         boolean complete) {
+            if (length > 0 && data[offset + length - 1] == '\r') {
+                length--;
+            }
+            Charset charset = charsets.getOrDefault(source.getName(), StandardCharsets.US_ASCII);
+            print(source, nanoTime, new String(data, offset, length, charset));
+        }
+
+        @Override
+        public void dropped(@Nonnull TimelineMerger.Source source, long nanoTime, long count) {
+            print(source, nanoTime, SerialMonitorLocalize.timelineBytesDropped(count).get());
+        }
+    };
+    private final TimestampFormatter formatter = new TimestampFormatter(TimestampFormat.MILLIS);
+    private final StringBuilder text = new StringBuilder();
+    private long droppedLines;
+
+    public TimelineConsoleView(@Nonnull Project project) {
+        widget = project.getInstance(TerminalConsoleFactory.class).createCustom(this, JediEmulator::new, connector);
+        SerialPortService.getInstance().addReceiveListener((connection, buffer, offset, length, nanoTime) -> {
+            String portName = connection.getPortName();
+            Charset charset = connection.getCharset();
+            if (charsets.get(portName) != charset) {
+                charsets.put(portName, charset);
+            }
+            TimelineMerger.Source source = merger.getSource(portName);
+            source.setNewLine(connection.getNewLine());
+            source.offer(buffer, offset, length, nanoTime);
+        }, this);
+        mergeTask = Application.get().getInstance(ApplicationConcurrency.class).getScheduledExecutorService()
+            .scheduleWithFixedDelay(() -> merger.merge(System.nanoTime(), sink), MERGE_PERIOD_MS, MERGE_PERIOD_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void print(@Nonnull TimelineMerger.Source source, long nanoTime, @Nonnull String line) {
+        text.setLength(0);
+        if (droppedLines > 0) {
+            text.append(SerialMonitorLocalize.timelineLinesDropped(droppedLines).get()).append("\r\n");
+        }
+        int color = PORT_COLORS[source.getIndex() % PORT_COLORS.length];
+        text.append("\u001b[").append(color).append('m')
+            .append(formatter.format(nanoTime)).append(source.getName()).append(RESET).append(' ')
+            // colors set by the device end with its line
+            .append(line).append(RESET).append("\r\n");
+        if (connector.offer(text)) {
+            droppedLines = 0;
+        }
+        else {
+            droppedLines++;
+        }
+    }
+
+    public @Nonnull JComponent getComponent() {
+        return (JComponent) TargetAWT.to(widget.getUIComponent());
+    }
+
+    public void clear() {
+        widget.getTerminalTextBuffer().clearScreenAndHistoryBuffers();
+        widget.getTerminal().clearScreen();
+        widget.getTerminal().cursorPosition(0, 1);
+    }
+
+    @Override
+    public void dispose() {
+        mergeTask.cancel(false);
+        connector.close();
+    }
+
+    /**
+     * Hands the formatted lines over to the emulator thread.
+     */
+    private static final class TimelineTtyConnector implements TtyConnector {
+
+        private final StringBuilder pending = new StringBuilder();
+        private int readOffset;
+        private boolean closed;
+
+        /**
+         * @return {@code false} if the text does not fit, because the emulator is behind
+         */
+        synchronized boolean offer(@Nonnull CharSequence text) {
+            if (closed || pending.length() - readOffset + text.length() > PENDING_CHARS_LIMIT) {
+                return false;
+            }
+            pending.append(text);
+            notifyAll();
+            return true;
+        }
+
+        @Override
+        public synchronized int read(char[] buf, int offset, int length) throws IOException {
+            while (readOffset == pending.length() && !closed) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            if (closed) {
+                return -1;
+            }
+            int count = Math.min(length, pending.length() - readOffset);
+            pending.getChars(readOffset, readOffset + count, buf, offset);
+            readOffset += count;
+            if (readOffset == pending.length()) {
+                pending.setLength(0);
+                readOffset = 0;
+            }
+            else if (readOffset >= PENDING_CHARS_LIMIT) {
+                pending.delete(0, readOffset);
+                readOffset = 0;
+            }
+            return count;
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            // the timeline is read-only
+        }
+
+        @Override
+        public void write(@Nonnull String string) {
+        }
+
+        @Override
+        public synchronized boolean isConnected() {
+            return !closed;
+        }
+
+        @Override
+        public void resize(TermSize termSize) {
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public synchronized boolean ready() {
+            return readOffset < pending.length();
+        }
+
+        @Override
+        public @Nonnull String getName() {
+            return "Timeline";
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+    }
+}
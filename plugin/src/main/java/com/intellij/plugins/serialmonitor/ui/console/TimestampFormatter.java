@@ -0,0 +1,116 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import com.intellij.plugins.serialmonitor.TimestampFormat;
+import jakarta.annotation.Nonnull;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Formats {@link System#nanoTime()} values as line timestamps.
+ * <p>
+ * The digits are kept in a char array and only the fields that changed are rewritten: the time of day once per
+ * second, the fraction per call. The string is created only when the printed value changes. Not thread-safe.
+ */
+public final class TimestampFormatter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long MAX_DELTA_SECONDS = 9999;
+
+    private final TimestampFormat format;
+    private final ZoneId zone = ZoneId.systemDefault();
+    // Converts nanoTime to wall clock nanos since the epoch
+    private final long wallClockOffset = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+    private final char[] chars;
+
+    private long cachedSecond = Long.MIN_VALUE;
+    private long cachedValue = Long.MIN_VALUE;
+    private String cachedText;
+    private long previousNanoTime;
+    private boolean hasPrevious;
+
+    public TimestampFormatter(@Nonnull TimestampFormat format) {
+        this.format = format;
+        chars = new char[format.getWidth()];
+        chars[0] = '[';
+        chars[chars.length - 2] = ']';
+        chars[chars.length - 1] = ' ';
+        if (format == TimestampFormat.DELTA) {
+            chars[1] = '+';
+            chars[6] = '.';
+        }
+        else {
+            chars[3] = ':';
+            chars[6] = ':';
+            chars[9] = '.';
+        }
+    }
+
+    public @Nonnull TimestampFormat getFormat() {
+        return format;
+    }
+
+    public @Nonnull String format(long nanoTime) {
+        return format == TimestampFormat.DELTA ? formatDelta(nanoTime) : formatTimeOfDay(nanoTime);
+    }
+
+    private @Nonnull String formatTimeOfDay(long nanoTime) {
+        long wallNanos = wallClockOffset + nanoTime;
+        long second = Math.floorDiv(wallNanos, NANOS_PER_SECOND);
+        long fraction = Math.floorMod(wallNanos, NANOS_PER_SECOND);
+        boolean micros = format == TimestampFormat.MICROS;
+        long fractionValue = micros ? fraction / 1_000 : fraction / 1_000_000;
+        long value = second * 1_000_000 + fractionValue;
+        if (value == cachedValue) {
+            return cachedText;
+        }
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            int offset = zone.getRules().getOffset(Instant.ofEpochSecond(second)).getTotalSeconds();
+            int secondOfDay = (int) Math.floorMod(second + offset, 86_400L);
+            writeDigits(secondOfDay / 3600, 1, 2);
+            writeDigits(secondOfDay / 60 % 60, 4, 2);
+            writeDigits(secondOfDay % 60, 7, 2);
+        }
+        writeDigits(fractionValue, 10, micros ? 6 : 3);
+        return cache(value);
+    }
+
+    private @Nonnull String formatDelta(long nanoTime) {
+        long delta = hasPrevious ? Math.max(0, nanoTime - previousNanoTime) : 0;
+        previousNanoTime = nanoTime;
+        hasPrevious = true;
+        long micros = Math.min(delta / 1_000, MAX_DELTA_SECONDS * 1_000_000 + 999_999);
+        if (micros == cachedValue) {
+            return cachedText;
+        }
+        long seconds = micros / 1_000_000;
+        // right-aligned seconds
+        for (int i = 5; i >= 2; i--) {
+            chars[i] = seconds > 0 || i == 5 ? (char) ('0' + seconds % 10) : ' ';
+            seconds /= 10;
+        }
+        writeDigits(micros % 1_000_000, 7, 6);
+        return cache(micros);
+    }
+
+    /**
+     * Forgets the previous line time of {@link TimestampFormat#DELTA}.
+     */
+    public void reset() {
+        hasPrevious = false;
+    }
+
+    private void writeDigits(long value, int position, int count) {
+        for (int i = position + count - 1; i >= position; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private @Nonnull String cache(long value) {
+        cachedValue = value;
+        cachedText = new String(chars);
+        return cachedText;
+    }
+}
@@ -0,0 +1,113 @@
+package com.intellij.plugins.serialmonitor.capture;
+
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaptureJournalTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsTheRecordsBack() throws IOException {
+        Path path;
+        try (CaptureJournal journal = CaptureJournal.create(directory, "COM1", DIRECT)) {
+            append(journal, CaptureDirection.RX, 10, "hello");
+            append(journal, CaptureDirection.TX, 20, "world");
+            path = journal.getPath();
+        }
+        List<CaptureRecord> records = read(path);
+        assertEquals(2, records.size());
+        assertEquals(CaptureDirection.RX, records.get(0).getDirection());
+        assertEquals(10, records.get(0).getNanoTime());
+        assertEquals(CaptureDirection.TX, records.get(1).getDirection());
+        assertArrayEquals("world".getBytes(StandardCharsets.US_ASCII), records.get(1).getData());
+    }
+
+    @Test
+    void goesOnInANewFileAtTheJournalSize() throws IOException {
+        List<Runnable> prunes = new ArrayList<>();
+        byte[] data = new byte[1000];
+        List<Path> paths = new ArrayList<>();
+        try (CaptureJournal journal = CaptureJournal.create(directory, "COM1", prunes::add, 10_000)) {
+            for (int i = 0; i < 25; i++) {
+                journal.append(CaptureDirection.RX, i, data, 0, data.length);
+                if (!paths.contains(journal.getPath())) {
+                    paths.add(journal.getPath());
+                }
+                assertTrue(journal.size() <= 10_000);
+            }
+        }
+        assertEquals(3, paths.size());
+        // queued rather than run by append, and queued once until it runs
+        assertEquals(1, prunes.size());
+        int records = 0;
+        for (Path path : paths) {
+            records += read(path).size();
+        }
+        assertEquals(25, records);
+    }
+
+    @Test
+    void failsOnARecordLongerThanTheFile() throws IOException {
+        Path path = journal("hello");
+        // the length of the first record
+        overwrite(path, CaptureJournal.HEADER_SIZE, ByteBuffer.allocate(Integer.BYTES).putInt(Integer.MAX_VALUE));
+        try (CaptureJournalReader reader = new CaptureJournalReader(path)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void failsOnAnUnknownDirection() throws IOException {
+        Path path = journal("hello");
+        overwrite(path, CaptureJournal.HEADER_SIZE + Integer.BYTES, ByteBuffer.allocate(1).put((byte) 42));
+        try (CaptureJournalReader reader = new CaptureJournalReader(path)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    private @Nonnull Path journal(@Nonnull String text) throws IOException {
+        try (CaptureJournal journal = CaptureJournal.create(directory, "COM1", DIRECT)) {
+            append(journal, CaptureDirection.RX, 0, text);
+            return journal.getPath();
+        }
+    }
+
+    private static void append(@Nonnull CaptureJournal journal, @Nonnull CaptureDirection direction, long nanoTime,
+                               @Nonnull String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        journal.append(direction, nanoTime, bytes, 0, bytes.length);
+    }
+
+    private static void overwrite(@Nonnull Path path, long position, @Nonnull ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(bytes.flip(), position);
+        }
+    }
+
+    private static @Nonnull List<CaptureRecord> read(@Nonnull Path path) throws IOException {
+        List<CaptureRecord> records = new ArrayList<>();
+        try (CaptureJournalReader reader = new CaptureJournalReader(path)) {
+            for (CaptureRecord record = reader.next(); record != null; record = reader.next()) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,90 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.intellij.plugins.serialmonitor.framing.Frames.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CobsFrameDecoderTest {
+
+    @Test
+    void decodesTheReferenceExamples() {
+        assertDecodes(CobsFrameDecoder::new, hex("01 01 00"), List.of(hex("00")), 0);
+        assertDecodes(CobsFrameDecoder::new, hex("01 01 01 00"), List.of(hex("00 00")), 0);
+        assertDecodes(CobsFrameDecoder::new, hex("03 11 22 02 33 00"), List.of(hex("11 22 00 33")), 0);
+        assertDecodes(CobsFrameDecoder::new, hex("05 11 22 33 44 00"), List.of(hex("11 22 33 44")), 0);
+        assertDecodes(CobsFrameDecoder::new, hex("02 11 01 01 01 00"), List.of(hex("11 00 00 00")), 0);
+    }
+
+    @Test
+    void decodesFullBlocks() {
+        StringBuilder frame = new StringBuilder();
+        for (char c = 1; c <= 0xFF; c++) {
+            frame.append(c);
+        }
+        String block = frame.substring(0, 254);
+        assertDecodes(CobsFrameDecoder::new, hex("FF") + block + hex("00"), List.of(block), 0);
+        assertDecodes(CobsFrameDecoder::new, hex("FF") + block + hex("02 FF 00"), List.of(frame.toString()), 0);
+    }
+
+    @Test
+    void passesOnFramesCutShort() {
+        // the block announces three bytes, a zero comes after one; no frames between zeros
+        assertDecodes(CobsFrameDecoder::new, hex("00 00 04 11 00 02 22"), List.of(hex("11")), 2);
+    }
+
+    @Test
+    void decodesWhatItEncodes() {
+        Random random = new Random(42);
+        for (int round = 0; round < 100; round++) {
+            List<String> frames = new ArrayList<>();
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            for (int i = random.nextInt(5) + 1; i > 0; i--) {
+                byte[] frame = new byte[random.nextInt(600) + 1];
+                for (int j = 0; j < frame.length; j++) {
+                    // zeros are common in binary frames
+                    frame[j] = random.nextInt(4) == 0 ? 0 : (byte) (random.nextInt(255) + 1);
+                }
+                frames.add(new String(frame, StandardCharsets.ISO_8859_1));
+                data.writeBytes(encode(frame));
+            }
+            byte[] bytes = data.toByteArray();
+            int first = random.nextInt(bytes.length + 1);
+            int second = first + random.nextInt(bytes.length - first + 1);
+            assertEquals(frames, decode(new CobsFrameDecoder(), bytes, first, second), "round " + round);
+        }
+    }
+
+    private static byte[] encode(byte[] frame) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int blockStart = 0;
+        int i = 0;
+        while (true) {
+            if (i - blockStart == 254 && i < frame.length) {
+                // a full block, without an implied zero
+                out.write(0xFF);
+                out.write(frame, blockStart, 254);
+                blockStart = i;
+            }
+            else if (i == frame.length || frame[i] == 0) {
+                out.write(i - blockStart + 1);
+                out.write(frame, blockStart, i - blockStart);
+                if (i == frame.length) {
+                    break;
+                }
+                blockStart = ++i;
+            }
+            else {
+                i++;
+            }
+        }
+        out.write(0);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,52 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.intellij.plugins.serialmonitor.framing.Frames.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DelimiterFrameDecoderTest {
+
+    @Test
+    void splitsAtASingleByte() {
+        assertDecodes(() -> new DelimiterFrameDecoder(bytes(";")), "a;;bc;d", List.of("a", "", "bc"), 1);
+    }
+
+    @Test
+    void splitsAtAMultiByteDelimiter() {
+        // a CR which does not start the delimiter stays in the frame
+        assertDecodes(() -> new DelimiterFrameDecoder(bytes("\r\n")), "a\r\nb\r\r\nc\n\r\n\r\nd\r",
+                      List.of("a", "b\r", "c\n", ""), 2);
+    }
+
+    @Test
+    void passesOnLongFramesInParts() {
+        int length = FrameDecoder.MAX_FRAME_LENGTH + 100;
+        byte[] data = bytes("z".repeat(length) + "\r\ne\r\n");
+        DelimiterFrameDecoder decoder = new DelimiterFrameDecoder(bytes("\r\n"));
+        assertEquals(List.of("z".repeat(FrameDecoder.MAX_FRAME_LENGTH), "z".repeat(100), "e"), decode(decoder, data, 1000));
+    }
+
+    @Test
+    void splitsLinesAsTheProfileEndsThem() {
+        assertDecodes(() -> FrameDecoders.lines(SerialProfileService.NewLine.CR), "a\rb\r\nc", List.of("a", "b"), 2);
+        assertDecodes(() -> FrameDecoders.lines(SerialProfileService.NewLine.CRLF), "a\r\nb\nc", List.of("a\r", "b"), 1);
+    }
+
+    @Test
+    void rejectsAnEmptyDelimiter() {
+        assertThrows(IllegalArgumentException.class, () -> new DelimiterFrameDecoder(new byte[0]));
+    }
+
+    @Test
+    void resetForgetsAPartialDelimiter() {
+        DelimiterFrameDecoder decoder = new DelimiterFrameDecoder(bytes("\r\n"));
+        decode(decoder, bytes("lost\r"));
+        decoder.reset();
+        assertEquals(List.of("\nok"), decode(decoder, bytes("\nok\r\n")));
+    }
+}
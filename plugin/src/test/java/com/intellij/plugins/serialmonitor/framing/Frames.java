@@ -0,0 +1,64 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import jakarta.annotation.Nonnull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs decoders over test data, with frames and data as ISO-8859-1 strings so that each char stands for one byte.
+ */
+final class Frames {
+
+    private Frames() {
+    }
+
+    /**
+     * @return the bytes written as two hex digits each, separated by spaces
+     */
+    static @Nonnull String hex(@Nonnull String bytes) {
+        StringBuilder data = new StringBuilder();
+        for (String b : bytes.split(" ")) {
+            data.append((char) Integer.parseInt(b, 16));
+        }
+        return data.toString();
+    }
+
+    static byte[] bytes(@Nonnull String data) {
+        return data.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    static @Nonnull List<String> decode(@Nonnull FrameDecoder decoder, byte[] data, int... splits) {
+        List<String> frames = new ArrayList<>();
+        FrameDecoder.Sink sink = (buffer, offset, length, nanoTime) ->
+            frames.add(new String(buffer, offset, length, StandardCharsets.ISO_8859_1));
+        int start = 0;
+        for (int split : splits) {
+            decoder.decode(data, start, split - start, 0, sink);
+            start = split;
+        }
+        decoder.decode(data, start, data.length - start, 0, sink);
+        return frames;
+    }
+
+    /**
+     * Decodes the data in one chunk and split into three chunks at every pair of offsets, with the same frames and
+     * partial length expected each time.
+     */
+    static void assertDecodes(@Nonnull Supplier<FrameDecoder> decoders, @Nonnull String data, @Nonnull List<String> frames,
+                              long partialLength) {
+        byte[] bytes = bytes(data);
+        for (int first = 0; first <= bytes.length; first++) {
+            for (int second = first; second <= bytes.length; second++) {
+                FrameDecoder decoder = decoders.get();
+                String chunks = "chunks at " + first + " and " + second;
+                assertEquals(frames, decode(decoder, bytes, first, second), chunks);
+                assertEquals(partialLength, decoder.getPartialLength(), chunks);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.intellij.plugins.serialmonitor.framing.Frames.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LengthPrefixedFrameDecoderTest {
+
+    @Test
+    void decodesOneByteLengths() {
+        assertDecodes(() -> new LengthPrefixedFrameDecoder(1, true), hex("03") + "abc" + hex("00 02") + "xy" + hex("05") + "ta",
+                      List.of("abc", "", "xy"), 3);
+    }
+
+    @Test
+    void decodesBothByteOrders() {
+        String frame = "x".repeat(0x102);
+        assertDecodes(() -> new LengthPrefixedFrameDecoder(2, true), hex("01 02") + frame + hex("00 01") + "y",
+                      List.of(frame, "y"), 0);
+        assertDecodes(() -> new LengthPrefixedFrameDecoder(2, false), hex("02 01") + frame + hex("01"),
+                      List.of(frame), 1);
+    }
+
+    @Test
+    void passesOnLongFramesInParts() {
+        int length = FrameDecoder.MAX_FRAME_LENGTH + 100;
+        byte[] data = bytes(hex("01 00 64") + "z".repeat(length) + hex("00 00 01") + "e");
+        LengthPrefixedFrameDecoder decoder = new LengthPrefixedFrameDecoder(3, true);
+        assertEquals(List.of("z".repeat(FrameDecoder.MAX_FRAME_LENGTH), "z".repeat(100), "e"), decode(decoder, data, 1000));
+    }
+
+    @Test
+    void rejectsUnsupportedLengthSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new LengthPrefixedFrameDecoder(0, true));
+        assertThrows(IllegalArgumentException.class, () -> new LengthPrefixedFrameDecoder(4, true));
+    }
+
+    @Test
+    void resetWaitsForTheNextLength() {
+        LengthPrefixedFrameDecoder decoder = new LengthPrefixedFrameDecoder(1, true);
+        decode(decoder, bytes(hex("05") + "ab"));
+        decoder.reset();
+        assertEquals(List.of("cd"), decode(decoder, bytes(hex("02") + "cd")));
+    }
+}
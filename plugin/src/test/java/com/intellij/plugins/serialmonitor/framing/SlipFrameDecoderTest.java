@@ -0,0 +1,36 @@
+package com.intellij.plugins.serialmonitor.framing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.intellij.plugins.serialmonitor.framing.Frames.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlipFrameDecoderTest {
+
+    private static final String END = "\u00C0";
+    private static final String ESC = "\u00DB";
+    private static final String ESC_END = "\u00DC";
+    private static final String ESC_ESC = "\u00DD";
+
+    @Test
+    void decodesFramesAcrossChunks() {
+        String data = END + "hello" + END + END + "a" + ESC + ESC_END + "b" + ESC + ESC_ESC + "c" + END + "tail";
+        assertDecodes(SlipFrameDecoder::new, data, List.of("hello", "a" + END + "b" + ESC + "c"), 4);
+    }
+
+    @Test
+    void takesOtherEscapedBytesAsThemselves() {
+        assertDecodes(SlipFrameDecoder::new, "x" + ESC + "qy" + END, List.of("xqy"), 0);
+    }
+
+    @Test
+    void resetForgetsThePartialFrame() {
+        SlipFrameDecoder decoder = new SlipFrameDecoder();
+        decode(decoder, bytes("lost" + ESC));
+        decoder.reset();
+        assertEquals(0, decoder.getPartialLength());
+        assertEquals(List.of(ESC_END + "ok"), decode(decoder, bytes(ESC_END + "ok" + END)));
+    }
+}
@@ -0,0 +1,146 @@
+package com.intellij.plugins.serialmonitor.plot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LttbTest {
+
+    private static final int RING_SIZE = 1024;
+    private static final int MASK = RING_SIZE - 1;
+
+    @Test
+    void keepsAllPointsUnderTheThreshold() {
+        float[] ring = new float[RING_SIZE];
+        ring[10] = 1;
+        ring[11] = Float.NaN;
+        ring[12] = 3;
+        double[] x = new double[8];
+        double[] y = new double[8];
+        assertEquals(2, Lttb.downsample(ring, MASK, 10, 13, 8, x, y));
+        assertArrayEquals(new double[]{10, 12}, Arrays.copyOf(x, 2));
+        assertArrayEquals(new double[]{1, 3}, Arrays.copyOf(y, 2));
+    }
+
+    @Test
+    void keepsSpikes() {
+        float[] ring = new float[RING_SIZE];
+        ring[300] = 100;
+        ring[700] = -100;
+        double[] x = new double[20];
+        double[] y = new double[20];
+        int count = Lttb.downsample(ring, MASK, 0, 1000, 20, x, y);
+        assertEquals(20, count);
+        assertEquals(0, x[0]);
+        assertEquals(999, x[count - 1]);
+        assertTrue(contains(x, count, 300) && contains(x, count, 700), Arrays.toString(x));
+    }
+
+    @Test
+    void matchesTheReferenceAlgorithmAcrossTheRingEnd() {
+        Random random = new Random(42);
+        float[] ring = new float[RING_SIZE];
+        for (int i = 0; i < RING_SIZE; i++) {
+            ring[i] = (float) random.nextGaussian();
+        }
+        for (int round = 0; round < 50; round++) {
+            long from = 5000 + random.nextInt(RING_SIZE);
+            int n = 10 + random.nextInt(RING_SIZE - 10);
+            int threshold = 3 + random.nextInt(n - 3);
+            double[] x = new double[threshold];
+            double[] y = new double[threshold];
+            int count = Lttb.downsample(ring, MASK, from, from + n, threshold, x, y);
+
+            float[] data = new float[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = ring[(int) (from + i) & MASK];
+            }
+            int[] expected = reference(data, threshold);
+            assertEquals(expected.length, count, "round " + round);
+            for (int i = 0; i < count; i++) {
+                assertEquals(from + expected[i], x[i], "round " + round);
+                assertEquals(data[expected[i]], y[i], "round " + round);
+            }
+        }
+    }
+
+    @Test
+    void skipsGaps() {
+        float[] ring = new float[RING_SIZE];
+        Arrays.fill(ring, Float.NaN);
+        double[] x = new double[10];
+        double[] y = new double[10];
+        assertEquals(0, Lttb.downsample(ring, MASK, 0, 500, 10, x, y));
+
+        Random random = new Random(42);
+        for (int i = 100; i < 400; i++) {
+            ring[i] = random.nextInt(3) == 0 ? Float.NaN : random.nextFloat();
+        }
+        ring[100] = 1;
+        ring[399] = 2;
+        int count = Lttb.downsample(ring, MASK, 0, 500, 10, x, y);
+        assertEquals(10, count);
+        assertEquals(100, x[0]);
+        assertEquals(399, x[count - 1]);
+        for (int i = 0; i < count; i++) {
+            assertFalse(Double.isNaN(y[i]));
+            assertTrue(i == 0 || x[i] > x[i - 1]);
+        }
+    }
+
+    private static boolean contains(double[] values, int count, double value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indices of the points the published algorithm keeps, for data without gaps.
+     */
+    private static int[] reference(float[] data, int threshold) {
+        int n = data.length;
+        if (n <= threshold) {
+            int[] all = new int[n];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        int[] sampled = new int[threshold];
+        int count = 0;
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        sampled[count++] = a;
+        for (int i = 0; i < threshold - 2; i++) {
+            int avgStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += j;
+                avgY += data[j];
+            }
+            avgX /= avgEnd - avgStart;
+            avgY /= avgEnd - avgStart;
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double maxArea = -1;
+            int next = -1;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((a - avgX) * (data[j] - data[a]) - (a - j) * (avgY - data[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled[count++] = next;
+            a = next;
+        }
+        sampled[count] = n - 1;
+        return sampled;
+    }
+}
@@ -0,0 +1,98 @@
+package com.intellij.plugins.serialmonitor.plot;
+
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumericLineParserTest {
+
+    private final NumericLineParser parser = new NumericLineParser(4);
+    private final double[] values = new double[4];
+
+    @Test
+    void parsesUnnamedValues() {
+        assertValues("1,2.5 -3;\t+4e2", 1, 2.5, -3, 400);
+        assertFalse(parser.isNamed(0));
+    }
+
+    @Test
+    void parsesNamedValuesInEveryStyle() {
+        for (String line : new String[]{"temp:21.5,hum:40", "temp: 21.5 hum: 40", "temp=21.5 hum=40\r\n"}) {
+            assertValues(line, 21.5, 40);
+            assertTrue(parser.isNamed(0) && parser.isNamed(1), line);
+            assertEquals("temp", parser.getName(0));
+            assertEquals("hum", parser.getName(1));
+        }
+    }
+
+    @Test
+    void keepsNamesOfLaterUnnamedLines() {
+        assertValues("temp:1", 1);
+        String name = parser.getName(0);
+        assertValues("2", 2);
+        assertFalse(parser.isNamed(0));
+        assertSame(name, parser.getName(0));
+        assertValues("temp:3", 3);
+        assertSame(name, parser.getName(0));
+        assertValues("rpm:4", 4);
+        assertEquals("rpm", parser.getName(0));
+    }
+
+    @Test
+    void takesOtherTokensAsGaps() {
+        assertValues("1,abc,3", 1, Double.NaN, 3);
+        assertEquals(0, parse("no numbers here"));
+        assertEquals(0, parse(""));
+    }
+
+    @Test
+    void ignoresColumnsOverTheLimit() {
+        assertValues("1 2 3 4 5 6", 1, 2, 3, 4);
+    }
+
+    @Test
+    void parsesNumbers() {
+        assertEquals(100000, number("1e5"));
+        assertEquals(0.0015, number("1.5E-3"));
+        assertEquals(7, number("+7"));
+        assertEquals(0.5, number(".5"));
+        assertEquals(5, number("5."));
+        assertEquals(1e-300, number("1e-300"));
+        assertEquals(12345678901234567890.0, number("12345678901234567890"), 1e4);
+        for (String text : new String[]{"", "-", ".", "e5", "1e", "1e+", "--1", "1.2.3", "1x", "0x10"}) {
+            assertTrue(Double.isNaN(number(text)), text);
+        }
+    }
+
+    @Test
+    void parsesNumbersCloseToTheJdk() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+            String text = random.nextBoolean() ? String.format(Locale.ROOT, "%.6f", value) : Double.toString(value);
+            double expected = Double.parseDouble(text);
+            assertEquals(expected, number(text), Math.abs(expected) * 1e-15, text);
+        }
+    }
+
+    private void assertValues(@Nonnull String line, double... expected) {
+        assertEquals(expected.length, parse(line), line);
+        assertArrayEquals(expected, Arrays.copyOf(values, expected.length), line);
+    }
+
+    private int parse(@Nonnull String line) {
+        byte[] bytes = ("#" + line).getBytes(StandardCharsets.US_ASCII);
+        return parser.parse(bytes, 1, bytes.length - 1, values);
+    }
+
+    private static double number(@Nonnull String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return NumericLineParser.parseNumber(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,223 @@
+package com.intellij.plugins.serialmonitor.search;
+
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionIndexTest {
+
+    // "row 0001234\n"
+    private static final int ROW_LENGTH = 12;
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    void findsLinesInIndexedBlocksAndTheTail() throws IOException {
+        try (SessionIndex index = new SessionIndex(DIRECT, 1)) {
+            appendRows(index, 0, 100_000);
+            assertEquals(100_000L * ROW_LENGTH, index.size());
+            assertRow(index, 54_321, 54_321);
+            // the line of the last bytes of the first block
+            assertRow(index, SessionIndex.BLOCK_SIZE / ROW_LENGTH, SessionIndex.BLOCK_SIZE / ROW_LENGTH);
+            // not indexed yet
+            assertRow(index, 99_999, 99_999);
+            assertEquals(List.of(), search(index, "row 0100000", false, 10).getHits());
+        }
+    }
+
+    @Test
+    void searchesExpressionsAndIgnoresCase() throws IOException {
+        try (SessionIndex index = new SessionIndex(DIRECT, 1)) {
+            appendRows(index, 0, 100_000);
+            assertEquals(List.of(10_000L, 20_000L), lineNumbers(search(index, "row 00[12]0000$", true, 10)));
+            assertEquals(List.of(7L), lineNumbers(index.search(new SearchQuery("ROW 0000007", false, false),
+                                                               StandardCharsets.US_ASCII, 10, () -> false)));
+            assertEquals(List.of(), lineNumbers(search(index, "ROW 0000007", false, 10)));
+            // nothing to look up in the index
+            assertEquals(List.of(99_999L), lineNumbers(search(index, "9{5}$", true, 10)));
+        }
+    }
+
+    @Test
+    void stopsAtTheMaximumHits() throws IOException {
+        try (SessionIndex index = new SessionIndex(DIRECT, 1)) {
+            appendRows(index, 0, 100_000);
+            SearchResult result = search(index, "row", false, 5);
+            assertEquals(List.of(0L, 1L, 2L, 3L, 4L), lineNumbers(result));
+            assertFalse(result.isComplete());
+            assertTrue(search(index, "row 0000001", false, 5).isComplete());
+        }
+    }
+
+    @Test
+    void splitsLongLines() throws IOException {
+        try (SessionIndex index = new SessionIndex(DIRECT, 1)) {
+            byte[] line = new byte[SessionIndex.MAX_LINE_LENGTH * 2 + 10];
+            Arrays.fill(line, (byte) 'x');
+            line[line.length - 1] = '\n';
+            index.append(line, 0, line.length);
+            byte[] next = "next\r\n".getBytes(StandardCharsets.US_ASCII);
+            index.append(next, 0, next.length);
+            SearchHit hit = search(index, "next", false, 10).getHits().get(0);
+            assertEquals(3, hit.getLineNumber());
+            assertEquals(line.length, hit.getPosition());
+            assertEquals("next", hit.getLine());
+        }
+    }
+
+    @Test
+    void dropsTheOldestSegmentsAndReusesTheFile() throws IOException {
+        long segmentSize = (long) SessionIndex.SEGMENT_BLOCKS * SessionIndex.BLOCK_SIZE;
+        try (SessionIndex index = new SessionIndex(DIRECT, segmentSize)) {
+            // the file holds three segments, the fifth one goes over the first
+            int rows = (int) (segmentSize * 4 / ROW_LENGTH + 1000);
+            appendRows(index, 0, rows);
+            long start = index.getStartPosition();
+            assertEquals(3 * segmentSize, start);
+            assertEquals(List.of(), search(index, "row 0000100", false, 10).getHits());
+            assertEquals(List.of(), search(index, row((int) (start / ROW_LENGTH) - 1000), false, 10).getHits());
+            assertRow(index, (int) (start / ROW_LENGTH) + 1000, (int) (start / ROW_LENGTH) + 1000);
+            assertRow(index, rows - 1, rows - 1);
+
+            // a full scan starts at the line holding the first retained byte
+            SearchResult all = search(index, "^row", true, 1);
+            int firstRow = (int) (start / ROW_LENGTH);
+            assertEquals((long) firstRow * ROW_LENGTH, all.getHits().get(0).getPosition());
+            assertEquals(firstRow, all.getHits().get(0).getLineNumber());
+            assertEquals(index.size() - start, all.getSearchedBytes());
+        }
+    }
+
+    @Test
+    void dropsBlocksWhenTheIndexingFallsBehind() throws IOException {
+        List<Runnable> tasks = new ArrayList<>();
+        try (SessionIndex index = new SessionIndex(tasks::add, 1)) {
+            // 66 blocks and a bit, the indexing does not run meanwhile
+            int rows = 66 * SessionIndex.BLOCK_SIZE / ROW_LENGTH + 1000;
+            appendRows(index, 0, rows);
+            assertEquals(2L * SessionIndex.BLOCK_SIZE, index.getDroppedBytes());
+            assertEquals(1, tasks.size());
+            tasks.get(0).run();
+
+            assertRow(index, 1000, 1000);
+            assertEquals(List.of(), search(index, row(65 * SessionIndex.BLOCK_SIZE / ROW_LENGTH), false, 10).getHits());
+            // the line cut by the dropped blocks counts once, and each dropped block as one line
+            int linesBefore = (64 * SessionIndex.BLOCK_SIZE - 1) / ROW_LENGTH + 1;
+            int firstAfter = 66 * SessionIndex.BLOCK_SIZE / ROW_LENGTH;
+            assertRow(index, firstAfter + 10, linesBefore + 2 + 10);
+            assertRow(index, rows - 1, linesBefore + 2 + rows - 1 - firstAfter);
+        }
+    }
+
+    @Test
+    void findsLinesInBinaryBlocksWhichAreNotIndexed() throws IOException {
+        try (SessionIndex index = new SessionIndex(DIRECT, Long.MAX_VALUE)) {
+            appendRandom(index, 4 * SessionIndex.BLOCK_SIZE, 1);
+            byte[] marker = "\nassertion failed\n".getBytes(StandardCharsets.US_ASCII);
+            index.append(marker, 0, marker.length);
+            appendRandom(index, 4 * SessionIndex.BLOCK_SIZE, 2);
+            SearchHit hit = search(index, "assertion failed", false, 10).getHits().get(0);
+            assertEquals(4L * SessionIndex.BLOCK_SIZE + 1, hit.getPosition());
+            assertEquals("assertion failed", hit.getLine());
+        }
+    }
+
+    @Test
+    void keepsTheIndexOfBinaryDataSmall() throws IOException {
+        long before = usedHeap();
+        try (SessionIndex index = new SessionIndex(DIRECT, Long.MAX_VALUE)) {
+            appendRandom(index, 16 * 1024 * 1024, 3);
+            long retained = usedHeap() - before;
+            // the postings of every trigram took about 40 times the data
+            assertTrue(retained < 16 * 1024 * 1024, "retained " + retained + " bytes");
+            assertEquals(16L * 1024 * 1024, index.size());
+        }
+    }
+
+    @Test
+    void scansTheBlocksBeyondTheIndexLimit() throws IOException {
+        try (SessionIndex index = new SessionIndex(DIRECT, Long.MAX_VALUE, 64 * 1024)) {
+            appendRows(index, 0, 300_000);
+            assertRow(index, 10, 10);
+            assertRow(index, 200_000, 200_000);
+            assertEquals(List.of(), search(index, "row 0300000", false, 10).getHits());
+        }
+    }
+
+    private static void assertRow(@Nonnull SessionIndex index, int row, long lineNumber) throws IOException {
+        List<SearchHit> hits = search(index, row(row), false, 10).getHits();
+        assertEquals(1, hits.size(), row(row));
+        SearchHit hit = hits.get(0);
+        assertEquals((long) row * ROW_LENGTH, hit.getPosition());
+        assertEquals(ROW_LENGTH - 1, hit.getLength());
+        assertEquals(lineNumber, hit.getLineNumber());
+        assertEquals(row(row), hit.getLine());
+    }
+
+    private static @Nonnull SearchResult search(@Nonnull SessionIndex index, @Nonnull String text, boolean regex,
+                                                int maxHits) throws IOException {
+        return index.search(new SearchQuery(text, regex, true), StandardCharsets.US_ASCII, maxHits, () -> false);
+    }
+
+    private static @Nonnull List<Long> lineNumbers(@Nonnull SearchResult result) {
+        List<Long> numbers = new ArrayList<>();
+        for (SearchHit hit : result.getHits()) {
+            numbers.add(hit.getLineNumber());
+        }
+        return numbers;
+    }
+
+    private static void appendRandom(@Nonnull SessionIndex index, int length, long seed) {
+        Random random = new Random(seed);
+        byte[] chunk = new byte[64 * 1024];
+        for (int appended = 0; appended < length; appended += chunk.length) {
+            random.nextBytes(chunk);
+            index.append(chunk, 0, Math.min(chunk.length, length - appended));
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static @Nonnull String row(int row) {
+        return String.format(Locale.ROOT, "row %07d", row);
+    }
+
+    /**
+     * Appends the rows in chunks which do not end at row ends.
+     */
+    private static void appendRows(@Nonnull SessionIndex index, int from, int count) {
+        byte[] chunk = new byte[ROW_LENGTH * 5000 + 7];
+        int length = 0;
+        for (int row = from; row < from + count; row++) {
+            if (length + ROW_LENGTH > chunk.length) {
+                index.append(chunk, 0, length);
+                length = 0;
+            }
+            chunk[length] = 'r';
+            chunk[length + 1] = 'o';
+            chunk[length + 2] = 'w';
+            chunk[length + 3] = ' ';
+            for (int i = 10, value = row; i >= 4; i--, value /= 10) {
+                chunk[length + i] = (byte) ('0' + value % 10);
+            }
+            chunk[length + 11] = '\n';
+            length += ROW_LENGTH;
+        }
+        index.append(chunk, 0, length);
+    }
+}
@@ -0,0 +1,53 @@
+package com.intellij.plugins.serialmonitor.service;
+
+import com.intellij.plugins.serialmonitor.simulator.DataGenerator;
+import com.intellij.plugins.serialmonitor.simulator.SimulatedSerialPortProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedHotplugTest {
+
+    private final SimulatedSerialPortProvider provider = new SimulatedSerialPortProvider();
+    private final List<SerialPortsEvent> events = new ArrayList<>();
+    private Set<String> ports = Set.of();
+
+    @Test
+    void reportsPortsPluggedInAndOut() {
+        PortHotplugWatcher watcher = provider.createHotplugWatcher();
+        assertTrue(watcher.start(this::rescan));
+        try {
+            provider.addDevice("noise", DataGenerator.random(1));
+            provider.addNullModemPair("sim0", "sim1");
+            provider.removePort("noise");
+        }
+        finally {
+            watcher.stop();
+        }
+        provider.addDevice("unwatched", DataGenerator.random(2));
+
+        assertEquals(3, events.size());
+        assertEquals(Set.of("noise"), events.get(0).getAddedPorts());
+        assertEquals(Set.of("sim0", "sim1"), events.get(1).getAddedPorts());
+        assertEquals(Set.of(), events.get(1).getRemovedPorts());
+        assertEquals(Set.of("noise"), events.get(2).getRemovedPorts());
+        assertFalse(events.get(2).affects("sim0"));
+    }
+
+    // what SerialPortService does on a hotplug notification, without the message bus
+    private boolean rescan() {
+        Set<String> scanned = new LinkedHashSet<>(provider.scanAvailablePorts());
+        SerialPortsEvent event = SerialPortsEvent.scanned(ports, scanned, List.of());
+        ports = scanned;
+        if (!event.isPortListChanged()) {
+            return false;
+        }
+        events.add(event);
+        return true;
+    }
+}
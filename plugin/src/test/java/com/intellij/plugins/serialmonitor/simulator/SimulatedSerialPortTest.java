@@ -0,0 +1,116 @@
+package com.intellij.plugins.serialmonitor.simulator;
+
+import com.intellij.plugins.serialmonitor.SerialPortProfile;
+import com.intellij.plugins.serialmonitor.service.SerialPort;
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedSerialPortTest {
+
+    private static final int BAUD = 115200;
+    // 8N1, ten bits on the line per byte
+    private static final int BYTES_PER_SECOND = BAUD / 10;
+
+    @Test
+    void deliversNullModemWritesAtTheLineSpeed() throws Exception {
+        SimulatedSerialPortProvider provider = new SimulatedSerialPortProvider();
+        provider.addNullModemPair("sim0", "sim1");
+        SerialPort sender = provider.createPort("sim0");
+        SerialPort receiver = provider.createPort("sim1");
+        Receiver received = new Receiver();
+        sender.connect(profile("sim0"), new SerialPort.SerialPortListener() {
+        }, true, true, SerialPort.ReceiveMode.READER_THREAD);
+        receiver.connect(profile("sim1"), received, true, true, SerialPort.ReceiveMode.READER_THREAD);
+        try {
+            // half a second of line time
+            byte[] data = new byte[BYTES_PER_SECOND / 2];
+            new Random(42).nextBytes(data);
+            long start = System.nanoTime();
+            assertEquals(data.length, sender.write(data));
+            long elapsed = received.await(data.length, TimeUnit.SECONDS.toNanos(5)) - start;
+
+            assertArrayEquals(data, received.bytes());
+            assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(450), "too fast: " + elapsed + " ns");
+            assertTrue(elapsed <= TimeUnit.MILLISECONDS.toNanos(1500), "too slow: " + elapsed + " ns");
+            // one millisecond of line time at most
+            assertTrue(received.largestSlice() <= BYTES_PER_SECOND / 1000 + 1, "slice of " + received.largestSlice());
+        }
+        finally {
+            sender.disconnect();
+            receiver.disconnect();
+        }
+    }
+
+    @Test
+    void allocatesAnArrayPerEventInEventMode() throws Exception {
+        SimulatedSerialPortProvider provider = new SimulatedSerialPortProvider();
+        provider.addDevice("noise", DataGenerator.random(1));
+        SerialPort port = provider.createPort("noise");
+        Receiver received = new Receiver();
+        port.connect(profile("noise"), received, false, false, SerialPort.ReceiveMode.EVENT);
+        try {
+            received.await(BYTES_PER_SECOND / 20, TimeUnit.SECONDS.toNanos(5));
+            assertFalse(received.sharedBuffer(), "slices of a reused buffer");
+        }
+        finally {
+            port.disconnect();
+        }
+    }
+
+    private static @Nonnull SerialPortProfile profile(@Nonnull String portName) {
+        SerialPortProfile profile = new SerialPortProfile();
+        profile.setPortName(portName);
+        profile.setBaudRate(BAUD);
+        return profile;
+    }
+
+    private static final class Receiver implements SerialPort.SerialPortListener {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private byte[] lastBuffer;
+        private boolean sharedBuffer;
+        private int largestSlice;
+        private long lastReceived;
+
+        @Override
+        public synchronized void onDataReceived(byte[] buffer, int offset, int length) {
+            sharedBuffer |= buffer == lastBuffer;
+            lastBuffer = buffer;
+            largestSlice = Math.max(largestSlice, length);
+            bytes.write(buffer, offset, length);
+            lastReceived = System.nanoTime();
+            notifyAll();
+        }
+
+        /**
+         * @return {@link System#nanoTime()} when the last of the bytes was received
+         */
+        synchronized long await(int count, long timeoutNanos) throws InterruptedException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (bytes.size() < count) {
+                long left = deadline - System.nanoTime();
+                assertTrue(left > 0, "received " + bytes.size() + " of " + count + " bytes");
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+            return lastReceived;
+        }
+
+        synchronized byte[] bytes() {
+            return bytes.toByteArray();
+        }
+
+        synchronized int largestSlice() {
+            return largestSlice;
+        }
+
+        synchronized boolean sharedBuffer() {
+            return sharedBuffer;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.intellij.plugins.serialmonitor.telemetry;
+
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelemetryStoreTest {
+
+    private static final int ROWS = TelemetryStore.CHUNK_ROWS;
+    // times, "a" and "b" of a full chunk
+    private static final long CHUNK_BYTES = 3L * ROWS * Long.BYTES;
+    private static final long ROW_MICROS = 10;
+    private static final Executor DIRECT = Runnable::run;
+
+    @TempDir
+    Path directory;
+
+    private TelemetryStore store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void aggregatesWindowsOfChunksInMemory() throws IOException {
+        store = new TelemetryStore(DIRECT, Long.MAX_VALUE, 0, directory);
+        int rows = 3 * ROWS + 100;
+        appendRows(0, rows);
+        assertEquals(rows, store.getRowCount());
+        assertWindows(0, rows);
+        assertEquals(List.of(), files());
+    }
+
+    @Test
+    void spillsOlderChunksToDisk() throws IOException {
+        // the chunk being filled and one full chunk stay in memory
+        store = new TelemetryStore(DIRECT, 2 * CHUNK_BYTES, Long.MAX_VALUE, directory);
+        int rows = 5 * ROWS + 100;
+        appendRows(0, rows);
+        assertTrue(store.getMemoryBytes() <= 2 * CHUNK_BYTES, Long.toString(store.getMemoryBytes()));
+        assertEquals(4 * CHUNK_BYTES, store.getDiskBytes());
+        assertEquals(rows, store.getRowCount());
+        assertEquals(0, store.getDroppedRows());
+        assertWindows(0, rows);
+    }
+
+    @Test
+    void writesChunksInTheBackground() throws IOException {
+        List<Runnable> tasks = new ArrayList<>();
+        store = new TelemetryStore(tasks::add, 2 * CHUNK_BYTES, Long.MAX_VALUE, directory);
+        int rows = 5 * ROWS + 100;
+        appendRows(0, rows);
+        // nothing written by the appending thread, the chunks waiting for it are queried from memory
+        assertEquals(List.of(), files());
+        assertEquals(0, store.getDiskBytes());
+        assertEquals(1, tasks.size());
+        assertWindows(0, rows);
+
+        tasks.remove(0).run();
+        assertEquals(4 * CHUNK_BYTES, store.getDiskBytes());
+        assertTrue(store.getMemoryBytes() <= 2 * CHUNK_BYTES, Long.toString(store.getMemoryBytes()));
+        assertWindows(0, rows);
+
+        // cleared while the chunks were waiting
+        appendRows(rows, 2 * ROWS);
+        store.clear();
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(0, store.getDiskBytes());
+        assertEquals(0, store.getRowCount());
+    }
+
+    @Test
+    void wrapsTheFileAndEvictsTheOldestChunks() throws IOException {
+        // two spilled chunks fit, the third one is written over the first
+        store = new TelemetryStore(DIRECT, 2 * CHUNK_BYTES, 2 * CHUNK_BYTES + CHUNK_BYTES / 2, directory);
+        int rows = 7 * ROWS + 100;
+        appendRows(0, rows);
+        assertEquals(2 * CHUNK_BYTES, store.getDiskBytes());
+        int dropped = 4 * ROWS;
+        assertEquals(dropped, store.getDroppedRows());
+        assertEquals(rows - dropped, store.getRowCount());
+        assertWindows(dropped, rows);
+        assertEquals(0, store.aggregate(0, time(dropped)).get(0).getCount());
+    }
+
+    @Test
+    void dropsOlderChunksWithoutDisk() throws IOException {
+        store = new TelemetryStore(DIRECT, 2 * CHUNK_BYTES, 0, directory);
+        int rows = 3 * ROWS + 100;
+        appendRows(0, rows);
+        assertEquals(2 * ROWS, store.getDroppedRows());
+        assertEquals(0, store.getDiskBytes());
+        assertEquals(List.of(), files());
+        assertWindows(2 * ROWS, rows);
+    }
+
+    @Test
+    void clearForgetsRowsAndReusesTheFile() throws IOException {
+        store = new TelemetryStore(DIRECT, 2 * CHUNK_BYTES, 2 * CHUNK_BYTES + CHUNK_BYTES / 2, directory);
+        appendRows(0, 6 * ROWS);
+        store.clear();
+        assertEquals(0, store.getRowCount());
+        assertEquals(0, store.getDroppedRows());
+        assertEquals(0, store.getDiskBytes());
+        assertEquals(List.of("a", "b"), store.getFieldNames());
+        assertEquals(0, store.aggregate(Long.MIN_VALUE, Long.MAX_VALUE).get(0).getCount());
+
+        appendRows(10 * ROWS, 3 * ROWS + 100);
+        assertEquals(2 * CHUNK_BYTES, store.getDiskBytes());
+        assertWindows(10 * ROWS, 13 * ROWS + 100);
+    }
+
+    @Test
+    void exportsCsv() throws IOException {
+        store = new TelemetryStore(DIRECT, Long.MAX_VALUE, 0, directory);
+        int[] fields = {store.field("temp"), store.field("hum,rel"), store.field("rpm")};
+        store.append(1000, fields, new double[]{21.5, 40, 1200}, 3);
+        store.append(2000, new int[]{fields[0], fields[2]}, new double[]{-3, Double.NaN}, 2);
+        // earlier times are taken as the time of the previous row
+        store.append(1500, new int[]{fields[1]}, new double[]{1e-7}, 1);
+
+        Path file = directory.resolve("export.csv");
+        assertEquals(3, store.exportCsv(file, Long.MIN_VALUE, Long.MAX_VALUE, () -> false));
+        assertEquals("time_us,temp,\"hum,rel\",rpm\n" +
+                     "1000,21.5,40,1200\n" +
+                     "2000,-3,,\n" +
+                     "2000,,1.0E-7,\n", Files.readString(file, StandardCharsets.UTF_8));
+        assertEquals(1, store.exportCsv(file, 1000, 2000, () -> false));
+        assertEquals(0, store.exportCsv(file, Long.MIN_VALUE, Long.MAX_VALUE, () -> true));
+    }
+
+    @Test
+    void limitsTheFields() {
+        store = new TelemetryStore(DIRECT, Long.MAX_VALUE, 0, directory);
+        for (int i = 0; i < TelemetryStore.MAX_FIELDS; i++) {
+            assertEquals(i, store.field("f" + i));
+        }
+        assertEquals(-1, store.field("one more"));
+        assertEquals(7, store.field("f7"));
+    }
+
+    @Test
+    void deletesLeftOverFilesAndStopsWhenClosed() throws IOException {
+        Files.createFile(directory.resolve("telemetry-1.bin"));
+        Path other = Files.createFile(directory.resolve("other.bin"));
+        store = new TelemetryStore(DIRECT, 2 * CHUNK_BYTES, Long.MAX_VALUE, directory);
+        appendRows(0, 3 * ROWS);
+        assertEquals(2 * CHUNK_BYTES, store.getDiskBytes());
+        assertEquals(List.of(other), files());
+        store.close();
+        assertEquals(List.of(other), files());
+        // a closed store takes no more rows
+        appendRows(3 * ROWS, 10);
+        assertEquals(3 * ROWS, store.getRowCount());
+    }
+
+    /**
+     * Appends rows with "a" in every row and "b" in every third one.
+     */
+    private void appendRows(int from, int count) {
+        int[] fields = {store.field("a"), store.field("b")};
+        double[] values = new double[2];
+        for (int row = from; row < from + count; row++) {
+            values[0] = a(row);
+            values[1] = b(row);
+            store.append(time(row), fields, values, row % 3 == 0 ? 2 : 1);
+        }
+    }
+
+    private static double a(int row) {
+        return Math.sin(row) * 100;
+    }
+
+    private static double b(int row) {
+        return row % 1000;
+    }
+
+    private static long time(int row) {
+        return row * ROW_MICROS;
+    }
+
+    /**
+     * Checks windows within chunks, across chunk edges and over all rows against the values appended.
+     */
+    private void assertWindows(int firstRow, int endRow) throws IOException {
+        int[][] windows = {
+            {firstRow, endRow}, {firstRow + 10, firstRow + 20}, {firstRow + ROWS - 5, firstRow + ROWS + 5},
+            {firstRow + 1, endRow - 1}, {endRow - 50, endRow}, {endRow - ROWS - 30, endRow - 30}
+        };
+        for (int[] window : windows) {
+            String name = "rows " + window[0] + " to " + window[1];
+            List<FieldStats> stats = store.aggregate(time(window[0]), time(window[1]));
+            assertEquals(2, stats.size());
+            FieldStats a = stats.get(0);
+            FieldStats b = stats.get(1);
+            assertEquals("a", a.getName());
+            assertEquals(window[1] - window[0], a.getCount(), name);
+            double sum = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            long bCount = 0;
+            double bSum = 0;
+            for (int row = window[0]; row < window[1]; row++) {
+                sum += a(row);
+                min = Math.min(min, a(row));
+                max = Math.max(max, a(row));
+                if (row % 3 == 0) {
+                    bCount++;
+                    bSum += b(row);
+                }
+            }
+            assertEquals(min, a.getMin(), name);
+            assertEquals(max, a.getMax(), name);
+            assertEquals(sum, a.getSum(), 1e-6, name);
+            assertEquals(bCount, b.getCount(), name);
+            assertEquals(bSum, b.getSum(), name);
+
+            Path file = directory.resolve("window.csv");
+            assertEquals(window[1] - window[0], store.exportCsv(file, time(window[0]), time(window[1]), () -> false), name);
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(window[1] - window[0] + 1, lines.size(), name);
+            int row = window[0] + 1;
+            assertTrue(lines.get(2).startsWith(time(row) + "," + a(row) + ","), name);
+            Files.delete(file);
+        }
+    }
+
+    private @Nonnull List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.intellij.plugins.serialmonitor.timeline;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimelineMergerTest {
+
+    private static final long DELAY = 100;
+    private static final long TIMEOUT = 1000;
+
+    private final TimelineMerger merger = new TimelineMerger(DELAY, TIMEOUT, 16, 64);
+    private final TimelineMerger.Source a = merger.getSource("a");
+    private final TimelineMerger.Source b = merger.getSource("b");
+
+    @Test
+    void ordersLinesByTheirFirstByte() {
+        offer(a, 10, "a1\na");
+        offer(b, 20, "b1\n");
+        offer(a, 30, "2\n");
+        offer(b, 40, "b2\n");
+        offer(a, 50, "a3\n");
+        assertEquals(List.of("a@10 a1", "a@10 a2", "b@20 b1", "b@40 b2", "a@50 a3"), merge(1000));
+    }
+
+    @Test
+    void keepsTheCreationOrderForTheSameTime() {
+        offer(b, 10, "b\n");
+        offer(a, 10, "a\n");
+        assertEquals(List.of("a@10 a", "b@10 b"), merge(1000));
+    }
+
+    @Test
+    void splitsAtTheLineEndOfEachSource() {
+        a.setNewLine(SerialProfileService.NewLine.CR);
+        offer(a, 10, "a1\ra2\r");
+        offer(b, 20, "b1\r\n");
+        // a line ended by CR does not hold the other source back
+        assertEquals(List.of("a@10 a1", "a@10 a2", "b@20 b1\r"), merge(200));
+    }
+
+    @Test
+    void waitsForTheMergeDelay() {
+        offer(a, 10, "a1\n");
+        offer(a, 60, "a2\n");
+        assertEquals(List.of(), merge(109));
+        assertEquals(List.of("a@10 a1"), merge(110));
+        assertEquals(List.of("a@60 a2"), merge(160));
+    }
+
+    @Test
+    void waitsForAnEarlierIncompleteLine() {
+        offer(a, 10, "a1");
+        offer(b, 20, "b1\n");
+        assertEquals(List.of(), merge(500));
+        offer(a, 600, " end\n");
+        assertEquals(List.of("a@10 a1 end", "b@20 b1"), merge(700));
+    }
+
+    @Test
+    void emitsPartsAfterTheLineTimeout() {
+        offer(a, 10, "no line end");
+        offer(b, 20, "b1\n");
+        assertEquals(List.of(), merge(10 + TIMEOUT - 1));
+        assertEquals(List.of("a@10 no line end...", "b@20 b1"), merge(10 + TIMEOUT));
+        offer(a, 2000, " rest\n");
+        assertEquals(List.of("a@2000  rest"), merge(2200));
+    }
+
+    @Test
+    void splitsLinesOverTheLimit() {
+        offer(a, 10, "0123456789abcdef");
+        offer(a, 20, "0123456789abcdefg\n");
+        assertEquals(List.of("a@10 0123456789abcdef...", "a@20 0123456789abcdef...", "a@20 g"), merge(1000));
+    }
+
+    @Test
+    void reportsDroppedChunksInPlace() {
+        offer(a, 10, "a1\npart");
+        offer(a, 20, "x".repeat(60));
+        offer(b, 25, "b1\n");
+        offer(a, 30, "a2\n");
+        assertEquals(List.of("a@10 a1", "a@10 part...", "a@20 dropped 60", "b@25 b1", "a@30 a2"), merge(1000));
+    }
+
+    @Test
+    void reportsDropsAfterTheLastChunk() {
+        offer(a, 10, "a1\n");
+        offer(a, 20, "x".repeat(62));
+        offer(a, 30, "y".repeat(62));
+        assertEquals(List.of("a@10 a1", "a@20 dropped 124"), merge(1000));
+        // the limit applies until the next merge only
+        offer(a, 40, "x".repeat(14) + "\n");
+        assertEquals(List.of("a@40 xxxxxxxxxxxxxx"), merge(2000));
+    }
+
+    private static void offer(@Nonnull TimelineMerger.Source source, long time, @Nonnull String text) {
+        byte[] bytes = ("#" + text).getBytes(StandardCharsets.US_ASCII);
+        source.offer(bytes, 1, bytes.length - 1, time);
+    }
+
+    private @Nonnull List<String> merge(long now) {
+        List<String> merged = new ArrayList<>();
+        merger.merge(now, new TimelineMerger.Sink() {
+            @Override
+            public void line(@Nonnull TimelineMerger.Source source, long nanoTime, byte[] data, int offset, int length,
+                             boolean complete) {
+                String text = new String(data, offset, length, StandardCharsets.US_ASCII);
+                merged.add(source.getName() + "@" + nanoTime + " " + text + (complete ? "" : "..."));
+            }
+
+            @Override
+            public void dropped(@Nonnull TimelineMerger.Source source, long nanoTime, long count) {
+                merged.add(source.getName() + "@" + nanoTime + " dropped " + count);
+            }
+        });
+        return merged;
+    }
+}
@@ -0,0 +1,116 @@
+package com.intellij.plugins.serialmonitor.trigger;
+
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AhoCorasickTest {
+
+    // a small alphabet makes overlapping patterns and partial matches common
+    private static final byte[] ALPHABET = {'a', 'b', '\n', (byte) 0xFF};
+
+    @Test
+    void findsOverlappingPatterns() {
+        List<byte[]> patterns = ascii("he", "she", "his", "hers");
+        // pattern index at the end offset of each match
+        assertEquals(List.of("1@4", "0@4", "3@6", "2@10"), matches(new AhoCorasick(patterns), ascii("ushers his")));
+    }
+
+    @Test
+    void reportsEveryPatternEndingAtAByte() {
+        AhoCorasick automaton = new AhoCorasick(ascii("abc", "bc", "c", "abc"));
+        assertEquals(List.of("0@3", "3@3", "1@3", "2@3"), matches(automaton, ascii("abc")));
+    }
+
+    @Test
+    void tracksTheDepthOfThePartialMatch() {
+        AhoCorasick automaton = new AhoCorasick(ascii("ERROR", "WARN"));
+        int state = AhoCorasick.ROOT;
+        int[] depths = new int[8];
+        byte[] data = ascii("xERRWARx");
+        for (int i = 0; i < data.length; i++) {
+            state = automaton.next(state, data[i] & 0xFF);
+            depths[i] = automaton.depth(state);
+        }
+        assertEquals("[0, 1, 2, 3, 1, 2, 3, 0]", Arrays.toString(depths));
+    }
+
+    @Test
+    void matchesAnyBytes() {
+        List<byte[]> patterns = List.of(new byte[]{(byte) 0xFF, 0}, new byte[]{0, 0, (byte) 0x80});
+        byte[] data = {1, (byte) 0xFF, 0, 0, (byte) 0x80, (byte) 0xFF};
+        assertEquals(List.of("0@3", "1@5"), matches(new AhoCorasick(patterns), data));
+    }
+
+    @Test
+    void findsWhatANaiveSearchFinds() {
+        Random random = new Random(42);
+        for (int round = 0; round < 100; round++) {
+            List<byte[]> patterns = new ArrayList<>();
+            for (int i = random.nextInt(8) + 1; i > 0; i--) {
+                patterns.add(randomBytes(random, random.nextInt(5) + 1));
+            }
+            byte[] data = randomBytes(random, 500);
+            List<String> matches = matches(new AhoCorasick(patterns), data);
+            // the patterns ending at the same byte come longest first
+            matches.sort(Comparator.comparingInt((String match) -> Integer.parseInt(match.substring(match.indexOf('@') + 1)))
+                             .thenComparingInt(match -> Integer.parseInt(match.substring(0, match.indexOf('@')))));
+            assertEquals(naiveMatches(patterns, data), matches, "round " + round);
+        }
+    }
+
+    private static @Nonnull List<String> matches(@Nonnull AhoCorasick automaton, byte[] data) {
+        List<String> matches = new ArrayList<>();
+        int state = AhoCorasick.ROOT;
+        for (int i = 0; i < data.length; i++) {
+            state = automaton.next(state, data[i] & 0xFF);
+            for (int pattern : automaton.outputs(state)) {
+                matches.add(pattern + "@" + (i + 1));
+            }
+        }
+        return matches;
+    }
+
+    // the same matches, ordered by end and then by pattern
+    private static @Nonnull List<String> naiveMatches(@Nonnull List<byte[]> patterns, byte[] data) {
+        List<String> matches = new ArrayList<>();
+        for (int end = 1; end <= data.length; end++) {
+            for (int p = 0; p < patterns.size(); p++) {
+                byte[] pattern = patterns.get(p);
+                int start = end - pattern.length;
+                if (start >= 0 && Arrays.equals(data, start, end, pattern, 0, pattern.length)) {
+                    matches.add(p + "@" + end);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static byte[] randomBytes(@Nonnull Random random, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return bytes;
+    }
+
+    private static @Nonnull List<byte[]> ascii(@Nonnull String... texts) {
+        List<byte[]> bytes = new ArrayList<>();
+        for (String text : texts) {
+            bytes.add(ascii(text));
+        }
+        return bytes;
+    }
+
+    private static byte[] ascii(@Nonnull String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,56 @@
+package com.intellij.plugins.serialmonitor.trigger;
+
+import com.intellij.plugins.serialmonitor.SerialProfileService;
+import com.intellij.plugins.serialmonitor.SerialTrigger;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TriggerEngineTest {
+
+    // anchored at both ends, so a line end left in the line would fail the match
+    private static final SerialTrigger WHOLE_LINE = new SerialTrigger("^temp \\d+$", true, true, false, false, false, false, "");
+
+    @Test
+    void matchesLinesEndedByLineFeed() {
+        assertEquals(List.of(1L, 3L), triggered(SerialProfileService.NewLine.LF, "temp 1\n", "fan 2\n", "temp 3\n"));
+    }
+
+    @Test
+    void matchesLinesEndedByCrLf() {
+        assertEquals(List.of(1L, 2L), triggered(SerialProfileService.NewLine.CRLF, "temp 1\r\n", "temp 2\r\n"));
+    }
+
+    @Test
+    void matchesLinesEndedByCarriageReturn() {
+        assertEquals(List.of(1L, 3L), triggered(SerialProfileService.NewLine.CR, "temp 1\r", "fan 2\r", "temp 3\r"));
+    }
+
+    @Test
+    void dropsTheLineFeedOfACrLfWhenLinesEndWithCarriageReturn() {
+        assertEquals(List.of(1L, 2L), triggered(SerialProfileService.NewLine.CR, "temp 1\r", "\ntemp 2\r"));
+    }
+
+    @Test
+    void matchesLinesSplitOverChunks() {
+        // found when the line ends
+        assertEquals(List.of(3L), triggered(SerialProfileService.NewLine.CR, "tem", "p 1", "2\r"));
+    }
+
+    // the chunk times of the triggers found, the chunks are numbered from 1
+    private static List<Long> triggered(SerialProfileService.NewLine newLine, String... chunks) {
+        TriggerEngine engine = new TriggerEngine(List.of(WHOLE_LINE), StandardCharsets.US_ASCII, newLine);
+        List<Long> times = new ArrayList<>();
+        TriggerEngine.Output output = (buffer, offset, length, nanoTime) -> {
+        };
+        for (int i = 0; i < chunks.length; i++) {
+            byte[] bytes = chunks[i].getBytes(StandardCharsets.US_ASCII);
+            engine.process(bytes, 0, bytes.length, i + 1, output, (trigger, nanoTime) -> times.add(nanoTime));
+        }
+        return times;
+    }
+}
@@ -0,0 +1,86 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SerialCharDecoderTest {
+
+    @Test
+    void decodesAscii() {
+        byte[] bytes = "temp=21.5\r\nhum=40\r\n".getBytes(StandardCharsets.US_ASCII);
+        assertEquals("temp=21.5\r\nhum=40\r\n", decode(StandardCharsets.US_ASCII, bytes, bytes.length, 64));
+    }
+
+    @Test
+    void replacesNonAsciiBytes() {
+        byte[] bytes = {'a', (byte) 0x80, (byte) 0xff, 'b', (byte) 0xc3};
+        assertEquals("a\uFFFD\uFFFDb\uFFFD", decode(StandardCharsets.US_ASCII, bytes, 2, 64));
+    }
+
+    @Test
+    void keepsUtf8SequencesSplitAcrossChunks() {
+        String text = "h\u00e9llo \u20ac \uD834\uDD1E end";
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        for (int chunkSize = 1; chunkSize <= 5; chunkSize++) {
+            assertEquals(text, decode(StandardCharsets.UTF_8, bytes, chunkSize, 64), "chunks of " + chunkSize);
+        }
+    }
+
+    @Test
+    void waitsForRoomForASurrogatePair() {
+        String text = "\uD834\uDD1E\uD834\uDD1Ex";
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        assertEquals(text, decode(StandardCharsets.UTF_8, bytes, bytes.length, 2));
+    }
+
+    @Test
+    void replacesMalformedUtf8LikeTheJdk() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            byte[] bytes = new byte[random.nextInt(256) + 1];
+            random.nextBytes(bytes);
+            // a complete last sequence, so that nothing is left in the input
+            bytes[bytes.length - 1] = '\n';
+            String expected = new String(bytes, StandardCharsets.UTF_8);
+            int chunkSize = random.nextInt(16) + 1;
+            assertEquals(expected, decode(StandardCharsets.UTF_8, bytes, chunkSize, 16), "round " + round);
+        }
+    }
+
+    @Test
+    void decodesOtherCharsets() {
+        Charset charset = Charset.forName("windows-1252");
+        byte[] bytes = {'a', (byte) 0x80, (byte) 0xe9, (byte) 0x81};
+        assertEquals(new String(bytes, charset), decode(charset, bytes, 1, 64));
+    }
+
+    /**
+     * Decodes the bytes in chunks the way the console does, keeping what is left of a chunk for the next one.
+     */
+    private static String decode(Charset charset, byte[] bytes, int chunkSize, int outputSize) {
+        SerialCharDecoder decoder = new SerialCharDecoder(charset);
+        ByteBuffer input = ByteBuffer.allocate(bytes.length).flip();
+        CharBuffer output = CharBuffer.allocate(outputSize);
+        StringBuilder text = new StringBuilder();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            input.compact().put(bytes, offset, Math.min(chunkSize, bytes.length - offset)).flip();
+            while (true) {
+                decoder.decode(input, output);
+                if (output.position() == 0) {
+                    break;
+                }
+                text.append(output.flip());
+                output.clear();
+            }
+        }
+        assertEquals(0, input.remaining(), "bytes left over");
+        return text.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpillableByteQueueTest {
+
+    @Test
+    void keepsTheOrderOverMemoryAndFile() throws IOException {
+        try (SpillableByteQueue queue = new SpillableByteQueue(100, Long.MAX_VALUE)) {
+            byte[] data = sequence(1000);
+            for (int offset = 0; offset < data.length; offset += 70) {
+                int length = Math.min(70, data.length - offset);
+                assertEquals(length, queue.write(data, offset, length));
+            }
+            assertEquals(1000, queue.size());
+            assertArrayEquals(data, read(queue, 1000));
+            assertEquals(0, queue.size());
+        }
+    }
+
+    @Test
+    void takesNoMoreThanTheSizeLimit() throws IOException {
+        try (SpillableByteQueue queue = new SpillableByteQueue(100, 300)) {
+            byte[] data = sequence(400);
+            assertEquals(250, queue.write(data, 0, 250));
+            assertEquals(50, queue.write(data, 250, 150));
+            assertEquals(0, queue.space());
+            assertEquals(0, queue.write(data, 300, 100));
+            byte[] first = read(queue, 100);
+            // room again for what was read
+            assertEquals(100, queue.write(data, 300, 100));
+            byte[] rest = read(queue, 300);
+            assertEquals(0, first[0]);
+            assertEquals((byte) 299, rest[199]);
+            assertEquals((byte) 300, rest[200]);
+        }
+    }
+
+    private static byte[] sequence(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private static byte[] read(SpillableByteQueue queue, int length) throws IOException {
+        byte[] data = new byte[length];
+        int read = 0;
+        while (read < length) {
+            read += queue.read(data, read, length - read);
+        }
+        return data;
+    }
+}
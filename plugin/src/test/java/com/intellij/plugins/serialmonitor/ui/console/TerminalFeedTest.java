@@ -0,0 +1,134 @@
+package com.intellij.plugins.serialmonitor.ui.console;
+
+import com.intellij.plugins.serialmonitor.OverflowPolicy;
+import jakarta.annotation.Nonnull;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TerminalFeedTest {
+
+    private static final TerminalFeed.Markers MARKERS = new TerminalFeed.Markers() {
+        @Override
+        public @Nonnull byte[] bytesDropped(long count, long total) {
+            return ascii("[dropped " + count + "]");
+        }
+
+        @Override
+        public @Nonnull byte[] bytesSkipped(long count) {
+            return ascii("[skipped " + count + "]");
+        }
+    };
+
+    @Test
+    void readsChunksTogetherWithTheirReceiveTimes() {
+        TerminalFeed feed = feed(StandardCharsets.US_ASCII, OverflowPolicy.DROP);
+        output(feed, "ab", 10);
+        output(feed, "cd\n", 20);
+        output(feed, "ef", 30);
+        char[] chars = new char[64];
+        assertEquals(7, feed.readChars(chars, 0, chars.length));
+        assertEquals("abcd\nef", new String(chars, 0, 7));
+        assertEquals(10, feed.getReceiveTime(0));
+        assertEquals(10, feed.getReceiveTime(1));
+        assertEquals(20, feed.getReceiveTime(2));
+        assertEquals(20, feed.getReceiveTime(4));
+        assertEquals(30, feed.getReceiveTime(5));
+    }
+
+    @Test
+    void countsCharsOverCalls() {
+        TerminalFeed feed = feed(StandardCharsets.US_ASCII, OverflowPolicy.DROP);
+        output(feed, "abc", 10);
+        output(feed, "def", 20);
+        char[] chars = new char[8];
+        // the chars of the first call continue the chunk of its last char
+        assertEquals(2, feed.readChars(chars, 4, 2));
+        assertEquals(10, feed.getReceiveTime(1));
+        assertEquals(4, feed.readChars(chars, 0, 8));
+        assertEquals("cdef", new String(chars, 0, 4));
+        assertEquals(10, feed.getReceiveTime(2));
+        assertEquals(20, feed.getReceiveTime(3));
+        assertEquals(20, feed.getReceiveTime(5));
+    }
+
+    @Test
+    void decodesCharsSplitAcrossChunks() {
+        TerminalFeed feed = feed(StandardCharsets.UTF_8, OverflowPolicy.BLOCK);
+        byte[] bytes = "a\u00e9b".getBytes(StandardCharsets.UTF_8);
+        feed.output(bytes, 0, 2, 10);
+        feed.output(bytes, 2, 2, 20);
+        char[] chars = new char[8];
+        assertEquals(3, feed.readChars(chars, 0, chars.length));
+        assertEquals("a\u00e9b", new String(chars, 0, 3));
+        assertEquals(10, feed.getReceiveTime(0));
+        // a char gets the time of the chunk which completes it
+        assertEquals(20, feed.getReceiveTime(1));
+    }
+
+    @Test
+    void reportsDroppedBytes() {
+        TerminalFeed feed = feed(StandardCharsets.US_ASCII, OverflowPolicy.DROP);
+        byte[] full = new byte[(int) feed.getBufferCapacity()];
+        feed.output(full, 0, full.length, 10);
+        output(feed, "lost", 20);
+        assertEquals(4, feed.getDroppedBytes());
+        char[] chars = new char[full.length];
+        int read = 0;
+        while (read < full.length) {
+            read += feed.readChars(chars, 0, full.length - read);
+        }
+        output(feed, "kept", 30);
+        assertEquals("[dropped 4]kept", read(feed));
+    }
+
+    @Test
+    void keepsTheReceiveTimesOfSpilledChunks() {
+        TerminalFeed feed = feed(StandardCharsets.US_ASCII, OverflowPolicy.SPILL_TO_DISK);
+        feed.setPaused(true);
+        // twice the buffer, the second half goes to the overflow queue
+        int chunks = (int) (feed.getBufferCapacity() * 2 / 1000);
+        byte[] chunk = new byte[1000];
+        for (int i = 0; i < chunks; i++) {
+            Arrays.fill(chunk, (byte) ('a' + i % 26));
+            feed.output(chunk, 0, chunk.length, i);
+        }
+        feed.setPaused(false);
+        char[] chars = new char[3000];
+        long index = 0;
+        while (index < (long) chunks * chunk.length) {
+            int read = feed.readChars(chars, 0, chars.length);
+            for (int i = 0; i < read; i++, index++) {
+                int expected = (int) (index / chunk.length);
+                assertEquals((char) ('a' + expected % 26), chars[i]);
+                assertEquals(expected, feed.getReceiveTime(index), "char " + index);
+            }
+        }
+        assertEquals(0, feed.getDroppedBytes());
+    }
+
+    private static @Nonnull TerminalFeed feed(@Nonnull Charset charset, @Nonnull OverflowPolicy policy) {
+        TerminalFeed feed = new TerminalFeed(MARKERS);
+        feed.reconnect(charset, policy);
+        return feed;
+    }
+
+    private static void output(@Nonnull TerminalFeed feed, @Nonnull String text, long nanoTime) {
+        byte[] bytes = ascii(text);
+        feed.output(bytes, 0, bytes.length, nanoTime);
+    }
+
+    // reads what is buffered, the feed must not be empty
+    private static @Nonnull String read(@Nonnull TerminalFeed feed) {
+        char[] chars = new char[1024];
+        return new String(chars, 0, feed.readChars(chars, 0, chars.length));
+    }
+
+    private static @Nonnull byte[] ascii(@Nonnull String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}